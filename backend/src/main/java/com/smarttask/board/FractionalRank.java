@@ -0,0 +1,183 @@
+package com.smarttask.board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chaves fracionarias da ordem das tarefas no quadro kanban.
+ *
+ * <p>Cada chave e a parte fracionaria de um numero em base 62, escrita com
+ * os digitos {@code 0-9A-Za-z} sem zeros a direita; assim a ordem numerica
+ * coincide com a comparacao caractere a caractere ({@code collate "C"} no
+ * banco) e sempre existe uma chave entre duas outras. Inserir entre dois
+ * vizinhos usa o ponto medio; inserir antes do primeiro ou depois do
+ * ultimo soma ou subtrai uma unidade na quarta casa, o que mantem as chaves
+ * curtas quando os cartoes sao empilhados no topo ou no fim da coluna.
+ * Movimentos repetidos no mesmo ponto alongam as chaves, que o
+ * {@link TaskBoardRebalancer} redistribui com {@link #spread(int)}.</p>
+ */
+public final class FractionalRank {
+
+    /** Digitos das chaves, em ordem crescente. */
+    static final String DIGITS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    /** Casa em que antes e depois somam ou subtraem uma unidade. */
+    static final int STEP_WIDTH = 4;
+
+    /** Base numerica das chaves. */
+    private static final int BASE = DIGITS.length();
+
+    private FractionalRank() {
+    }
+
+    /**
+     * Chave estritamente entre duas outras.
+     *
+     * @param lower chave anterior ou {@code null} para o inicio da coluna
+     * @param upper chave seguinte ou {@code null} para o fim da coluna
+     * @return chave nova
+     * @throws IllegalArgumentException quando {@code lower >= upper}
+     */
+    public static String between(final String lower, final String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException(
+                    "Rank bounds out of order: " + lower + " >= " + upper);
+        }
+        if (upper == null) {
+            return lower == null ? midpoint("", null) : after(lower);
+        }
+        return lower == null ? before(upper) : midpoint(lower, upper);
+    }
+
+    /**
+     * Chave seguinte a informada, uma unidade acima na quarta casa (ou na
+     * ultima, para chaves mais longas).
+     *
+     * @param key chave atual
+     * @return chave maior que {@code key}
+     */
+    public static String after(final String key) {
+        final int[] digits = digits(key, Math.max(key.length(), STEP_WIDTH));
+        for (int i = digits.length - 1; i >= 0; i--) {
+            if (digits[i] < BASE - 1) {
+                digits[i]++;
+                return format(digits, i + 1);
+            }
+            digits[i] = 0;
+        }
+        return midpoint(key, null);
+    }
+
+    /**
+     * Chave anterior a informada, uma unidade abaixo na quarta casa (ou na
+     * ultima, para chaves mais longas).
+     *
+     * @param key chave atual
+     * @return chave menor que {@code key}
+     */
+    public static String before(final String key) {
+        final int[] digits = digits(key, Math.max(key.length(), STEP_WIDTH));
+        for (int i = digits.length - 1; i >= 0; i--) {
+            if (digits[i] > 0) {
+                digits[i]--;
+                break;
+            }
+            digits[i] = BASE - 1;
+        }
+        final String previous = format(digits, digits.length);
+        return previous.isEmpty() ? midpoint("", key) : previous;
+    }
+
+    /**
+     * Chaves igualmente espacadas para uma coluna inteira, todas com o
+     * menor comprimento que deixa ao menos 62 posicoes livres entre
+     * vizinhas.
+     *
+     * @param count quantidade de tarefas
+     * @return chaves em ordem crescente
+     */
+    public static List<String> spread(final int count) {
+        int width = 1;
+        long space = BASE;
+        while (space < (count + 1L) * BASE) {
+            width++;
+            space *= BASE;
+        }
+        final long step = space / (count + 1L);
+        final List<String> keys = new ArrayList<>(count);
+        final int[] digits = new int[width];
+        for (int i = 1; i <= count; i++) {
+            long value = i * step;
+            for (int position = width - 1; position >= 0; position--) {
+                digits[position] = (int) (value % BASE);
+                value /= BASE;
+            }
+            keys.add(format(digits, width));
+        }
+        return keys;
+    }
+
+    /**
+     * Ponto medio entre duas chaves, sem zeros a direita.
+     *
+     * @param lower chave anterior ou vazio para zero
+     * @param upper chave seguinte ou {@code null} para um
+     * @return chave entre as duas
+     */
+    static String midpoint(final String lower, final String upper) {
+        if (upper != null) {
+            int prefix = 0;
+            while (prefix < upper.length()
+                    && digitAt(lower, prefix) == digitAt(upper, prefix)) {
+                prefix++;
+            }
+            if (prefix > 0) {
+                return upper.substring(0, prefix) + midpoint(
+                        lower.substring(Math.min(prefix, lower.length())),
+                        upper.substring(prefix));
+            }
+        }
+        final int digitA = lower.isEmpty() ? 0 : digitAt(lower, 0);
+        final int digitB = upper == null ? BASE : digitAt(upper, 0);
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        if (upper != null && upper.length() > 1) {
+            return upper.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(
+                lower.isEmpty() ? "" : lower.substring(1), null);
+    }
+
+    private static int digitAt(final String key, final int position) {
+        if (position >= key.length()) {
+            return 0;
+        }
+        final int digit = DIGITS.indexOf(key.charAt(position));
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank: " + key);
+        }
+        return digit;
+    }
+
+    private static int[] digits(final String key, final int width) {
+        final int[] digits = new int[width];
+        for (int i = 0; i < key.length(); i++) {
+            digits[i] = digitAt(key, i);
+        }
+        return digits;
+    }
+
+    private static String format(final int[] digits, final int length) {
+        int end = length;
+        while (end > 0 && digits[end - 1] == 0) {
+            end--;
+        }
+        final StringBuilder key = new StringBuilder(end);
+        for (int i = 0; i < end; i++) {
+            key.append(DIGITS.charAt(digits[i]));
+        }
+        return key.toString();
+    }
+}
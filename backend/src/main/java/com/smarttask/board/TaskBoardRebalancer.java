@@ -0,0 +1,187 @@
+package com.smarttask.board;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.repository.TaskBoardView;
+import com.smarttask.repository.TaskRepository;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Atribui e redistribui as chaves de ordem das colunas do quadro kanban.
+ *
+ * <p>Movimentos que geram uma chave mais longa que
+ * {@code tasks.board.max-rank-length} marcam a coluna como pendente; a
+ * cada {@code tasks.board.rebalance-interval} as colunas pendentes recebem
+ * chaves igualmente espacadas, na ordem atual, cada uma em sua propria
+ * transacao e no shard do usuario. A ordem exibida nao muda, por isso a
+ * versao e a sequencia de alteracoes das tarefas nao sao tocadas. As
+ * pendencias ficam em memoria: se forem perdidas em um reinicio, o proximo
+ * movimento longo na coluna volta a marca-la. Um movimento concorrente com o
+ * rebalanceamento da mesma coluna pode calcular a chave sobre os vizinhos
+ * antigos; no pior caso o cartao fica uma posicao fora do lugar.</p>
+ *
+ * <p>As tarefas sem chave (novas, restauradas do arquivo ou que mudaram de
+ * status) aparecem no fim da coluna e so recebem chave quando um movimento
+ * precisa delas, com {@link #rankUnranked(Long, TaskStatus)}.</p>
+ */
+@Component
+@Slf4j
+public class TaskBoardRebalancer {
+
+    /** Grava a chave de uma tarefa. */
+    private static final String UPDATE_RANK =
+            "UPDATE tasks SET board_rank = ? WHERE id = ? AND user_id = ?";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transacao de cada coluna rebalanceada em segundo plano. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /** Comprimento de chave a partir do qual a coluna e rebalanceada. */
+    private final int maxRankLength;
+
+    /** Colunas aguardando o rebalanceamento. */
+    private final Set<Column> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Cria o rebalanceador.
+     *
+     * @param taskRepository repositorio de tarefas
+     * @param jdbcTemplate acesso JDBC
+     * @param transactionManager gerenciador das transacoes por coluna
+     * @param metricsService servico de metricas
+     * @param maxRankLength comprimento de chave que dispara o
+     *     rebalanceamento
+     */
+    public TaskBoardRebalancer(final TaskRepository taskRepository,
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final MetricsService metricsService,
+            final @Value("${tasks.board.max-rank-length:24}")
+                    int maxRankLength) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricsService = metricsService;
+        this.maxRankLength = maxRankLength;
+    }
+
+    /**
+     * Marca a coluna para rebalanceamento quando a chave gravada passou do
+     * comprimento configurado.
+     *
+     * @param userId usuario dono da coluna
+     * @param status status da coluna
+     * @param rank chave recem-gravada
+     */
+    public void requestIfLong(final Long userId, final TaskStatus status,
+            final String rank) {
+        if (rank.length() > maxRankLength) {
+            pending.add(new Column(userId, status));
+        }
+    }
+
+    /**
+     * Rebalanceia as colunas pendentes.
+     */
+    @Scheduled(fixedDelayString = "${tasks.board.rebalance-interval:30s}")
+    public void rebalancePending() {
+        final Iterator<Column> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            final Column column = iterator.next();
+            iterator.remove();
+            try {
+                ShardContext.runForUser(column.userId(), () ->
+                        transactionTemplate.executeWithoutResult(status ->
+                                rebalance(column.userId(), column.status())));
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao rebalancear a coluna {} do usuario {}",
+                        column.status(), column.userId(), ex);
+            }
+        }
+    }
+
+    /**
+     * Grava chaves igualmente espacadas em toda a coluna, mantendo a ordem
+     * atual; tarefas cuja chave nao muda nao sao regravadas. Deve ser
+     * chamado dentro de uma transacao.
+     *
+     * @param userId usuario dono da coluna
+     * @param status status da coluna
+     * @return quantidade de tarefas regravadas
+     */
+    public int rebalance(final Long userId, final TaskStatus status) {
+        final long startTime = System.currentTimeMillis();
+        final List<TaskBoardView> rows = taskRepository.findBoardColumn(
+                userId, status, Limit.unlimited());
+        final List<String> ranks = FractionalRank.spread(rows.size());
+        final List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            final TaskBoardView row = rows.get(i);
+            if (!Objects.equals(row.getRank(), ranks.get(i))) {
+                updates.add(new Object[] {ranks.get(i), row.getId(), userId});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_RANK, updates);
+        }
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "board_rebalance");
+        return updates.size();
+    }
+
+    /**
+     * Da chaves as tarefas da coluna que ainda nao tem, logo depois da
+     * maior chave existente e na ordem em que ja aparecem no quadro. Deve
+     * ser chamado dentro de uma transacao.
+     *
+     * @param userId usuario dono da coluna
+     * @param status status da coluna
+     * @return quantidade de tarefas posicionadas
+     */
+    public int rankUnranked(final Long userId, final TaskStatus status) {
+        final List<Long> ids = taskRepository.findUnrankedIds(userId, status);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String rank = taskRepository.findMaxRank(userId, status);
+        final List<Object[]> updates = new ArrayList<>(ids.size());
+        for (final Long id : ids) {
+            rank = FractionalRank.between(rank, null);
+            updates.add(new Object[] {rank, id, userId});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_RANK, updates);
+        requestIfLong(userId, status, rank);
+        return ids.size();
+    }
+
+    /**
+     * Coluna do quadro de um usuario.
+     *
+     * @param userId usuario dono da coluna
+     * @param status status da coluna
+     */
+    private record Column(Long userId, TaskStatus status) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.smarttask.board;
+
+import com.smarttask.dto.TaskBoardResponse;
+import com.smarttask.dto.TaskBoardResponse.BoardColumn;
+import com.smarttask.dto.TaskMoveRequest;
+import com.smarttask.dto.TaskPatchRequest;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskBoardView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskService;
+import com.smarttask.service.TaskViewAssembler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leitura do quadro kanban e movimento dos cartoes.
+ *
+ * <p>Cada coluna e lida em ordem de chave pelo indice
+ * {@code (user_id, status, board_rank, id)}, sem tocar na tabela; os dados
+ * das tarefas vem depois em uma unica consulta por identificadores. Um
+ * movimento calcula uma chave entre o cartao de cima e o seguinte e grava
+ * apenas a linha movida. A troca de coluna passa por
+ * {@link TaskService#patchTask}, que aplica as regras de status (conclusao,
+ * contadores e eventos) e deixa a tarefa sem chave, no fim da nova coluna,
+ * ate que o movimento a posicione.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskBoardService {
+
+    /** Tarefas por coluna quando o cliente nao informa. */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /** Maior quantidade de tarefas por coluna aceita. */
+    public static final int MAX_LIMIT = 200;
+
+    /** Mensagem padrao para tarefa inexistente. */
+    private static final String TASK_NOT_FOUND_MESSAGE = "Task not found";
+
+    /** Mensagem para o cartao de referencia inexistente. */
+    private static final String ANCHOR_NOT_FOUND_MESSAGE =
+            "Anchor task not found";
+
+    /** Aviso para operacoes de atualizacao sem permissao. */
+    private static final String UPDATE_DENIED_MESSAGE =
+            "You don't have permission to update this task";
+
+    /** Mensagem para movimentos com referencia na propria tarefa. */
+    private static final String SELF_ANCHOR_MESSAGE =
+            "A task cannot be placed after itself";
+
+    /** Mensagem para referencias em outra coluna. */
+    private static final String OTHER_COLUMN_MESSAGE =
+            "The anchor task is in another column";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Montador das respostas de leitura a partir de projecoes. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Servico que aplica as trocas de status. */
+    private final TaskService taskService;
+
+    /** Atribuicao e redistribuicao das chaves das colunas. */
+    private final TaskBoardRebalancer taskBoardRebalancer;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /**
+     * Lista as primeiras tarefas de cada coluna do quadro.
+     *
+     * @param status coluna desejada ou {@code null} para todas
+     * @param limit tarefas por coluna (opcional, ate {@value #MAX_LIMIT})
+     * @param currentUser usuario autenticado
+     * @return colunas na ordem dos status
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskBoardService.getBoard")
+    public TaskBoardResponse getBoard(final TaskStatus status,
+            final Integer limit, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Long userId = currentUser.getId();
+        final int columnLimit = resolveLimit(limit);
+        final TaskStatus[] statuses = status == null
+                ? TaskStatus.values()
+                : new TaskStatus[] {status};
+
+        final List<List<TaskBoardView>> rows = new ArrayList<>();
+        final List<Long> ids = new ArrayList<>();
+        for (final TaskStatus column : statuses) {
+            final List<TaskBoardView> columnRows = taskRepository
+                    .findBoardColumn(userId, column,
+                            Limit.of(columnLimit + 1));
+            rows.add(columnRows);
+            for (int i = 0; i < Math.min(columnLimit, columnRows.size());
+                    i++) {
+                ids.add(columnRows.get(i).getId());
+            }
+        }
+
+        final Map<Long, TaskResponse> tasksById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (final TaskResponse task : taskViewAssembler.toResponses(
+                    taskRepository.findViewsByUserIdAndIdIn(userId, ids))) {
+                tasksById.put(task.getId(), task);
+            }
+        }
+        final List<BoardColumn> columns = new ArrayList<>(statuses.length);
+        for (int i = 0; i < statuses.length; i++) {
+            final List<TaskBoardView> columnRows = rows.get(i);
+            final List<TaskResponse> columnTasks = new ArrayList<>();
+            for (int j = 0; j < Math.min(columnLimit, columnRows.size());
+                    j++) {
+                final TaskResponse task =
+                        tasksById.get(columnRows.get(j).getId());
+                if (task != null) {
+                    columnTasks.add(task);
+                }
+            }
+            columns.add(new BoardColumn(statuses[i], columnTasks,
+                    columnRows.size() > columnLimit));
+        }
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "board");
+        return TaskBoardResponse.builder().columns(columns).build();
+    }
+
+    /**
+     * Move uma tarefa para logo abaixo de outra, ou para o topo, na coluna
+     * do status informado. Dentro da mesma coluna o movimento grava apenas
+     * a chave da tarefa movida.
+     *
+     * @param taskId identificador da tarefa movida
+     * @param request coluna de destino e cartao de cima
+     * @param currentUser usuario autenticado
+     * @return tarefa movida
+     */
+    @Transactional
+    @Traced("TaskBoardService.moveTask")
+    public TaskResponse moveTask(final Long taskId,
+            final TaskMoveRequest request, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Long userId = currentUser.getId();
+        final TaskBoardView entry = taskRepository
+                .findBoardEntry(taskId, userId)
+                .orElseThrow(() -> missingOrForeign(taskId));
+        final Long afterId = request.getAfterTaskId();
+        if (taskId.equals(afterId)) {
+            throw new IllegalStateException(SELF_ANCHOR_MESSAGE);
+        }
+        final TaskStatus status = request.getStatus() == null
+                ? entry.getStatus()
+                : request.getStatus();
+        if (status != entry.getStatus()) {
+            final TaskPatchRequest patch = new TaskPatchRequest();
+            patch.setStatus(status);
+            taskService.patchTask(taskId, patch, null, currentUser);
+        }
+
+        final String rank = place(userId, status, taskId, afterId, false);
+        taskRepository.updateRank(taskId, userId, rank);
+        taskBoardRebalancer.requestIfLong(userId, status, rank);
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "board_move");
+        return taskViewAssembler.toResponses(taskRepository
+                .findViewsByUserIdAndIdIn(userId, List.of(taskId))).get(0);
+    }
+
+    /**
+     * Troca o status de uma tarefa carregada. Quando o status muda, a
+     * tarefa perde a chave de ordem e passa para o fim da nova coluna.
+     *
+     * @param task tarefa alterada
+     * @param status novo status
+     */
+    public static void changeStatus(final Task task, final TaskStatus status) {
+        if (task.getStatus() != status) {
+            task.setRank(null);
+        }
+        task.setStatus(status);
+    }
+
+    private String place(final Long userId, final TaskStatus status,
+            final Long movedId, final Long afterId, final boolean rebalanced) {
+        String lower = null;
+        if (afterId != null) {
+            lower = anchorRank(userId, status, afterId);
+            if (lower == null) {
+                taskBoardRebalancer.rankUnranked(userId, status);
+                lower = anchorRank(userId, status, afterId);
+            }
+        }
+
+        final List<TaskBoardView> following = lower == null
+                ? taskRepository.findBoardColumn(userId, status, Limit.of(2))
+                : taskRepository.findBoardColumnFrom(userId, status, lower,
+                        Limit.of(3));
+        String upper = null;
+        for (final TaskBoardView row : following) {
+            if (!row.getId().equals(movedId) && !row.getId().equals(afterId)) {
+                upper = row.getRank();
+                break;
+            }
+        }
+
+        // Chaves repetidas (movimentos concorrentes) ou longas demais para a
+        // coluna: redistribui a coluna e calcula de novo sobre as novas.
+        final boolean tied = lower != null && upper != null
+                && upper.compareTo(lower) <= 0;
+        final String rank = tied ? null : FractionalRank.between(lower, upper);
+        if (rank == null || rank.length() > Task.RANK_MAX_LENGTH) {
+            if (rebalanced) {
+                throw new IllegalStateException(
+                        "Could not place task " + movedId + " on the board");
+            }
+            taskBoardRebalancer.rebalance(userId, status);
+            return place(userId, status, movedId, afterId, true);
+        }
+        return rank;
+    }
+
+    private String anchorRank(final Long userId, final TaskStatus status,
+            final Long afterId) {
+        final TaskBoardView anchor = taskRepository
+                .findBoardEntry(afterId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        ANCHOR_NOT_FOUND_MESSAGE));
+        if (anchor.getStatus() != status) {
+            throw new IllegalStateException(OTHER_COLUMN_MESSAGE);
+        }
+        return anchor.getRank();
+    }
+
+    private RuntimeException missingOrForeign(final Long taskId) {
+        if (taskRepository.existsById(taskId)) {
+            return new AccessDeniedException(UPDATE_DENIED_MESSAGE);
+        }
+        return new ResourceNotFoundException(TASK_NOT_FOUND_MESSAGE);
+    }
+
+    private static int resolveLimit(final Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
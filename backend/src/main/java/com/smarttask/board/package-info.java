@@ -0,0 +1,6 @@
+/**
+ * Quadro kanban: ordem das tarefas em cada coluna de status por chaves
+ * fracionarias, de modo que mover um cartao grava uma unica linha, e o
+ * rebalanceamento em segundo plano das colunas cujas chaves ficaram longas.
+ */
+package com.smarttask.board;
@@ -0,0 +1,240 @@
+package com.smarttask.calendar;
+
+import com.smarttask.dto.TaskCalendarResponse.CalendarEntry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Indice em memoria dos prazos das tarefas, com uma fotografia imutavel por
+ * usuario ordenada por prazo e identificador. Um intervalo de datas e
+ * respondido com duas buscas binarias sobre a fotografia, sem ir ao banco.
+ *
+ * <p>Os servicos invalidam a fotografia do usuario depois do commit de cada
+ * alteracao. Cada usuario pertence a uma faixa com um contador de versao,
+ * incrementado na invalidacao: uma carga so e guardada se a versao lida
+ * antes da consulta nao mudou, para que uma leitura concorrente com a
+ * alteracao nao guarde dados antigos. As fotografias expiram apos o
+ * {@code ttl}, o que limita o atraso de alteracoes feitas por outras
+ * instancias, e as menos usadas sao descartadas quando o total de tarefas
+ * em memoria passa de {@code max-entries}. Usuarios com mais tarefas com
+ * prazo do que {@code max-entries-per-user} ficam marcados como grandes e
+ * sao atendidos direto pelo banco.</p>
+ */
+@Component
+public class TaskCalendarIndex {
+
+    /** Quantidade de faixas de versao. */
+    static final int VERSION_STRIPES = 64;
+
+    /** Fotografias por usuario, da menos para a mais usada. */
+    private final Map<Long, Snapshot> snapshots =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Versao de cada faixa de usuarios. */
+    private final AtomicLongArray versions =
+            new AtomicLongArray(VERSION_STRIPES);
+
+    /** Validade de uma fotografia. */
+    private final Duration ttl;
+
+    /** Maior quantidade de tarefas em memoria somando todos os usuarios. */
+    private final int maxEntries;
+
+    /** Maior quantidade de tarefas com prazo guardada por usuario. */
+    private final int maxEntriesPerUser;
+
+    /** Tarefas guardadas nas fotografias atuais. */
+    private int cachedEntries;
+
+    /**
+     * Cria o indice.
+     *
+     * @param ttl validade de uma fotografia
+     * @param maxEntries tarefas em memoria somando todos os usuarios
+     * @param maxEntriesPerUser tarefas com prazo guardadas por usuario
+     */
+    public TaskCalendarIndex(
+            final @Value("${tasks.calendar.ttl:60s}") Duration ttl,
+            final @Value("${tasks.calendar.max-entries:200000}")
+                    int maxEntries,
+            final @Value("${tasks.calendar.max-entries-per-user:5000}")
+                    int maxEntriesPerUser) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+    }
+
+    /**
+     * Fotografia valida do usuario.
+     *
+     * @param userId identificador do usuario
+     * @return fotografia ou {@code null} quando ausente ou expirada
+     */
+    public synchronized Snapshot find(final Long userId) {
+        final Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            return null;
+        }
+        if (System.nanoTime() - snapshot.loadedAt() >= ttl.toNanos()) {
+            remove(userId);
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Versao atual do usuario, lida antes de consultar o banco e devolvida
+     * em {@link #put}.
+     *
+     * @param userId identificador do usuario
+     * @return versao da faixa do usuario
+     */
+    public long version(final Long userId) {
+        return versions.get(stripe(userId));
+    }
+
+    /**
+     * Monta a fotografia do usuario e a guarda quando nenhuma invalidacao
+     * aconteceu desde {@code version}.
+     *
+     * @param userId identificador do usuario
+     * @param version versao lida antes da consulta
+     * @param entries tarefas com prazo ordenadas por prazo e identificador,
+     *        ate {@link #getMaxEntriesPerUser()} mais uma
+     * @return fotografia montada, guardada ou nao
+     */
+    public synchronized Snapshot put(final Long userId, final long version,
+            final List<CalendarEntry> entries) {
+        final Snapshot snapshot = new Snapshot(
+                entries.size() > maxEntriesPerUser
+                        ? null
+                        : List.copyOf(entries),
+                System.nanoTime());
+        if (versions.get(stripe(userId)) != version) {
+            return snapshot;
+        }
+        remove(userId);
+        snapshots.put(userId, snapshot);
+        cachedEntries += snapshot.size();
+        final Iterator<Map.Entry<Long, Snapshot>> eldest =
+                snapshots.entrySet().iterator();
+        while (cachedEntries > maxEntries && eldest.hasNext()) {
+            cachedEntries -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Descarta as fotografias dos usuarios e invalida as cargas em
+     * andamento.
+     *
+     * @param userIds identificadores dos usuarios
+     */
+    public synchronized void invalidate(final Collection<Long> userIds) {
+        for (final Long userId : userIds) {
+            versions.incrementAndGet(stripe(userId));
+            remove(userId);
+        }
+    }
+
+    /**
+     * Agenda a invalidacao dos usuarios para depois do commit corrente.
+     *
+     * @param userIds usuarios cujas tarefas foram alteradas
+     */
+    public void invalidateAfterCommit(final Collection<Long> userIds) {
+        final Set<Long> invalidated = Set.copyOf(userIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(invalidated);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate(invalidated);
+                    }
+                });
+    }
+
+    /**
+     * Maior quantidade de tarefas com prazo guardada por usuario.
+     *
+     * @return limite por usuario
+     */
+    public int getMaxEntriesPerUser() {
+        return maxEntriesPerUser;
+    }
+
+    private void remove(final Long userId) {
+        final Snapshot removed = snapshots.remove(userId);
+        if (removed != null) {
+            cachedEntries -= removed.size();
+        }
+    }
+
+    private static int stripe(final Long userId) {
+        return Long.hashCode(userId) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Tarefas com prazo de um usuario.
+     *
+     * @param entries tarefas ordenadas por prazo e identificador ou
+     *        {@code null} quando o usuario tem tarefas demais
+     * @param loadedAt instante da carga, em {@link System#nanoTime()}
+     */
+    public record Snapshot(List<CalendarEntry> entries, long loadedAt) {
+
+        /**
+         * Indica se a fotografia guarda todas as tarefas com prazo.
+         *
+         * @return {@code false} para usuarios atendidos pelo banco
+         */
+        public boolean isComplete() {
+            return entries != null;
+        }
+
+        /**
+         * Tarefas com prazo em {@code [start, end)}.
+         *
+         * @param start inicio do intervalo, inclusivo
+         * @param end fim do intervalo, exclusivo
+         * @return tarefas do intervalo, na ordem da fotografia
+         */
+        public List<CalendarEntry> between(final LocalDateTime start,
+                final LocalDateTime end) {
+            return entries.subList(lowerBound(start), lowerBound(end));
+        }
+
+        private int size() {
+            return entries == null ? 0 : entries.size();
+        }
+
+        private int lowerBound(final LocalDateTime dueDate) {
+            int low = 0;
+            int high = entries.size();
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (entries.get(middle).dueDate().isBefore(dueDate)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
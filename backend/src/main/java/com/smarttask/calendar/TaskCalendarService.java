@@ -0,0 +1,163 @@
+package com.smarttask.calendar;
+
+import com.smarttask.calendar.TaskCalendarIndex.Snapshot;
+import com.smarttask.dto.TaskCalendarResponse;
+import com.smarttask.dto.TaskCalendarResponse.CalendarDay;
+import com.smarttask.dto.TaskCalendarResponse.CalendarEntry;
+import com.smarttask.dto.TaskOccurrenceResponse;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.recurrence.TaskOccurrenceExpander;
+import com.smarttask.repository.TaskCalendarView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.security.UserPrincipal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Monta o calendario de tarefas a partir do {@link TaskCalendarIndex}.
+ *
+ * <p>Uma consulta atendida pela fotografia do usuario nao le tarefas do
+ * banco. Na falta dela, todas as tarefas com prazo do usuario sao
+ * lidas de uma vez pelo indice {@code (user_id, due_date)} em uma transacao
+ * de escrita, que vai ao primario e nunca guarda no cache o atraso de uma
+ * replica. Usuarios com tarefas demais para a memoria consultam apenas o
+ * intervalo pedido.</p>
+ *
+ * <p>As ocorrencias virtuais das tarefas recorrentes nao entram na
+ * fotografia: as series do intervalo sao lidas a cada consulta, pelo
+ * indice {@code (user_id, starts_at)}, expandidas apenas no intervalo
+ * pedido e intercaladas com as tarefas pelo prazo.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskCalendarService {
+
+    /** Maior quantidade de dias aceita em uma consulta. */
+    public static final int MAX_DAYS = 366;
+
+    /** Indice em memoria dos prazos. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Expansor das ocorrencias das tarefas recorrentes. */
+    private final TaskOccurrenceExpander taskOccurrenceExpander;
+
+    /** Gerenciador da transacao de carga das fotografias. */
+    private final PlatformTransactionManager transactionManager;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /**
+     * Lista as tarefas do usuario com prazo entre dois dias, agrupadas por
+     * dia.
+     *
+     * @param from primeiro dia, inclusivo
+     * @param to ultimo dia, inclusivo
+     * @param currentUser usuario autenticado
+     * @return dias com tarefas em ordem crescente
+     */
+    @Traced("TaskCalendarService.getCalendar")
+    public TaskCalendarResponse getCalendar(final LocalDate from,
+            final LocalDate to, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        if (to.isBefore(from)) {
+            throw new IllegalStateException(
+                    "'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalStateException(
+                    "The range cannot exceed " + MAX_DAYS + " days");
+        }
+        final LocalDateTime start = from.atStartOfDay();
+        final LocalDateTime end = to.plusDays(1).atStartOfDay();
+        final List<CalendarEntry> entries = merge(
+                entries(currentUser.getId(), start, end),
+                taskOccurrenceExpander.expand(currentUser.getId(), start,
+                        end));
+        final List<CalendarDay> days = new ArrayList<>();
+        List<CalendarEntry> current = null;
+        LocalDate currentDate = null;
+        for (final CalendarEntry entry : entries) {
+            final LocalDate date = entry.dueDate().toLocalDate();
+            if (!date.equals(currentDate)) {
+                currentDate = date;
+                current = new ArrayList<>();
+                days.add(new CalendarDay(date, current));
+            }
+            current.add(entry);
+        }
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "calendar");
+        return TaskCalendarResponse.builder()
+                .from(from)
+                .to(to)
+                .days(days)
+                .build();
+    }
+
+    private List<CalendarEntry> entries(final Long userId,
+            final LocalDateTime start, final LocalDateTime end) {
+        Snapshot snapshot = taskCalendarIndex.find(userId);
+        if (snapshot == null) {
+            final long version = taskCalendarIndex.version(userId);
+            final List<CalendarEntry> loaded =
+                    new TransactionTemplate(transactionManager).execute(
+                            status -> toEntries(taskRepository
+                                    .findCalendarViews(userId, Limit.of(
+                                            taskCalendarIndex
+                                                    .getMaxEntriesPerUser()
+                                                    + 1))));
+            snapshot = taskCalendarIndex.put(userId, version, loaded);
+        }
+        if (snapshot.isComplete()) {
+            return snapshot.between(start, end);
+        }
+        return toEntries(taskRepository.findCalendarViewsBetween(userId,
+                start, end));
+    }
+
+    private static List<CalendarEntry> merge(
+            final List<CalendarEntry> tasks,
+            final List<TaskOccurrenceResponse> occurrences) {
+        if (occurrences.isEmpty()) {
+            return tasks;
+        }
+        final List<CalendarEntry> merged =
+                new ArrayList<>(tasks.size() + occurrences.size());
+        int taskIndex = 0;
+        for (final TaskOccurrenceResponse occurrence : occurrences) {
+            while (taskIndex < tasks.size() && !tasks.get(taskIndex)
+                    .dueDate().isAfter(occurrence.getDueDate())) {
+                merged.add(tasks.get(taskIndex++));
+            }
+            merged.add(new CalendarEntry(null, occurrence.getTitle(),
+                    occurrence.getStatus(), occurrence.getPriority(),
+                    occurrence.getDueDate(), occurrence.getRecurrenceId()));
+        }
+        merged.addAll(tasks.subList(taskIndex, tasks.size()));
+        return merged;
+    }
+
+    private static List<CalendarEntry> toEntries(
+            final List<TaskCalendarView> views) {
+        final List<CalendarEntry> entries = new ArrayList<>(views.size());
+        for (final TaskCalendarView view : views) {
+            entries.add(new CalendarEntry(view.getId(), view.getTitle(),
+                    view.getStatus(), view.getPriority(),
+                    view.getDueDate(), null));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Calendario de tarefas servido de um indice em memoria dos prazos de cada
+ * usuario, invalidado a cada alteracao das suas tarefas.
+ */
+package com.smarttask.calendar;
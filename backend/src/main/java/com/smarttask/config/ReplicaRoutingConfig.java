@@ -0,0 +1,122 @@
+package com.smarttask.config;
+
+import com.smarttask.datasource.ReadYourWritesTracker;
+import com.smarttask.datasource.ReplicaLagMonitor;
+import com.smarttask.datasource.ReplicaRoutingDataSource;
+import com.smarttask.observability.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuracao do roteamento de leituras para replicas, ativada apenas
+ * quando {@code datasource.routing.replicas} lista ao menos uma URL JDBC.
+ *
+ * <p>O primario usa {@code spring.datasource.*}; as replicas reaproveitam
+ * usuario, senha e driver do primario. Cada destino tem o proprio pool
+ * Hikari, nomeado pela chave do destino, e as conexoes das replicas sao
+ * abertas como somente leitura. Sem replicas configuradas, o
+ * {@code DataSource} padrao do Spring Boot continua em uso.</p>
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.routing.replicas:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    /** Prefixo das chaves das replicas. */
+    private static final String REPLICA_PREFIX = "replica-";
+
+    /**
+     * Cria a janela de leitura das proprias escritas.
+     *
+     * @param window duracao da janela; zero desliga
+     * @return rastreador das escritas por usuario
+     */
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.routing.read-your-writes:0s}")
+            final Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    /**
+     * Cria os pools do primario e das replicas e o roteamento entre eles.
+     *
+     * @param properties propriedades do primario
+     * @param replicaUrls URLs JDBC das replicas
+     * @param readYourWritesTracker janela de leitura das proprias escritas
+     * @return roteamento entre os destinos
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            final DataSourceProperties properties,
+            @Value("${datasource.routing.replicas}")
+            final List<String> replicaUrls,
+            final ReadYourWritesTracker readYourWritesTracker) {
+        final HikariDataSource primary = pool(properties,
+                properties.determineUrl(), ReplicaRoutingDataSource.PRIMARY,
+                false);
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (final String url : replicaUrls) {
+            if (!url.isBlank()) {
+                final String key = REPLICA_PREFIX + (replicas.size() + 1);
+                replicas.put(key, pool(properties, url.trim(), key, true));
+            }
+        }
+        return new ReplicaRoutingDataSource(primary, replicas,
+                readYourWritesTracker);
+    }
+
+    /**
+     * {@code DataSource} da aplicacao: adia a obtencao da conexao ate o
+     * primeiro comando, para que o roteamento ja conheca o indicador de
+     * somente leitura da transacao.
+     *
+     * @param routingDataSource roteamento entre os destinos
+     * @return proxy usado por JPA e JDBC
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            final ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Cria o monitor de atraso das replicas.
+     *
+     * @param routingDataSource roteamento entre os destinos
+     * @param maxLag maior atraso aceito
+     * @param metricsService servico de metricas
+     * @return monitor agendado
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            final ReplicaRoutingDataSource routingDataSource,
+            @Value("${datasource.routing.max-lag:5s}") final Duration maxLag,
+            final MetricsService metricsService) {
+        return new ReplicaLagMonitor(routingDataSource,
+                ReplicaLagMonitor.POSTGRES_LAG_QUERY, maxLag, metricsService);
+    }
+
+    private static HikariDataSource pool(final DataSourceProperties properties,
+            final String url, final String name, final boolean readOnly) {
+        final HikariDataSource dataSource = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setReadOnly(readOnly);
+        return dataSource;
+    }
+}
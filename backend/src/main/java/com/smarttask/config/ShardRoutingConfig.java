@@ -0,0 +1,161 @@
+package com.smarttask.config;
+
+import com.smarttask.datasource.ShardDirectory;
+import com.smarttask.datasource.ShardMoveRunner;
+import com.smarttask.datasource.ShardRebalancer;
+import com.smarttask.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuracao do sharding por usuario, ativada apenas quando
+ * {@code datasource.sharding.shards} lista ao menos uma URL JDBC.
+ *
+ * <p>O shard padrao ({@code shard-0}) usa {@code spring.datasource.*} e
+ * guarda o diretorio e a identidade dos usuarios; os demais shards, na
+ * ordem da lista, reaproveitam usuario, senha e driver do padrao. Cada
+ * shard tem o proprio pool Hikari e recebe as migracoes do Flyway na
+ * inicializacao. Nao combina com o roteamento para replicas.</p>
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.sharding.shards:}'.isBlank()")
+public class ShardRoutingConfig {
+
+    /**
+     * Cria os pools dos shards e o roteamento entre eles.
+     *
+     * @param properties propriedades do shard padrao
+     * @param shardUrls URLs JDBC dos demais shards
+     * @param replicaUrls URLs das replicas, que precisam estar vazias
+     * @param directoryTtl validade do cache do diretorio
+     * @param moveTimeout espera maxima por uma movimentacao
+     * @return roteamento entre os shards
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            final DataSourceProperties properties,
+            @Value("${datasource.sharding.shards}")
+            final List<String> shardUrls,
+            @Value("${datasource.routing.replicas:}")
+            final String replicaUrls,
+            @Value("${datasource.sharding.directory-ttl:5s}")
+            final Duration directoryTtl,
+            @Value("${datasource.sharding.move-timeout:30s}")
+            final Duration moveTimeout) {
+        if (!replicaUrls.isBlank()) {
+            throw new IllegalStateException("datasource.sharding.shards "
+                    + "cannot be combined with datasource.routing.replicas");
+        }
+        final Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(ShardRoutingDataSource.DEFAULT_SHARD, pool(properties,
+                properties.determineUrl(),
+                ShardRoutingDataSource.DEFAULT_SHARD));
+        for (final String url : shardUrls) {
+            if (!url.isBlank()) {
+                final String key = ShardRoutingDataSource.SHARD_PREFIX
+                        + shards.size();
+                shards.put(key, pool(properties, url.trim(), key));
+            }
+        }
+        final ShardDirectory directory = new ShardDirectory(
+                new JdbcTemplate(shards.get(
+                        ShardRoutingDataSource.DEFAULT_SHARD)),
+                ShardRoutingDataSource.DEFAULT_SHARD, directoryTtl);
+        return new ShardRoutingDataSource(shards, directory, moveTimeout);
+    }
+
+    /**
+     * {@code DataSource} da aplicacao: adia a obtencao da conexao ate o
+     * primeiro comando, quando o usuario da transacao ja e conhecido.
+     *
+     * @param routingDataSource roteamento entre os shards
+     * @return proxy usado por JPA e JDBC
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            final ShardRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Aplica as migracoes em todos os shards, com a configuracao do Flyway
+     * da aplicacao, e reserva a faixa de ids de cada um.
+     *
+     * @param routingDataSource roteamento entre os shards
+     * @return estrategia usada pela autoconfiguracao do Flyway
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(
+            final ShardRoutingDataSource routingDataSource) {
+        return flyway -> {
+            for (final DataSource shard
+                    : routingDataSource.getShards().values()) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shard)
+                        .load()
+                        .migrate();
+            }
+            routingDataSource.reserveIdRanges();
+        };
+    }
+
+    /**
+     * Cria o rebalanceador de usuarios entre shards.
+     *
+     * @param routingDataSource roteamento entre os shards
+     * @param drain espera extra pelas transacoes em andamento
+     * @return rebalanceador
+     */
+    @Bean
+    public ShardRebalancer shardRebalancer(
+            final ShardRoutingDataSource routingDataSource,
+            @Value("${datasource.sharding.move-drain:2s}")
+            final Duration drain) {
+        return new ShardRebalancer(routingDataSource,
+                routingDataSource.getDirectory(), drain);
+    }
+
+    /**
+     * Executa a movimentacao pedida em {@code datasource.sharding.move}.
+     *
+     * @param move movimentacao no formato {@code <userId>:<shard>}
+     * @param rebalancer rebalanceador
+     * @param context contexto da aplicacao
+     * @return executor da linha de comando
+     */
+    @Bean
+    public ShardMoveRunner shardMoveRunner(
+            @Value("${datasource.sharding.move:}") final String move,
+            final ShardRebalancer rebalancer,
+            final ConfigurableApplicationContext context) {
+        return new ShardMoveRunner(move, rebalancer, context);
+    }
+
+    private static HikariDataSource pool(final DataSourceProperties properties,
+            final String url, final String name) {
+        final HikariDataSource dataSource = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
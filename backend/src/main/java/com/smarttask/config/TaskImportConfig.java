@@ -0,0 +1,40 @@
+package com.smarttask.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuracao do executor dedicado as importacoes de tarefas em massa,
+ * separado do pool HTTP para que cargas longas nao consumam threads de
+ * requisicao.
+ */
+@Configuration
+public class TaskImportConfig {
+
+    /** Nome do bean do executor de importacoes. */
+    public static final String TASK_IMPORT_EXECUTOR = "taskImportExecutor";
+
+    /** Importacoes processadas em paralelo. */
+    private static final int POOL_SIZE = 2;
+
+    /** Importacoes aguardando na fila antes de recusar novas. */
+    private static final int QUEUE_CAPACITY = 20;
+
+    /**
+     * Cria o executor das importacoes.
+     *
+     * @return executor com pool e fila limitados
+     */
+    @Bean(name = TASK_IMPORT_EXECUTOR)
+    public TaskExecutor taskImportExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(POOL_SIZE);
+        executor.setMaxPoolSize(POOL_SIZE);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("task-import-");
+        executor.initialize();
+        return executor;
+    }
+}
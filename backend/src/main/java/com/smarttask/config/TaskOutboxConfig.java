@@ -0,0 +1,36 @@
+package com.smarttask.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuracao do executor dedicado a entrega dos eventos do outbox de
+ * tarefas, separado do pool HTTP para que consumidores lentos nao atrasem
+ * as requisicoes.
+ */
+@Configuration
+public class TaskOutboxConfig {
+
+    /** Nome do bean do executor do outbox. */
+    public static final String TASK_OUTBOX_EXECUTOR = "taskOutboxExecutor";
+
+    /**
+     * Cria o executor do outbox. Uma unica thread drena o outbox por vez;
+     * a fila guarda no maximo uma drenagem pendente, pois as chamadas
+     * seguintes sao agrupadas pelo despachante.
+     *
+     * @return executor com uma thread e fila unitaria
+     */
+    @Bean(name = TASK_OUTBOX_EXECUTOR)
+    public TaskExecutor taskOutboxExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("task-outbox-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smarttask.controller;
+
+import com.smarttask.dto.TagFacetResponse;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskTagService;
+import com.smarttask.sync.TaskSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST das tags do usuario autenticado.
+ */
+@RestController
+@RequestMapping("/tags")
+@RequiredArgsConstructor
+public final class TagController {
+
+    /** Servico do dicionario de tags. */
+    private final TaskTagService taskTagService;
+
+    /** Servico que fornece a versao da colecao de tarefas. */
+    private final TaskSyncService taskSyncService;
+
+    /**
+     * Lista as tags em uso com a quantidade de tarefas de cada uma, da mais
+     * para a menos usada. Responde 304 quando as tarefas nao mudaram desde
+     * o ETag informado.
+     *
+     * @param ifNoneMatch ETag ja conhecido pelo cliente (opcional)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as tags e contagens ou 304
+     */
+    @GetMapping
+    public ResponseEntity<List<TagFacetResponse>> getTags(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return TaskETags.conditional(ifNoneMatch,
+                taskSyncService.getCollectionVersion(currentUser)
+                        .map(TaskETags::forCollection),
+                () -> taskTagService.getFacets(currentUser));
+    }
+}
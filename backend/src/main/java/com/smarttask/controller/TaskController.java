@@ -1,25 +1,67 @@
 package com.smarttask.controller;
 
+import com.smarttask.board.TaskBoardService;
+import com.smarttask.calendar.TaskCalendarService;
+import com.smarttask.dependency.TaskDependencyService;
+import com.smarttask.dto.BulkTaskCreateRequest;
+import com.smarttask.dto.BulkTaskDeleteRequest;
+import com.smarttask.dto.BulkTaskResponse;
+import com.smarttask.dto.BulkTaskUpdateRequest;
+import com.smarttask.dto.TaskBoardResponse;
+import com.smarttask.dto.TaskCalendarResponse;
+import com.smarttask.dto.TaskChangesResponse;
+import com.smarttask.dto.ReparentTaskRequest;
+import com.smarttask.dto.TaskImportJobResponse;
+import com.smarttask.dto.TaskMoveRequest;
+import com.smarttask.dto.TaskOccurrenceResponse;
+import com.smarttask.dto.TaskPageResponse;
+import com.smarttask.dto.TaskPatchRequest;
+import com.smarttask.dto.TaskRecurrenceRequest;
+import com.smarttask.dto.TaskRecurrenceResponse;
 import com.smarttask.dto.TaskRequest;
 import com.smarttask.dto.TaskResponse;
+import com.smarttask.dto.TaskSummaryResponse;
+import com.smarttask.dto.TaskTreeNode;
+import com.smarttask.imports.TaskImportService;
 import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.recurrence.TaskRecurrenceService;
 import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskArchiveService;
+import com.smarttask.service.TaskBulkService;
+import com.smarttask.service.TaskExportService;
+import com.smarttask.service.TaskExportService.ExportFormat;
+import com.smarttask.service.TaskRankingService;
 import com.smarttask.service.TaskService;
+import com.smarttask.service.TaskStatsService;
+import com.smarttask.service.TaskTreeService;
+import com.smarttask.sync.TaskSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controlador REST para operacoes de tarefas vinculadas ao usuario autenticado.
@@ -29,9 +71,49 @@ import java.util.List;
 @RequiredArgsConstructor
 public final class TaskController {
 
+    /** Tipo de midia dos documentos JSON Merge Patch (RFC 7396). */
+    public static final String MERGE_PATCH_JSON_VALUE =
+            "application/merge-patch+json";
+
     /** Servico de negocio responsavel pelas operacoes de tarefas. */
     private final TaskService taskService;
 
+    /** Servico responsavel pelas operacoes de tarefas em lote. */
+    private final TaskBulkService taskBulkService;
+
+    /** Servico responsavel pelas operacoes na hierarquia de subtarefas. */
+    private final TaskTreeService taskTreeService;
+
+    /** Servico responsavel pela exportacao completa das tarefas. */
+    private final TaskExportService taskExportService;
+
+    /** Servico responsavel pela importacao de tarefas em massa. */
+    private final TaskImportService taskImportService;
+
+    /** Servico responsavel pelos contadores agregados do dashboard. */
+    private final TaskStatsService taskStatsService;
+
+    /** Servico da sincronizacao incremental das tarefas. */
+    private final TaskSyncService taskSyncService;
+
+    /** Servico do arquivo de tarefas concluidas e canceladas. */
+    private final TaskArchiveService taskArchiveService;
+
+    /** Servico que escolhe as proximas tarefas do usuario. */
+    private final TaskRankingService taskRankingService;
+
+    /** Servico do calendario de tarefas. */
+    private final TaskCalendarService taskCalendarService;
+
+    /** Servico das tarefas recorrentes. */
+    private final TaskRecurrenceService taskRecurrenceService;
+
+    /** Servico do quadro kanban. */
+    private final TaskBoardService taskBoardService;
+
+    /** Servico das dependencias entre tarefas. */
+    private final TaskDependencyService taskDependencyService;
+
     /**
      * Cria uma nova tarefa.
      *
@@ -64,76 +146,643 @@ public final class TaskController {
     }
 
     /**
-     * Lista todas as tarefas do usuario autenticado.
+     * Lista as tarefas do usuario autenticado em paginas delimitadas por
+     * cursor, da atualizacao mais recente para a mais antiga. Criar, remover,
+     * mover ou alterar horas e status de subtarefas tambem atualiza os
+     * ancestrais, que passam ao inicio da listagem.
      *
+     * Responde 304 quando a colecao nao mudou desde o ETag informado.
+     *
+     * @param cursor cursor devolvido pela pagina anterior (opcional)
+     * @param size tamanho de pagina desejado (opcional)
+     * @param ifNoneMatch ETag da colecao ja conhecida pelo cliente (opcional)
      * @param currentUser usuario autenticado
-     * @return resposta HTTP 200 com lista de tarefas
+     * @return resposta HTTP 200 com a pagina de tarefas ou 304
      */
     @GetMapping
+    public ResponseEntity<TaskPageResponse> getTasks(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return TaskETags.conditional(ifNoneMatch, collectionETag(currentUser),
+                () -> taskService.getTasksPage(cursor, size, currentUser));
+    }
+
+    /**
+     * Lista todas as tarefas do usuario autenticado sem paginacao.
+     * Exige opt-in explicito via {@code unpaged=true}.
+     *
+     * @param ifNoneMatch ETag da colecao ja conhecida pelo cliente (opcional)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com lista de tarefas ou 304
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<TaskResponse>> getAllTasks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return TaskETags.conditional(ifNoneMatch, collectionETag(currentUser),
+                () -> taskService.getAllTasks(currentUser));
+    }
+
+    /**
+     * Lista paginas das tarefas do usuario marcadas com uma tag, da
+     * atualizacao mais recente para a mais antiga.
+     *
+     * @param tag nome da tag
+     * @param cursor cursor devolvido pela pagina anterior (opcional)
+     * @param size tamanho de pagina desejado (opcional)
+     * @param ifNoneMatch ETag da colecao ja conhecida pelo cliente (opcional)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com a pagina de tarefas da tag ou 304
+     */
+    @GetMapping(params = "tag")
+    public ResponseEntity<TaskPageResponse> getTasksByTag(
+            @RequestParam final String tag,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
             @AuthenticationPrincipal final UserPrincipal currentUser) {
-    return ResponseEntity.ok(
-        taskService.getAllTasks(currentUser));
+        return TaskETags.conditional(ifNoneMatch, collectionETag(currentUser),
+                () -> taskService.getTasksByTagPage(tag, cursor, size,
+                        currentUser));
     }
 
     /**
-     * Lista tarefas filtradas por status para o usuario autenticado.
+     * Lista paginas de tarefas filtradas por status para o usuario
+     * autenticado.
      *
      * @param status status desejado (TODO, IN_PROGRESS, COMPLETED, CANCELLED)
+     * @param cursor cursor devolvido pela pagina anterior (opcional)
+     * @param size tamanho de pagina desejado (opcional)
+     * @param ifNoneMatch ETag da colecao ja conhecida pelo cliente (opcional)
      * @param currentUser usuario autenticado
-     * @return resposta HTTP 200 com tarefas do status informado
+     * @return resposta HTTP 200 com a pagina de tarefas do status informado
+     *     ou 304
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskResponse>> getTasksByStatus(
+    public ResponseEntity<TaskPageResponse> getTasksByStatus(
             @PathVariable final TaskStatus status,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
             @AuthenticationPrincipal final UserPrincipal currentUser) {
-    return ResponseEntity.ok(
-        taskService.getTasksByStatus(status, currentUser));
+        return TaskETags.conditional(ifNoneMatch, collectionETag(currentUser),
+                () -> taskService.getTasksByStatusPage(
+                        status, cursor, size, currentUser));
     }
 
     /**
-     * Consulta as tarefas atrasadas do usuario autenticado.
+     * Lista todas as tarefas de um status sem paginacao (opt-in explicito).
      *
+     * @param status status desejado (TODO, IN_PROGRESS, COMPLETED, CANCELLED)
+     * @param ifNoneMatch ETag da colecao ja conhecida pelo cliente (opcional)
      * @param currentUser usuario autenticado
-     * @return lista de tarefas em atraso
+     * @return resposta HTTP 200 com tarefas do status informado ou 304
+     */
+    @GetMapping(value = "/status/{status}", params = "unpaged=true")
+    public ResponseEntity<List<TaskResponse>> getAllTasksByStatus(
+            @PathVariable final TaskStatus status,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return TaskETags.conditional(ifNoneMatch, collectionETag(currentUser),
+                () -> taskService.getTasksByStatus(status, currentUser));
+    }
+
+    /**
+     * Consulta paginas das tarefas atrasadas do usuario autenticado, do
+     * vencimento mais antigo para o mais recente.
+     *
+     * @param cursor cursor devolvido pela pagina anterior (opcional)
+     * @param size tamanho de pagina desejado (opcional)
+     * @param currentUser usuario autenticado
+     * @return pagina de tarefas em atraso
      */
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks(
+    public ResponseEntity<TaskPageResponse> getOverdueTasks(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer size,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskService.getOverdueTasksPage(cursor, size, currentUser));
+    }
+
+    /**
+     * Consulta todas as tarefas atrasadas sem paginacao (opt-in explicito).
+     *
+     * @param currentUser usuario autenticado
+     * @return lista de tarefas em atraso
+     */
+    @GetMapping(value = "/overdue", params = "unpaged=true")
+    public ResponseEntity<List<TaskResponse>> getAllOverdueTasks(
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskService.getOverdueTasks(currentUser));
+    }
+
+    /**
+     * Alteracoes das tarefas do usuario desde o cursor informado: tarefas
+     * criadas ou alteradas e identificadores das removidas. Sem cursor,
+     * devolve a carga inicial em paginas.
+     *
+     * @param since cursor devolvido pela chamada anterior (opcional)
+     * @param size quantidade maxima de alteracoes (opcional)
+     * @param currentUser usuario autenticado
+     * @return alteracoes e o cursor da proxima chamada
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(
+            @RequestParam(required = false) final String since,
+            @RequestParam(required = false) final Integer size,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskSyncService.getChanges(since, size, currentUser));
+    }
+
+    /**
+     * Resumo das tarefas do usuario por status, prioridade, atraso e horas,
+     * lido dos contadores agregados.
+     *
+     * @param currentUser usuario autenticado
+     * @return resumo para o dashboard
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<TaskSummaryResponse> getSummary(
             @AuthenticationPrincipal final UserPrincipal currentUser) {
-    return ResponseEntity.ok(
-        taskService.getOverdueTasks(currentUser));
+        return ResponseEntity.ok(taskStatsService.getSummary(currentUser));
     }
 
     /**
-     * Busca uma tarefa especifica pelo identificador.
+     * Busca tarefas por texto livre, ordenadas por relevancia. Cada termo e
+     * tratado como prefixo e acentos sao ignorados.
+     *
+     * @param query texto da busca
+     * @param limit quantidade maxima de resultados (opcional, ate 100)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as tarefas encontradas
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> searchTasks(
+            @RequestParam("q") final String query,
+            @RequestParam(required = false) final Integer limit,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskService.searchTasks(query, limit, currentUser));
+    }
+
+    /**
+     * Lista as proximas tarefas em que o usuario deve trabalhar: as abertas
+     * de maior pontuacao por prioridade, urgencia do prazo, esforco
+     * estimado e prioridade sugerida pela IA.
+     *
+     * @param k quantidade de tarefas (opcional, padrao 10, ate 100)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as tarefas da melhor para a pior
+     */
+    @GetMapping("/next")
+    public ResponseEntity<List<TaskResponse>> getNextTasks(
+            @RequestParam(required = false) final Integer k,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskRankingService.getNextTasks(k, currentUser));
+    }
+
+    /**
+     * Lista as tarefas com prazo entre dois dias, agrupadas por dia, para
+     * as visoes de calendario.
+     *
+     * @param from primeiro dia (ISO, inclusivo)
+     * @param to ultimo dia (ISO, inclusivo, ate 366 dias apos o primeiro)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com os dias que possuem tarefas
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<TaskCalendarResponse> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    final LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    final LocalDate to,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskCalendarService.getCalendar(from, to, currentUser));
+    }
+
+    /**
+     * Lista as colunas do quadro kanban, uma por status, com as tarefas na
+     * ordem definida pelos movimentos.
+     *
+     * @param status coluna desejada (opcional, padrao todas)
+     * @param limit tarefas por coluna (opcional, padrao 50, ate 200)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as colunas
+     */
+    @GetMapping("/board")
+    public ResponseEntity<TaskBoardResponse> getBoard(
+            @RequestParam(required = false) final TaskStatus status,
+            @RequestParam(required = false) final Integer limit,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskBoardService.getBoard(status, limit, currentUser));
+    }
+
+    /**
+     * Lista as tarefas abertas prontas para comecar, isto e, cujos
+     * bloqueadores estao todos concluidos, em ordem topologica.
+     *
+     * @param limit quantidade de tarefas (opcional, padrao 50, ate 200)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as tarefas prontas
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<List<TaskResponse>> getReadyTasks(
+            @RequestParam(required = false) final Integer limit,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskDependencyService.getReadyTasks(limit, currentUser));
+    }
+
+    /**
+     * Lista as ocorrencias virtuais das tarefas recorrentes com prazo entre
+     * dois dias, expandidas apenas nesse intervalo.
+     *
+     * @param from primeiro dia (ISO, inclusivo)
+     * @param to ultimo dia (ISO, inclusivo, ate 366 dias apos o primeiro)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as ocorrencias por prazo
+     */
+    @GetMapping("/occurrences")
+    public ResponseEntity<List<TaskOccurrenceResponse>> getOccurrences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    final LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    final LocalDate to,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskRecurrenceService.getOccurrences(from, to, currentUser));
+    }
+
+    /**
+     * Lista as ocorrencias virtuais vencidas das tarefas recorrentes, dentro
+     * da janela de atraso configurada.
+     *
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com as ocorrencias em atraso
+     */
+    @GetMapping("/occurrences/overdue")
+    public ResponseEntity<List<TaskOccurrenceResponse>> getOverdueOccurrences(
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskRecurrenceService.getOverdueOccurrences(currentUser));
+    }
+
+    /**
+     * Busca uma tarefa especifica pelo identificador. Com
+     * {@code If-None-Match}, le apenas a versao da tarefa e responde 304
+     * quando ela nao mudou.
      *
      * @param id identificador da tarefa
+     * @param ifNoneMatch ETag ja conhecido pelo cliente (opcional)
      * @param currentUser usuario autenticado
-     * @return tarefa localizada para o usuario
+     * @return tarefa localizada para o usuario ou 304
      */
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(
             @PathVariable final Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false) final String ifNoneMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        if (ifNoneMatch != null) {
+            final Optional<Long> version =
+                    taskService.findTaskVersion(id, currentUser);
+            if (version.isPresent() && TaskETags.matches(ifNoneMatch,
+                    TaskETags.forTask(version.get()))) {
+                return TaskETags.notModified(
+                        TaskETags.forTask(version.get()));
+            }
+        }
+        final TaskResponse task = taskService.getTaskById(id, currentUser);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .cacheControl(TaskETags.REVALIDATE)
+                .body(task);
+    }
+
+    /**
+     * Exporta todas as tarefas do usuario, com tags e subtarefas, escrevendo
+     * as linhas na resposta conforme sao lidas do banco.
+     *
+     * @param format formato desejado ({@code ndjson} ou {@code csv})
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 transmitida em streaming
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "ndjson") final String format,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        final ExportFormat exportFormat = ExportFormat.from(format);
+        final Long userId = currentUser.getId();
+        final StreamingResponseBody body = output ->
+                taskExportService.export(exportFormat, userId, output);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                        .attachment()
+                        .filename(TaskExportService.fileName(exportFormat))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Recebe um arquivo NDJSON ou CSV e agenda a importacao das tarefas em
+     * segundo plano.
+     *
+     * @param file arquivo com uma tarefa por linha
+     * @param format formato do arquivo ({@code ndjson} ou {@code csv})
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 202 com o job de importacao
+     */
+    @PostMapping(value = "/import",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TaskImportJobResponse> importTasks(
+            @RequestParam("file") final MultipartFile file,
+            @RequestParam(defaultValue = "ndjson") final String format,
             @AuthenticationPrincipal final UserPrincipal currentUser) {
-    return ResponseEntity.ok(
-        taskService.getTaskById(id, currentUser));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(taskImportService.startImport(file, format,
+                        currentUser));
+    }
+
+    /**
+     * Consulta o andamento de uma importacao.
+     *
+     * @param jobId identificador da importacao
+     * @param currentUser usuario autenticado
+     * @return progresso, erros por linha e resultado da importacao
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<TaskImportJobResponse> getImportJob(
+            @PathVariable final Long jobId,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskImportService.getJob(jobId, currentUser));
+    }
+
+    /**
+     * Lista paginas das tarefas arquivadas do usuario, do arquivamento mais
+     * recente para o mais antigo. As listagens comuns nao incluem essas
+     * tarefas. Sem ETag: a versao da colecao acompanha apenas as tarefas
+     * ativas e nao muda com todas as alteracoes do arquivo.
+     *
+     * @param cursor cursor devolvido pela pagina anterior (opcional)
+     * @param size tamanho de pagina desejado (opcional)
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com a pagina de tarefas arquivadas
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<TaskPageResponse> getArchivedTasks(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer size,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskArchiveService.getArchivePage(cursor,
+                size, currentUser));
+    }
+
+    /**
+     * Devolve uma tarefa arquivada as listagens ativas.
+     *
+     * @param id identificador da tarefa arquivada
+     * @param currentUser usuario autenticado
+     * @return tarefa restaurada com o seu ETag
+     */
+    @PostMapping("/archive/{id}/restore")
+    public ResponseEntity<TaskResponse> restoreTask(
+            @PathVariable final Long id,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        final TaskResponse task = taskArchiveService.restore(id, currentUser);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .body(task);
+    }
+
+    /**
+     * Retorna a subarvore completa de uma tarefa em uma unica requisicao.
+     *
+     * @param id identificador da tarefa raiz
+     * @param currentUser usuario autenticado
+     * @return arvore com todas as subtarefas aninhadas
+     */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<TaskTreeNode> getTaskTree(
+            @PathVariable final Long id,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskTreeService.getTaskTree(id, currentUser));
+    }
+
+    /**
+     * Move uma tarefa, com toda a sua subarvore, para outro pai.
+     *
+     * @param id identificador da tarefa movida
+     * @param request novo pai ({@code null} para tornar a tarefa raiz)
+     * @param currentUser usuario autenticado
+     * @return tarefa com o novo pai
+     */
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<TaskResponse> reparentTask(
+            @PathVariable final Long id,
+            @RequestBody final ReparentTaskRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskTreeService.reparentTask(id, request, currentUser));
+    }
+
+    /**
+     * Move uma tarefa no quadro kanban: para logo abaixo de outra tarefa da
+     * coluna de destino ou para o topo, trocando o status quando a coluna
+     * muda.
+     *
+     * @param id identificador da tarefa movida
+     * @param request coluna de destino e tarefa de cima
+     * @param currentUser usuario autenticado
+     * @return tarefa movida
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<TaskResponse> moveTask(
+            @PathVariable final Long id,
+            @RequestBody final TaskMoveRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskBoardService.moveTask(id, request, currentUser));
+    }
+
+    /**
+     * Lista as tarefas que bloqueiam diretamente a tarefa informada.
+     *
+     * @param id identificador da tarefa bloqueada
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 200 com os bloqueadores
+     */
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<List<TaskResponse>> getDependencies(
+            @PathVariable final Long id,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskDependencyService.getBlockers(id, currentUser));
+    }
+
+    /**
+     * Marca a tarefa como bloqueada por outra do mesmo usuario. Responde
+     * 400 quando a dependencia fecharia um ciclo.
+     *
+     * @param id identificador da tarefa bloqueada
+     * @param blockerId identificador da tarefa que precisa ser concluida antes
+     * @param currentUser usuario autenticado
+     * @return resposta sem conteudo em caso de sucesso
+     */
+    @PutMapping("/{id}/dependencies/{blockerId}")
+    public ResponseEntity<Void> addDependency(
+            @PathVariable final Long id,
+            @PathVariable final Long blockerId,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        taskDependencyService.addDependency(id, blockerId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Remove uma dependencia entre duas tarefas.
+     *
+     * @param id identificador da tarefa bloqueada
+     * @param blockerId identificador do bloqueador
+     * @param currentUser usuario autenticado
+     * @return resposta sem conteudo em caso de sucesso
+     */
+    @DeleteMapping("/{id}/dependencies/{blockerId}")
+    public ResponseEntity<Void> removeDependency(
+            @PathVariable final Long id,
+            @PathVariable final Long blockerId,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        taskDependencyService.removeDependency(id, blockerId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Torna a tarefa recorrente, ou troca a sua regra. O prazo atual da
+     * tarefa e a primeira ocorrencia.
+     *
+     * @param id identificador da tarefa modelo
+     * @param request regra no formato RRULE
+     * @param currentUser usuario autenticado
+     * @return regra gravada
+     */
+    @PutMapping("/{id}/recurrence")
+    public ResponseEntity<TaskRecurrenceResponse> setRecurrence(
+            @PathVariable final Long id,
+            @Valid @RequestBody final TaskRecurrenceRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskRecurrenceService.setRecurrence(id, request, currentUser));
+    }
+
+    /**
+     * Remove a regra de recorrencia; a tarefa modelo e as ocorrencias ja
+     * materializadas continuam como tarefas comuns.
+     *
+     * @param id identificador da tarefa modelo
+     * @param currentUser usuario autenticado
+     * @return resposta sem conteudo em caso de sucesso
+     */
+    @DeleteMapping("/{id}/recurrence")
+    public ResponseEntity<Void> removeRecurrence(
+            @PathVariable final Long id,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        taskRecurrenceService.removeRecurrence(id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Altera ou conclui uma ocorrencia de tarefa recorrente, que vira uma
+     * tarefa real com os dados do modelo e o prazo da ocorrencia. O corpo
+     * segue o formato JSON Merge Patch e pode ser vazio.
+     *
+     * @param id identificador da tarefa modelo
+     * @param occurrenceAt prazo da ocorrencia (ISO date-time)
+     * @param patch campos alterados na ocorrencia
+     * @param currentUser usuario autenticado
+     * @return resposta HTTP 201 com a tarefa criada para a ocorrencia
+     */
+    @PatchMapping(value = "/{id}/occurrences/{occurrenceAt}", consumes = {
+            TaskController.MERGE_PATCH_JSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskResponse> materializeOccurrence(
+            @PathVariable final Long id,
+            @PathVariable @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME)
+                    final LocalDateTime occurrenceAt,
+            @Valid @RequestBody final TaskPatchRequest patch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        final TaskResponse task = taskRecurrenceService.materializeOccurrence(
+                id, occurrenceAt, patch, currentUser);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .body(task);
     }
 
     /**
      * Atualiza os dados de uma tarefa existente.
      *
+     * Com {@code If-Match}, a atualizacao so e aplicada se a tarefa ainda
+     * estiver na versao informada; caso contrario responde 412.
+     *
      * @param id identificador da tarefa
      * @param request novos dados informados pelo cliente
+     * @param ifMatch ETag da versao lida pelo cliente (opcional)
      * @param currentUser usuario autenticado
-     * @return tarefa atualizada
+     * @return tarefa atualizada com o novo ETag
      */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable final Long id,
             @Valid @RequestBody final TaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH,
+                    required = false) final String ifMatch,
             @AuthenticationPrincipal final UserPrincipal currentUser) {
-    return ResponseEntity.ok(
-        taskService.updateTask(id, request, currentUser));
+        final TaskResponse task = taskService.updateTask(id, request,
+                TaskETags.expectedVersion(ifMatch), currentUser);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .body(task);
+    }
+
+    /**
+     * Aplica uma atualizacao parcial no formato JSON Merge Patch: campos
+     * ausentes ficam inalterados e campos com {@code null} sao apagados.
+     * Com {@code If-Match} desatualizado responde 412; com {@code version}
+     * divergente no documento, ou escrita concorrente, responde 409.
+     *
+     * @param id identificador da tarefa
+     * @param patch campos alterados
+     * @param ifMatch ETag da versao lida pelo cliente (opcional)
+     * @param currentUser usuario autenticado
+     * @return tarefa atualizada com o novo ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {
+            TaskController.MERGE_PATCH_JSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable final Long id,
+            @Valid @RequestBody final TaskPatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH,
+                    required = false) final String ifMatch,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        final TaskResponse task = taskService.patchTask(id, patch,
+                TaskETags.expectedVersion(ifMatch), currentUser);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .body(task);
     }
 
     /**
@@ -150,4 +799,55 @@ public final class TaskController {
         taskService.deleteTask(id, currentUser);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Cria tarefas em lote, com resultado individual por item.
+     *
+     * @param request lote de tarefas a criar
+     * @param currentUser usuario autenticado
+     * @return resultado consolidado e por item
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkTaskResponse> createTasks(
+            @Valid @RequestBody final BulkTaskCreateRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskBulkService.createTasks(request, currentUser));
+    }
+
+    /**
+     * Aplica atualizacoes parciais em lote, com resultado individual por item.
+     *
+     * @param request lote de atualizacoes
+     * @param currentUser usuario autenticado
+     * @return resultado consolidado e por item
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkTaskResponse> updateTasks(
+            @Valid @RequestBody final BulkTaskUpdateRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskBulkService.updateTasks(request, currentUser));
+    }
+
+    /**
+     * Remove tarefas em lote, com resultado individual por item.
+     *
+     * @param request identificadores das tarefas a remover
+     * @param currentUser usuario autenticado
+     * @return resultado consolidado e por item
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkTaskResponse> deleteTasks(
+            @Valid @RequestBody final BulkTaskDeleteRequest request,
+            @AuthenticationPrincipal final UserPrincipal currentUser) {
+        return ResponseEntity.ok(
+                taskBulkService.deleteTasks(request, currentUser));
+    }
+
+    private Optional<String> collectionETag(
+            final UserPrincipal currentUser) {
+        return taskSyncService.getCollectionVersion(currentUser)
+                .map(TaskETags::forCollection);
+    }
 }
@@ -0,0 +1,176 @@
+package com.smarttask.controller;
+
+import com.smarttask.exception.PreconditionFailedException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+
+/**
+ * Montagem e comparacao dos ETags das tarefas e das listagens.
+ *
+ * <p>As respostas saem com {@code Cache-Control: private, no-cache}, o que
+ * permite ao navegador guardar o corpo e revalida-lo com
+ * {@code If-None-Match} a cada consulta, recebendo 304 quando nada mudou.</p>
+ */
+final class TaskETags {
+
+    /** Politica de cache das respostas com ETag. */
+    static final CacheControl REVALIDATE =
+            CacheControl.noCache().cachePrivate();
+
+    /** Mensagem retornada quando o {@code If-Match} nao pode ser lido. */
+    private static final String INVALID_IF_MATCH_MESSAGE =
+            "If-Match does not contain a task version";
+
+    /** Prefixo dos validadores fracos. */
+    private static final String WEAK_PREFIX = "W/";
+
+    /** Valor que corresponde a qualquer versao. */
+    private static final String ANY = "*";
+
+    private TaskETags() {
+    }
+
+    /**
+     * ETag forte de uma tarefa, derivado da sua versao.
+     *
+     * @param version versao da tarefa
+     * @return ETag entre aspas
+     */
+    static String forTask(final Long version) {
+        return quote(String.valueOf(version));
+    }
+
+    /**
+     * ETag forte de uma listagem, derivado da versao da colecao.
+     *
+     * @param collectionVersion versao opaca da colecao
+     * @return ETag entre aspas
+     */
+    static String forCollection(final String collectionVersion) {
+        return quote("c" + collectionVersion);
+    }
+
+    /**
+     * Indica se algum dos ETags de {@code If-None-Match} corresponde ao
+     * atual, usando a comparacao fraca exigida para esse cabecalho.
+     *
+     * @param ifNoneMatch valor do cabecalho ou {@code null}
+     * @param etag ETag atual
+     * @return {@code true} quando o cliente ja tem a representacao atual
+     */
+    static boolean matches(final String ifNoneMatch, final String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String value = candidate.trim();
+            if (ANY.equals(value) || etag.equals(stripWeak(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versao exigida pelo cliente em {@code If-Match}. Apenas validadores
+     * fortes sao aceitos; com varios valores vale o primeiro legivel.
+     *
+     * @param ifMatch valor do cabecalho ou {@code null}
+     * @return versao esperada ou {@code null} quando nao ha restricao
+     * @throws PreconditionFailedException quando nenhum valor e uma versao
+     */
+    static Long expectedVersion(final String ifMatch) {
+        if (!StringUtils.hasText(ifMatch) || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        for (final String candidate : ifMatch.split(",")) {
+            final String value = candidate.trim();
+            if (value.startsWith(WEAK_PREFIX)) {
+                continue;
+            }
+            try {
+                return Long.valueOf(unquote(value));
+            } catch (NumberFormatException exception) {
+                // segue para o proximo valor informado
+            }
+        }
+        throw new PreconditionFailedException(INVALID_IF_MATCH_MESSAGE);
+    }
+
+    /**
+     * Responde 304 quando o {@code If-None-Match} corresponde ao ETag atual
+     * e, caso contrario, 200 com o corpo calculado apenas nesse momento.
+     *
+     * @param ifNoneMatch valor do cabecalho ou {@code null}
+     * @param etag ETag atual
+     * @param body calculo do corpo da resposta
+     * @param <T> tipo do corpo
+     * @return resposta condicional
+     */
+    static <T> ResponseEntity<T> conditional(final String ifNoneMatch,
+            final String etag, final Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(body.get());
+    }
+
+    /**
+     * Como {@link #conditional(String, String, Supplier)}, para recursos
+     * que podem estar sem versao estavel; nesse caso responde 200 sem ETag.
+     *
+     * @param ifNoneMatch valor do cabecalho ou {@code null}
+     * @param etag ETag atual ou vazio
+     * @param body calculo do corpo da resposta
+     * @param <T> tipo do corpo
+     * @return resposta condicional
+     */
+    static <T> ResponseEntity<T> conditional(final String ifNoneMatch,
+            final Optional<String> etag, final Supplier<T> body) {
+        if (etag.isPresent()) {
+            return conditional(ifNoneMatch, etag.get(), body);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(body.get());
+    }
+
+    /**
+     * Resposta 304 sem corpo.
+     *
+     * @param etag ETag atual
+     * @param <T> tipo do corpo
+     * @return resposta HTTP 304
+     */
+    static <T> ResponseEntity<T> notModified(final String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    private static String quote(final String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String unquote(final String value) {
+        if (value.length() >= 2 && value.startsWith("\"")
+                && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static String stripWeak(final String value) {
+        return value.startsWith(WEAK_PREFIX)
+                ? value.substring(WEAK_PREFIX.length())
+                : value;
+    }
+}
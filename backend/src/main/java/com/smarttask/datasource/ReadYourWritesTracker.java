@@ -0,0 +1,118 @@
+package com.smarttask.datasource;
+
+import com.smarttask.security.UserPrincipal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Janela de leitura das proprias escritas: depois que uma transacao de
+ * escrita de um usuario e confirmada, as leituras desse usuario continuam no
+ * primario durante a janela configurada, cobrindo o atraso de replicacao.
+ *
+ * <p>O usuario e o do {@link SecurityContextHolder}; jobs e outras threads
+ * sem autenticacao nao sao afetados. Com janela zero, o padrao, o
+ * rastreamento fica desligado.</p>
+ */
+public class ReadYourWritesTracker {
+
+    /** Usuarios rastreados a partir dos quais as expiradas sao descartadas. */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    /** Duracao da janela apos cada escrita. */
+    private final Duration window;
+
+    /** Fim da janela, em milissegundos, por usuario. */
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o rastreador.
+     *
+     * @param window duracao da janela; zero desliga o rastreamento
+     */
+    public ReadYourWritesTracker(final Duration window) {
+        this.window = window;
+    }
+
+    /**
+     * Indica se a janela esta habilitada.
+     *
+     * @return {@code true} quando a janela e maior que zero
+     */
+    public boolean isEnabled() {
+        return !window.isZero() && !window.isNegative();
+    }
+
+    /**
+     * Abre a janela do usuario autenticado quando a transacao corrente for
+     * confirmada.
+     */
+    public void recordWriteAfterCommit() {
+        if (!isEnabled() || !TransactionSynchronizationManager
+                .isSynchronizationActive()) {
+            return;
+        }
+        final Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(userId);
+                    }
+                });
+    }
+
+    /**
+     * Abre a janela de um usuario a partir de agora.
+     *
+     * @param userId identificador do usuario
+     */
+    public void recordWrite(final Long userId) {
+        final long now = System.currentTimeMillis();
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until <= now);
+        }
+        primaryUntil.put(userId, now + window.toMillis());
+    }
+
+    /**
+     * Indica se as leituras do usuario autenticado devem ir ao primario.
+     *
+     * @return {@code true} dentro da janela de uma escrita recente
+     */
+    public boolean requiresPrimary() {
+        if (!isEnabled()) {
+            return false;
+        }
+        final Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        final Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            primaryUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static Long currentUserId() {
+        final Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal()
+                instanceof UserPrincipal user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
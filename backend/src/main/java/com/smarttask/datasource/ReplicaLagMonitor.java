@@ -0,0 +1,123 @@
+package com.smarttask.datasource;
+
+import com.smarttask.observability.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Mede periodicamente o atraso de replicacao de cada replica e a mantem no
+ * rodizio de leitura apenas enquanto o atraso estiver dentro do limite.
+ * Replicas que nao respondem saem do rodizio ate a proxima medicao bem
+ * sucedida.
+ *
+ * <p>Tambem publica, por destino, as conexoes ativas, ociosas e aguardadas
+ * de cada pool e o ultimo atraso medido.</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Atraso da replica em milissegundos no PostgreSQL. Uma replica que ja
+     * aplicou tudo o que recebeu esta em dia mesmo sem escritas recentes no
+     * primario; sem nenhuma transacao aplicada o resultado e nulo.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 "
+            + "ELSE CAST(EXTRACT(EPOCH FROM now() "
+            + "- pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+    /** Valor publicado para replicas que nao responderam. */
+    private static final long UNREACHABLE = -1L;
+
+    /** Roteamento cujas replicas sao verificadas. */
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    /** Consulta que retorna o atraso em milissegundos. */
+    private final String lagQuery;
+
+    /** Maior atraso aceito para manter a replica no rodizio. */
+    private final Duration maxLag;
+
+    /** Ultimo atraso medido por replica. */
+    private final Map<String, Long> lastLag = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o monitor e registra as metricas dos pools.
+     *
+     * @param routingDataSource roteamento com as replicas
+     * @param lagQuery consulta do atraso em milissegundos
+     * @param maxLag maior atraso aceito
+     * @param metricsService servico de metricas
+     */
+    public ReplicaLagMonitor(final ReplicaRoutingDataSource routingDataSource,
+            final String lagQuery, final Duration maxLag,
+            final MetricsService metricsService) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        metricsService.registerDataSourceGauge("db.pool.active",
+                "Conexoes em uso por destino", "connections",
+                () -> poolValues(HikariPoolMXBean::getActiveConnections));
+        metricsService.registerDataSourceGauge("db.pool.idle",
+                "Conexoes ociosas por destino", "connections",
+                () -> poolValues(HikariPoolMXBean::getIdleConnections));
+        metricsService.registerDataSourceGauge("db.pool.pending",
+                "Threads aguardando conexao por destino", "threads",
+                () -> poolValues(
+                        HikariPoolMXBean::getThreadsAwaitingConnection));
+        metricsService.registerDataSourceGauge("db.replica.lag",
+                "Atraso de replicacao medido (-1 quando inacessivel)", "ms",
+                () -> Map.copyOf(lastLag));
+    }
+
+    /**
+     * Mede o atraso de todas as replicas e atualiza o rodizio.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.check-interval:5s}")
+    public void check() {
+        final Map<String, DataSource> targets = routingDataSource.getTargets();
+        for (final String replica : routingDataSource.getReplicas()) {
+            final long lag = measure(replica, targets.get(replica));
+            lastLag.put(replica, lag);
+            routingDataSource.setAvailable(replica,
+                    lag != UNREACHABLE && lag <= maxLag.toMillis());
+        }
+    }
+
+    private long measure(final String replica, final DataSource dataSource) {
+        try {
+            final Long lag = new JdbcTemplate(dataSource)
+                    .queryForObject(lagQuery, Long.class);
+            return lag == null ? Long.MAX_VALUE : lag;
+        } catch (DataAccessException exception) {
+            log.warn("Falha ao medir o atraso da replica {}: {}", replica,
+                    exception.getMessage());
+            return UNREACHABLE;
+        }
+    }
+
+    private Map<String, Long> poolValues(
+            final ToIntFunction<HikariPoolMXBean> reader) {
+        final Map<String, Long> values = new HashMap<>();
+        routingDataSource.getTargets().forEach((target, dataSource) -> {
+            if (dataSource instanceof HikariDataSource hikari
+                    && hikari.getHikariPoolMXBean() != null) {
+                values.put(target, (long) reader.applyAsInt(
+                        hikari.getHikariPoolMXBean()));
+            }
+        });
+        return values;
+    }
+}
@@ -0,0 +1,149 @@
+package com.smarttask.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Encaminha as transacoes {@code readOnly} para as replicas saudaveis, em
+ * rodizio, e todo o resto para o primario.
+ *
+ * <p>A decisao usa o indicador de somente leitura da transacao corrente e,
+ * por isso, deve ficar atras de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * que adia a obtencao da conexao ate o primeiro comando, quando o indicador
+ * ja foi definido. Replicas comecam fora do rodizio e entram quando o
+ * {@link ReplicaLagMonitor} confirma que o atraso esta dentro do limite; sem
+ * nenhuma replica saudavel, as leituras voltam ao primario.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource
+        implements Closeable {
+
+    /** Chave do banco primario. */
+    public static final String PRIMARY = "primary";
+
+    /** Primario e replicas, por chave. */
+    private final Map<String, DataSource> targets;
+
+    /** Chaves das replicas, na ordem de configuracao. */
+    private final List<String> replicas;
+
+    /** Replicas atualmente aptas a receber leituras. */
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+
+    /** Posicao do rodizio entre as replicas saudaveis. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Janela de leitura das proprias escritas. */
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Cria o roteamento.
+     *
+     * @param primary banco primario
+     * @param replicas replicas por chave
+     * @param readYourWritesTracker janela de leitura das proprias escritas
+     */
+    public ReplicaRoutingDataSource(final DataSource primary,
+            final Map<String, DataSource> replicas,
+            final ReadYourWritesTracker readYourWritesTracker) {
+        final Map<String, DataSource> all = new LinkedHashMap<>();
+        all.put(PRIMARY, primary);
+        all.putAll(replicas);
+        this.targets = Collections.unmodifiableMap(all);
+        this.replicas = List.copyOf(replicas.keySet());
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(new HashMap<>(all));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Primario e replicas, por chave.
+     *
+     * @return destinos do roteamento
+     */
+    public Map<String, DataSource> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Chaves das replicas configuradas.
+     *
+     * @return replicas na ordem de configuracao
+     */
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Coloca uma replica no rodizio ou a retira dele.
+     *
+     * @param replica chave da replica
+     * @param available {@code true} quando a replica pode receber leituras
+     */
+    public void setAvailable(final String replica, final boolean available) {
+        final boolean changed = available
+                ? healthy.add(replica)
+                : healthy.remove(replica);
+        if (changed) {
+            log.info("Replica {} {} do rodizio de leitura", replica,
+                    available ? "incluida no" : "retirada");
+        }
+    }
+
+    /**
+     * Indica se a replica esta no rodizio.
+     *
+     * @param replica chave da replica
+     * @return {@code true} quando pode receber leituras
+     */
+    public boolean isAvailable(final String replica) {
+        return healthy.contains(replica);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.recordWriteAfterCommit();
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.requiresPrimary()) {
+            return PRIMARY;
+        }
+        final List<String> candidates = new ArrayList<>(replicas.size());
+        for (final String replica : replicas) {
+            if (healthy.contains(replica)) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(),
+                candidates.size()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final DataSource target : targets.values()) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
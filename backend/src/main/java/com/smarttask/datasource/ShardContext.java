@@ -0,0 +1,145 @@
+package com.smarttask.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vincula a thread corrente a um shard ou a um usuario para o
+ * {@link ShardRoutingDataSource}.
+ *
+ * <p>Requisicoes autenticadas nao precisam de vinculo: o roteamento usa o
+ * usuario do contexto de seguranca. Tarefas agendadas, que percorrem dados
+ * de todos os usuarios, usam {@link #forEachShard(Runnable)}; trabalhos em
+ * segundo plano de um usuario usam {@link #runForUser(Long, Runnable)}. Sem
+ * sharding configurado os metodos apenas executam a tarefa.</p>
+ *
+ * <p>O vinculo vale para as conexoes obtidas durante a tarefa; uma
+ * transacao aberta antes dele continua no shard em que comecou.</p>
+ */
+public final class ShardContext {
+
+    /** Vinculo da thread corrente. */
+    private static final ThreadLocal<Binding> BINDING = new ThreadLocal<>();
+
+    /** Roteamento ativo ou {@code null} sem sharding. */
+    private static volatile ShardRoutingDataSource routing;
+
+    private ShardContext() {
+    }
+
+    /**
+     * Executa a tarefa uma vez em cada shard, na ordem de configuracao. Uma
+     * falha em um shard nao impede os demais; a primeira e relancada ao
+     * final com as outras suprimidas.
+     *
+     * @param task tarefa a executar
+     */
+    public static void forEachShard(final Runnable task) {
+        final ShardRoutingDataSource current = routing;
+        if (current == null) {
+            task.run();
+            return;
+        }
+        final List<RuntimeException> failures = new ArrayList<>();
+        for (final String shard : current.getShards().keySet()) {
+            try {
+                runBound(new Binding(shard, null), task);
+            } catch (RuntimeException exception) {
+                failures.add(exception);
+            }
+        }
+        if (!failures.isEmpty()) {
+            final RuntimeException first = failures.get(0);
+            failures.subList(1, failures.size()).forEach(first::addSuppressed);
+            throw first;
+        }
+    }
+
+    /**
+     * Executa a tarefa no shard do usuario.
+     *
+     * @param userId usuario dono dos dados
+     * @param task tarefa a executar
+     */
+    public static void runForUser(final Long userId, final Runnable task) {
+        if (routing == null) {
+            task.run();
+            return;
+        }
+        runBound(new Binding(null, userId), task);
+    }
+
+    /**
+     * Indica se o usuario pertence ao shard vinculado pela
+     * {@link #forEachShard(Runnable)} corrente. Fora de um
+     * {@code forEachShard} ou sem sharding, retorna {@code true}.
+     *
+     * <p>Serve para tarefas que percorrem a tabela de usuarios: o shard
+     * padrao guarda a identidade de todos eles, mas os dados so de quem
+     * mora nele.</p>
+     *
+     * @param userId usuario a verificar
+     * @return {@code true} quando os dados do usuario estao no shard
+     */
+    public static boolean isHomeShard(final Long userId) {
+        final ShardRoutingDataSource current = routing;
+        final Binding binding = BINDING.get();
+        if (current == null || binding == null || binding.shard() == null) {
+            return true;
+        }
+        return binding.shard().equals(current.placementOf(userId).shard());
+    }
+
+    /**
+     * Shard vinculado a thread corrente.
+     *
+     * @return chave do shard ou {@code null}
+     */
+    static String boundShard() {
+        final Binding binding = BINDING.get();
+        return binding == null ? null : binding.shard();
+    }
+
+    /**
+     * Usuario vinculado a thread corrente.
+     *
+     * @return identificador do usuario ou {@code null}
+     */
+    static Long boundUser() {
+        final Binding binding = BINDING.get();
+        return binding == null ? null : binding.userId();
+    }
+
+    static void register(final ShardRoutingDataSource routingDataSource) {
+        routing = routingDataSource;
+    }
+
+    static void unregister(final ShardRoutingDataSource routingDataSource) {
+        if (routing == routingDataSource) {
+            routing = null;
+        }
+    }
+
+    private static void runBound(final Binding binding, final Runnable task) {
+        final Binding previous = BINDING.get();
+        BINDING.set(binding);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                BINDING.remove();
+            } else {
+                BINDING.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Shard ou usuario vinculado.
+     *
+     * @param shard chave do shard
+     * @param userId usuario cujo shard deve ser usado
+     */
+    private record Binding(String shard, Long userId) {
+    }
+}
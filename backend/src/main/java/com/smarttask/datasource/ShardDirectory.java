@@ -0,0 +1,161 @@
+package com.smarttask.datasource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Diretorio usuario -> shard, gravado em {@code user_shards} no shard
+ * padrao. Usuarios sem linha no diretorio moram no shard padrao, o que
+ * permite ligar o sharding sobre um banco existente sem preencher nada.
+ *
+ * <p>As consultas ficam em cache por {@code datasource.sharding.directory-ttl}.
+ * Como outras instancias da aplicacao so enxergam uma mudanca depois desse
+ * prazo, o {@link ShardRebalancer} marca a movimentacao e espera o cache
+ * expirar antes de copiar os dados.</p>
+ */
+public class ShardDirectory {
+
+    private static final String SELECT_PLACEMENT =
+            "SELECT shard, moving_to FROM user_shards WHERE user_id = ?";
+
+    private static final String UPDATE_PLACEMENT = "UPDATE user_shards "
+            + "SET shard = ?, moving_to = ?, updated_at = ? WHERE user_id = ?";
+
+    private static final String INSERT_PLACEMENT = "INSERT INTO user_shards "
+            + "(shard, moving_to, updated_at, user_id) VALUES (?, ?, ?, ?)";
+
+    /** Acesso ao diretorio no shard padrao. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Shard dos usuarios fora do diretorio. */
+    private final String defaultShard;
+
+    /** Validade das entradas em cache, em milissegundos. */
+    private final long ttlMillis;
+
+    /** Posicoes lidas recentemente, por usuario. */
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o diretorio.
+     *
+     * @param jdbcTemplate acesso ao shard padrao
+     * @param defaultShard shard dos usuarios fora do diretorio
+     * @param ttl validade das entradas em cache
+     */
+    public ShardDirectory(final JdbcTemplate jdbcTemplate,
+            final String defaultShard, final Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultShard = defaultShard;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Posicao do usuario, do cache quando ainda valida.
+     *
+     * @param userId usuario
+     * @return shard atual e destino de uma movimentacao em andamento
+     */
+    public Placement placementOf(final Long userId) {
+        final long now = System.currentTimeMillis();
+        final Cached cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.placement();
+        }
+        final List<Placement> rows = jdbcTemplate.query(SELECT_PLACEMENT,
+                (rs, rowNum) -> new Placement(rs.getString("shard"),
+                        rs.getString("moving_to")), userId);
+        final Placement placement = rows.isEmpty()
+                ? new Placement(defaultShard, null)
+                : rows.get(0);
+        cache.put(userId, new Cached(placement, now + ttlMillis));
+        return placement;
+    }
+
+    /**
+     * Descarta a posicao em cache do usuario.
+     *
+     * @param userId usuario
+     */
+    public void evict(final Long userId) {
+        cache.remove(userId);
+    }
+
+    /**
+     * Validade das entradas em cache.
+     *
+     * @return prazo para que todas as instancias vejam uma mudanca
+     */
+    public Duration getTtl() {
+        return Duration.ofMillis(ttlMillis);
+    }
+
+    /**
+     * Marca o inicio da movimentacao do usuario para outro shard.
+     *
+     * @param userId usuario
+     * @param source shard atual
+     * @param target shard de destino
+     */
+    void beginMove(final Long userId, final String source,
+            final String target) {
+        save(userId, source, target);
+    }
+
+    /**
+     * Conclui a movimentacao, passando o usuario para o destino.
+     *
+     * @param userId usuario
+     * @param target novo shard
+     */
+    void completeMove(final Long userId, final String target) {
+        save(userId, target, null);
+    }
+
+    /**
+     * Desfaz a marcacao de uma movimentacao que falhou.
+     *
+     * @param userId usuario
+     * @param source shard em que os dados continuam
+     */
+    void cancelMove(final Long userId, final String source) {
+        save(userId, source, null);
+    }
+
+    private void save(final Long userId, final String shard,
+            final String movingTo) {
+        final LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(UPDATE_PLACEMENT, shard, movingTo, now,
+                userId) == 0) {
+            jdbcTemplate.update(INSERT_PLACEMENT, shard, movingTo, now,
+                    userId);
+        }
+        evict(userId);
+    }
+
+    /**
+     * Posicao de um usuario.
+     *
+     * @param shard shard que guarda os dados
+     * @param movingTo destino de uma movimentacao em andamento ou
+     *     {@code null}
+     */
+    public record Placement(String shard, String movingTo) {
+
+        /**
+         * Indica se ha movimentacao em andamento.
+         *
+         * @return {@code true} enquanto os dados estao sendo copiados
+         */
+        public boolean isMoving() {
+            return movingTo != null;
+        }
+    }
+
+    private record Cached(Placement placement, long expiresAt) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.smarttask.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Executa uma movimentacao pedida na linha de comando e encerra a
+ * aplicacao:
+ *
+ * <pre>
+ * java -jar smart-task-manager.jar --spring.main.web-application-type=none \
+ *     --datasource.sharding.move=42:shard-2
+ * </pre>
+ *
+ * <p>Sem a propriedade a aplicacao sobe normalmente.</p>
+ */
+@Slf4j
+public class ShardMoveRunner implements ApplicationRunner {
+
+    /** Movimentacao no formato {@code <userId>:<shard>} ou vazia. */
+    private final String move;
+
+    /** Rebalanceador que executa a movimentacao. */
+    private final ShardRebalancer rebalancer;
+
+    /** Contexto encerrado ao final. */
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * Cria o executor.
+     *
+     * @param move movimentacao no formato {@code <userId>:<shard>} ou vazia
+     * @param rebalancer rebalanceador
+     * @param context contexto da aplicacao
+     */
+    public ShardMoveRunner(final String move,
+            final ShardRebalancer rebalancer,
+            final ConfigurableApplicationContext context) {
+        this.move = move;
+        this.rebalancer = rebalancer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (move == null || move.isBlank()) {
+            return;
+        }
+        final String[] parts = move.trim().split(":", 2);
+        int exitCode = 0;
+        try {
+            if (parts.length != 2) {
+                throw new IllegalStateException(
+                        "Expected <userId>:<shard>, got " + move);
+            }
+            rebalancer.move(Long.valueOf(parts[0].trim()), parts[1].trim());
+        } catch (RuntimeException exception) {
+            log.error("Falha ao mover usuario: {}", exception.getMessage(),
+                    exception);
+            exitCode = 1;
+        }
+        final int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
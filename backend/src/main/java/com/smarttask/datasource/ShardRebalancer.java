@@ -0,0 +1,301 @@
+package com.smarttask.datasource;
+
+import com.smarttask.sync.TaskChangeTracker;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Move os dados de um usuario entre shards.
+ *
+ * <p>A movimentacao marca o usuario no diretorio, espera o cache do
+ * diretorio expirar em todas as instancias e as transacoes em andamento
+ * terminarem, copia as linhas para o destino em uma unica transacao,
+ * passa o usuario para o destino e so entao remove as linhas da origem.
+ * Enquanto a marcacao existe, o {@link ShardRoutingDataSource} segura as
+ * requisicoes do usuario; uma falha antes da troca desfaz a marcacao e
+ * deixa os dados na origem.</p>
+ *
+ * <p>Os identificadores sao copiados como estao, porque cada shard gera ids
+ * na propria faixa. A posicao na sequencia de alteracoes, ao contrario, e
+ * local a cada shard: tarefas e tombstones recebem valores novos no
+ * destino, acima de qualquer cursor ja entregue ao usuario, e os clientes
+ * recebem o conjunto de novo na proxima sincronizacao.</p>
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    /** Linhas por lote de insercao no destino. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Tarefas do usuario, para as tabelas ligadas por task_id. */
+    private static final String USER_TASKS =
+            "task_id IN (SELECT id FROM tasks WHERE user_id = ?)";
+
+    /** Tarefas arquivadas do usuario. */
+    private static final String USER_ARCHIVED_TASKS =
+            "task_id IN (SELECT id FROM tasks_archive WHERE user_id = ?)";
+
+    /** Proxima posicao da sequencia de alteracoes no destino. */
+    private static final String NEXT_CHANGE_SEQ =
+            "nextval('" + TaskChangeTracker.SEQUENCE + "')";
+
+    /** Tabelas com dados proprios do usuario, na ordem de copia. */
+    private static final List<TableCopy> OWNED_TABLES = List.of(
+            new TableCopy("user_settings", "user_id = ?", Map.of()),
+            new TableCopy("notification_preferences", "user_id = ?",
+                    Map.of()),
+            new TableCopy("task_stats", "user_id = ?", Map.of()),
+            new TableCopy("user_tags", "user_id = ?", Map.of()),
+            new TableCopy("tasks", "user_id = ?", Map.of(
+                    "parent_task_id", "NULL",
+                    "change_seq", NEXT_CHANGE_SEQ)),
+            new TableCopy("task_tags", USER_TASKS, Map.of()),
+            new TableCopy("task_tag_links", USER_TASKS, Map.of()),
+            new TableCopy("pomodoro_sessions", "user_id = ?", Map.of()),
+            new TableCopy("task_recurrences", "user_id = ?", Map.of()),
+            new TableCopy("task_occurrences", "user_id = ?",
+                    Map.of("id", "DEFAULT")),
+            new TableCopy("task_dependencies", "user_id = ?",
+                    Map.of("id", "DEFAULT")),
+            new TableCopy("task_deletions", "user_id = ?",
+                    Map.of("change_seq", NEXT_CHANGE_SEQ)),
+            new TableCopy("tasks_archive", "user_id = ?", Map.of()),
+            new TableCopy("task_tags_archive", USER_ARCHIVED_TASKS,
+                    Map.of()),
+            new TableCopy("task_import_jobs", "user_id = ?", Map.of()));
+
+    /** Identidade do usuario, copiada quando o destino ainda nao a tem. */
+    private static final List<TableCopy> IDENTITY_TABLES = List.of(
+            new TableCopy("users", "id = ?", Map.of()),
+            new TableCopy("user_roles", "user_id = ?", Map.of()));
+
+    /** Roteamento com os shards configurados. */
+    private final ShardRoutingDataSource routing;
+
+    /** Diretorio usuario -> shard. */
+    private final ShardDirectory directory;
+
+    /** Espera extra pelas transacoes iniciadas antes da marcacao. */
+    private final Duration drain;
+
+    /**
+     * Cria o rebalanceador.
+     *
+     * @param routing roteamento com os shards configurados
+     * @param directory diretorio usuario -> shard
+     * @param drain espera extra pelas transacoes em andamento
+     */
+    public ShardRebalancer(final ShardRoutingDataSource routing,
+            final ShardDirectory directory, final Duration drain) {
+        this.routing = routing;
+        this.directory = directory;
+        this.drain = drain;
+    }
+
+    /**
+     * Move os dados do usuario para o shard de destino.
+     *
+     * @param userId usuario
+     * @param target chave do shard de destino
+     * @return quantidade de linhas copiadas
+     */
+    public int move(final Long userId, final String target) {
+        final Map<String, DataSource> shards = routing.getShards();
+        if (!shards.containsKey(target)) {
+            throw new IllegalStateException("Unknown shard " + target);
+        }
+        directory.evict(userId);
+        final ShardDirectory.Placement placement =
+                directory.placementOf(userId);
+        if (placement.isMoving()) {
+            throw new IllegalStateException("User " + userId
+                    + " is already being moved to " + placement.movingTo());
+        }
+        final String source = placement.shard();
+        if (source.equals(target)) {
+            throw new IllegalStateException("User " + userId
+                    + " is already on " + target);
+        }
+        final JdbcTemplate identity = new JdbcTemplate(
+                shards.get(ShardRoutingDataSource.DEFAULT_SHARD));
+        if (count(identity, "users", "id = ?", userId) == 0) {
+            throw new IllegalStateException("User " + userId + " not found");
+        }
+        final JdbcTemplate sourceJdbc = new JdbcTemplate(shards.get(source));
+        if (count(sourceJdbc, "task_import_jobs", "user_id = ? AND status "
+                + "IN ('PENDING', 'LOADING', 'RESOLVING')", userId) > 0) {
+            throw new IllegalStateException("User " + userId
+                    + " has an import in progress");
+        }
+
+        log.info("Movendo usuario {} de {} para {}", userId, source, target);
+        directory.beginMove(userId, source, target);
+        final int copied;
+        try {
+            sleep(directory.getTtl().plus(drain));
+            copied = copy(userId, sourceJdbc, shards.get(target));
+            directory.completeMove(userId, target);
+        } catch (RuntimeException exception) {
+            directory.cancelMove(userId, source);
+            throw exception;
+        }
+        delete(userId, shards.get(source),
+                !ShardRoutingDataSource.DEFAULT_SHARD.equals(source));
+        log.info("Usuario {} movido para {}: {} linhas", userId, target,
+                copied);
+        return copied;
+    }
+
+    private int copy(final Long userId, final JdbcTemplate source,
+            final DataSource targetDataSource) {
+        final JdbcTemplate target = new JdbcTemplate(targetDataSource);
+        final Long lastChangeSeq = source.queryForObject("SELECT last_value "
+                + "FROM " + TaskChangeTracker.SEQUENCE, Long.class);
+        return new TransactionTemplate(
+                new DataSourceTransactionManager(targetDataSource))
+                .execute(status -> {
+                    for (final TableCopy table : OWNED_TABLES) {
+                        if (count(target, table.name(), table.where(),
+                                userId) > 0) {
+                            throw new IllegalStateException("Shard already "
+                                    + "has " + table.name() + " rows of user "
+                                    + userId);
+                        }
+                    }
+                    target.queryForObject("SELECT setval(?, greatest(?, "
+                            + "(SELECT last_value FROM "
+                            + TaskChangeTracker.SEQUENCE + ")))", Long.class,
+                            TaskChangeTracker.SEQUENCE, lastChangeSeq);
+                    int rows = 0;
+                    if (count(target, "users", "id = ?", userId) == 0) {
+                        for (final TableCopy table : IDENTITY_TABLES) {
+                            rows += table.copy(source, target, userId);
+                        }
+                    }
+                    for (final TableCopy table : OWNED_TABLES) {
+                        rows += table.copy(source, target, userId);
+                    }
+                    final List<Object[]> parents = source.query("SELECT "
+                            + "parent_task_id, id, user_id FROM tasks "
+                            + "WHERE user_id = ? AND parent_task_id IS NOT NULL",
+                            (rs, rowNum) -> new Object[] {
+                                rs.getLong(1), rs.getLong(2), rs.getLong(3)},
+                            userId);
+                    target.batchUpdate("UPDATE tasks SET parent_task_id = ? "
+                            + "WHERE id = ? AND user_id = ?", parents);
+                    return rows;
+                });
+    }
+
+    private static void delete(final Long userId,
+            final DataSource sourceDataSource, final boolean identity) {
+        final JdbcTemplate source = new JdbcTemplate(sourceDataSource);
+        new TransactionTemplate(
+                new DataSourceTransactionManager(sourceDataSource))
+                .executeWithoutResult(status -> {
+                    source.update("UPDATE tasks SET parent_task_id = NULL "
+                            + "WHERE user_id = ?", userId);
+                    for (final TableCopy table : OWNED_TABLES.reversed()) {
+                        table.delete(source, userId);
+                    }
+                    if (identity) {
+                        for (final TableCopy table
+                                : IDENTITY_TABLES.reversed()) {
+                            table.delete(source, userId);
+                        }
+                    }
+                });
+    }
+
+    private static int count(final JdbcTemplate jdbcTemplate,
+            final String table, final String where, final Long userId) {
+        final Integer count = jdbcTemplate.queryForObject("SELECT count(*) "
+                + "FROM " + table + " WHERE " + where, Integer.class, userId);
+        return count == null ? 0 : count;
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while draining a shard move", exception);
+        }
+    }
+
+    /**
+     * Copia das linhas de uma tabela que pertencem ao usuario.
+     *
+     * @param name tabela
+     * @param where filtro das linhas do usuario, com um parametro
+     * @param overrides expressoes que substituem colunas no destino
+     */
+    private record TableCopy(String name, String where,
+            Map<String, String> overrides) {
+
+        int copy(final JdbcTemplate source, final JdbcTemplate target,
+                final Long userId) {
+            final List<Object[]> batch = new ArrayList<>();
+            final List<Integer> bound = new ArrayList<>();
+            final StringBuilder insert = new StringBuilder();
+            final int[] rows = {0};
+            source.query("SELECT * FROM " + name + " WHERE " + where,
+                    (RowCallbackHandler) rs -> {
+                        if (insert.isEmpty()) {
+                            insert.append(insertStatement(rs.getMetaData(),
+                                    bound));
+                        }
+                        final Object[] values = new Object[bound.size()];
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = rs.getObject(bound.get(i));
+                        }
+                        batch.add(values);
+                        rows[0]++;
+                        if (batch.size() == BATCH_SIZE) {
+                            target.batchUpdate(insert.toString(), batch);
+                            batch.clear();
+                        }
+                    }, userId);
+            if (!batch.isEmpty()) {
+                target.batchUpdate(insert.toString(), batch);
+            }
+            return rows[0];
+        }
+
+        void delete(final JdbcTemplate source, final Long userId) {
+            source.update("DELETE FROM " + name + " WHERE " + where, userId);
+        }
+
+        private String insertStatement(final ResultSetMetaData metaData,
+                final List<Integer> bound) throws SQLException {
+            final List<String> columns = new ArrayList<>();
+            final List<String> values = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                final String column = metaData.getColumnName(i)
+                        .toLowerCase(Locale.ROOT);
+                columns.add(column);
+                final String override = overrides.get(column);
+                if (override == null) {
+                    values.add("?");
+                    bound.add(i);
+                } else {
+                    values.add(override);
+                }
+            }
+            return "INSERT INTO " + name + " (" + String.join(", ", columns)
+                    + ") VALUES (" + String.join(", ", values) + ")";
+        }
+    }
+}
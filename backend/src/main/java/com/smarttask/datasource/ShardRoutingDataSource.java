@@ -0,0 +1,216 @@
+package com.smarttask.datasource;
+
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Encaminha cada transacao ao shard do usuario a que ela pertence.
+ *
+ * <p>O usuario vem, nesta ordem, do vinculo do {@link ShardContext} ou do
+ * contexto de seguranca; sem nenhum dos dois (login, cadastro, tarefas de
+ * inicializacao) a transacao vai para o shard padrao, que guarda o
+ * diretorio e a identidade (users e user_roles) de todos os usuarios. Os
+ * demais dados de cada usuario ficam apenas no shard indicado pelo
+ * {@link ShardDirectory}. Durante uma movimentacao o roteamento espera ela
+ * terminar, ate {@code datasource.sharding.move-timeout}.</p>
+ *
+ * <p>Como no roteamento de replicas, deve ficar atras de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * para que o shard seja escolhido no primeiro comando.</p>
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource
+        implements Closeable {
+
+    /** Prefixo das chaves dos shards. */
+    public static final String SHARD_PREFIX = "shard-";
+
+    /** Shard padrao: o banco de {@code spring.datasource}. */
+    public static final String DEFAULT_SHARD = SHARD_PREFIX + 0;
+
+    /**
+     * Tamanho da faixa de identificadores de cada shard. O shard N gera ids
+     * a partir de N vezes este valor, o que mantem ids unicos entre shards
+     * e permite mover linhas sem renumerar.
+     */
+    public static final long ID_RANGE = 1_000_000_000_000_000L;
+
+    /** Intervalo entre consultas ao diretorio durante uma movimentacao. */
+    private static final long MOVE_POLL_MILLIS = 100L;
+
+    private static final String SELECT_SEQUENCES = "SELECT schemaname, "
+            + "sequencename, last_value FROM pg_sequences "
+            + "WHERE schemaname = current_schema() AND sequencename <> ?";
+
+    /** Shards por chave, o padrao primeiro. */
+    private final Map<String, DataSource> shards;
+
+    /** Diretorio usuario -> shard. */
+    private final ShardDirectory directory;
+
+    /** Espera maxima por uma movimentacao em andamento. */
+    private final Duration moveTimeout;
+
+    /**
+     * Cria o roteamento e o registra no {@link ShardContext}.
+     *
+     * @param shards shards por chave, o padrao primeiro
+     * @param directory diretorio usuario -> shard
+     * @param moveTimeout espera maxima por uma movimentacao
+     */
+    public ShardRoutingDataSource(final Map<String, DataSource> shards,
+            final ShardDirectory directory, final Duration moveTimeout) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        this.directory = directory;
+        this.moveTimeout = moveTimeout;
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(DEFAULT_SHARD));
+        setLenientFallback(false);
+        afterPropertiesSet();
+        ShardContext.register(this);
+    }
+
+    /**
+     * Shards por chave, na ordem de configuracao.
+     *
+     * @return destinos do roteamento
+     */
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * Diretorio usuario -> shard.
+     *
+     * @return diretorio consultado pelo roteamento
+     */
+    public ShardDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Posicao atual do usuario no diretorio, sem esperar movimentacoes.
+     *
+     * @param userId usuario
+     * @return shard atual e movimentacao em andamento
+     */
+    public ShardDirectory.Placement placementOf(final Long userId) {
+        return directory.placementOf(userId);
+    }
+
+    /**
+     * Shard do usuario, esperando uma movimentacao em andamento terminar.
+     *
+     * @param userId usuario
+     * @return chave do shard
+     */
+    public String shardOf(final Long userId) {
+        final long deadline = System.currentTimeMillis()
+                + moveTimeout.toMillis();
+        ShardDirectory.Placement placement = directory.placementOf(userId);
+        while (placement.isMoving()) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("User " + userId
+                        + " is being moved to " + placement.movingTo());
+            }
+            sleep();
+            directory.evict(userId);
+            placement = directory.placementOf(userId);
+        }
+        if (!shards.containsKey(placement.shard())) {
+            throw new IllegalStateException("Unknown shard "
+                    + placement.shard() + " for user " + userId);
+        }
+        return placement.shard();
+    }
+
+    /**
+     * Leva as sequencias de cada shard para o inicio da sua faixa de
+     * identificadores. Sequencias ja alem do inicio ficam como estao. A
+     * sequencia de alteracoes da sincronizacao fica de fora: ela ordena as
+     * alteracoes de cada usuario e e ajustada a cada movimentacao.
+     */
+    public void reserveIdRanges() {
+        int index = 0;
+        for (final Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            final long start = index * ID_RANGE;
+            index++;
+            if (start == 0) {
+                continue;
+            }
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                    shard.getValue());
+            final List<Map<String, Object>> sequences = jdbcTemplate
+                    .queryForList(SELECT_SEQUENCES,
+                            TaskChangeTracker.SEQUENCE);
+            for (final Map<String, Object> sequence : sequences) {
+                final Number last = (Number) sequence.get("last_value");
+                if (last == null || last.longValue() < start) {
+                    final String name = sequence.get("schemaname") + "."
+                            + sequence.get("sequencename");
+                    jdbcTemplate.queryForObject("SELECT setval(?, ?, false)",
+                            Long.class, name, start);
+                    log.info("Sequencia {} do {} iniciada em {}", name,
+                            shard.getKey(), start);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        final String shard = ShardContext.boundShard();
+        if (shard != null) {
+            return shard;
+        }
+        Long userId = ShardContext.boundUser();
+        if (userId == null) {
+            userId = currentUserId();
+        }
+        return userId == null ? DEFAULT_SHARD : shardOf(userId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ShardContext.unregister(this);
+        for (final DataSource shard : shards.values()) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(MOVE_POLL_MILLIS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while waiting for a shard move", exception);
+        }
+    }
+
+    private static Long currentUserId() {
+        final Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal()
+                instanceof UserPrincipal user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
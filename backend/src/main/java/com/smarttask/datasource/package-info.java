@@ -0,0 +1,7 @@
+/**
+ * Roteamento das transacoes somente leitura para replicas do banco, com
+ * verificacao do atraso de replicacao e leitura das proprias escritas, e
+ * sharding opcional dos dados por usuario, com diretorio de shards e
+ * movimentacao de usuarios entre eles.
+ */
+package com.smarttask.datasource;
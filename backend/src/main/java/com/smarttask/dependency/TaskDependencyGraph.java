@@ -0,0 +1,619 @@
+package com.smarttask.dependency;
+
+import com.smarttask.repository.TaskDependencyStampView;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Grafo de dependencias das tarefas em memoria, com uma fotografia imutavel
+ * por usuario guardada em arrays primitivos: os ids das tarefas ordenados
+ * (o indice de cada tarefa e a sua posicao, achada por busca binaria) e, para
+ * cada tarefa, as que ela bloqueia, em formato de lista de adjacencia
+ * compacta. Para 100 mil arestas a fotografia ocupa poucos megabytes e a
+ * busca de ciclos ou dos bloqueados nao cria objetos por aresta.
+ *
+ * <p>A fotografia e montada a partir de {@code task_dependencies} no primeiro
+ * acesso. Cada usuario pertence a uma faixa com um contador de versao,
+ * incrementado na invalidacao, e uma carga so e guardada se a versao lida
+ * antes dela nao mudou, como em
+ * {@link com.smarttask.calendar.TaskCalendarIndex}. As leituras aceitam a
+ * fotografia ate o {@code ttl}, o que limita o atraso de alteracoes feitas
+ * por outras instancias; a validacao de uma nova aresta confere antes a
+ * impressao do grafo no banco. As fotografias menos usadas sao descartadas
+ * quando o total de arestas em memoria passa de {@code max-edges}.</p>
+ */
+@Component
+@Slf4j
+public class TaskDependencyGraph {
+
+    /** Quantidade de faixas de versao. */
+    static final int VERSION_STRIPES = 64;
+
+    /** Arestas do usuario, na ordem do indice do usuario. */
+    private static final String SELECT_EDGES = "SELECT id, task_id, "
+            + "blocker_id FROM task_dependencies WHERE user_id = ?";
+
+    /** Acesso JDBC que participa da transacao corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Fotografias por usuario, da menos para a mais usada. */
+    private final Map<Long, Snapshot> snapshots =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Versao de cada faixa de usuarios. */
+    private final AtomicLongArray versions =
+            new AtomicLongArray(VERSION_STRIPES);
+
+    /** Validade de uma fotografia para as leituras. */
+    private final Duration ttl;
+
+    /** Maior quantidade de arestas em memoria somando todos os usuarios. */
+    private final long maxEdges;
+
+    /** Arestas guardadas nas fotografias atuais. */
+    private long cachedEdges;
+
+    /**
+     * Cria o grafo.
+     *
+     * @param jdbcTemplate acesso JDBC
+     * @param ttl validade de uma fotografia
+     * @param maxEdges arestas em memoria somando todos os usuarios
+     */
+    public TaskDependencyGraph(final JdbcTemplate jdbcTemplate,
+            final @Value("${tasks.dependencies.ttl:60s}") Duration ttl,
+            final @Value("${tasks.dependencies.max-edges:1000000}")
+                    long maxEdges) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.maxEdges = maxEdges;
+    }
+
+    /**
+     * Fotografia do usuario para leitura: a guardada, se ainda valida, ou
+     * uma carga nova do banco.
+     *
+     * @param userId identificador do usuario
+     * @return fotografia do grafo do usuario
+     */
+    public Snapshot snapshot(final Long userId) {
+        final Snapshot cached = find(userId);
+        return cached != null ? cached : load(userId);
+    }
+
+    /**
+     * Fotografia identica ao grafo gravado, para validar uma nova aresta.
+     * Deve ser chamado com o grafo do usuario bloqueado para escrita.
+     *
+     * @param userId identificador do usuario
+     * @param stamp impressao atual do grafo no banco
+     * @return fotografia com a mesma impressao
+     */
+    public Snapshot current(final Long userId,
+            final TaskDependencyStampView stamp) {
+        final Snapshot cached;
+        synchronized (this) {
+            cached = snapshots.get(userId);
+        }
+        if (cached != null && cached.matches(stamp)) {
+            return cached;
+        }
+        return load(userId);
+    }
+
+    /**
+     * Versao atual do usuario, lida antes de consultar o banco e devolvida
+     * em {@link #put}.
+     *
+     * @param userId identificador do usuario
+     * @return versao da faixa do usuario
+     */
+    public long version(final Long userId) {
+        return versions.get(stripe(userId));
+    }
+
+    /**
+     * Guarda a fotografia do usuario quando nenhuma invalidacao aconteceu
+     * desde {@code version}.
+     *
+     * @param userId identificador do usuario
+     * @param version versao lida antes da consulta
+     * @param snapshot fotografia montada
+     */
+    public synchronized void put(final Long userId, final long version,
+            final Snapshot snapshot) {
+        if (versions.get(stripe(userId)) != version) {
+            return;
+        }
+        remove(userId);
+        snapshots.put(userId, snapshot);
+        cachedEdges += snapshot.edges();
+        final Iterator<Map.Entry<Long, Snapshot>> eldest =
+                snapshots.entrySet().iterator();
+        while (cachedEdges > maxEdges && eldest.hasNext()) {
+            cachedEdges -= eldest.next().getValue().edges();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Agenda para depois do commit corrente a troca da fotografia do usuario
+     * por {@code snapshot}, desde que nenhuma invalidacao aconteca antes.
+     *
+     * @param userId identificador do usuario
+     * @param version versao lida antes de validar a alteracao
+     * @param snapshot fotografia com a alteracao aplicada
+     */
+    public void putAfterCommit(final Long userId, final long version,
+            final Snapshot snapshot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(userId, version, snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        put(userId, version, snapshot);
+                    }
+                });
+    }
+
+    /**
+     * Descarta as fotografias dos usuarios e invalida as cargas em
+     * andamento.
+     *
+     * @param userIds identificadores dos usuarios
+     */
+    public synchronized void invalidate(final Collection<Long> userIds) {
+        for (final Long userId : userIds) {
+            versions.incrementAndGet(stripe(userId));
+            remove(userId);
+        }
+    }
+
+    /**
+     * Agenda a invalidacao dos usuarios para depois do commit corrente.
+     *
+     * @param userIds usuarios cujas dependencias foram alteradas
+     */
+    public void invalidateAfterCommit(final Collection<Long> userIds) {
+        final Set<Long> invalidated = Set.copyOf(userIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(invalidated);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate(invalidated);
+                    }
+                });
+    }
+
+    private synchronized Snapshot find(final Long userId) {
+        final Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            return null;
+        }
+        if (System.nanoTime() - snapshot.loadedAt() >= ttl.toNanos()) {
+            remove(userId);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private Snapshot load(final Long userId) {
+        final long version = version(userId);
+        final EdgeBuffer buffer = new EdgeBuffer();
+        jdbcTemplate.query(SELECT_EDGES, (RowCallbackHandler) rs ->
+                buffer.add(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                userId);
+        final Snapshot snapshot = buffer.build();
+        put(userId, version, snapshot);
+        return snapshot;
+    }
+
+    private void remove(final Long userId) {
+        final Snapshot removed = snapshots.remove(userId);
+        if (removed != null) {
+            cachedEdges -= removed.edges();
+        }
+    }
+
+    private static int stripe(final Long userId) {
+        return Long.hashCode(userId) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Arestas lidas do banco, acumuladas em arrays que dobram de tamanho.
+     */
+    private static final class EdgeBuffer {
+
+        private long[] tasks = new long[64];
+
+        private long[] blockers = new long[64];
+
+        private int size;
+
+        private long lastId;
+
+        void add(final long id, final long taskId, final long blockerId) {
+            if (size == tasks.length) {
+                tasks = Arrays.copyOf(tasks, size * 2);
+                blockers = Arrays.copyOf(blockers, size * 2);
+            }
+            tasks[size] = taskId;
+            blockers[size] = blockerId;
+            size++;
+            lastId = Math.max(lastId, id);
+        }
+
+        Snapshot build() {
+            return Snapshot.build(tasks, blockers, size,
+                    size == 0 ? null : lastId);
+        }
+    }
+
+    /**
+     * Grafo de dependencias de um usuario. Apenas tarefas com ao menos uma
+     * aresta aparecem; as demais nao bloqueiam nem sao bloqueadas.
+     */
+    public static final class Snapshot {
+
+        /** Ids das tarefas do grafo, em ordem crescente. */
+        private final long[] nodes;
+
+        /** Inicio, em {@link #blocked}, das tarefas bloqueadas por cada no. */
+        private final int[] blockedStart;
+
+        /** Indices das tarefas bloqueadas, agrupados por bloqueador. */
+        private final int[] blocked;
+
+        /** Nivel de cada no: a maior cadeia de bloqueadores acima dele. */
+        private final int[] depth;
+
+        /** Maior id entre as arestas, parte da impressao. */
+        private final Long lastId;
+
+        /** Instante da carga, em {@link System#nanoTime()}. */
+        private final long loadedAt;
+
+        private Snapshot(final long[] nodes, final int[] blockedStart,
+                final int[] blocked, final int[] depth, final Long lastId) {
+            this.nodes = nodes;
+            this.blockedStart = blockedStart;
+            this.blocked = blocked;
+            this.depth = depth;
+            this.lastId = lastId;
+            this.loadedAt = System.nanoTime();
+        }
+
+        /**
+         * Monta o grafo a partir das arestas.
+         *
+         * @param tasks tarefa bloqueada de cada aresta
+         * @param blockers bloqueador de cada aresta
+         * @param size quantidade de arestas validas nos arrays
+         * @param lastId maior id entre as arestas
+         * @return grafo montado
+         */
+        static Snapshot build(final long[] tasks, final long[] blockers,
+                final int size, final Long lastId) {
+            final long[] ids = new long[size * 2];
+            System.arraycopy(tasks, 0, ids, 0, size);
+            System.arraycopy(blockers, 0, ids, size, size);
+            Arrays.sort(ids);
+            int count = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (count == 0 || ids[i] != ids[count - 1]) {
+                    ids[count++] = ids[i];
+                }
+            }
+            final long[] nodes = Arrays.copyOf(ids, count);
+
+            final int[] from = new int[size];
+            final int[] to = new int[size];
+            final int[] blockedStart = new int[count + 1];
+            final int[] inDegree = new int[count];
+            for (int i = 0; i < size; i++) {
+                from[i] = Arrays.binarySearch(nodes, blockers[i]);
+                to[i] = Arrays.binarySearch(nodes, tasks[i]);
+                blockedStart[from[i] + 1]++;
+                inDegree[to[i]]++;
+            }
+            for (int i = 0; i < count; i++) {
+                blockedStart[i + 1] += blockedStart[i];
+            }
+            final int[] blocked = new int[size];
+            final int[] next = Arrays.copyOf(blockedStart, count);
+            for (int i = 0; i < size; i++) {
+                blocked[next[from[i]]++] = to[i];
+            }
+            return new Snapshot(nodes, blockedStart, blocked,
+                    depths(blockedStart, blocked, inDegree), lastId);
+        }
+
+        /**
+         * Niveis pela ordenacao topologica de Kahn: cada no fica um nivel
+         * abaixo do mais profundo dos seus bloqueadores. Nos presos em um
+         * ciclo, que a validacao das arestas impede, ficam no ultimo nivel.
+         */
+        private static int[] depths(final int[] blockedStart,
+                final int[] blocked, final int[] inDegree) {
+            final int count = inDegree.length;
+            final int[] depth = new int[count];
+            final int[] queue = new int[count];
+            int tail = 0;
+            for (int i = 0; i < count; i++) {
+                if (inDegree[i] == 0) {
+                    queue[tail++] = i;
+                }
+            }
+            int maxDepth = 0;
+            for (int head = 0; head < tail; head++) {
+                final int node = queue[head];
+                maxDepth = Math.max(maxDepth, depth[node]);
+                for (int e = blockedStart[node]; e < blockedStart[node + 1];
+                        e++) {
+                    final int target = blocked[e];
+                    depth[target] = Math.max(depth[target], depth[node] + 1);
+                    if (--inDegree[target] == 0) {
+                        queue[tail++] = target;
+                    }
+                }
+            }
+            if (tail < count) {
+                log.warn("Grafo de dependencias com {} tarefas em ciclo",
+                        count - tail);
+                for (int i = 0; i < count; i++) {
+                    if (inDegree[i] > 0) {
+                        depth[i] = maxDepth + 1;
+                    }
+                }
+            }
+            return depth;
+        }
+
+        /**
+         * Grafo com uma aresta a mais. A aresta e encaixada nos arrays atuais,
+         * sem ordenar nem buscar de novo as demais, e apenas os niveis das
+         * tarefas abaixo da bloqueada sao recalculados. A aresta nao pode
+         * fechar um ciclo; confira antes com {@link #blocks(long, long)}.
+         *
+         * @param taskId tarefa bloqueada
+         * @param blockerId bloqueador
+         * @param edgeId id da nova aresta
+         * @return novo grafo
+         */
+        public Snapshot withEdge(final long taskId, final long blockerId,
+                final long edgeId) {
+            long[] ids = nodes;
+            int[] start = blockedStart;
+            int[] targets = blocked;
+            int[] levels = depth;
+            for (final long id : new long[] {taskId, blockerId}) {
+                final int found = Arrays.binarySearch(ids, id);
+                if (found >= 0) {
+                    continue;
+                }
+                // No novo, sem arestas: os indices a partir dele avancam um.
+                final int at = -found - 1;
+                final long[] nextIds = new long[ids.length + 1];
+                System.arraycopy(ids, 0, nextIds, 0, at);
+                nextIds[at] = id;
+                System.arraycopy(ids, at, nextIds, at + 1, ids.length - at);
+                final int[] nextStart = new int[start.length + 1];
+                System.arraycopy(start, 0, nextStart, 0, at + 1);
+                System.arraycopy(start, at, nextStart, at + 1,
+                        start.length - at);
+                final int[] nextLevels = new int[levels.length + 1];
+                System.arraycopy(levels, 0, nextLevels, 0, at);
+                System.arraycopy(levels, at, nextLevels, at + 1,
+                        levels.length - at);
+                final int[] nextTargets = new int[targets.length];
+                for (int e = 0; e < targets.length; e++) {
+                    nextTargets[e] = targets[e] >= at
+                            ? targets[e] + 1
+                            : targets[e];
+                }
+                ids = nextIds;
+                start = nextStart;
+                levels = nextLevels;
+                targets = nextTargets;
+            }
+
+            final int from = Arrays.binarySearch(ids, blockerId);
+            final int to = Arrays.binarySearch(ids, taskId);
+            final int at = start[from + 1];
+            final int[] nextTargets = new int[targets.length + 1];
+            System.arraycopy(targets, 0, nextTargets, 0, at);
+            nextTargets[at] = to;
+            System.arraycopy(targets, at, nextTargets, at + 1,
+                    targets.length - at);
+            final int[] nextStart = start == blockedStart
+                    ? start.clone()
+                    : start;
+            for (int i = from + 1; i < nextStart.length; i++) {
+                nextStart[i]++;
+            }
+            final int[] nextLevels = levels == depth ? levels.clone() : levels;
+            final Long nextLastId = lastId == null
+                    ? edgeId
+                    : Math.max(lastId, edgeId);
+            if (!raise(nextStart, nextTargets, nextLevels, to,
+                    nextLevels[from] + 1)) {
+                return rebuild(ids, nextStart, nextTargets, nextLastId);
+            }
+            return new Snapshot(ids, nextStart, nextTargets, nextLevels,
+                    nextLastId);
+        }
+
+        /**
+         * Eleva o nivel de um no e propaga para os que ele bloqueia. Desiste
+         * depois de visitas demais, o que so acontece em grafos patologicos
+         * (ou com ciclo), para que o chamador monte o grafo do zero.
+         */
+        private static boolean raise(final int[] start, final int[] targets,
+                final int[] levels, final int node, final int level) {
+            if (levels[node] >= level) {
+                return true;
+            }
+            levels[node] = level;
+            int budget = levels.length + targets.length;
+            int[] stack = new int[16];
+            int top = 0;
+            stack[top++] = node;
+            while (top > 0) {
+                final int current = stack[--top];
+                for (int e = start[current]; e < start[current + 1]; e++) {
+                    final int target = targets[e];
+                    if (levels[target] > levels[current]) {
+                        continue;
+                    }
+                    if (--budget < 0) {
+                        return false;
+                    }
+                    levels[target] = levels[current] + 1;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = target;
+                }
+            }
+            return true;
+        }
+
+        private static Snapshot rebuild(final long[] ids, final int[] start,
+                final int[] targets, final Long lastId) {
+            final long[] tasks = new long[targets.length];
+            final long[] blockers = new long[targets.length];
+            for (int node = 0; node < ids.length; node++) {
+                for (int e = start[node]; e < start[node + 1]; e++) {
+                    tasks[e] = ids[targets[e]];
+                    blockers[e] = ids[node];
+                }
+            }
+            return build(tasks, blockers, targets.length, lastId);
+        }
+
+        /**
+         * Indica se {@code from} bloqueia, direta ou indiretamente,
+         * {@code to}. Busca em profundidade com pilha e marcas primitivas.
+         *
+         * @param from tarefa de partida
+         * @param to tarefa procurada
+         * @return {@code true} quando existe caminho
+         */
+        public boolean blocks(final long from, final long to) {
+            final int start = Arrays.binarySearch(nodes, from);
+            final int target = Arrays.binarySearch(nodes, to);
+            if (start < 0 || target < 0) {
+                return false;
+            }
+            final boolean[] visited = new boolean[nodes.length];
+            final int[] stack = new int[nodes.length];
+            int top = 0;
+            stack[top++] = start;
+            visited[start] = true;
+            while (top > 0) {
+                final int node = stack[--top];
+                if (node == target) {
+                    return true;
+                }
+                for (int e = blockedStart[node]; e < blockedStart[node + 1];
+                        e++) {
+                    final int next = blocked[e];
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        stack[top++] = next;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marca as tarefas bloqueadas por algum dos bloqueadores informados.
+         *
+         * @param blockerIds tarefas ainda nao concluidas
+         * @return marcas por indice de no, lidas com {@link #isMarked}
+         */
+        public boolean[] markBlockedBy(final Collection<Long> blockerIds) {
+            final boolean[] marks = new boolean[nodes.length];
+            for (final Long blockerId : blockerIds) {
+                final int node = Arrays.binarySearch(nodes, blockerId);
+                if (node < 0) {
+                    continue;
+                }
+                for (int e = blockedStart[node]; e < blockedStart[node + 1];
+                        e++) {
+                    marks[blocked[e]] = true;
+                }
+            }
+            return marks;
+        }
+
+        /**
+         * Consulta uma marca de {@link #markBlockedBy}.
+         *
+         * @param marks marcas por indice de no
+         * @param taskId tarefa consultada
+         * @return {@code true} quando a tarefa esta marcada
+         */
+        public boolean isMarked(final boolean[] marks, final long taskId) {
+            final int node = Arrays.binarySearch(nodes, taskId);
+            return node >= 0 && marks[node];
+        }
+
+        /**
+         * Nivel topologico da tarefa.
+         *
+         * @param taskId tarefa consultada
+         * @return zero para tarefas sem bloqueadores
+         */
+        public int depth(final long taskId) {
+            final int node = Arrays.binarySearch(nodes, taskId);
+            return node < 0 ? 0 : depth[node];
+        }
+
+        /**
+         * Quantidade de arestas.
+         *
+         * @return total de arestas
+         */
+        public int edges() {
+            return blocked.length;
+        }
+
+        /**
+         * Indica se o grafo corresponde a impressao lida do banco.
+         *
+         * @param stamp impressao atual
+         * @return {@code true} quando quantidade e maior id coincidem
+         */
+        public boolean matches(final TaskDependencyStampView stamp) {
+            return stamp.getEdges() == blocked.length
+                    && Objects.equals(stamp.getLastId(), lastId);
+        }
+
+        private long loadedAt() {
+            return loadedAt;
+        }
+    }
+}
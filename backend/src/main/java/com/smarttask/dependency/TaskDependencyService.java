@@ -0,0 +1,253 @@
+package com.smarttask.dependency;
+
+import com.smarttask.dependency.TaskDependencyGraph.Snapshot;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskDependency;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskDependencyRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskViewAssembler;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Dependencias entre tarefas: criar e remover arestas "bloqueada por" e
+ * listar as tarefas prontas para comecar.
+ *
+ * <p>Uma nova aresta e validada contra ciclos no
+ * {@link TaskDependencyGraph} com as escritas de dependencias do usuario
+ * serializadas pelo bloqueio da sua linha em {@code users}; antes da busca,
+ * a impressao do grafo no banco confirma que a fotografia em memoria esta
+ * completa, e apos o commit a fotografia com a nova aresta substitui a
+ * anterior. Os status nao fazem parte do grafo: as tarefas prontas sao
+ * calculadas a cada leitura a partir dos ids das tarefas nao concluidas,
+ * lidos so pelo indice de status.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskDependencyService {
+
+    /** Tarefas prontas devolvidas quando o cliente nao informa. */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /** Maior quantidade de tarefas prontas aceita. */
+    public static final int MAX_LIMIT = 200;
+
+    /** Bloqueia o grafo do usuario ate o fim da transacao. */
+    private static final String LOCK_USER =
+            "SELECT id FROM users WHERE id = ? FOR UPDATE";
+
+    /** Status das tarefas que podem ficar prontas. */
+    private static final List<TaskStatus> OPEN_STATUSES =
+            List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+
+    /** Mensagem padrao para tarefa inexistente. */
+    private static final String TASK_NOT_FOUND_MESSAGE = "Task not found";
+
+    /** Mensagem para dependencias inexistentes. */
+    private static final String DEPENDENCY_NOT_FOUND_MESSAGE =
+            "Dependency not found";
+
+    /** Aviso de acesso negado a tarefas de outro usuario. */
+    private static final String ACCESS_DENIED_MESSAGE =
+            "You don't have permission to access this task";
+
+    /** Mensagem para tarefas bloqueadas por si mesmas. */
+    private static final String SELF_DEPENDENCY_MESSAGE =
+            "A task cannot be blocked by itself";
+
+    /** Mensagem para arestas que fechariam um ciclo. */
+    private static final String CYCLE_MESSAGE =
+            "The blocker already depends on this task";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositorio das arestas. */
+    private final TaskDependencyRepository taskDependencyRepository;
+
+    /** Grafo de dependencias em memoria. */
+    private final TaskDependencyGraph taskDependencyGraph;
+
+    /** Montador das respostas de leitura a partir de projecoes. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Acesso JDBC para o bloqueio do usuario. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /**
+     * Marca uma tarefa como bloqueada por outra. Repetir uma dependencia
+     * existente nao tem efeito.
+     *
+     * @param taskId tarefa bloqueada
+     * @param blockerId tarefa que precisa ser concluida antes
+     * @param currentUser usuario autenticado
+     */
+    @Transactional
+    @Traced("TaskDependencyService.addDependency")
+    public void addDependency(final Long taskId, final Long blockerId,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Long userId = currentUser.getId();
+        if (taskId.equals(blockerId)) {
+            throw new IllegalStateException(SELF_DEPENDENCY_MESSAGE);
+        }
+        requireOwned(taskId, userId);
+        requireOwned(blockerId, userId);
+
+        jdbcTemplate.queryForObject(LOCK_USER, Long.class, userId);
+        if (taskDependencyRepository.existsByTaskIdAndBlockerId(taskId,
+                blockerId)) {
+            return;
+        }
+        final long version = taskDependencyGraph.version(userId);
+        final Snapshot graph = taskDependencyGraph.current(userId,
+                taskDependencyRepository.findStamp(userId));
+        if (graph.blocks(taskId, blockerId)) {
+            throw new IllegalStateException(CYCLE_MESSAGE);
+        }
+        final TaskDependency edge = taskDependencyRepository.save(
+                TaskDependency.builder()
+                        .taskId(taskId)
+                        .blockerId(blockerId)
+                        .userId(userId)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+        taskDependencyGraph.putAfterCommit(userId, version,
+                graph.withEdge(taskId, blockerId, edge.getId()));
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "dependency_add");
+    }
+
+    /**
+     * Remove uma dependencia.
+     *
+     * @param taskId tarefa bloqueada
+     * @param blockerId bloqueador
+     * @param currentUser usuario autenticado
+     */
+    @Transactional
+    @Traced("TaskDependencyService.removeDependency")
+    public void removeDependency(final Long taskId, final Long blockerId,
+            final UserPrincipal currentUser) {
+        final Long userId = currentUser.getId();
+        requireOwned(taskId, userId);
+        if (taskDependencyRepository.deleteEdge(taskId, blockerId,
+                userId) == 0) {
+            throw new ResourceNotFoundException(DEPENDENCY_NOT_FOUND_MESSAGE);
+        }
+        taskDependencyGraph.invalidateAfterCommit(List.of(userId));
+    }
+
+    /**
+     * Lista os bloqueadores diretos de uma tarefa.
+     *
+     * @param taskId tarefa bloqueada
+     * @param currentUser usuario autenticado
+     * @return bloqueadores em ordem de id
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskDependencyService.getBlockers")
+    public List<TaskResponse> getBlockers(final Long taskId,
+            final UserPrincipal currentUser) {
+        final Long userId = currentUser.getId();
+        requireOwned(taskId, userId);
+        final List<Long> ids = taskDependencyRepository.findBlockerIds(taskId,
+                userId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return taskViewAssembler.toResponses(
+                taskRepository.findViewsByUserIdAndIdIn(userId, ids));
+    }
+
+    /**
+     * Lista as tarefas abertas cujos bloqueadores estao todos concluidos, em
+     * ordem topologica: primeiro as de menor nivel no grafo (as que nunca
+     * tiveram bloqueadores estao no nivel zero), depois por id.
+     *
+     * @param limit quantidade de tarefas (opcional, ate {@value #MAX_LIMIT})
+     * @param currentUser usuario autenticado
+     * @return tarefas prontas
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskDependencyService.getReadyTasks")
+    public List<TaskResponse> getReadyTasks(final Integer limit,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Long userId = currentUser.getId();
+        final int size = limit == null
+                ? DEFAULT_LIMIT
+                : Math.max(1, Math.min(limit, MAX_LIMIT));
+        final Snapshot graph = taskDependencyGraph.snapshot(userId);
+        final List<Long> open = taskRepository.findIdsByUserIdAndStatusIn(
+                userId, OPEN_STATUSES);
+
+        final List<Long> ready;
+        if (graph.edges() == 0) {
+            ready = new ArrayList<>(open);
+            ready.sort(Comparator.naturalOrder());
+        } else {
+            // Canceladas tambem bloqueiam: so conclusao libera a tarefa.
+            final List<Long> pending = new ArrayList<>(open);
+            pending.addAll(taskRepository.findIdsByUserIdAndStatusIn(userId,
+                    List.of(TaskStatus.CANCELLED)));
+            final boolean[] blocked = graph.markBlockedBy(pending);
+            ready = new ArrayList<>(open.size());
+            for (final Long id : open) {
+                if (!graph.isMarked(blocked, id)) {
+                    ready.add(id);
+                }
+            }
+            ready.sort(Comparator.comparingInt((Long id) -> graph.depth(id))
+                    .thenComparing(Comparator.naturalOrder()));
+        }
+
+        final List<Long> page = ready.subList(0, Math.min(size,
+                ready.size()));
+        final List<TaskResponse> tasks = new ArrayList<>(page.size());
+        if (!page.isEmpty()) {
+            final Map<Long, TaskResponse> byId = new HashMap<>();
+            for (final TaskResponse task : taskViewAssembler.toResponses(
+                    taskRepository.findViewsByUserIdAndIdIn(userId, page))) {
+                byId.put(task.getId(), task);
+            }
+            for (final Long id : page) {
+                final TaskResponse task = byId.get(id);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "ready");
+        return tasks;
+    }
+
+    private void requireOwned(final Long taskId, final Long userId) {
+        if (taskRepository.findVersionByIdAndUserId(taskId, userId)
+                .isPresent()) {
+            return;
+        }
+        if (taskRepository.existsById(taskId)) {
+            throw new AccessDeniedException(ACCESS_DENIED_MESSAGE);
+        }
+        throw new ResourceNotFoundException(TASK_NOT_FOUND_MESSAGE);
+    }
+}
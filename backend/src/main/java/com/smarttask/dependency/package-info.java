@@ -0,0 +1,5 @@
+/**
+ * Dependencias entre tarefas ("bloqueada por"), validadas contra ciclos em
+ * um grafo em memoria por usuario e usadas para listar as tarefas prontas.
+ */
+package com.smarttask.dependency;
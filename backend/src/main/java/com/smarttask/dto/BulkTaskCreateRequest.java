@@ -0,0 +1,28 @@
+package com.smarttask.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lote de tarefas a serem criadas em uma unica requisicao.
+ * Cada item e validado individualmente para que falhas sejam reportadas
+ * por item, sem rejeitar o lote inteiro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskCreateRequest {
+
+    /** Quantidade maxima de itens aceitos por requisicao em lote. */
+    public static final int MAX_ITEMS = 5000;
+
+    /** Tarefas a serem criadas, na ordem em que os resultados retornam. */
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<TaskRequest> tasks;
+}
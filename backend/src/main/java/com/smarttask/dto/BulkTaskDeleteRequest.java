@@ -0,0 +1,23 @@
+package com.smarttask.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lote de identificadores de tarefas a serem removidas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskDeleteRequest {
+
+    /** Identificadores das tarefas, na ordem em que os resultados retornam. */
+    @NotEmpty
+    @Size(max = BulkTaskCreateRequest.MAX_ITEMS)
+    private List<Long> ids;
+}
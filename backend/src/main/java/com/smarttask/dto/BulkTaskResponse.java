@@ -0,0 +1,57 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado consolidado de uma operacao em lote, com um resultado por item
+ * na mesma ordem da requisicao.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+
+    /** Quantidade de itens processados com sucesso. */
+    private int succeeded;
+
+    /** Quantidade de itens que falharam. */
+    private int failed;
+
+    /** Resultado individual de cada item. */
+    private List<BulkItemResult> results;
+
+    /**
+     * Situacao final de um item do lote.
+     */
+    public enum BulkItemStatus {
+        /** Tarefa criada. */
+        CREATED,
+        /** Tarefa atualizada. */
+        UPDATED,
+        /** Tarefa removida. */
+        DELETED,
+        /** Item rejeitado; consulte a mensagem de erro. */
+        FAILED
+    }
+
+    /**
+     * Resultado de um item do lote.
+     *
+     * @param index posicao do item na requisicao
+     * @param id identificador da tarefa afetada, quando conhecido
+     * @param status situacao final do item
+     * @param error motivo da falha ou {@code null} em caso de sucesso
+     */
+    public record BulkItemResult(
+            int index,
+            Long id,
+            BulkItemStatus status,
+            String error) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Atualizacao parcial de uma tarefa dentro de um lote.
+ * Campos nulos permanecem inalterados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskUpdateItem {
+
+    /** Identificador da tarefa a ser atualizada. */
+    @NotNull
+    private Long id;
+
+    /** Novo titulo (opcional). */
+    @Size(min = Task.TITLE_MIN_LENGTH, max = Task.TITLE_MAX_LENGTH)
+    private String title;
+
+    /** Nova descricao (opcional). */
+    private String description;
+
+    /** Novo status (opcional). */
+    private TaskStatus status;
+
+    /** Nova prioridade (opcional). */
+    private TaskPriority priority;
+
+    /** Nova data de vencimento (opcional). */
+    private LocalDateTime dueDate;
+
+    /** Nova estimativa de horas (opcional). */
+    private Integer estimatedHours;
+
+    /** Horas efetivamente gastas (opcional). */
+    private Integer actualHours;
+
+    /** Novo conjunto de tags, substituindo o atual (opcional). */
+    private Set<String> tags;
+}
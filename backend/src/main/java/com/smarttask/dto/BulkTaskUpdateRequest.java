@@ -0,0 +1,23 @@
+package com.smarttask.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lote de atualizacoes parciais de tarefas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskUpdateRequest {
+
+    /** Atualizacoes a aplicar, na ordem em que os resultados retornam. */
+    @NotEmpty
+    @Size(max = BulkTaskCreateRequest.MAX_ITEMS)
+    private List<BulkTaskUpdateItem> tasks;
+}
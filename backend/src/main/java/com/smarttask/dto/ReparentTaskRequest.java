@@ -0,0 +1,17 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload para mover uma tarefa, com toda a sua subarvore, para outro pai.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReparentTaskRequest {
+
+    /** Novo pai da tarefa ou {@code null} para torna-la uma tarefa raiz. */
+    private Long parentTaskId;
+}
@@ -0,0 +1,25 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag do usuario com a quantidade de tarefas que a utilizam.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFacetResponse {
+
+    /** Identificador da tag no dicionario do usuario. */
+    private Long id;
+
+    /** Nome da tag. */
+    private String name;
+
+    /** Quantidade de tarefas com a tag. */
+    private long count;
+}
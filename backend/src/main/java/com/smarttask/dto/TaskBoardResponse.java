@@ -0,0 +1,36 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Quadro kanban do usuario: uma coluna por status, com as tarefas na ordem
+ * definida pelos movimentos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBoardResponse {
+
+    /** Colunas na ordem dos status. */
+    private List<BoardColumn> columns;
+
+    /**
+     * Tarefas de um status.
+     *
+     * @param status status da coluna
+     * @param tasks primeiras tarefas da coluna, de cima para baixo
+     * @param hasMore indica se a coluna tem mais tarefas que o limite
+     */
+    public record BoardColumn(
+            TaskStatus status,
+            List<TaskResponse> tasks,
+            boolean hasMore) {
+    }
+}
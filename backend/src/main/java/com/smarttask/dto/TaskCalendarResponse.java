@@ -0,0 +1,60 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tarefas com prazo em um intervalo de dias, agrupadas por dia. Dias sem
+ * tarefas nao aparecem.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCalendarResponse {
+
+    /** Primeiro dia do intervalo, inclusivo. */
+    private LocalDate from;
+
+    /** Ultimo dia do intervalo, inclusivo. */
+    private LocalDate to;
+
+    /** Dias com tarefas, em ordem crescente. */
+    private List<CalendarDay> days;
+
+    /**
+     * Tarefas de um dia.
+     *
+     * @param date dia
+     * @param tasks tarefas do dia, pelo horario do prazo
+     */
+    public record CalendarDay(LocalDate date, List<CalendarEntry> tasks) {
+    }
+
+    /**
+     * Tarefa exibida no calendario.
+     *
+     * @param id identificador da tarefa; vazio nas ocorrencias virtuais
+     * @param title titulo
+     * @param status status atual
+     * @param priority prioridade atual
+     * @param dueDate prazo
+     * @param recurrenceId tarefa modelo, apenas nas ocorrencias virtuais
+     */
+    public record CalendarEntry(
+            Long id,
+            String title,
+            TaskStatus status,
+            TaskPriority priority,
+            LocalDateTime dueDate,
+            Long recurrenceId) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Alteracoes das tarefas do usuario desde o cursor informado pelo cliente,
+ * usadas para manter uma replica local sem reler a lista inteira.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesResponse {
+
+    /** Tarefas criadas ou alteradas, na ordem da sequencia de alteracoes. */
+    private List<TaskResponse> changed;
+
+    /** Identificadores das tarefas removidas. */
+    private List<Long> deleted;
+
+    /** Cursor a enviar na proxima chamada. */
+    private String cursor;
+
+    /** Indica se ha mais alteracoes disponiveis imediatamente. */
+    private boolean hasMore;
+}
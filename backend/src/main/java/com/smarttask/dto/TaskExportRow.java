@@ -0,0 +1,71 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Linha da exportacao completa de tarefas, com as tags e os identificadores
+ * das subtarefas diretas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskExportRow {
+
+    /** Identificador da tarefa. */
+    private Long id;
+
+    /** Titulo da tarefa. */
+    private String title;
+
+    /** Descricao da tarefa. */
+    private String description;
+
+    /** Status no fluxo de trabalho. */
+    private TaskStatus status;
+
+    /** Prioridade da tarefa. */
+    private TaskPriority priority;
+
+    /** Data limite de conclusao. */
+    private LocalDateTime dueDate;
+
+    /** Data de conclusao. */
+    private LocalDateTime completedAt;
+
+    /** Estimativa de esforco em horas. */
+    private Integer estimatedHours;
+
+    /** Horas efetivamente registradas. */
+    private Integer actualHours;
+
+    /** Etiquetas da tarefa. */
+    private Set<String> tags;
+
+    /** Identificador da tarefa pai quando aplicavel. */
+    private Long parentTaskId;
+
+    /** Identificadores das subtarefas diretas, em ordem crescente. */
+    private List<Long> subtaskIds;
+
+    /** Indica se a prioridade foi sugerida pela IA. */
+    private Boolean aiSuggestedPriority;
+
+    /** Analise produzida pela IA. */
+    private String aiAnalysis;
+
+    /** Momento de criacao do registro. */
+    private LocalDateTime createdAt;
+
+    /** Momento da ultima atualizacao. */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.TaskImportJob.ImportFormat;
+import com.smarttask.model.TaskImportJob.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estado de uma importacao de tarefas em massa exposto ao cliente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportJobResponse {
+
+    /** Identificador da importacao. */
+    private Long id;
+
+    /** Formato do arquivo recebido. */
+    private ImportFormat format;
+
+    /** Etapa atual da importacao. */
+    private ImportStatus status;
+
+    /** Linhas lidas ate o momento. */
+    private long processedRows;
+
+    /** Linhas rejeitadas pela validacao. */
+    private long rejectedRows;
+
+    /** Tarefas criadas ao final da importacao. */
+    private long importedRows;
+
+    /** Primeiros erros de validacao, no formato {@code row N: motivo}. */
+    private List<String> rowErrors;
+
+    /** Motivo da falha quando a importacao foi abortada. */
+    private String failureReason;
+
+    /** Momento em que a importacao foi recebida. */
+    private LocalDateTime createdAt;
+
+    /** Momento em que o processamento comecou. */
+    private LocalDateTime startedAt;
+
+    /** Momento em que o processamento terminou. */
+    private LocalDateTime finishedAt;
+}
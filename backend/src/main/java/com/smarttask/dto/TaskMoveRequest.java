@@ -0,0 +1,25 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload para mover uma tarefa no quadro kanban, dentro da sua coluna ou
+ * para a coluna de outro status.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskMoveRequest {
+
+    /** Coluna de destino; {@code null} mantem o status atual. */
+    private TaskStatus status;
+
+    /**
+     * Tarefa da coluna de destino que fica imediatamente acima; {@code null}
+     * coloca a tarefa no topo da coluna.
+     */
+    private Long afterTaskId;
+}
@@ -0,0 +1,37 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ocorrencia virtual de uma tarefa recorrente, calculada a partir da regra
+ * e ainda sem linha propria. Vira uma tarefa ao ser alterada ou concluida
+ * em {@code PATCH /tasks/{recurrenceId}/occurrences/{dueDate}}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOccurrenceResponse {
+
+    /** Tarefa modelo da serie. */
+    private Long recurrenceId;
+
+    /** Titulo atual da tarefa modelo. */
+    private String title;
+
+    /** Status da ocorrencia; sempre TODO enquanto for virtual. */
+    private TaskStatus status;
+
+    /** Prioridade atual da tarefa modelo. */
+    private TaskPriority priority;
+
+    /** Prazo da ocorrencia, que a identifica na serie. */
+    private LocalDateTime dueDate;
+}
@@ -0,0 +1,31 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Pagina de tarefas obtida por paginacao por cursor (keyset), contendo o
+ * token opaco necessario para solicitar a pagina seguinte.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageResponse {
+
+    /** Tarefas da pagina atual, na ordem definida pelo cursor. */
+    private List<TaskResponse> items;
+
+    /** Cursor para a proxima pagina ou {@code null} quando nao ha mais. */
+    private String nextCursor;
+
+    /** Indica se existem mais tarefas alem desta pagina. */
+    private boolean hasMore;
+
+    /** Tamanho de pagina efetivamente aplicado pelo servidor. */
+    private int size;
+}
@@ -0,0 +1,196 @@
+package com.smarttask.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Documento JSON Merge Patch (RFC 7396) aplicado a uma tarefa.
+ *
+ * <p>Campos ausentes permanecem inalterados; campos presentes com
+ * {@code null} sao apagados. Os setters registram quais campos vieram no
+ * documento, o que permite distinguir ausencia de {@code null}. As tags,
+ * como todo array em merge patch, substituem o conjunto atual.</p>
+ */
+@Getter
+@NoArgsConstructor
+public class TaskPatchRequest {
+
+    /** Nome do campo de titulo. */
+    public static final String TITLE = "title";
+
+    /** Nome do campo de descricao. */
+    public static final String DESCRIPTION = "description";
+
+    /** Nome do campo de status. */
+    public static final String STATUS = "status";
+
+    /** Nome do campo de prioridade. */
+    public static final String PRIORITY = "priority";
+
+    /** Nome do campo de vencimento. */
+    public static final String DUE_DATE = "dueDate";
+
+    /** Nome do campo de horas estimadas. */
+    public static final String ESTIMATED_HOURS = "estimatedHours";
+
+    /** Nome do campo de horas gastas. */
+    public static final String ACTUAL_HOURS = "actualHours";
+
+    /** Nome do campo de tags. */
+    public static final String TAGS = "tags";
+
+    /** Novo titulo; nao pode ser apagado. */
+    @Size(min = Task.TITLE_MIN_LENGTH, max = Task.TITLE_MAX_LENGTH)
+    private String title;
+
+    /** Nova descricao. */
+    private String description;
+
+    /** Novo status; nao pode ser apagado. */
+    private TaskStatus status;
+
+    /** Nova prioridade; nao pode ser apagada. */
+    private TaskPriority priority;
+
+    /** Nova data de vencimento. */
+    private LocalDateTime dueDate;
+
+    /** Nova estimativa de horas. */
+    private Integer estimatedHours;
+
+    /** Horas efetivamente gastas. */
+    private Integer actualHours;
+
+    /** Novo conjunto de tags, substituindo o atual. */
+    private Set<String> tags;
+
+    /**
+     * Versao lida pelo cliente (opcional). Quando informada e diferente da
+     * atual, a alteracao e recusada com 409.
+     */
+    private Long version;
+
+    /** Campos presentes no documento. */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final Set<String> presentFields = new HashSet<>();
+
+    /**
+     * Indica se o campo veio no documento, mesmo que com {@code null}.
+     *
+     * @param field nome do campo
+     * @return {@code true} quando o campo deve ser aplicado
+     */
+    public boolean has(final String field) {
+        return presentFields.contains(field);
+    }
+
+    /**
+     * Indica se o documento nao trouxe nenhum campo.
+     *
+     * @return {@code true} quando nao ha nada a aplicar
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return presentFields.isEmpty();
+    }
+
+    /**
+     * Define o titulo.
+     *
+     * @param title novo titulo
+     */
+    public void setTitle(final String title) {
+        this.title = title;
+        presentFields.add(TITLE);
+    }
+
+    /**
+     * Define a descricao.
+     *
+     * @param description nova descricao ou {@code null} para apagar
+     */
+    public void setDescription(final String description) {
+        this.description = description;
+        presentFields.add(DESCRIPTION);
+    }
+
+    /**
+     * Define o status.
+     *
+     * @param status novo status
+     */
+    public void setStatus(final TaskStatus status) {
+        this.status = status;
+        presentFields.add(STATUS);
+    }
+
+    /**
+     * Define a prioridade.
+     *
+     * @param priority nova prioridade
+     */
+    public void setPriority(final TaskPriority priority) {
+        this.priority = priority;
+        presentFields.add(PRIORITY);
+    }
+
+    /**
+     * Define o vencimento.
+     *
+     * @param dueDate novo vencimento ou {@code null} para apagar
+     */
+    public void setDueDate(final LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        presentFields.add(DUE_DATE);
+    }
+
+    /**
+     * Define as horas estimadas.
+     *
+     * @param estimatedHours nova estimativa ou {@code null} para apagar
+     */
+    public void setEstimatedHours(final Integer estimatedHours) {
+        this.estimatedHours = estimatedHours;
+        presentFields.add(ESTIMATED_HOURS);
+    }
+
+    /**
+     * Define as horas gastas.
+     *
+     * @param actualHours horas gastas ou {@code null} para apagar
+     */
+    public void setActualHours(final Integer actualHours) {
+        this.actualHours = actualHours;
+        presentFields.add(ACTUAL_HOURS);
+    }
+
+    /**
+     * Define as tags.
+     *
+     * @param tags novo conjunto ou {@code null} para remover todas
+     */
+    public void setTags(final Set<String> tags) {
+        this.tags = tags;
+        presentFields.add(TAGS);
+    }
+
+    /**
+     * Define a versao esperada.
+     *
+     * @param version versao lida pelo cliente
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,25 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.TaskRecurrence;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload para tornar uma tarefa recorrente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRecurrenceRequest {
+
+    /**
+     * Regra no formato RRULE, por exemplo {@code FREQ=WEEKLY;BYDAY=MO,WE}.
+     * Aceita FREQ, INTERVAL, BYDAY (semanal), COUNT e UNTIL (data).
+     */
+    @NotBlank
+    @Size(max = TaskRecurrence.RULE_MAX_LENGTH)
+    private String rule;
+}
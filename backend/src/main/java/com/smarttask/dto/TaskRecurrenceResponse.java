@@ -0,0 +1,30 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Regra de recorrencia gravada para uma tarefa modelo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRecurrenceResponse {
+
+    /** Tarefa modelo. */
+    private Long taskId;
+
+    /** Regra no formato canonico. */
+    private String rule;
+
+    /** Primeira ocorrencia, o prazo da tarefa modelo. */
+    private LocalDateTime startsAt;
+
+    /** Ultima ocorrencia possivel ou {@code null} nas series sem fim. */
+    private LocalDateTime endsAt;
+}
@@ -55,6 +55,18 @@ public class TaskResponse {
     /** Quantidade de subtarefas diretamente associadas. */
     private Integer subtaskCount;
 
+    /** Horas estimadas da tarefa somadas às de toda a subárvore. */
+    private Long subtreeEstimatedHours;
+
+    /** Horas reais da tarefa somadas às de toda a subárvore. */
+    private Long subtreeActualHours;
+
+    /** Tarefas abertas na subárvore, incluindo a própria tarefa. */
+    private Long subtreeOpenCount;
+
+    /** Tarefas concluídas na subárvore, incluindo a própria tarefa. */
+    private Long subtreeCompletedCount;
+
     /** Indica se a prioridade foi ajustada pela IA. */
     private Boolean aiSuggestedPriority;
 
@@ -66,4 +78,7 @@ public class TaskResponse {
 
     /** Momento da última atualização persistida. */
     private LocalDateTime updatedAt;
+
+    /** Versão atual, a mesma exposta no cabeçalho {@code ETag}. */
+    private Long version;
 }
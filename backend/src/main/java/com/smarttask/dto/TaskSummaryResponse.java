@@ -0,0 +1,43 @@
+package com.smarttask.dto;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Resumo das tarefas do usuario exibido no dashboard, lido dos contadores
+ * agregados sem percorrer a tabela de tarefas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryResponse {
+
+    /** Total de tarefas do usuario. */
+    private long total;
+
+    /** Quantidade de tarefas por status. */
+    private Map<TaskStatus, Long> byStatus;
+
+    /** Quantidade de tarefas por prioridade. */
+    private Map<TaskPriority, Long> byPriority;
+
+    /** Tarefas atrasadas e nao concluidas. */
+    private long overdue;
+
+    /** Soma das horas estimadas. */
+    private long estimatedHours;
+
+    /** Soma das horas efetivamente gastas. */
+    private long actualHours;
+
+    /** Momento da ultima conferencia dos contadores contra as tarefas. */
+    private LocalDateTime reconciledAt;
+}
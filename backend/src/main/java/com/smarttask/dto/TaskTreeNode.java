@@ -0,0 +1,30 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * No da arvore de subtarefas devolvida em uma unica consulta, com a tarefa,
+ * sua profundidade relativa a raiz e os filhos diretos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTreeNode {
+
+    /** Dados da tarefa deste no. */
+    private TaskResponse task;
+
+    /** Distancia ate a raiz consultada; zero para a propria raiz. */
+    private int depth;
+
+    /** Subtarefas diretas, ordenadas por identificador. */
+    @Builder.Default
+    private List<TaskTreeNode> children = new ArrayList<>();
+}
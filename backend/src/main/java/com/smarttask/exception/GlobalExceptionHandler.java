@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,6 +35,10 @@ public final class GlobalExceptionHandler {
     private static final String GENERIC_ERROR_MESSAGE =
         "Ocorreu um erro inesperado. Tente novamente mais tarde.";
 
+    /** Mensagem para escritas concorrentes sobre o mesmo recurso. */
+    private static final String CONCURRENT_UPDATE_MESSAGE =
+        "O recurso foi alterado por outra requisição. Recarregue e tente novamente.";
+
     /** Mensagem de validação utilizada para erros de campos. */
     private static final String VALIDATION_MESSAGE =
         "Alguns campos precisam de atenção.";
@@ -66,6 +71,37 @@ public final class GlobalExceptionHandler {
             .body(buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage()));
     }
 
+    /**
+     * Converte {@link PreconditionFailedException} em resposta HTTP 412.
+     *
+     * @param ex excecao lancada quando o {@code If-Match} nao confere
+     * @return resposta indicando que a versao do cliente esta desatualizada
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+        final PreconditionFailedException ex) {
+        log.warn("Pré-condição falhou: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .body(buildErrorResponse(HttpStatus.PRECONDITION_FAILED,
+                ex.getMessage()));
+    }
+
+    /**
+     * Converte {@link OptimisticLockingFailureException} em resposta HTTP
+     * 409, quando outra transacao gravou o mesmo registro primeiro.
+     *
+     * @param ex excecao lancada na verificacao de versao do Hibernate
+     * @return resposta com código HTTP de conflito
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+        final OptimisticLockingFailureException ex) {
+        log.warn("Escrita concorrente detectada: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(buildErrorResponse(HttpStatus.CONFLICT,
+                CONCURRENT_UPDATE_MESSAGE));
+    }
+
     /**
      * Mapeia {@link AccessDeniedException} para resposta HTTP 403.
      *
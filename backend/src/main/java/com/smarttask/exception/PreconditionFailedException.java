@@ -0,0 +1,17 @@
+package com.smarttask.exception;
+
+/**
+ * Excecao lancada quando a versao informada pelo cliente em
+ * {@code If-Match} nao corresponde mais a versao atual do recurso.
+ */
+public final class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Cria a excecao com a mensagem exposta para o consumidor da API.
+     *
+     * @param message texto explicativo sobre a versao divergente
+     */
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,373 @@
+package com.smarttask.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskImportJob.ImportFormat;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Le um arquivo de importacao registro a registro, sem carrega-lo inteiro em
+ * memoria, e valida cada linha com as mesmas regras da entidade
+ * {@link Task}.
+ *
+ * <p>No CSV a primeira linha e o cabecalho e as tags sao separadas por
+ * {@code ;}. As colunas {@code id} e {@code parentTaskId} geradas pela
+ * exportacao sao aceitas como {@code externalId} e
+ * {@code parentExternalId}.</p>
+ */
+public final class TaskImportReader implements Closeable {
+
+    /** Tamanho maximo de identificadores externos e tags. */
+    static final int MAX_TOKEN_LENGTH = 255;
+
+    /** Separador das tags em campos de texto. */
+    private static final String TAG_SEPARATOR = ";";
+
+    /** Marca de ordem de bytes que alguns editores gravam no inicio. */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /** Formato do arquivo. */
+    private final ImportFormat format;
+
+    /** Leitor do arquivo. */
+    private final BufferedReader reader;
+
+    /** Serializador usado para ler as linhas NDJSON. */
+    private final ObjectMapper objectMapper;
+
+    /** Posicao das colunas do CSV, pelo nome em minusculas. */
+    private Map<String, Integer> columns;
+
+    /** Linha de dados corrente, a partir de 1. */
+    private long row;
+
+    /** Indica se o primeiro caractere do arquivo ja foi lido. */
+    private boolean started;
+
+    /**
+     * Cria o leitor para o formato informado.
+     *
+     * @param format formato do arquivo
+     * @param reader conteudo do arquivo
+     * @param objectMapper serializador JSON
+     */
+    public TaskImportReader(final ImportFormat format, final Reader reader,
+            final ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Posicao da ultima linha de dados lida.
+     *
+     * @return numero da linha, a partir de 1
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Le e valida o proximo registro.
+     *
+     * @return registro valido ou {@code null} no fim do arquivo
+     * @throws TaskImportRowException quando a linha e invalida; a leitura
+     *         pode continuar na linha seguinte
+     * @throws IOException quando o arquivo nao pode ser lido
+     */
+    public TaskImportRecord next() throws IOException {
+        final Fields fields = format == ImportFormat.CSV
+                ? nextCsvFields()
+                : nextJsonFields();
+        return fields == null ? null : validate(fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Fields nextJsonFields() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            if (!started) {
+                started = true;
+                line = stripByteOrderMark(line);
+            }
+        } while (line.isBlank());
+        row++;
+
+        final JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException exception) {
+            throw new TaskImportRowException(row, "invalid JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new TaskImportRowException(row, "expected a JSON object");
+        }
+        final Fields fields = new Fields();
+        node.fields().forEachRemaining(entry -> {
+            final JsonNode value = entry.getValue();
+            final String key = entry.getKey().toLowerCase(Locale.ROOT);
+            if (value.isArray()) {
+                final List<String> items = new ArrayList<>();
+                value.forEach(item -> items.add(item.asText()));
+                fields.lists.put(key, items);
+            } else if (!value.isNull()) {
+                fields.values.put(key, value.asText());
+            }
+        });
+        return fields;
+    }
+
+    private Fields nextCsvFields() throws IOException {
+        if (columns == null) {
+            final List<String> header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int index = 0; index < header.size(); index++) {
+                columns.put(header.get(index).trim().toLowerCase(Locale.ROOT),
+                        index);
+            }
+        }
+
+        List<String> record;
+        do {
+            record = readCsvRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty());
+        row++;
+
+        final Fields fields = new Fields();
+        for (final Map.Entry<String, Integer> column : columns.entrySet()) {
+            if (column.getValue() < record.size()
+                    && !record.get(column.getValue()).isEmpty()) {
+                fields.values.put(column.getKey(),
+                        record.get(column.getValue()));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Le um registro CSV segundo a RFC 4180, aceitando quebras de linha
+     * dentro de campos entre aspas.
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int current = readChar();
+        if (current < 0) {
+            return null;
+        }
+        final List<String> record = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (current < 0) {
+                    throw new TaskImportRowException(row + 1,
+                            "unterminated quoted field");
+                }
+                if (current == '"') {
+                    reader.mark(1);
+                    final int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) current);
+                }
+            } else if (current == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (current == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (current == '\n' || current < 0) {
+                break;
+            } else if (current != '\r') {
+                field.append((char) current);
+            }
+            current = readChar();
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    private int readChar() throws IOException {
+        final int current = reader.read();
+        if (!started) {
+            started = true;
+            if (current == BYTE_ORDER_MARK) {
+                return reader.read();
+            }
+        }
+        return current;
+    }
+
+    private TaskImportRecord validate(final Fields fields) {
+        final String title = fields.value("title") == null
+                ? null
+                : fields.value("title").trim();
+        if (title == null || title.isEmpty()) {
+            throw new TaskImportRowException(row,
+                    "title: must not be blank");
+        }
+        if (title.length() < Task.TITLE_MIN_LENGTH
+                || title.length() > Task.TITLE_MAX_LENGTH) {
+            throw new TaskImportRowException(row,
+                    "title: size must be between " + Task.TITLE_MIN_LENGTH
+                    + " and " + Task.TITLE_MAX_LENGTH);
+        }
+
+        return new TaskImportRecord(
+                row,
+                token(fields.value("externalid", "id"), "externalId"),
+                token(fields.value("parentexternalid", "parenttaskid"),
+                        "parentExternalId"),
+                title,
+                fields.value("description"),
+                parseEnum(TaskStatus.class, fields.value("status"),
+                        TaskStatus.TODO, "status"),
+                parseEnum(TaskPriority.class, fields.value("priority"),
+                        TaskPriority.MEDIUM, "priority"),
+                parseDate(fields.value("duedate")),
+                parseHours(fields.value("estimatedhours")),
+                parseTags(fields));
+    }
+
+    private String token(final String value, final String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        if (trimmed.length() > MAX_TOKEN_LENGTH) {
+            throw new TaskImportRowException(row, field
+                    + ": must have at most " + MAX_TOKEN_LENGTH
+                    + " characters");
+        }
+        return trimmed;
+    }
+
+    private <E extends Enum<E>> E parseEnum(final Class<E> type,
+            final String value, final E fallback, final String field) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type,
+                    value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new TaskImportRowException(row,
+                    field + ": invalid value '" + value + "'");
+        }
+    }
+
+    private LocalDateTime parseDate(final String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        try {
+            if (!trimmed.contains("T")) {
+                return LocalDate.parse(trimmed).atStartOfDay();
+            }
+            return LocalDateTime.parse(trimmed);
+        } catch (DateTimeParseException notLocal) {
+            try {
+                return OffsetDateTime.parse(trimmed).toLocalDateTime();
+            } catch (DateTimeParseException exception) {
+                throw new TaskImportRowException(row,
+                        "dueDate: invalid date '" + value + "'");
+            }
+        }
+    }
+
+    private Integer parseHours(final String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            final int hours = Integer.parseInt(value.trim());
+            if (hours < 0) {
+                throw new NumberFormatException();
+            }
+            return hours;
+        } catch (NumberFormatException exception) {
+            throw new TaskImportRowException(row,
+                    "estimatedHours: must be a non-negative integer");
+        }
+    }
+
+    private Set<String> parseTags(final Fields fields) {
+        final List<String> raw = fields.lists.containsKey("tags")
+                ? fields.lists.get("tags")
+                : fields.value("tags") == null
+                        ? List.of()
+                        : List.of(fields.value("tags").split(TAG_SEPARATOR));
+        final Set<String> tags = new LinkedHashSet<>();
+        for (final String tag : raw) {
+            final String normalized = token(tag, "tags");
+            if (normalized != null) {
+                tags.add(normalized);
+            }
+        }
+        return tags;
+    }
+
+    private static String stripByteOrderMark(final String line) {
+        return !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK
+                ? line.substring(1)
+                : line;
+    }
+
+    /**
+     * Campos de uma linha, indexados pelo nome em minusculas.
+     */
+    private static final class Fields {
+
+        /** Valores escalares. */
+        private final Map<String, String> values = new HashMap<>();
+
+        /** Valores em lista, presentes apenas no NDJSON. */
+        private final Map<String, List<String>> lists = new HashMap<>();
+
+        private String value(final String... names) {
+            for (final String name : names) {
+                final String value = values.get(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.smarttask.imports;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Linha do arquivo de importacao ja validada e pronta para o staging.
+ *
+ * @param row posicao da linha de dados no arquivo, a partir de 1
+ * @param externalId identificador da tarefa no sistema de origem
+ * @param parentExternalId identificador de origem da tarefa pai
+ * @param title titulo normalizado
+ * @param description descricao
+ * @param status status da tarefa
+ * @param priority prioridade da tarefa
+ * @param dueDate data de vencimento
+ * @param estimatedHours estimativa de horas
+ * @param tags tags da tarefa
+ */
+public record TaskImportRecord(
+        long row,
+        String externalId,
+        String parentExternalId,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDateTime dueDate,
+        Integer estimatedHours,
+        Set<String> tags) {
+}
@@ -0,0 +1,31 @@
+package com.smarttask.imports;
+
+/**
+ * Indica que uma linha do arquivo de importacao e invalida. A importacao
+ * segue para a proxima linha e o erro e registrado no job.
+ */
+public class TaskImportRowException extends RuntimeException {
+
+    /** Linha de dados rejeitada, a partir de 1. */
+    private final long row;
+
+    /**
+     * Cria a excecao para a linha informada.
+     *
+     * @param row linha rejeitada
+     * @param message motivo da rejeicao
+     */
+    public TaskImportRowException(final long row, final String message) {
+        super(message);
+        this.row = row;
+    }
+
+    /**
+     * Linha de dados rejeitada.
+     *
+     * @return numero da linha, a partir de 1
+     */
+    public long getRow() {
+        return row;
+    }
+}
@@ -0,0 +1,413 @@
+package com.smarttask.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.config.TaskImportConfig;
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.dto.TaskImportJobResponse;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.TaskImportJob;
+import com.smarttask.model.TaskImportJob.ImportFormat;
+import com.smarttask.model.TaskImportJob.ImportStatus;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutboxDispatcher;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.TaskImportJobRepository;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskRollupService;
+import com.smarttask.service.TaskStatsService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Importa tarefas em massa a partir de arquivos NDJSON ou CSV.
+ *
+ * <p>O arquivo recebido e gravado em disco e processado em segundo plano.
+ * As linhas validas sao carregadas na area de staging em blocos de
+ * {@link #BATCH_SIZE}, cada bloco em sua propria transacao; linhas invalidas
+ * sao contadas e reportadas no job sem interromper a carga. Ao final, uma
+ * unica transacao cria as tarefas, os vinculos de subtarefa e as tags por
+ * SQL de conjunto, de modo que a importacao aparece inteira ou nao
+ * aparece.</p>
+ */
+@Service
+@Slf4j
+public class TaskImportService {
+
+    /** Linhas carregadas no staging por transacao. */
+    static final int BATCH_SIZE = 5000;
+
+    /** Quantidade maxima de erros por linha guardados no job. */
+    static final int MAX_ROW_ERRORS = 100;
+
+    /** Tarefas lidas por bloco na indexacao para busca. */
+    static final int INDEX_BATCH_SIZE = 1000;
+
+    /** Tamanho maximo do motivo de falha persistido. */
+    private static final int MAX_FAILURE_LENGTH = 500;
+
+    /** Separador dos erros no texto persistido. */
+    private static final String ERROR_SEPARATOR = "\n";
+
+    /** Mensagem para importacoes inexistentes. */
+    private static final String JOB_NOT_FOUND_MESSAGE = "Import job not found";
+
+    /** Mensagem para formatos de importacao desconhecidos. */
+    private static final String INVALID_FORMAT_MESSAGE =
+            "Unsupported import format";
+
+    /** Mensagem para arquivos vazios. */
+    private static final String EMPTY_FILE_MESSAGE = "Import file is empty";
+
+    /** Mensagem para importacoes recusadas pela fila cheia. */
+    private static final String QUEUE_FULL_MESSAGE =
+            "Import queue is full, try again later";
+
+    /** Mensagem para identificadores externos repetidos no arquivo. */
+    private static final String DUPLICATE_EXTERNAL_ID_MESSAGE =
+            "externalId: duplicated in file";
+
+    /** Repositorio das importacoes. */
+    private final TaskImportJobRepository jobRepository;
+
+    /** Area de staging e SQL de conjunto da importacao. */
+    private final TaskImportStaging staging;
+
+    /** Indexador da busca textual. */
+    private final TaskSearchIndexer taskSearchIndexer;
+
+    /** Contadores agregados recalculados ao fim da importacao. */
+    private final TaskStatsService taskStatsService;
+
+    /** Totais das subarvores montadas pela importacao. */
+    private final TaskRollupService taskRollupService;
+
+    /** Timers dos alertas de vencimento e atraso. */
+    private final DueDateScheduler dueDateScheduler;
+
+    /** Indice em memoria do calendario de tarefas. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Despachante acordado para entregar os eventos das importadas. */
+    private final TaskOutboxDispatcher taskOutboxDispatcher;
+
+    /** Serializador usado na leitura das linhas NDJSON. */
+    private final ObjectMapper objectMapper;
+
+    /** Servico de metricas das operacoes com tarefas. */
+    private final MetricsService metricsService;
+
+    /** Executor das importacoes em segundo plano. */
+    private final TaskExecutor importExecutor;
+
+    /** Transacao de cada bloco e da etapa final. */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Cria o servico de importacao.
+     *
+     * @param jobRepository repositorio das importacoes
+     * @param staging area de staging
+     * @param taskSearchIndexer indexador da busca textual
+     * @param taskStatsService contadores agregados por usuario
+     * @param taskRollupService totais das subarvores
+     * @param dueDateScheduler timers dos alertas de prazo
+     * @param taskCalendarIndex indice do calendario
+     * @param taskOutboxDispatcher despachante do outbox
+     * @param objectMapper serializador JSON
+     * @param metricsService servico de metricas
+     * @param importExecutor executor das importacoes
+     * @param transactionManager gerenciador das transacoes
+     */
+    public TaskImportService(final TaskImportJobRepository jobRepository,
+            final TaskImportStaging staging,
+            final TaskSearchIndexer taskSearchIndexer,
+            final TaskStatsService taskStatsService,
+            final TaskRollupService taskRollupService,
+            final DueDateScheduler dueDateScheduler,
+            final TaskCalendarIndex taskCalendarIndex,
+            final TaskOutboxDispatcher taskOutboxDispatcher,
+            final ObjectMapper objectMapper,
+            final MetricsService metricsService,
+            @Qualifier(TaskImportConfig.TASK_IMPORT_EXECUTOR)
+            final TaskExecutor importExecutor,
+            final PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.staging = staging;
+        this.taskSearchIndexer = taskSearchIndexer;
+        this.taskStatsService = taskStatsService;
+        this.taskRollupService = taskRollupService;
+        this.dueDateScheduler = dueDateScheduler;
+        this.taskCalendarIndex = taskCalendarIndex;
+        this.taskOutboxDispatcher = taskOutboxDispatcher;
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.importExecutor = importExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Recebe um arquivo de importacao e agenda seu processamento.
+     *
+     * @param file arquivo enviado pelo cliente
+     * @param format formato do arquivo, sem diferenciar maiusculas
+     * @param currentUser usuario autenticado
+     * @return job criado, ainda pendente
+     */
+    public TaskImportJobResponse startImport(final MultipartFile file,
+            final String format, final UserPrincipal currentUser) {
+        final ImportFormat importFormat = parseFormat(format);
+        if (file == null || file.isEmpty()) {
+            throw new IllegalStateException(EMPTY_FILE_MESSAGE);
+        }
+
+        final Path path;
+        try {
+            path = Files.createTempFile("task-import-",
+                    "." + importFormat.name().toLowerCase());
+            file.transferTo(path);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        final TaskImportJob job = jobRepository.save(TaskImportJob.builder()
+                .userId(currentUser.getId())
+                .format(importFormat)
+                .build());
+        try {
+            importExecutor.execute(() -> ShardContext.runForUser(
+                    job.getUserId(), () -> runImport(job.getId(), path)));
+        } catch (TaskRejectedException exception) {
+            deleteQuietly(path);
+            job.setStatus(ImportStatus.FAILED);
+            job.setFailureReason(QUEUE_FULL_MESSAGE);
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        }
+        return toResponse(job);
+    }
+
+    /**
+     * Consulta o andamento de uma importacao do usuario.
+     *
+     * @param jobId identificador da importacao
+     * @param currentUser usuario autenticado
+     * @return estado da importacao
+     */
+    public TaskImportJobResponse getJob(final Long jobId,
+            final UserPrincipal currentUser) {
+        return jobRepository.findByIdAndUserId(jobId, currentUser.getId())
+                .map(this::toResponse)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException(JOB_NOT_FOUND_MESSAGE));
+    }
+
+    /**
+     * Processa uma importacao ja registrada. Executado pelo executor de
+     * importacoes; o arquivo temporario e removido ao final.
+     *
+     * @param jobId identificador da importacao
+     * @param path arquivo recebido
+     */
+    void runImport(final Long jobId, final Path path) {
+        final long startTime = System.currentTimeMillis();
+        final TaskImportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException(JOB_NOT_FOUND_MESSAGE));
+        boolean promoted = false;
+        try {
+            job.setStatus(ImportStatus.LOADING);
+            job.setStartedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            staging.ensureTables();
+
+            load(job, path);
+
+            job.setStatus(ImportStatus.RESOLVING);
+            jobRepository.save(job);
+            final Integer imported = transactionTemplate.execute(status -> {
+                final int created = staging.promote(jobId, job.getUserId(),
+                        LocalDateTime.now());
+                taskRollupService.recordInserted(job.getUserId(),
+                        staging.childTaskIds(jobId));
+                taskStatsService.reconcileUsers(List.of(job.getUserId()));
+                return created;
+            });
+            promoted = true;
+            taskCalendarIndex.invalidate(List.of(job.getUserId()));
+            taskOutboxDispatcher.wakeUp();
+            job.setImportedRows(imported == null ? 0 : imported);
+
+            indexImported(jobId);
+            staging.clear(jobId);
+            job.setStatus(ImportStatus.COMPLETED);
+        } catch (IOException | RuntimeException exception) {
+            log.error("Falha na importacao {}", jobId, exception);
+            if (!promoted) {
+                job.setStatus(ImportStatus.FAILED);
+                job.setFailureReason(truncate(exception.getMessage()));
+                job.setImportedRows(0);
+            } else {
+                job.setStatus(ImportStatus.COMPLETED);
+            }
+            try {
+                staging.clear(jobId);
+            } catch (RuntimeException cleanup) {
+                log.warn("Staging da importacao {} nao foi limpo", jobId,
+                        cleanup);
+            }
+        } finally {
+            deleteQuietly(path);
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime,
+                "import_" + job.getFormat().name().toLowerCase());
+    }
+
+    private void load(final TaskImportJob job, final Path path)
+            throws IOException {
+        final Set<String> externalIds = new HashSet<>();
+        final List<String> errors = new ArrayList<>();
+        final List<TaskImportRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try (TaskImportReader reader = new TaskImportReader(job.getFormat(),
+                Files.newBufferedReader(path, StandardCharsets.UTF_8),
+                objectMapper)) {
+            while (true) {
+                final TaskImportRecord record;
+                try {
+                    record = reader.next();
+                } catch (TaskImportRowException exception) {
+                    reject(job, errors, exception.getRow(),
+                            exception.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                if (record.externalId() != null
+                        && !externalIds.add(record.externalId())) {
+                    reject(job, errors, record.row(),
+                            DUPLICATE_EXTERNAL_ID_MESSAGE);
+                    continue;
+                }
+                job.setProcessedRows(job.getProcessedRows() + 1);
+                batch.add(record);
+                if (batch.size() == BATCH_SIZE) {
+                    flush(job, batch, errors);
+                }
+            }
+        }
+        flush(job, batch, errors);
+    }
+
+    private void flush(final TaskImportJob job,
+            final List<TaskImportRecord> batch, final List<String> errors) {
+        job.setRowErrors(errors.isEmpty()
+                ? null
+                : String.join(ERROR_SEPARATOR, errors));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                staging.stage(job.getId(), batch,
+                        staging.allocateIds(batch.size()));
+            }
+            jobRepository.save(job);
+        });
+        batch.clear();
+    }
+
+    private void reject(final TaskImportJob job, final List<String> errors,
+            final long row, final String message) {
+        job.setProcessedRows(job.getProcessedRows() + 1);
+        job.setRejectedRows(job.getRejectedRows() + 1);
+        if (errors.size() < MAX_ROW_ERRORS) {
+            errors.add("row " + row + ": "
+                    + message.replace(ERROR_SEPARATOR, " "));
+        }
+    }
+
+    /**
+     * Indexa as tarefas criadas e agenda seus prazos lendo os
+     * identificadores do staging em blocos. Falhas aqui nao desfazem a
+     * importacao: indice e timers sao refeitos na proxima inicializacao.
+     */
+    private void indexImported(final Long jobId) {
+        try {
+            long lastId = 0L;
+            List<Long> ids;
+            do {
+                ids = staging.stagedTaskIds(jobId, lastId, INDEX_BATCH_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                taskSearchIndexer.indexByIds(ids);
+                dueDateScheduler.scheduleByIds(ids);
+                lastId = ids.get(ids.size() - 1);
+            } while (ids.size() == INDEX_BATCH_SIZE);
+        } catch (RuntimeException exception) {
+            log.warn("Tarefas da importacao {} nao foram indexadas", jobId,
+                    exception);
+        }
+    }
+
+    private TaskImportJobResponse toResponse(final TaskImportJob job) {
+        return TaskImportJobResponse.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .processedRows(job.getProcessedRows())
+                .rejectedRows(job.getRejectedRows())
+                .importedRows(job.getImportedRows())
+                .rowErrors(job.getRowErrors() == null
+                        ? List.of()
+                        : List.of(job.getRowErrors().split(ERROR_SEPARATOR)))
+                .failureReason(job.getFailureReason())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private static ImportFormat parseFormat(final String value) {
+        for (final ImportFormat format : ImportFormat.values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalStateException(INVALID_FORMAT_MESSAGE);
+    }
+
+    private static String truncate(final String message) {
+        if (message == null || message.length() <= MAX_FAILURE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_FAILURE_LENGTH);
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Arquivo temporario {} nao foi removido", path,
+                    exception);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.smarttask.imports;
+
+import com.smarttask.model.Task;
+import com.smarttask.service.TaskRollupService;
+import com.smarttask.sync.TaskChangeTracker;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tabelas de staging da importacao de tarefas e o SQL por conjunto que as
+ * transforma em tarefas, subtarefas e tags.
+ *
+ * <p>No PostgreSQL as linhas sao carregadas com {@code COPY ... FROM STDIN}
+ * pelo {@code CopyManager} do driver, em tabelas {@code UNLOGGED}. Nos
+ * demais bancos (H2 no perfil de desenvolvimento) a carga usa inserts em
+ * lote JDBC. Os identificadores das tarefas sao reservados em blocos da
+ * mesma sequence usada pelo Hibernate.</p>
+ */
+@Component
+public class TaskImportStaging {
+
+    /** Colunas do staging de tarefas, na ordem usada pelo COPY. */
+    private static final String STAGING_COLUMNS = "job_id, task_id, line_number, "
+            + "external_id, parent_external_id, title, description, status, "
+            + "priority, due_date, estimated_hours";
+
+    /** Colunas do staging de tags, na ordem usada pelo COPY. */
+    private static final String TAG_COLUMNS = "job_id, task_id, tag";
+
+    /** Definicao das colunas do staging de tarefas. */
+    private static final String STAGING_DEFINITION = " task_import_staging ("
+            + "job_id BIGINT NOT NULL, task_id BIGINT NOT NULL, "
+            + "line_number BIGINT NOT NULL, external_id VARCHAR(255), "
+            + "parent_external_id VARCHAR(255), "
+            + "title VARCHAR(" + Task.TITLE_MAX_LENGTH + ") NOT NULL, "
+            + "description TEXT, status VARCHAR(20) NOT NULL, "
+            + "priority VARCHAR(20) NOT NULL, due_date TIMESTAMP, "
+            + "estimated_hours INTEGER)";
+
+    /** Definicao das colunas do staging de tags. */
+    private static final String TAG_DEFINITION = " task_import_staging_tags ("
+            + "job_id BIGINT NOT NULL, task_id BIGINT NOT NULL, "
+            + "tag VARCHAR(255) NOT NULL)";
+
+    /**
+     * Cria as tarefas do job a partir do staging. O marcador recebe a
+     * expressao do proximo valor da sequencia de alteracoes.
+     */
+    private static final String INSERT_TASKS = "INSERT INTO tasks (id, title, "
+            + "description, status, priority, due_date, completed_at, "
+            + "estimated_hours, user_id, ai_suggested_priority, created_at, "
+            + "updated_at, change_seq, " + TaskRollupService.TOTAL_COLUMNS
+            + ") SELECT task_id, title, description, status, priority, "
+            + "due_date, CASE WHEN status = 'COMPLETED' THEN ? END, "
+            + "estimated_hours, ?, FALSE, ?, ?, %s, "
+            + "COALESCE(estimated_hours, 0), 0, "
+            + "CASE WHEN status IN ('TODO', 'IN_PROGRESS') THEN 1 ELSE 0 END, "
+            + "CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END "
+            + "FROM task_import_staging WHERE job_id = ? "
+            + "ORDER BY line_number";
+
+    /**
+     * Liga cada tarefa ao pai declarado. Apenas pais que aparecem antes no
+     * arquivo sao aceitos, o que impede ciclos na hierarquia importada.
+     */
+    private static final String LINK_PARENTS = "UPDATE tasks SET "
+            + "parent_task_id = (SELECT p.task_id FROM task_import_staging s "
+            + "JOIN task_import_staging p ON p.job_id = s.job_id "
+            + "AND p.external_id = s.parent_external_id "
+            + "AND p.line_number < s.line_number "
+            + "WHERE s.job_id = ? AND s.task_id = tasks.id) "
+            + "WHERE id IN (SELECT task_id FROM task_import_staging "
+            + "WHERE job_id = ? AND parent_external_id IS NOT NULL)";
+
+    /** Copia as tags do job para a tabela definitiva. */
+    private static final String INSERT_TAGS = "INSERT INTO task_tags "
+            + "(task_id, tag) SELECT DISTINCT task_id, tag "
+            + "FROM task_import_staging_tags WHERE job_id = ?";
+
+    /** Cria no dicionario do usuario as tags ainda desconhecidas. */
+    private static final String INSERT_DICTIONARY = "INSERT INTO user_tags "
+            + "(user_id, name, task_count) SELECT CAST(? AS BIGINT), s.tag, 0 "
+            + "FROM (SELECT DISTINCT tag FROM task_import_staging_tags "
+            + "WHERE job_id = ?) s WHERE NOT EXISTS (SELECT 1 FROM user_tags u "
+            + "WHERE u.user_id = ? AND u.name = s.tag)";
+
+    /** Vincula as tarefas do job as entradas do dicionario. */
+    private static final String INSERT_TAG_LINKS = "INSERT INTO task_tag_links "
+            + "(tag_id, task_id) SELECT DISTINCT u.id, s.task_id "
+            + "FROM task_import_staging_tags s JOIN user_tags u "
+            + "ON u.user_id = ? AND u.name = s.tag WHERE s.job_id = ?";
+
+    /** Soma as tarefas do job as contagens das tags usadas. */
+    private static final String COUNT_TAGS = "UPDATE user_tags SET "
+            + "task_count = task_count + (SELECT COUNT(DISTINCT s.task_id) "
+            + "FROM task_import_staging_tags s WHERE s.job_id = ? "
+            + "AND s.tag = user_tags.name) WHERE user_id = ? AND name IN "
+            + "(SELECT tag FROM task_import_staging_tags WHERE job_id = ?)";
+
+    /** Grava no outbox um evento de criacao por tarefa do job. */
+    private static final String INSERT_EVENTS = "INSERT INTO task_outbox "
+            + "(user_id, task_id, event_type, status, priority, occurred_at, "
+            + "attempts, next_attempt_at) SELECT ?, task_id, 'CREATED', "
+            + "status, priority, ?, 0, ? FROM task_import_staging "
+            + "WHERE job_id = ? ORDER BY line_number";
+
+    /** Reserva blocos da sequence de tarefas no PostgreSQL. */
+    private static final String POSTGRES_NEXT_BLOCKS =
+            "SELECT nextval('task_seq') FROM generate_series(1, ?)";
+
+    /** Reserva blocos da sequence de tarefas no H2. */
+    private static final String H2_NEXT_BLOCKS =
+            "SELECT NEXT VALUE FOR task_seq FROM SYSTEM_RANGE(1, ?)";
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Sequencia de alteracoes atribuida as tarefas criadas. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Indica se o banco e PostgreSQL; resolvido na primeira utilizacao. */
+    private volatile Boolean postgres;
+
+    /** Indica se as tabelas de staging ja foram criadas. */
+    private volatile boolean tablesReady;
+
+    /**
+     * Cria o componente sobre o {@link JdbcTemplate} da aplicacao.
+     *
+     * @param jdbcTemplate acesso JDBC
+     * @param taskChangeTracker sequencia de alteracoes das tarefas
+     */
+    public TaskImportStaging(final JdbcTemplate jdbcTemplate,
+            final TaskChangeTracker taskChangeTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskChangeTracker = taskChangeTracker;
+    }
+
+    /**
+     * Cria as tabelas de staging caso ainda nao existam.
+     */
+    public void ensureTables() {
+        if (tablesReady) {
+            return;
+        }
+        final String create = isPostgres()
+                ? "CREATE UNLOGGED TABLE IF NOT EXISTS"
+                : "CREATE TABLE IF NOT EXISTS";
+        jdbcTemplate.execute(create + STAGING_DEFINITION);
+        jdbcTemplate.execute(create + TAG_DEFINITION);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS "
+                + "idx_task_import_staging_job "
+                + "ON task_import_staging (job_id, external_id)");
+        tablesReady = true;
+    }
+
+    /**
+     * Reserva identificadores para as tarefas do lote sem colidir com os
+     * blocos usados pelo otimizador pooled do Hibernate: cada valor da
+     * sequence libera os {@link Task#ID_ALLOCATION_SIZE} identificadores
+     * que terminam nele.
+     *
+     * @param count quantidade de identificadores
+     * @return identificadores reservados
+     */
+    public long[] allocateIds(final int count) {
+        final int blockSize = Task.ID_ALLOCATION_SIZE;
+        final long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            final int blocks = (count - filled + blockSize - 1) / blockSize;
+            final List<Long> highs = jdbcTemplate.queryForList(
+                    isPostgres() ? POSTGRES_NEXT_BLOCKS : H2_NEXT_BLOCKS,
+                    Long.class, blocks);
+            for (final long high : highs) {
+                if (high < blockSize) {
+                    continue;
+                }
+                for (long id = high - blockSize + 1;
+                        id <= high && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Carrega um lote de registros validados no staging.
+     *
+     * @param jobId identificador da importacao
+     * @param records registros do lote
+     * @param taskIds identificadores reservados, na ordem dos registros
+     */
+    public void stage(final long jobId, final List<TaskImportRecord> records,
+            final long[] taskIds) {
+        if (isPostgres()) {
+            copy(jobId, records, taskIds);
+        } else {
+            batchInsert(jobId, records, taskIds);
+        }
+    }
+
+    /**
+     * Cria as tarefas, os vinculos de pai e as tags a partir do staging,
+     * atualizando o dicionario e as contagens de tags do usuario e gravando
+     * os eventos de criacao no outbox.
+     *
+     * @param jobId identificador da importacao
+     * @param userId usuario dono das tarefas
+     * @param now momento registrado como criacao e atualizacao
+     * @return quantidade de tarefas criadas
+     */
+    public int promote(final long jobId, final long userId,
+            final LocalDateTime now) {
+        final Timestamp timestamp = Timestamp.valueOf(now);
+        final int inserted = jdbcTemplate.update(String.format(INSERT_TASKS,
+                taskChangeTracker.nextValueExpression()), timestamp,
+                userId, timestamp, timestamp, jobId);
+        jdbcTemplate.update(LINK_PARENTS, jobId, jobId);
+        jdbcTemplate.update(INSERT_TAGS, jobId);
+        jdbcTemplate.update(isPostgres()
+                ? INSERT_DICTIONARY + " ON CONFLICT DO NOTHING"
+                : INSERT_DICTIONARY, userId, jobId, userId);
+        jdbcTemplate.update(INSERT_TAG_LINKS, userId, jobId);
+        jdbcTemplate.update(COUNT_TAGS, jobId, userId, jobId);
+        jdbcTemplate.update(INSERT_EVENTS, userId, timestamp, timestamp,
+                jobId);
+        return inserted;
+    }
+
+    /**
+     * Remove as linhas de staging de uma importacao.
+     *
+     * @param jobId identificador da importacao
+     */
+    public void clear(final long jobId) {
+        jdbcTemplate.update(
+                "DELETE FROM task_import_staging_tags WHERE job_id = ?", jobId);
+        jdbcTemplate.update(
+                "DELETE FROM task_import_staging WHERE job_id = ?", jobId);
+    }
+
+    /**
+     * Identificadores das tarefas criadas por uma importacao, lidos a partir
+     * de uma posicao para permitir a leitura em blocos.
+     *
+     * @param jobId identificador da importacao
+     * @param afterTaskId ultimo identificador ja lido
+     * @param limit quantidade maxima de identificadores
+     * @return identificadores em ordem crescente
+     */
+    public List<Long> stagedTaskIds(final long jobId, final long afterTaskId,
+            final int limit) {
+        return jdbcTemplate.queryForList("SELECT task_id FROM "
+                + "task_import_staging WHERE job_id = ? AND task_id > ? "
+                + "ORDER BY task_id FETCH FIRST " + limit + " ROWS ONLY",
+                Long.class, jobId, afterTaskId);
+    }
+
+    /**
+     * Identificadores das tarefas de uma importacao que declararam um pai.
+     *
+     * @param jobId identificador da importacao
+     * @return identificadores, sem ordem definida
+     */
+    public List<Long> childTaskIds(final long jobId) {
+        return jdbcTemplate.queryForList("SELECT task_id FROM "
+                + "task_import_staging WHERE job_id = ? "
+                + "AND parent_external_id IS NOT NULL", Long.class, jobId);
+    }
+
+    private void copy(final long jobId, final List<TaskImportRecord> records,
+            final long[] taskIds) {
+        final StringBuilder rows = new StringBuilder();
+        final StringBuilder tags = new StringBuilder();
+        for (int index = 0; index < records.size(); index++) {
+            final TaskImportRecord record = records.get(index);
+            appendCsv(rows, jobId, taskIds[index], record.row(),
+                    record.externalId(), record.parentExternalId(),
+                    record.title(), record.description(), record.status(),
+                    record.priority(), record.dueDate(),
+                    record.estimatedHours());
+            for (final String tag : record.tags()) {
+                appendCsv(tags, jobId, taskIds[index], tag);
+            }
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            final PGConnection pg = connection.unwrap(PGConnection.class);
+            try {
+                pg.getCopyAPI().copyIn("COPY task_import_staging ("
+                        + STAGING_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(rows.toString()));
+                if (!tags.isEmpty()) {
+                    pg.getCopyAPI().copyIn("COPY task_import_staging_tags ("
+                            + TAG_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                            new StringReader(tags.toString()));
+                }
+            } catch (IOException exception) {
+                throw new SQLException("COPY into staging failed", exception);
+            }
+            return null;
+        });
+    }
+
+    private void batchInsert(final long jobId,
+            final List<TaskImportRecord> records, final long[] taskIds) {
+        jdbcTemplate.batchUpdate("INSERT INTO task_import_staging ("
+                + STAGING_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(final PreparedStatement statement,
+                            final int index) throws SQLException {
+                        final TaskImportRecord record = records.get(index);
+                        statement.setLong(1, jobId);
+                        statement.setLong(2, taskIds[index]);
+                        statement.setLong(3, record.row());
+                        statement.setString(4, record.externalId());
+                        statement.setString(5, record.parentExternalId());
+                        statement.setString(6, record.title());
+                        statement.setString(7, record.description());
+                        statement.setString(8, record.status().name());
+                        statement.setString(9, record.priority().name());
+                        setTimestamp(statement, 10, record.dueDate());
+                        setInteger(statement, 11, record.estimatedHours());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return records.size();
+                    }
+                });
+
+        final List<Object[]> tags = new ArrayList<>();
+        for (int index = 0; index < records.size(); index++) {
+            for (final String tag : records.get(index).tags()) {
+                tags.add(new Object[] {jobId, taskIds[index], tag});
+            }
+        }
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO task_import_staging_tags ("
+                    + TAG_COLUMNS + ") VALUES (?, ?, ?)", tags);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean resolved = postgres;
+        if (resolved == null) {
+            resolved = jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                    connection -> connection.isWrapperFor(PGConnection.class));
+            postgres = resolved;
+        }
+        return Boolean.TRUE.equals(resolved);
+    }
+
+    private static void setTimestamp(final PreparedStatement statement,
+            final int index, final LocalDateTime value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    private static void setInteger(final PreparedStatement statement,
+            final int index, final Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    /**
+     * Acrescenta uma linha no formato CSV do COPY: nulos ficam vazios e sem
+     * aspas, os demais valores sempre entre aspas.
+     */
+    private static void appendCsv(final StringBuilder target,
+            final Object... values) {
+        for (int index = 0; index < values.length; index++) {
+            if (index > 0) {
+                target.append(',');
+            }
+            final Object value = values[index];
+            if (value != null) {
+                target.append('"')
+                        .append(value.toString().replace("\"", "\"\""))
+                        .append('"');
+            }
+        }
+        target.append('\n');
+    }
+}
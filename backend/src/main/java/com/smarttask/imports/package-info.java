@@ -0,0 +1,6 @@
+/**
+ * Importacao de tarefas em massa: leitura em streaming de NDJSON e CSV,
+ * validacao por linha, carga em tabelas de staging (COPY no PostgreSQL) e
+ * resolucao de subtarefas e tags com SQL por conjunto.
+ */
+package com.smarttask.imports;
@@ -0,0 +1,114 @@
+package com.smarttask.model;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tarefa concluida ou cancelada movida da tabela {@code tasks} para o
+ * armazenamento frio. Mantem o mesmo identificador e os mesmos campos da
+ * tarefa original, sem relacionamentos: usuario e tarefa pai ficam apenas
+ * como chaves, ja que o pai pode continuar ativo, ter sido arquivado ou
+ * removido.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = @Index(
+        name = "idx_tasks_archive_user_archived",
+        columnList = "user_id, archived_at, id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+
+    /** Identificador da tarefa, igual ao que tinha na tabela ativa. */
+    @Id
+    private Long id;
+
+    /** Titulo da tarefa. */
+    @Column(nullable = false)
+    private String title;
+
+    /** Descricao da tarefa. */
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    /** Status no momento do arquivamento (COMPLETED ou CANCELLED). */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    /** Prioridade da tarefa. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    /** Data de vencimento. */
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    /** Data de conclusao. */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /** Horas estimadas. */
+    @Column(name = "estimated_hours")
+    private Integer estimatedHours;
+
+    /** Horas gastas. */
+    @Column(name = "actual_hours")
+    private Integer actualHours;
+
+    /** Tags da tarefa, guardadas em {@code task_tags_archive}. */
+    @ElementCollection
+    @CollectionTable(
+            name = "task_tags_archive",
+            joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "tag")
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+
+    /** Usuario dono da tarefa. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Tarefa pai no momento do arquivamento. */
+    @Column(name = "parent_task_id")
+    private Long parentTaskId;
+
+    /** Indica se a prioridade foi sugerida pela IA. */
+    @Column(name = "ai_suggested_priority")
+    private Boolean aiSuggestedPriority;
+
+    /** Analise gerada pela IA. */
+    @Column(name = "ai_analysis", columnDefinition = "TEXT")
+    private String aiAnalysis;
+
+    /** Criacao da tarefa original. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Ultima alteracao da tarefa antes do arquivamento. */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** Momento em que a tarefa saiu da tabela ativa. */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
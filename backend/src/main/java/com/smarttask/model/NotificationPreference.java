@@ -3,6 +3,7 @@ package com.smarttask.model;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -16,13 +17,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
  * Entidade que registra as configurações de notificação via WhatsApp para cada
- * usuário.
+ * usuário. Fica no cache de segundo nível (região
+ * {@code notificationPreferences}).
  */
 @Entity
 @Table(name = "notification_preferences")
@@ -31,6 +35,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+        region = "notificationPreferences")
 public class NotificationPreference {
 
     /** Fuso horário utilizado por padrão nas notificações. */
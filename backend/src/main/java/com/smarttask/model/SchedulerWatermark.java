@@ -0,0 +1,35 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ultimo instante ja processado por um agendador em memoria, para que o
+ * trabalho perdido enquanto a aplicacao estava parada seja recuperado na
+ * subida.
+ */
+@Entity
+@Table(name = "scheduler_watermarks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerWatermark {
+
+    /** Nome do agendador. */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /** Instante ate o qual o agendador ja processou. */
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -16,16 +16,22 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -53,19 +59,27 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
  * </ul>
  *
  * <p>Usa {@link AuditingEntityListener} para rastreamento automático de datas
- * de criação e modificação.</p>
+ * de criação e modificação. Com {@link DynamicUpdate}, cada atualização
+ * grava apenas as colunas alteradas.</p>
  *
  * @author Smart Task AI Team
  * @version 1.0
  * @since 2025-10
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(
+        name = "idx_tasks_user_change_seq",
+        columnList = "user_id, change_seq"),
+    @Index(
+        name = "idx_tasks_user_status_rank",
+        columnList = "user_id, status, board_rank, id")})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate
 public class Task {
 
     /** Tamanho mínimo permitido para o título da tarefa. */
@@ -74,11 +88,27 @@ public class Task {
     /** Tamanho máximo permitido para o título da tarefa. */
     public static final int TITLE_MAX_LENGTH = 200;
 
+    /**
+     * Quantidade de identificadores reservados por acesso à sequence.
+     * Deve acompanhar o {@code hibernate.jdbc.batch_size} configurado.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /** Tamanho maximo da chave de ordem no quadro kanban. */
+    public static final int RANK_MAX_LENGTH = 128;
+
     /**
      * Identificador único da tarefa.
+     * Gerado por sequence com otimizador pooled, o que permite ao Hibernate
+     * agrupar inserts em lotes JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+        generator = "task_seq")
+    @SequenceGenerator(
+        name = "task_seq",
+        sequenceName = "task_seq",
+        allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -214,6 +244,76 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Posição da última alteração da tarefa na sequência de alterações,
+     * usada pela sincronização incremental dos clientes.
+     * Atribuída por {@code TaskChangeTracker} a cada escrita.
+     */
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    /**
+     * Chave fracionaria da posicao da tarefa na coluna do seu status no
+     * quadro kanban, comparada caractere a caractere. Nula para tarefas
+     * ainda nao posicionadas, exibidas no fim da coluna.
+     */
+    @Column(name = "board_rank", length = RANK_MAX_LENGTH)
+    private String rank;
+
+    /**
+     * Soma das horas estimadas da tarefa e de toda a sua subarvore.
+     * Mantida por {@code TaskRollupService} com incrementos por SQL; o JPA
+     * grava apenas o valor inicial.
+     */
+    @ColumnDefault("0")
+    @Column(name = "subtree_estimated_hours", nullable = false,
+        updatable = false)
+    @Builder.Default
+    private Long subtreeEstimatedHours = 0L;
+
+    /** Soma das horas reais da tarefa e de toda a sua subarvore. */
+    @ColumnDefault("0")
+    @Column(name = "subtree_actual_hours", nullable = false,
+        updatable = false)
+    @Builder.Default
+    private Long subtreeActualHours = 0L;
+
+    /** Tarefas abertas (TODO ou IN_PROGRESS) na subarvore, incluindo esta. */
+    @ColumnDefault("0")
+    @Column(name = "subtree_open_count", nullable = false,
+        updatable = false)
+    @Builder.Default
+    private Long subtreeOpenCount = 0L;
+
+    /** Tarefas concluidas na subarvore, incluindo esta. */
+    @ColumnDefault("0")
+    @Column(name = "subtree_completed_count", nullable = false,
+        updatable = false)
+    @Builder.Default
+    private Long subtreeCompletedCount = 0L;
+
+    /**
+     * Versão da tarefa para controle de concorrência otimista.
+     * Incrementada a cada escrita e exposta aos clientes como ETag.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Inicia os totais da subarvore com a contribuicao da propria tarefa,
+     * que ainda nao tem subtarefas ao ser criada.
+     */
+    @PrePersist
+    void initSubtreeRollup() {
+        subtreeEstimatedHours = estimatedHours == null ? 0L : estimatedHours;
+        subtreeActualHours = actualHours == null ? 0L : actualHours;
+        subtreeOpenCount = status == TaskStatus.TODO
+                || status == TaskStatus.IN_PROGRESS ? 1L : 0L;
+        subtreeCompletedCount = status == TaskStatus.COMPLETED ? 1L : 0L;
+    }
+
     /**
      * Enumeração dos status possíveis para uma tarefa.
      */
@@ -0,0 +1,57 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de remocao de uma tarefa, entregue aos clientes da sincronizacao
+ * incremental como tombstone. A posicao na sequencia de alteracoes e a
+ * mesma usada por {@link Task#getChangeSeq()}.
+ */
+@Entity
+@Table(name = "task_deletions", indexes = @Index(
+        name = "idx_task_deletions_user_seq",
+        columnList = "user_id, change_seq"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDeletion {
+
+    /**
+     * Posicao da remocao na sequencia de alteracoes. Os registros sao
+     * gravados pelo {@link com.smarttask.sync.TaskChangeTracker}, que le os
+     * valores da mesma sequencia.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+            generator = "task_change_seq")
+    @SequenceGenerator(name = "task_change_seq",
+            sequenceName = "task_change_seq", allocationSize = 1)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    /** Tarefa removida. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Usuario dono da tarefa removida. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Momento da remocao. */
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,60 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aresta do grafo de dependencias: a tarefa so fica pronta quando o
+ * bloqueador estiver concluido. O grafo de cada usuario e mantido sem
+ * ciclos por {@link com.smarttask.dependency.TaskDependencyService}.
+ */
+@Entity
+@Table(name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_task_dependencies_task_blocker",
+                columnNames = {"task_id", "blocker_id"}),
+        indexes = {
+            @Index(name = "idx_task_dependencies_blocker",
+                    columnList = "blocker_id"),
+            @Index(name = "idx_task_dependencies_user",
+                    columnList = "user_id, id, task_id, blocker_id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependency {
+
+    /** Identificador da aresta, crescente na ordem de criacao. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Tarefa bloqueada. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Tarefa que precisa ser concluida antes. */
+    @Column(name = "blocker_id", nullable = false)
+    private Long blockerId;
+
+    /** Usuario dono das duas tarefas. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Momento em que a dependencia foi criada. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,111 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+/**
+ * Entidade JPA que acompanha a execucao de uma importacao de tarefas em
+ * massa, com o progresso e os erros encontrados por linha.
+ */
+@Entity
+@Table(name = "task_import_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class TaskImportJob {
+
+    /** Identificador da importacao. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Usuario dono das tarefas importadas. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Formato do arquivo recebido. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportFormat format;
+
+    /** Etapa atual da importacao. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private ImportStatus status = ImportStatus.PENDING;
+
+    /** Linhas lidas do arquivo ate o momento. */
+    @Column(name = "processed_rows", nullable = false)
+    @Builder.Default
+    private long processedRows = 0L;
+
+    /** Linhas rejeitadas pela validacao. */
+    @Column(name = "rejected_rows", nullable = false)
+    @Builder.Default
+    private long rejectedRows = 0L;
+
+    /** Tarefas efetivamente criadas ao final da importacao. */
+    @Column(name = "imported_rows", nullable = false)
+    @Builder.Default
+    private long importedRows = 0L;
+
+    /** Primeiros erros de validacao, um por linha do texto. */
+    @Column(name = "row_errors", columnDefinition = "TEXT")
+    private String rowErrors;
+
+    /** Motivo da falha quando a importacao inteira e abortada. */
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    /** Momento em que a importacao foi recebida. */
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** Momento em que o processamento comecou. */
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    /** Momento em que o processamento terminou. */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /** Formatos de arquivo aceitos na importacao. */
+    public enum ImportFormat {
+        /** Um objeto JSON por linha. */
+        NDJSON,
+        /** Valores separados por virgula com cabecalho. */
+        CSV
+    }
+
+    /** Etapas da importacao. */
+    public enum ImportStatus {
+        /** Aguardando na fila de processamento. */
+        PENDING,
+        /** Lendo, validando e carregando as linhas na area de staging. */
+        LOADING,
+        /** Criando as tarefas, subtarefas e tags a partir do staging. */
+        RESOLVING,
+        /** Importacao concluida. */
+        COMPLETED,
+        /** Importacao abortada; nenhuma tarefa foi criada. */
+        FAILED
+    }
+}
@@ -0,0 +1,56 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ocorrencia de uma serie recorrente que virou uma tarefa real ao ser
+ * alterada ou concluida. A expansao deixa de devolver a ocorrencia virtual
+ * correspondente, mesmo que a tarefa criada seja removida depois.
+ */
+@Entity
+@Table(name = "task_occurrences", uniqueConstraints = @UniqueConstraint(
+        name = "uk_task_occurrences_template_at",
+        columnNames = {"template_id", "occurrence_at"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOccurrence {
+
+    /** Identificador do registro. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Tarefa modelo da serie. */
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+
+    /** Usuario dono da serie. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Prazo original da ocorrencia na serie. */
+    @Column(name = "occurrence_at", nullable = false)
+    private LocalDateTime occurrenceAt;
+
+    /** Tarefa criada para a ocorrencia. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Momento em que a ocorrencia virou tarefa. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
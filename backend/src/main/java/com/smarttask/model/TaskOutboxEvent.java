@@ -0,0 +1,94 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento do ciclo de vida de uma tarefa gravado na mesma transacao da
+ * alteracao e entregue de forma assincrona aos consumidores pelo
+ * {@link com.smarttask.outbox.TaskOutboxDispatcher}. A linha e removida
+ * depois da entrega.
+ */
+@Entity
+@Table(name = "task_outbox", indexes = @Index(
+        name = "idx_task_outbox_user_id",
+        columnList = "user_id, id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOutboxEvent {
+
+    /** Posicao do evento; define a ordem de entrega por usuario. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Usuario dono da tarefa. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Tarefa alterada. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Tipo do evento. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private EventType eventType;
+
+    /** Status da tarefa no momento do evento; vazio nas remocoes. */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TaskStatus status;
+
+    /** Prioridade da tarefa no momento do evento; vazia nas remocoes. */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TaskPriority priority;
+
+    /** Momento da alteracao. */
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    /** Entregas que falharam ate agora. */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Momento a partir do qual o evento pode ser entregue. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Erro da ultima entrega que falhou. */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Tipos de evento do ciclo de vida de uma tarefa.
+     */
+    public enum EventType {
+        /** Tarefa criada. */
+        CREATED,
+        /** Tarefa alterada sem ser concluida. */
+        UPDATED,
+        /** Tarefa alterada para concluida pela primeira vez. */
+        COMPLETED,
+        /** Tarefa removida. */
+        DELETED
+    }
+}
@@ -0,0 +1,61 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Regra de recorrencia de uma tarefa modelo. As ocorrencias seguintes nao
+ * sao gravadas: sao expandidas a cada consulta, apenas dentro da janela
+ * pedida, por {@link com.smarttask.recurrence.TaskOccurrenceExpander}.
+ */
+@Entity
+@Table(name = "task_recurrences", indexes = @Index(
+        name = "idx_task_recurrences_user_starts",
+        columnList = "user_id, starts_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRecurrence {
+
+    /** Tamanho maximo da regra gravada. */
+    public static final int RULE_MAX_LENGTH = 200;
+
+    /** Tarefa modelo, que e tambem a primeira ocorrencia. */
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /** Usuario dono da tarefa modelo. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Regra no formato canonico de {@code RecurrenceRule#format()}. */
+    @Column(nullable = false, length = RULE_MAX_LENGTH)
+    private String rule;
+
+    /**
+     * Primeira ocorrencia, o prazo da tarefa modelo ao definir a regra.
+     * Mudar o prazo do modelo depois nao move a serie; a regra precisa ser
+     * definida de novo.
+     */
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    /** Ultima ocorrencia possivel; vazia nas series sem fim. */
+    @Column(name = "ends_at")
+    private LocalDateTime endsAt;
+
+    /** Momento em que a regra foi definida. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
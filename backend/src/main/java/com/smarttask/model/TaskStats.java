@@ -0,0 +1,86 @@
+package com.smarttask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores agregados das tarefas de um usuario, mantidos por deltas
+ * atomicos na mesma transacao que altera as tarefas e conferidos
+ * periodicamente contra a tabela de tarefas.
+ */
+@Entity
+@Table(name = "task_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStats {
+
+    /** Usuario dono dos contadores. */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Tarefas com status {@code TODO}. */
+    @Column(name = "todo_count", nullable = false)
+    private long todoCount;
+
+    /** Tarefas com status {@code IN_PROGRESS}. */
+    @Column(name = "in_progress_count", nullable = false)
+    private long inProgressCount;
+
+    /** Tarefas com status {@code COMPLETED}. */
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    /** Tarefas com status {@code CANCELLED}. */
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    /** Tarefas com prioridade {@code LOW}. */
+    @Column(name = "low_priority_count", nullable = false)
+    private long lowPriorityCount;
+
+    /** Tarefas com prioridade {@code MEDIUM}. */
+    @Column(name = "medium_priority_count", nullable = false)
+    private long mediumPriorityCount;
+
+    /** Tarefas com prioridade {@code HIGH}. */
+    @Column(name = "high_priority_count", nullable = false)
+    private long highPriorityCount;
+
+    /** Tarefas com prioridade {@code URGENT}. */
+    @Column(name = "urgent_priority_count", nullable = false)
+    private long urgentPriorityCount;
+
+    /**
+     * Tarefas atrasadas e nao concluidas. Tarefas que vencem com a simples
+     * passagem do tempo entram no contador na proxima reconciliacao.
+     */
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    /** Soma das horas estimadas. */
+    @Column(name = "estimated_hours", nullable = false)
+    private long estimatedHours;
+
+    /** Soma das horas efetivamente gastas. */
+    @Column(name = "actual_hours", nullable = false)
+    private long actualHours;
+
+    /** Momento da ultima alteracao dos contadores. */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** Momento da ultima conferencia contra a tabela de tarefas. */
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+}
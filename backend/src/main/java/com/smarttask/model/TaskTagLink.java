@@ -0,0 +1,56 @@
+package com.smarttask.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vinculo entre uma tarefa e uma entrada do dicionario {@link UserTag}.
+ * A chave {@code (tag_id, task_id)} atende o filtro por tag e o indice por
+ * {@code task_id} atende a limpeza dos vinculos na remocao das tarefas.
+ */
+@Entity
+@Table(name = "task_tag_links", indexes = @Index(
+        name = "idx_task_tag_links_task",
+        columnList = "task_id"))
+@IdClass(TaskTagLink.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTagLink {
+
+    /** Entrada do dicionario. */
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    /** Tarefa marcada com a tag. */
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Chave composta do vinculo.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        /** Entrada do dicionario. */
+        private Long tagId;
+
+        /** Tarefa marcada com a tag. */
+        private Long taskId;
+    }
+}
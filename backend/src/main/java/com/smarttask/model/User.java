@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
@@ -24,6 +25,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -45,6 +48,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
  * <p>Usa {@link AuditingEntityListener} para rastreamento automático de datas
  * de criação e modificação.</p>
  *
+ * <p>A entidade e os seus papéis ficam no cache de segundo nível (regiões
+ * {@code users} e {@code users.roles}), já que são lidos a cada requisição
+ * autenticada e mudam raramente.</p>
+ *
  * @author Smart Task AI Team
  * @version 1.0
  * @since 2025-10
@@ -56,6 +63,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     /** Tamanho mínimo permitido para o username. */
@@ -130,6 +139,7 @@ public class User {
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.roles")
     @Builder.Default
     private Set<String> roles = new HashSet<>();
 
@@ -2,6 +2,7 @@ package com.smarttask.model;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -15,6 +16,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,7 +26,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
  * Entidade JPA que armazena configuracoes personalizadas do usuario.
  * Inclui chaves de API para integracoes com servicos externos.
  *
- * <p>As chaves ficam criptografadas para garantir seguranca.</p>
+ * <p>As chaves ficam criptografadas para garantir seguranca. A entidade fica
+ * no cache de segundo nivel (regiao {@code userSettings}).</p>
  */
 @Entity
 @Table(name = "user_settings")
@@ -32,6 +36,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "userSettings")
 public class UserSettings {
 
     /** Comprimento maximo permitido para chaves e tokens. */
@@ -0,0 +1,47 @@
+package com.smarttask.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada do dicionario de tags de um usuario. Cada nome de tag recebe um
+ * identificador inteiro, usado nos vinculos {@link TaskTagLink}, e a
+ * quantidade de tarefas que o usam, mantida por deltas na mesma transacao
+ * que altera as tarefas.
+ */
+@Entity
+@Table(name = "user_tags", uniqueConstraints = @UniqueConstraint(
+        name = "uk_user_tags_user_name",
+        columnNames = {"user_id", "name"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTag {
+
+    /** Identificador da tag no dicionario. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Usuario dono do dicionario. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Nome da tag, igual ao gravado em {@code task_tags}. */
+    @Column(nullable = false)
+    private String name;
+
+    /** Quantidade de tarefas do usuario com a tag. */
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
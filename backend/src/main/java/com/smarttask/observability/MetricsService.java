@@ -5,6 +5,8 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.LongHistogram;
 import io.opentelemetry.api.metrics.Meter;
+import java.util.Map;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -185,6 +187,52 @@ public class MetricsService {
         aiAnalysisDurationHistogram.record(durationMs);
     }
 
+    /**
+     * Publica os acertos e as faltas dos caches como contadores observaveis,
+     * lidos a cada coleta de metricas.
+     *
+     * @param hits leitura dos acertos acumulados por cache
+     * @param misses leitura das faltas acumuladas por cache
+     */
+    public void registerCacheStatistics(
+            final Supplier<Map<String, Long>> hits,
+            final Supplier<Map<String, Long>> misses) {
+        meter.counterBuilder("cache.hits")
+                .setDescription("Leituras atendidas pelo cache")
+                .setUnit("reads")
+                .buildWithCallback(measurement -> hits.get().forEach(
+                        (cache, count) -> measurement.record(count,
+                                attributes("cache", cache))));
+        meter.counterBuilder("cache.misses")
+                .setDescription("Leituras nao encontradas no cache")
+                .setUnit("reads")
+                .buildWithCallback(measurement -> misses.get().forEach(
+                        (cache, count) -> measurement.record(count,
+                                attributes("cache", cache))));
+    }
+
+    /**
+     * Publica um medidor observavel por destino de banco de dados, como as
+     * conexoes de cada pool ou o atraso de cada replica, lido a cada coleta
+     * de metricas.
+     *
+     * @param name nome da metrica
+     * @param description descricao da metrica
+     * @param unit unidade dos valores
+     * @param values leitura dos valores atuais por destino
+     */
+    public void registerDataSourceGauge(final String name,
+            final String description, final String unit,
+            final Supplier<Map<String, Long>> values) {
+        meter.gaugeBuilder(name)
+                .setDescription(description)
+                .setUnit(unit)
+                .ofLongs()
+                .buildWithCallback(measurement -> values.get().forEach(
+                        (target, value) -> measurement.record(value,
+                                attributes("target", target))));
+    }
+
     private LongCounter buildCounter(
             final String name,
             final String description,
@@ -0,0 +1,80 @@
+package com.smarttask.observability;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exporta pelo {@link MetricsService} os acertos e as faltas das regioes do
+ * cache de segundo nivel do Hibernate.
+ *
+ * <p>Os totais sao lidos dos MBeans de estatisticas do JCache, habilitados
+ * em {@code ehcache.xml}, a cada coleta de metricas. Com o cache desligado
+ * no perfil nenhum MBean existe e nada e publicado.</p>
+ */
+@Component
+@Slf4j
+public class SecondLevelCacheMetrics {
+
+    /** Atributo com o total de acertos. */
+    static final String HITS = "CacheHits";
+
+    /** Atributo com o total de faltas. */
+    static final String MISSES = "CacheMisses";
+
+    /** Padrao dos MBeans de estatisticas definidos pela JSR-107. */
+    private static final ObjectName STATISTICS_PATTERN =
+            objectName("javax.cache:type=CacheStatistics,*");
+
+    /** Servidor de MBeans da JVM. */
+    private final MBeanServer mBeanServer;
+
+    /**
+     * Registra a leitura das estatisticas no servico de metricas.
+     *
+     * @param metricsService servico de metricas da aplicacao
+     */
+    public SecondLevelCacheMetrics(final MetricsService metricsService) {
+        this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        metricsService.registerCacheStatistics(
+                () -> read(HITS), () -> read(MISSES));
+    }
+
+    /**
+     * Le um contador de todas as regioes registradas.
+     *
+     * @param attribute atributo de {@code CacheStatisticsMXBean}
+     * @return total acumulado por regiao
+     */
+    Map<String, Long> read(final String attribute) {
+        final Map<String, Long> totals = new HashMap<>();
+        for (final ObjectName name
+                : mBeanServer.queryNames(STATISTICS_PATTERN, null)) {
+            try {
+                final Object value = mBeanServer.getAttribute(name, attribute);
+                if (value instanceof Number count) {
+                    totals.merge(name.getKeyProperty("Cache"),
+                            count.longValue(), Long::sum);
+                }
+            } catch (JMException exception) {
+                log.debug("Estatistica {} indisponivel em {}", attribute,
+                        name, exception);
+            }
+        }
+        return totals;
+    }
+
+    private static ObjectName objectName(final String value) {
+        try {
+            return new ObjectName(value);
+        } catch (MalformedObjectNameException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
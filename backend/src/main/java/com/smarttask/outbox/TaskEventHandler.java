@@ -0,0 +1,23 @@
+package com.smarttask.outbox;
+
+import com.smarttask.model.TaskOutboxEvent;
+
+/**
+ * Consumidor dos eventos de tarefas entregues pelo
+ * {@link TaskOutboxDispatcher}.
+ *
+ * <p>A entrega e ao menos uma vez: um evento pode chegar de novo quando
+ * este ou outro consumidor falha, ou quando a instancia para antes de
+ * confirmar o bloco. Os eventos de um mesmo usuario chegam na ordem em
+ * que foram gravados.</p>
+ */
+public interface TaskEventHandler {
+
+    /**
+     * Processa um evento. Uma excecao faz o evento ser entregue de novo a
+     * todos os consumidores apos um intervalo crescente.
+     *
+     * @param event evento a processar
+     */
+    void handle(TaskOutboxEvent event);
+}
@@ -0,0 +1,30 @@
+package com.smarttask.outbox;
+
+import com.smarttask.model.TaskOutboxEvent;
+import com.smarttask.observability.MetricsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra os contadores de tarefas criadas, concluidas e removidas a
+ * partir dos eventos do outbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskMetricsEventHandler implements TaskEventHandler {
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    @Override
+    public void handle(final TaskOutboxEvent event) {
+        switch (event.getEventType()) {
+            case CREATED -> metricsService.recordTaskCreated(
+                    String.valueOf(event.getPriority()));
+            case COMPLETED -> metricsService.recordTaskCompleted();
+            case DELETED -> metricsService.recordTaskDeleted();
+            case UPDATED -> {
+            }
+        }
+    }
+}
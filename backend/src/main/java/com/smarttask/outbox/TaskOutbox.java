@@ -0,0 +1,102 @@
+package com.smarttask.outbox;
+
+import com.smarttask.model.Task;
+import com.smarttask.model.TaskOutboxEvent.EventType;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Grava os eventos de tarefas no outbox dentro da transacao corrente, de
+ * modo que o evento existe se e somente se a alteracao foi confirmada.
+ * Depois do commit o {@link TaskOutboxDispatcher} e acordado para entregar
+ * os eventos sem esperar a proxima varredura.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutbox {
+
+    /** Insercao de um evento pronto para entrega. */
+    private static final String INSERT_EVENT = "INSERT INTO task_outbox "
+            + "(user_id, task_id, event_type, status, priority, occurred_at, "
+            + "attempts, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?)";
+
+    /** Tipos dos parametros de {@link #INSERT_EVENT}, aceitando nulos. */
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.BIGINT,
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+        Types.TIMESTAMP};
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Despachante acordado depois do commit. */
+    private final TaskOutboxDispatcher taskOutboxDispatcher;
+
+    /**
+     * Grava um evento por tarefa, na ordem da colecao.
+     *
+     * @param type tipo do evento
+     * @param userId usuario dono das tarefas
+     * @param tasks tarefas ja com identificador
+     */
+    public void publish(final EventType type, final Long userId,
+            final Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        final List<Object[]> rows = new ArrayList<>(tasks.size());
+        for (final Task task : tasks) {
+            rows.add(new Object[] {userId, task.getId(), type.name(),
+                name(task.getStatus()), name(task.getPriority()), now, now});
+        }
+        insert(rows);
+    }
+
+    /**
+     * Grava um evento {@link EventType#DELETED} por tarefa removida.
+     *
+     * @param userId usuario dono das tarefas
+     * @param taskIds tarefas removidas, incluindo subtarefas
+     */
+    public void publishDeleted(final Long userId,
+            final Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        final List<Object[]> rows = new ArrayList<>(taskIds.size());
+        for (final Long taskId : taskIds) {
+            rows.add(new Object[] {userId, taskId, EventType.DELETED.name(),
+                null, null, now, now});
+        }
+        insert(rows);
+    }
+
+    private void insert(final List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows, INSERT_TYPES);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            taskOutboxDispatcher.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        taskOutboxDispatcher.wakeUp();
+                    }
+                });
+    }
+
+    private static String name(final Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
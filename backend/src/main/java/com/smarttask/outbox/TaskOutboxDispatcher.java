@@ -0,0 +1,298 @@
+package com.smarttask.outbox;
+
+import com.smarttask.config.TaskOutboxConfig;
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOutboxEvent;
+import com.smarttask.model.TaskOutboxEvent.EventType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Entrega os eventos do outbox de tarefas aos {@link TaskEventHandler}s.
+ *
+ * <p>Cada bloco e lido em ordem de identificador com
+ * {@code FOR UPDATE SKIP LOCKED}, entregue e removido na mesma transacao,
+ * de modo que varias instancias drenam o outbox sem entregar o mesmo evento
+ * duas vezes em condicoes normais. A ordem por usuario e preservada: um
+ * evento so e entregue quando todos os eventos anteriores do usuario
+ * pendentes no banco estao no proprio bloco, e eventos de usuarios cujo
+ * evento mais antigo aguarda nova tentativa nem sao lidos. Uma falha adia o
+ * evento com intervalo exponencial e segura os eventos seguintes do mesmo
+ * usuario, sem atrasar os demais.</p>
+ *
+ * <p>A drenagem roda no executor dedicado, acordada depois de cada commit
+ * que grava eventos e por uma varredura periodica que cobre eventos
+ * gravados por outras instancias e novas tentativas.</p>
+ */
+@Component
+@Slf4j
+public class TaskOutboxDispatcher {
+
+    /** Tamanho maximo guardado da mensagem de erro. */
+    static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Eventos prontos para entrega, excluindo usuarios cujo evento anterior
+     * aguarda nova tentativa.
+     */
+    private static final String CLAIM = "SELECT o.id, o.user_id, "
+            + "o.task_id, o.event_type, o.status, o.priority, "
+            + "o.occurred_at, o.attempts, o.next_attempt_at "
+            + "FROM task_outbox o WHERE o.next_attempt_at <= ? "
+            + "AND NOT EXISTS (SELECT 1 FROM task_outbox b "
+            + "WHERE b.user_id = o.user_id AND b.id < o.id "
+            + "AND b.next_attempt_at > ?) "
+            + "ORDER BY o.id FETCH FIRST ? ROWS ONLY FOR UPDATE SKIP LOCKED";
+
+    /** Remocao de um evento entregue. */
+    private static final String DELETE = "DELETE FROM task_outbox "
+            + "WHERE id = ?";
+
+    /** Registro de uma entrega que falhou. */
+    private static final String RETRY = "UPDATE task_outbox SET "
+            + "attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    /** Acesso JDBC. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transacao de cada bloco. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Consumidores dos eventos, na ordem de entrega. */
+    private final List<TaskEventHandler> handlers;
+
+    /** Executor dedicado da drenagem. */
+    private final TaskExecutor outboxExecutor;
+
+    /** Eventos lidos por bloco. */
+    private final int batchSize;
+
+    /** Intervalo antes da primeira nova tentativa. */
+    private final Duration retryDelay;
+
+    /** Maior intervalo entre novas tentativas. */
+    private final Duration maxRetryDelay;
+
+    /** Indica uma drenagem ja agendada e ainda nao iniciada. */
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    /**
+     * Cria o despachante.
+     *
+     * @param jdbcTemplate acesso JDBC
+     * @param transactionManager gerenciador das transacoes dos blocos
+     * @param handlers consumidores dos eventos
+     * @param outboxExecutor executor dedicado da drenagem
+     * @param batchSize eventos lidos por bloco
+     * @param retryDelay intervalo antes da primeira nova tentativa
+     * @param maxRetryDelay maior intervalo entre novas tentativas
+     */
+    public TaskOutboxDispatcher(final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final List<TaskEventHandler> handlers,
+            @Qualifier(TaskOutboxConfig.TASK_OUTBOX_EXECUTOR)
+            final TaskExecutor outboxExecutor,
+            final @Value("${tasks.outbox.batch-size:200}") int batchSize,
+            final @Value("${tasks.outbox.retry-delay:1s}")
+                    Duration retryDelay,
+            final @Value("${tasks.outbox.max-retry-delay:5m}")
+                    Duration maxRetryDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlers = handlers;
+        this.outboxExecutor = outboxExecutor;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    /**
+     * Varredura periodica: entrega eventos de outras instancias e novas
+     * tentativas que venceram.
+     */
+    @Scheduled(fixedDelayString = "${tasks.outbox.poll-interval:5s}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Agenda uma drenagem no executor dedicado. Chamadas enquanto outra
+     * drenagem aguarda na fila sao agrupadas nela.
+     */
+    public void wakeUp() {
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            outboxExecutor.execute(this::drain);
+        } catch (TaskRejectedException exception) {
+            pending.set(false);
+            log.warn("Drenagem do outbox recusada pelo executor: {}",
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * Drena o outbox de cada shard ate nao restar evento pronto.
+     */
+    public void drain() {
+        pending.set(false);
+        try {
+            ShardContext.forEachShard(() -> {
+                int processed;
+                do {
+                    processed = drainBatch();
+                } while (processed > 0);
+            });
+        } catch (RuntimeException exception) {
+            log.error("Falha ao drenar o outbox de tarefas", exception);
+        }
+    }
+
+    /**
+     * Entrega um bloco de eventos na transacao corrente do shard.
+     *
+     * @return eventos entregues ou adiados no bloco
+     */
+    int drainBatch() {
+        final Integer processed = transactionTemplate.execute(status -> {
+            final LocalDateTime now = LocalDateTime.now();
+            final Timestamp timestamp = Timestamp.valueOf(now);
+            final List<TaskOutboxEvent> claimed = jdbcTemplate.query(CLAIM,
+                    (resultSet, row) -> toEvent(resultSet), timestamp,
+                    timestamp, batchSize);
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            final Set<Long> deliverable = deliverable(claimed);
+            final Set<Long> blockedUsers = new HashSet<>();
+            final List<Object[]> delivered = new ArrayList<>();
+            final List<Object[]> retries = new ArrayList<>();
+            for (final TaskOutboxEvent event : claimed) {
+                if (!deliverable.contains(event.getId())
+                        || blockedUsers.contains(event.getUserId())) {
+                    continue;
+                }
+                try {
+                    for (final TaskEventHandler handler : handlers) {
+                        handler.handle(event);
+                    }
+                    delivered.add(new Object[] {event.getId()});
+                } catch (RuntimeException exception) {
+                    blockedUsers.add(event.getUserId());
+                    retries.add(retry(event, exception, now));
+                }
+            }
+            jdbcTemplate.batchUpdate(DELETE, delivered);
+            jdbcTemplate.batchUpdate(RETRY, retries);
+            return delivered.size() + retries.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    /**
+     * Eventos do bloco que podem ser entregues sem passar na frente de
+     * outro evento do mesmo usuario: os que antecedem, para cada usuario, o
+     * primeiro evento pendente no banco que nao esta no bloco (por estar
+     * travado por outra instancia).
+     */
+    private Set<Long> deliverable(final List<TaskOutboxEvent> claimed) {
+        final Set<Long> claimedIds = new HashSet<>();
+        final Map<Long, Long> lastClaimedByUser = new HashMap<>();
+        for (final TaskOutboxEvent event : claimed) {
+            claimedIds.add(event.getId());
+            lastClaimedByUser.merge(event.getUserId(), event.getId(),
+                    Math::max);
+        }
+        final String users = lastClaimedByUser.keySet().stream()
+                .map(userId -> "?")
+                .collect(Collectors.joining(", "));
+        final long maxId = claimed.get(claimed.size() - 1).getId();
+        final List<Object> parameters =
+                new ArrayList<>(lastClaimedByUser.keySet());
+        parameters.add(maxId);
+        final Set<Long> deliverable = new LinkedHashSet<>();
+        final Set<Long> stopped = new HashSet<>();
+        jdbcTemplate.query("SELECT user_id, id FROM task_outbox "
+                + "WHERE user_id IN (" + users + ") AND id <= ? "
+                + "ORDER BY user_id, id", resultSet -> {
+                    final long userId = resultSet.getLong(1);
+                    final long id = resultSet.getLong(2);
+                    if (id > lastClaimedByUser.get(userId)
+                            || stopped.contains(userId)) {
+                        return;
+                    }
+                    if (claimedIds.contains(id)) {
+                        deliverable.add(id);
+                    } else {
+                        stopped.add(userId);
+                    }
+                }, parameters.toArray());
+        return deliverable;
+    }
+
+    private Object[] retry(final TaskOutboxEvent event,
+            final RuntimeException exception, final LocalDateTime now) {
+        final int attempts = event.getAttempts() + 1;
+        final Duration delay = backoff(attempts);
+        log.warn("Evento {} do outbox ({} da tarefa {}) falhou na tentativa "
+                + "{}; nova tentativa em {}", event.getId(),
+                event.getEventType(), event.getTaskId(), attempts, delay,
+                exception);
+        final String message = String.valueOf(exception.getMessage());
+        return new Object[] {attempts, Timestamp.valueOf(now.plus(delay)),
+            message.length() > MAX_ERROR_LENGTH
+                    ? message.substring(0, MAX_ERROR_LENGTH)
+                    : message,
+            event.getId()};
+    }
+
+    private Duration backoff(final int attempts) {
+        final int shift = Math.min(attempts - 1, 20);
+        final Duration delay = retryDelay.multipliedBy(1L << shift);
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private static TaskOutboxEvent toEvent(final ResultSet resultSet)
+            throws SQLException {
+        final String status = resultSet.getString(5);
+        final String priority = resultSet.getString(6);
+        return TaskOutboxEvent.builder()
+                .id(resultSet.getLong(1))
+                .userId(resultSet.getLong(2))
+                .taskId(resultSet.getLong(3))
+                .eventType(EventType.valueOf(resultSet.getString(4)))
+                .status(status == null ? null : TaskStatus.valueOf(status))
+                .priority(priority == null
+                        ? null
+                        : TaskPriority.valueOf(priority))
+                .occurredAt(resultSet.getTimestamp(7).toLocalDateTime())
+                .attempts(resultSet.getInt(8))
+                .nextAttemptAt(resultSet.getTimestamp(9).toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Outbox transacional dos eventos do ciclo de vida das tarefas: os servicos
+ * gravam os eventos na transacao da alteracao e um despachante os entrega
+ * de forma assincrona, em ordem por usuario, aos consumidores.
+ */
+package com.smarttask.outbox;
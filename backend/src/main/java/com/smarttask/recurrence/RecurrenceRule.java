@@ -0,0 +1,492 @@
+package com.smarttask.recurrence;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Regra de recorrencia no formato RRULE do iCalendar (RFC 5545), restrita
+ * a {@code FREQ} (DAILY, WEEKLY, MONTHLY ou YEARLY), {@code INTERVAL},
+ * {@code BYDAY} (apenas semanal), {@code COUNT} e {@code UNTIL} (data).
+ *
+ * <p>A primeira ocorrencia e o proprio prazo da tarefa modelo; as demais
+ * repetem o mesmo horario. Meses e anos sem o dia do modelo (31 de abril,
+ * 29 de fevereiro fora de ano bissexto) sao pulados, como na RFC. A
+ * expansao trabalha com dias epoch em variaveis primitivas e salta direto
+ * para o primeiro periodo da janela, sem percorrer as ocorrencias
+ * anteriores; so os dias entregues ao {@link OccurrenceSink} viram
+ * objetos, e apenas se quem consome os guardar.</p>
+ */
+public final class RecurrenceRule {
+
+    /** Maior intervalo aceito entre periodos. */
+    public static final int MAX_INTERVAL = 1000;
+
+    /** Maior quantidade de ocorrencias aceita em {@code COUNT}. */
+    public static final int MAX_COUNT = 1000;
+
+    /** Ultimo dia considerado nas expansoes sem fim. */
+    private static final long MAX_DAY =
+            LocalDate.of(9999, 12, 31).toEpochDay();
+
+    /** Dias entre 0000-01-01 e 1970-01-01, como em {@link LocalDate}. */
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    /** Formato de {@code UNTIL}. */
+    private static final DateTimeFormatter UNTIL_FORMAT =
+            DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** Siglas de {@code BYDAY}, de segunda a domingo. */
+    private static final List<String> WEEKDAYS =
+            Arrays.asList("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    /** Frequencia. */
+    private final Frequency frequency;
+
+    /** Periodos entre duas repeticoes. */
+    private final int interval;
+
+    /** Dias da semana, um bit por dia a partir de segunda; 0 se ausente. */
+    private final int weekdays;
+
+    /** Total de ocorrencias, incluindo a primeira, ou {@code null}. */
+    private final Integer count;
+
+    /** Ultimo dia, inclusivo, ou {@code null}. */
+    private final LocalDate until;
+
+    private RecurrenceRule(final Frequency frequency, final int interval,
+            final int weekdays, final Integer count, final LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.weekdays = weekdays;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Le uma regra, com ou sem o prefixo {@code RRULE:}.
+     *
+     * @param value regra, por exemplo {@code FREQ=WEEKLY;BYDAY=MO,WE}
+     * @return regra lida
+     * @throws IllegalStateException se a regra for invalida ou usar partes
+     *     nao suportadas
+     */
+    public static RecurrenceRule parse(final String value) {
+        if (value == null || value.isBlank()) {
+            throw invalid("empty rule");
+        }
+        String rule = value.trim().toUpperCase(Locale.ROOT);
+        if (rule.startsWith("RRULE:")) {
+            rule = rule.substring("RRULE:".length());
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        int weekdays = 0;
+        Integer count = null;
+        LocalDate until = null;
+        for (final String part : rule.split(";")) {
+            final int separator = part.indexOf('=');
+            if (separator <= 0) {
+                throw invalid("expected NAME=VALUE, got '" + part + "'");
+            }
+            final String name = part.substring(0, separator);
+            final String text = part.substring(separator + 1);
+            switch (name) {
+                case "FREQ" -> frequency = frequency(text);
+                case "INTERVAL" -> interval = number(name, text,
+                        MAX_INTERVAL);
+                case "BYDAY" -> weekdays = weekdays(text);
+                case "COUNT" -> count = number(name, text, MAX_COUNT);
+                case "UNTIL" -> until = until(text);
+                default -> throw invalid("unsupported part " + name);
+            }
+        }
+        if (frequency == null) {
+            throw invalid("FREQ is required");
+        }
+        if (weekdays != 0 && frequency != Frequency.WEEKLY) {
+            throw invalid("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        if (count != null && until != null) {
+            throw invalid("COUNT and UNTIL cannot be combined");
+        }
+        return new RecurrenceRule(frequency, interval, weekdays, count,
+                until);
+    }
+
+    /**
+     * Forma canonica da regra, gravada no banco.
+     *
+     * @return regra sem prefixo, com as partes em ordem fixa
+     */
+    public String format() {
+        final StringBuilder rule = new StringBuilder("FREQ=")
+                .append(frequency.name());
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (weekdays != 0) {
+            rule.append(";BYDAY=");
+            String separator = "";
+            for (int day = 0; day < WEEKDAYS.size(); day++) {
+                if ((weekdays & (1 << day)) != 0) {
+                    rule.append(separator).append(WEEKDAYS.get(day));
+                    separator = ",";
+                }
+            }
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return rule.toString();
+    }
+
+    /**
+     * Ultima ocorrencia possivel da serie, usada para descartar series
+     * encerradas sem expandi-las. Com {@code COUNT} e a ultima ocorrencia
+     * de fato; com {@code UNTIL}, o horario do modelo no ultimo dia.
+     *
+     * @param start prazo da tarefa modelo, primeira ocorrencia
+     * @return ultima ocorrencia ou {@code null} para series sem fim
+     */
+    public LocalDateTime lastOccurrence(final LocalDateTime start) {
+        if (until != null) {
+            return until.atTime(start.toLocalTime());
+        }
+        if (count == null) {
+            return null;
+        }
+        final long startDay = start.toLocalDate().toEpochDay();
+        final long[] last = {startDay};
+        scan(startDay, startDay + 1, MAX_DAY, count - 1, day -> {
+            last[0] = day;
+            return true;
+        });
+        return LocalDate.ofEpochDay(last[0]).atTime(start.toLocalTime());
+    }
+
+    /**
+     * Entrega, em ordem, os dias das ocorrencias na janela
+     * {@code [from, to)}, sem a primeira ocorrencia, que e a propria
+     * tarefa modelo. Cada ocorrencia acontece no horario de {@code start}.
+     *
+     * @param start prazo da tarefa modelo, primeira ocorrencia
+     * @param end ultima ocorrencia possivel ou {@code null}
+     * @param from inicio da janela, inclusivo
+     * @param to fim da janela, exclusivo
+     * @param limit quantidade maxima de ocorrencias
+     * @param sink destino dos dias; devolve {@code false} para parar
+     * @return quantidade de ocorrencias entregues
+     */
+    public int expand(final LocalDateTime start, final LocalDateTime end,
+            final LocalDateTime from, final LocalDateTime to,
+            final int limit, final OccurrenceSink sink) {
+        final LocalTime time = start.toLocalTime();
+        final long startDay = start.toLocalDate().toEpochDay();
+        final long firstDay = Math.max(startDay + 1,
+                dayAtOrAfter(from, time));
+        long lastDay = dayAtOrAfter(to, time) - 1;
+        if (end != null) {
+            final long endDay = end.toLocalDate().toEpochDay();
+            lastDay = Math.min(lastDay,
+                    end.toLocalTime().isBefore(time) ? endDay - 1 : endDay);
+        }
+        if (until != null) {
+            lastDay = Math.min(lastDay, until.toEpochDay());
+        }
+        if (limit <= 0 || firstDay > lastDay) {
+            return 0;
+        }
+        return scan(startDay, firstDay, lastDay, limit, sink);
+    }
+
+    /**
+     * Frequencia da regra.
+     *
+     * @return frequencia
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Periodos entre duas repeticoes.
+     *
+     * @return intervalo, 1 ou mais
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Total de ocorrencias, incluindo a tarefa modelo.
+     *
+     * @return total ou {@code null}
+     */
+    public Integer getCount() {
+        return count;
+    }
+
+    /**
+     * Ultimo dia da serie.
+     *
+     * @return dia inclusivo ou {@code null}
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    private int scan(final long startDay, final long firstDay,
+            final long lastDay, final int limit, final OccurrenceSink sink) {
+        if (limit <= 0) {
+            return 0;
+        }
+        return switch (frequency) {
+            case DAILY -> scanDaily(startDay, firstDay, lastDay, limit, sink);
+            case WEEKLY -> scanWeekly(startDay, firstDay, lastDay, limit,
+                    sink);
+            case MONTHLY -> scanMonthly(startDay, firstDay, lastDay, limit,
+                    sink);
+            case YEARLY -> scanYearly(startDay, firstDay, lastDay, limit,
+                    sink);
+        };
+    }
+
+    private int scanDaily(final long startDay, final long firstDay,
+            final long lastDay, final int limit, final OccurrenceSink sink) {
+        int emitted = 0;
+        long day = startDay + ceilDiv(firstDay - startDay, interval)
+                * interval;
+        while (day <= lastDay && emitted < limit) {
+            emitted++;
+            if (!sink.accept(day)) {
+                break;
+            }
+            day += interval;
+        }
+        return emitted;
+    }
+
+    private int scanWeekly(final long startDay, final long firstDay,
+            final long lastDay, final int limit, final OccurrenceSink sink) {
+        final int mask = weekdays != 0
+                ? weekdays
+                : 1 << dayOfWeek(startDay);
+        final long period = 7L * interval;
+        final long startWeek = startDay - dayOfWeek(startDay);
+        final long firstWeek = firstDay - dayOfWeek(firstDay);
+        long week = startWeek
+                + Math.floorDiv(firstWeek - startWeek, period) * period;
+        int emitted = 0;
+        while (week <= lastDay) {
+            for (int offset = 0; offset < 7; offset++) {
+                final long day = week + offset;
+                if (day > lastDay) {
+                    return emitted;
+                }
+                if ((mask & (1 << offset)) == 0 || day < firstDay) {
+                    continue;
+                }
+                emitted++;
+                if (!sink.accept(day) || emitted == limit) {
+                    return emitted;
+                }
+            }
+            week += period;
+        }
+        return emitted;
+    }
+
+    private int scanMonthly(final long startDay, final long firstDay,
+            final long lastDay, final int limit, final OccurrenceSink sink) {
+        final LocalDate start = LocalDate.ofEpochDay(startDay);
+        final LocalDate first = LocalDate.ofEpochDay(firstDay);
+        final long startMonth = start.getYear() * 12L
+                + start.getMonthValue() - 1;
+        final long firstMonth = first.getYear() * 12L
+                + first.getMonthValue() - 1;
+        final int dayOfMonth = start.getDayOfMonth();
+        long month = startMonth + Math.floorDiv(firstMonth - startMonth,
+                interval) * (long) interval;
+        int emitted = 0;
+        while (true) {
+            final int year = (int) Math.floorDiv(month, 12);
+            final int monthOfYear = (int) Math.floorMod(month, 12) + 1;
+            if (epochDay(year, monthOfYear, 1) > lastDay) {
+                return emitted;
+            }
+            if (dayOfMonth <= lengthOfMonth(year, monthOfYear)) {
+                final long day = epochDay(year, monthOfYear, dayOfMonth);
+                if (day > lastDay) {
+                    return emitted;
+                }
+                if (day >= firstDay) {
+                    emitted++;
+                    if (!sink.accept(day) || emitted == limit) {
+                        return emitted;
+                    }
+                }
+            }
+            month += interval;
+        }
+    }
+
+    private int scanYearly(final long startDay, final long firstDay,
+            final long lastDay, final int limit, final OccurrenceSink sink) {
+        final LocalDate start = LocalDate.ofEpochDay(startDay);
+        final int startYear = start.getYear();
+        final int firstYear = LocalDate.ofEpochDay(firstDay).getYear();
+        final int monthOfYear = start.getMonthValue();
+        final int dayOfMonth = start.getDayOfMonth();
+        long year = startYear + Math.floorDiv(firstYear - startYear,
+                interval) * (long) interval;
+        int emitted = 0;
+        while (epochDay((int) year, 1, 1) <= lastDay) {
+            if (dayOfMonth <= lengthOfMonth((int) year, monthOfYear)) {
+                final long day = epochDay((int) year, monthOfYear,
+                        dayOfMonth);
+                if (day > lastDay) {
+                    return emitted;
+                }
+                if (day >= firstDay) {
+                    emitted++;
+                    if (!sink.accept(day) || emitted == limit) {
+                        return emitted;
+                    }
+                }
+            }
+            year += interval;
+        }
+        return emitted;
+    }
+
+    private static long dayAtOrAfter(final LocalDateTime instant,
+            final LocalTime time) {
+        final long day = instant.toLocalDate().toEpochDay();
+        return instant.toLocalTime().isAfter(time) ? day + 1 : day;
+    }
+
+    private static int dayOfWeek(final long epochDay) {
+        // 1970-01-01 foi uma quinta-feira (3 a partir de segunda)
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    private static long ceilDiv(final long dividend, final long divisor) {
+        return dividend <= 0 ? 0 : -Math.floorDiv(-dividend, divisor);
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        return Month.of(month).length(Year.isLeap(year));
+    }
+
+    private static long epochDay(final int year, final int month,
+            final int day) {
+        // mesmo calculo de LocalDate.toEpochDay, sem criar a data
+        long total = 365L * year;
+        if (year >= 0) {
+            total += (year + 3L) / 4 - (year + 99L) / 100
+                    + (year + 399L) / 400;
+        } else {
+            total -= year / -4L - year / -100L + year / -400L;
+        }
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!Year.isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static Frequency frequency(final String text) {
+        try {
+            return Frequency.valueOf(text);
+        } catch (IllegalArgumentException exception) {
+            throw invalid("unsupported FREQ " + text);
+        }
+    }
+
+    private static int number(final String name, final String text,
+            final int max) {
+        final int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException exception) {
+            throw invalid(name + " must be a number");
+        }
+        if (value < 1 || value > max) {
+            throw invalid(name + " must be between 1 and " + max);
+        }
+        return value;
+    }
+
+    private static int weekdays(final String text) {
+        int mask = 0;
+        for (final String day : text.split(",")) {
+            final int index = WEEKDAYS.indexOf(day);
+            if (index < 0) {
+                throw invalid("unsupported BYDAY " + day);
+            }
+            mask |= 1 << index;
+        }
+        return mask;
+    }
+
+    private static LocalDate until(final String text) {
+        try {
+            return LocalDate.parse(text, UNTIL_FORMAT);
+        } catch (DateTimeParseException exception) {
+            throw invalid("UNTIL must be a date (yyyyMMdd)");
+        }
+    }
+
+    private static IllegalStateException invalid(final String reason) {
+        return new IllegalStateException(
+                "Invalid recurrence rule: " + reason);
+    }
+
+    /** Frequencias suportadas. */
+    public enum Frequency {
+        /** Todo dia. */
+        DAILY,
+        /** Toda semana, nos dias de {@code BYDAY} ou no dia do modelo. */
+        WEEKLY,
+        /** Todo mes, no dia do modelo. */
+        MONTHLY,
+        /** Todo ano, no dia e mes do modelo. */
+        YEARLY
+    }
+
+    /**
+     * Destino dos dias expandidos, sem criar objetos por ocorrencia.
+     */
+    @FunctionalInterface
+    public interface OccurrenceSink {
+
+        /**
+         * Recebe uma ocorrencia.
+         *
+         * @param epochDay dia da ocorrencia, contado de 1970-01-01
+         * @return {@code false} para encerrar a expansao
+         */
+        boolean accept(long epochDay);
+    }
+}
@@ -0,0 +1,214 @@
+package com.smarttask.recurrence;
+
+import com.smarttask.dto.TaskOccurrenceResponse;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.repository.TaskOccurrenceRepository;
+import com.smarttask.repository.TaskOccurrenceView;
+import com.smarttask.repository.TaskRecurrenceRepository;
+import com.smarttask.repository.TaskSeriesView;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Expande as series recorrentes de um usuario em ocorrencias virtuais
+ * dentro de uma janela.
+ *
+ * <p>Sao lidas apenas as series que podem ter ocorrencias na janela, pelo
+ * indice {@code (user_id, starts_at)} e pelo fim gravado de cada serie. A
+ * regra salta direto para a janela e entrega dias epoch a um buffer de
+ * primitivos limitado a {@code max-occurrences} por consulta, somando todas
+ * as series, das que comecam antes para as que comecam depois; as
+ * ocorrencias ja materializadas da janela sao lidas em uma unica consulta
+ * e descartadas antes de qualquer objeto de resposta ser criado.</p>
+ */
+@Component
+public class TaskOccurrenceExpander {
+
+    /** Ordem das ocorrencias: prazo e depois tarefa modelo. */
+    private static final Comparator<TaskOccurrenceResponse> BY_DUE_DATE =
+            Comparator.comparing(TaskOccurrenceResponse::getDueDate)
+                    .thenComparing(TaskOccurrenceResponse::getRecurrenceId);
+
+    /** Repositorio das regras de recorrencia. */
+    private final TaskRecurrenceRepository taskRecurrenceRepository;
+
+    /** Repositorio das ocorrencias materializadas. */
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+
+    /** Maior quantidade de ocorrencias expandidas por consulta. */
+    private final int maxOccurrences;
+
+    /** Maior quantidade de series lidas por consulta. */
+    private final int maxSeries;
+
+    /**
+     * Cria o expansor.
+     *
+     * @param taskRecurrenceRepository repositorio das regras
+     * @param taskOccurrenceRepository repositorio das ocorrencias
+     *     materializadas
+     * @param maxOccurrences ocorrencias expandidas por consulta
+     * @param maxSeries series lidas por consulta
+     */
+    public TaskOccurrenceExpander(
+            final TaskRecurrenceRepository taskRecurrenceRepository,
+            final TaskOccurrenceRepository taskOccurrenceRepository,
+            final @Value("${tasks.recurrence.max-occurrences:1000}")
+                    int maxOccurrences,
+            final @Value("${tasks.recurrence.max-series:500}")
+                    int maxSeries) {
+        this.taskRecurrenceRepository = taskRecurrenceRepository;
+        this.taskOccurrenceRepository = taskOccurrenceRepository;
+        this.maxOccurrences = maxOccurrences;
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * Ocorrencias virtuais das series do usuario no intervalo, sem a
+     * primeira de cada serie (a propria tarefa modelo) e sem as que ja
+     * viraram tarefas.
+     *
+     * @param userId identificador do usuario
+     * @param start inicio do intervalo, inclusivo
+     * @param end fim do intervalo, exclusivo
+     * @return ocorrencias por prazo e tarefa modelo
+     */
+    @Transactional(readOnly = true)
+    public List<TaskOccurrenceResponse> expand(final Long userId,
+            final LocalDateTime start, final LocalDateTime end) {
+        final List<TaskSeriesView> series = taskRecurrenceRepository
+                .findSeries(userId, start, end, Limit.of(maxSeries));
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        final OccurrenceBuffer buffer = new OccurrenceBuffer(maxOccurrences);
+        for (int index = 0; index < series.size() && !buffer.isFull();
+                index++) {
+            final TaskSeriesView view = series.get(index);
+            final int owner = index;
+            RecurrenceRule.parse(view.getRule()).expand(view.getStartsAt(),
+                    view.getEndsAt(), start, end, buffer.remaining(),
+                    day -> buffer.add(owner, day));
+        }
+        if (buffer.size() == 0) {
+            return List.of();
+        }
+        final Map<Long, Set<LocalDateTime>> materialized =
+                materialized(series, buffer, start, end);
+        final List<TaskOccurrenceResponse> occurrences =
+                new ArrayList<>(buffer.size());
+        for (int index = 0; index < buffer.size(); index++) {
+            final TaskSeriesView view = series.get(buffer.owner(index));
+            final LocalDateTime dueDate = LocalDate
+                    .ofEpochDay(buffer.day(index))
+                    .atTime(view.getStartsAt().toLocalTime());
+            final Set<LocalDateTime> taken =
+                    materialized.get(view.getTaskId());
+            if (taken != null && taken.contains(dueDate)) {
+                continue;
+            }
+            occurrences.add(TaskOccurrenceResponse.builder()
+                    .recurrenceId(view.getTaskId())
+                    .title(view.getTitle())
+                    .status(TaskStatus.TODO)
+                    .priority(view.getPriority())
+                    .dueDate(dueDate)
+                    .build());
+        }
+        occurrences.sort(BY_DUE_DATE);
+        return occurrences;
+    }
+
+    private Map<Long, Set<LocalDateTime>> materialized(
+            final List<TaskSeriesView> series, final OccurrenceBuffer buffer,
+            final LocalDateTime start, final LocalDateTime end) {
+        final Set<Long> templateIds = new LinkedHashSet<>();
+        for (int index = 0; index < buffer.size(); index++) {
+            templateIds.add(series.get(buffer.owner(index)).getTaskId());
+        }
+        final Map<Long, Set<LocalDateTime>> materialized = new HashMap<>();
+        for (final TaskOccurrenceView view : taskOccurrenceRepository
+                .findMaterialized(templateIds, start, end)) {
+            materialized.computeIfAbsent(view.getTemplateId(),
+                    id -> new HashSet<>()).add(view.getOccurrenceAt());
+        }
+        return materialized;
+    }
+
+    /**
+     * Dias expandidos e a serie de cada um, em arrays de primitivos que
+     * crescem ate a capacidade.
+     */
+    private static final class OccurrenceBuffer {
+
+        /** Tamanho inicial dos arrays. */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /** Capacidade maxima. */
+        private final int capacity;
+
+        /** Dias epoch das ocorrencias. */
+        private long[] days;
+
+        /** Posicao da serie de cada ocorrencia na lista de series. */
+        private int[] owners;
+
+        /** Ocorrencias guardadas. */
+        private int size;
+
+        OccurrenceBuffer(final int capacity) {
+            this.capacity = Math.max(0, capacity);
+            final int initial = Math.min(this.capacity, INITIAL_CAPACITY);
+            this.days = new long[initial];
+            this.owners = new int[initial];
+        }
+
+        boolean add(final int owner, final long day) {
+            if (size == capacity) {
+                return false;
+            }
+            if (size == days.length) {
+                final int grown = Math.min(capacity, days.length * 2);
+                days = Arrays.copyOf(days, grown);
+                owners = Arrays.copyOf(owners, grown);
+            }
+            days[size] = day;
+            owners[size] = owner;
+            size++;
+            return size < capacity;
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        int remaining() {
+            return capacity - size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long day(final int index) {
+            return days[index];
+        }
+
+        int owner(final int index) {
+            return owners[index];
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.smarttask.recurrence;
+
+import com.smarttask.dto.TaskOccurrenceResponse;
+import com.smarttask.dto.TaskPatchRequest;
+import com.smarttask.dto.TaskRecurrenceRequest;
+import com.smarttask.dto.TaskRecurrenceResponse;
+import com.smarttask.dto.TaskRequest;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.ResourceAlreadyExistsException;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOccurrence;
+import com.smarttask.model.TaskRecurrence;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskOccurrenceRepository;
+import com.smarttask.repository.TaskRecurrenceRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskService;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Operacoes das tarefas recorrentes: definir e remover a regra de uma
+ * tarefa modelo, listar as ocorrencias virtuais de uma janela e
+ * materializar uma ocorrencia quando o usuario a altera ou conclui.
+ *
+ * <p>A ocorrencia materializada e criada por {@link TaskService}, com os
+ * dados atuais do modelo e o prazo da ocorrencia, e passa pelos mesmos
+ * contadores, indices e eventos de qualquer tarefa nova. O registro em
+ * {@code task_occurrences} tira a ocorrencia da expansao; a chave unica
+ * recusa com 409 uma segunda materializacao concorrente.</p>
+ */
+@Service
+public class TaskRecurrenceService {
+
+    /** Maior quantidade de dias aceita em uma consulta de ocorrencias. */
+    public static final int MAX_DAYS = 366;
+
+    /** Mensagem padrao para tarefa inexistente. */
+    private static final String TASK_NOT_FOUND_MESSAGE = "Task not found";
+
+    /** Mensagem para tarefas sem regra de recorrencia. */
+    private static final String NOT_RECURRING_MESSAGE =
+            "Task is not recurring";
+
+    /** Mensagem para ocorrencias que ja viraram tarefas. */
+    private static final String ALREADY_MATERIALIZED_MESSAGE =
+            "Occurrence already exists as a task";
+
+    /** Aviso de acesso negado a tarefas de outro usuario. */
+    private static final String ACCESS_DENIED_MESSAGE =
+            "You don't have permission to access this task";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositorio das regras de recorrencia. */
+    private final TaskRecurrenceRepository taskRecurrenceRepository;
+
+    /** Repositorio das ocorrencias materializadas. */
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+
+    /** Expansor das ocorrencias virtuais. */
+    private final TaskOccurrenceExpander taskOccurrenceExpander;
+
+    /** Servico que cria e altera as ocorrencias materializadas. */
+    private final TaskService taskService;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /** Janela, antes de agora, das ocorrencias virtuais em atraso. */
+    private final Duration overdueLookback;
+
+    /**
+     * Cria o servico.
+     *
+     * @param taskRepository repositorio de tarefas
+     * @param taskRecurrenceRepository repositorio das regras
+     * @param taskOccurrenceRepository repositorio das ocorrencias
+     *     materializadas
+     * @param taskOccurrenceExpander expansor das ocorrencias virtuais
+     * @param taskService servico de tarefas
+     * @param metricsService servico de metricas
+     * @param overdueLookback janela das ocorrencias em atraso
+     */
+    public TaskRecurrenceService(final TaskRepository taskRepository,
+            final TaskRecurrenceRepository taskRecurrenceRepository,
+            final TaskOccurrenceRepository taskOccurrenceRepository,
+            final TaskOccurrenceExpander taskOccurrenceExpander,
+            final TaskService taskService,
+            final MetricsService metricsService,
+            final @Value("${tasks.recurrence.overdue-lookback:30d}")
+                    Duration overdueLookback) {
+        this.taskRepository = taskRepository;
+        this.taskRecurrenceRepository = taskRecurrenceRepository;
+        this.taskOccurrenceRepository = taskOccurrenceRepository;
+        this.taskOccurrenceExpander = taskOccurrenceExpander;
+        this.taskService = taskService;
+        this.metricsService = metricsService;
+        this.overdueLookback = overdueLookback;
+    }
+
+    /**
+     * Define ou substitui a regra de recorrencia de uma tarefa. O prazo
+     * atual da tarefa passa a ser a primeira ocorrencia da serie.
+     *
+     * @param taskId tarefa modelo
+     * @param request regra no formato RRULE
+     * @param currentUser usuario autenticado
+     * @return regra gravada
+     */
+    @Transactional
+    @Traced("TaskRecurrenceService.setRecurrence")
+    public TaskRecurrenceResponse setRecurrence(final Long taskId,
+            final TaskRecurrenceRequest request,
+            final UserPrincipal currentUser) {
+        final Task task = findOwnedTask(taskId, currentUser);
+        if (task.getDueDate() == null) {
+            throw new IllegalStateException(
+                    "A recurring task needs a due date");
+        }
+        final RecurrenceRule rule = RecurrenceRule.parse(request.getRule());
+        final TaskRecurrence recurrence = taskRecurrenceRepository
+                .findById(taskId)
+                .orElseGet(() -> TaskRecurrence.builder()
+                        .taskId(taskId)
+                        .userId(currentUser.getId())
+                        .build());
+        recurrence.setRule(rule.format());
+        recurrence.setStartsAt(task.getDueDate());
+        recurrence.setEndsAt(rule.lastOccurrence(task.getDueDate()));
+        recurrence.setCreatedAt(LocalDateTime.now());
+        return toResponse(taskRecurrenceRepository.save(recurrence));
+    }
+
+    /**
+     * Remove a regra de recorrencia de uma tarefa. A tarefa modelo e as
+     * ocorrencias ja materializadas continuam como tarefas comuns.
+     *
+     * @param taskId tarefa modelo
+     * @param currentUser usuario autenticado
+     */
+    @Transactional
+    @Traced("TaskRecurrenceService.removeRecurrence")
+    public void removeRecurrence(final Long taskId,
+            final UserPrincipal currentUser) {
+        findOwnedTask(taskId, currentUser);
+        if (!taskRecurrenceRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException(NOT_RECURRING_MESSAGE);
+        }
+        taskRecurrenceRepository.deleteByTaskIdIn(List.of(taskId));
+        taskOccurrenceRepository.deleteByTemplateIdIn(List.of(taskId));
+    }
+
+    /**
+     * Lista as ocorrencias virtuais das tarefas recorrentes do usuario com
+     * prazo entre dois dias.
+     *
+     * @param from primeiro dia, inclusivo
+     * @param to ultimo dia, inclusivo
+     * @param currentUser usuario autenticado
+     * @return ocorrencias por prazo
+     */
+    @Traced("TaskRecurrenceService.getOccurrences")
+    public List<TaskOccurrenceResponse> getOccurrences(final LocalDate from,
+            final LocalDate to, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        if (to.isBefore(from)) {
+            throw new IllegalStateException(
+                    "'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalStateException(
+                    "The range cannot exceed " + MAX_DAYS + " days");
+        }
+        final List<TaskOccurrenceResponse> occurrences =
+                taskOccurrenceExpander.expand(currentUser.getId(),
+                        from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "occurrences");
+        return occurrences;
+    }
+
+    /**
+     * Lista as ocorrencias virtuais vencidas dentro da janela de atraso
+     * ({@code tasks.recurrence.overdue-lookback}).
+     *
+     * @param currentUser usuario autenticado
+     * @return ocorrencias em atraso, da mais antiga para a mais recente
+     */
+    @Traced("TaskRecurrenceService.getOverdueOccurrences")
+    public List<TaskOccurrenceResponse> getOverdueOccurrences(
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final LocalDateTime now = LocalDateTime.now();
+        final List<TaskOccurrenceResponse> occurrences =
+                taskOccurrenceExpander.expand(currentUser.getId(),
+                        now.minus(overdueLookback), now);
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime,
+                "occurrences_overdue");
+        return occurrences;
+    }
+
+    /**
+     * Transforma uma ocorrencia virtual em tarefa e aplica as alteracoes
+     * pedidas, por exemplo {@code {"status": "COMPLETED"}}.
+     *
+     * @param taskId tarefa modelo
+     * @param occurrenceAt prazo da ocorrencia na serie
+     * @param patch campos alterados, no formato JSON Merge Patch
+     * @param currentUser usuario autenticado
+     * @return tarefa criada para a ocorrencia
+     */
+    @Transactional
+    @Traced(value = "TaskRecurrenceService.materializeOccurrence",
+            captureParameters = true)
+    public TaskResponse materializeOccurrence(final Long taskId,
+            final LocalDateTime occurrenceAt, final TaskPatchRequest patch,
+            final UserPrincipal currentUser) {
+        final Task template = findOwnedTask(taskId, currentUser);
+        final TaskRecurrence recurrence = taskRecurrenceRepository
+                .findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        NOT_RECURRING_MESSAGE));
+        final int matches = RecurrenceRule.parse(recurrence.getRule())
+                .expand(recurrence.getStartsAt(), recurrence.getEndsAt(),
+                        occurrenceAt, occurrenceAt.plusNanos(1), 1,
+                        day -> true);
+        if (matches == 0) {
+            throw new IllegalStateException(
+                    "Not an occurrence of this recurring task");
+        }
+        if (taskOccurrenceRepository.existsByTemplateIdAndOccurrenceAt(
+                taskId, occurrenceAt)) {
+            throw new ResourceAlreadyExistsException(
+                    ALREADY_MATERIALIZED_MESSAGE);
+        }
+
+        TaskResponse task = taskService.createTask(new TaskRequest(
+                template.getTitle(), template.getDescription(),
+                TaskStatus.TODO, template.getPriority(), occurrenceAt,
+                template.getEstimatedHours(),
+                new HashSet<>(template.getTags()), null), currentUser);
+        try {
+            taskOccurrenceRepository.saveAndFlush(TaskOccurrence.builder()
+                    .templateId(taskId)
+                    .userId(currentUser.getId())
+                    .occurrenceAt(occurrenceAt)
+                    .taskId(task.getId())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException exception) {
+            throw new ResourceAlreadyExistsException(
+                    ALREADY_MATERIALIZED_MESSAGE);
+        }
+        if (!patch.isEmpty()) {
+            task = taskService.patchTask(task.getId(), patch, null,
+                    currentUser);
+        }
+        return task;
+    }
+
+    private Task findOwnedTask(final Long taskId,
+            final UserPrincipal currentUser) {
+        final Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        TASK_NOT_FOUND_MESSAGE));
+        if (!task.getUser().getId().equals(currentUser.getId())) {
+            throw new AccessDeniedException(ACCESS_DENIED_MESSAGE);
+        }
+        return task;
+    }
+
+    private static TaskRecurrenceResponse toResponse(
+            final TaskRecurrence recurrence) {
+        return TaskRecurrenceResponse.builder()
+                .taskId(recurrence.getTaskId())
+                .rule(recurrence.getRule())
+                .startsAt(recurrence.getStartsAt())
+                .endsAt(recurrence.getEndsAt())
+                .build();
+    }
+}
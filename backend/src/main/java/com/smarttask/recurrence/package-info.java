@@ -0,0 +1,6 @@
+/**
+ * Tarefas recorrentes: uma regra no formato RRULE ligada a uma tarefa
+ * modelo, expandida em ocorrencias virtuais apenas na janela consultada. A
+ * ocorrencia so vira uma tarefa real quando o usuario a altera ou conclui.
+ */
+package com.smarttask.recurrence;
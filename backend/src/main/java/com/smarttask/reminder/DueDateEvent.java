@@ -0,0 +1,14 @@
+package com.smarttask.reminder;
+
+/**
+ * Eventos disparados pelo {@link DueDateScheduler} ao longo do prazo de uma
+ * tarefa.
+ */
+public enum DueDateEvent {
+
+    /** Prazo se aproximando, {@link DueDateScheduler#DUE_SOON_LEAD} antes. */
+    DUE_SOON,
+
+    /** Prazo vencido sem que a tarefa tenha sido concluida. */
+    OVERDUE
+}
@@ -0,0 +1,370 @@
+package com.smarttask.reminder;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.model.SchedulerWatermark;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.repository.SchedulerWatermarkRepository;
+import com.smarttask.repository.TaskDueView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.service.NotificationService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantem os timers de vencimento das tarefas em uma
+ * {@link HierarchicalTimingWheel} com resolucao de um minuto.
+ *
+ * <p>Cada tarefa pendente com prazo futuro tem ate dois timers: um
+ * {@link DueDateEvent#DUE_SOON} {@link #DUE_SOON_LEAD} antes do prazo e um
+ * {@link DueDateEvent#OVERDUE} no minuto em que o prazo vence. Os servicos
+ * de escrita reagendam os timers apos o commit e, na inicializacao, a roda e
+ * reconstruida a partir da tabela de tarefas.</p>
+ *
+ * <p>A cada minuto a roda avanca, apenas os timers vencidos sao entregues
+ * ao {@link NotificationService}, agrupados por evento, e o minuto
+ * processado e gravado em {@code scheduler_watermarks}. Na subida, os
+ * alertas cujo minuto passou entre o ultimo minuto gravado e a
+ * reconstrucao da roda sao disparados de uma vez; sem registro gravado,
+ * tarefas ja atrasadas nao sao alertadas.</p>
+ */
+@Component
+@Slf4j
+public class DueDateScheduler {
+
+    /** Antecedencia do alerta de vencimento proximo. */
+    public static final Duration DUE_SOON_LEAD = Duration.ofMinutes(60);
+
+    /** Quantidade de tarefas lidas por bloco na reconstrucao. */
+    static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** Nome do registro do ultimo minuto processado. */
+    static final String WATERMARK_NAME = "due-date-scheduler";
+
+    /** Expressao cron para execucoes a cada minuto. */
+    private static final String CRON_EVERY_MINUTE = "0 * * * * *";
+
+    /** Segundos em um tick da roda. */
+    private static final long SECONDS_PER_TICK = 60L;
+
+    /** Repositorio de tarefas lido na reconstrucao. */
+    private final TaskRepository taskRepository;
+
+    /** Servico que envia os alertas disparados. */
+    private final NotificationService notificationService;
+
+    /** Repositorio do ultimo minuto processado. */
+    private final SchedulerWatermarkRepository watermarkRepository;
+
+    /** Roda de timers, protegida pelo proprio monitor. */
+    private final HierarchicalTimingWheel<DueTimer> wheel;
+
+    /**
+     * Cria o agendador posicionado no minuto corrente.
+     *
+     * @param taskRepository repositorio de tarefas
+     * @param notificationService servico de alertas
+     * @param watermarkRepository repositorio do ultimo minuto processado
+     */
+    public DueDateScheduler(final TaskRepository taskRepository,
+            final NotificationService notificationService,
+            final SchedulerWatermarkRepository watermarkRepository) {
+        this.taskRepository = taskRepository;
+        this.notificationService = notificationService;
+        this.watermarkRepository = watermarkRepository;
+        this.wheel = new HierarchicalTimingWheel<>(
+                floorTick(LocalDateTime.now()));
+    }
+
+    /**
+     * Reagenda os timers das tarefas apos o commit corrente. Tarefas
+     * concluidas ou sem prazo apenas perdem os timers pendentes.
+     *
+     * @param tasks tarefas criadas ou alteradas
+     */
+    public void scheduleAfterCommit(final Collection<Task> tasks) {
+        final Map<Long, LocalDateTime> dueDates = new HashMap<>();
+        for (final Task task : tasks) {
+            dueDates.put(task.getId(),
+                    task.getStatus() == TaskStatus.COMPLETED
+                            ? null
+                            : task.getDueDate());
+        }
+        afterCommit(() -> reschedule(dueDates));
+    }
+
+    /**
+     * Cancela os timers das tarefas apos o commit corrente.
+     *
+     * @param taskIds tarefas removidas
+     */
+    public void cancelAfterCommit(final Collection<Long> taskIds) {
+        final List<Long> removed = List.copyOf(taskIds);
+        afterCommit(() -> {
+            synchronized (wheel) {
+                for (final Long taskId : removed) {
+                    cancel(taskId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Agenda tarefas gravadas fora do JPA, lendo os prazos do banco. Deve
+     * ser chamado depois do commit que as criou.
+     *
+     * @param taskIds identificadores das tarefas
+     */
+    public void scheduleByIds(final Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            scheduleViews(taskRepository.findPendingDueViewsByIdIn(taskIds));
+        }
+    }
+
+    /**
+     * Dispara os alertas perdidos desde o ultimo minuto processado e
+     * reconstroi os timers a partir das tarefas pendentes com prazo futuro
+     * quando a aplicacao termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final long startTime = System.currentTimeMillis();
+        final LocalDateTime processed;
+        synchronized (wheel) {
+            processed = tickStart(wheel.getCurrentTick());
+        }
+        final AtomicInteger caughtUp = new AtomicInteger();
+        final AtomicInteger loaded = new AtomicInteger();
+        ShardContext.forEachShard(() -> {
+            caughtUp.addAndGet(catchUp(processed));
+            loaded.addAndGet(loadPending(processed));
+        });
+        log.info("Timers de vencimento reconstruidos para {} tarefas e {} "
+                + "alertas recuperados em {} ms", loaded.get(),
+                caughtUp.get(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Avanca a roda ate o minuto corrente e envia os alertas vencidos.
+     */
+    @Scheduled(cron = CRON_EVERY_MINUTE)
+    public void tick() {
+        advanceTo(LocalDateTime.now());
+    }
+
+    /**
+     * Quantidade de timers pendentes.
+     *
+     * @return timers agendados
+     */
+    public int pendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Avanca a roda ate o instante informado e entrega os timers vencidos.
+     *
+     * @param now instante de referencia
+     */
+    void advanceTo(final LocalDateTime now) {
+        final List<DueTimer> fired;
+        final LocalDateTime processed;
+        synchronized (wheel) {
+            fired = wheel.advance(floorTick(now));
+            processed = tickStart(wheel.getCurrentTick());
+        }
+        final Map<DueDateEvent, List<Long>> byEvent =
+                new EnumMap<>(DueDateEvent.class);
+        for (final DueTimer timer : fired) {
+            byEvent.computeIfAbsent(timer.event(),
+                    key -> new ArrayList<>()).add(timer.taskId());
+        }
+        byEvent.forEach((event, taskIds) -> {
+            try {
+                ShardContext.forEachShard(() -> notificationService
+                        .sendDueDateAlerts(event, taskIds));
+            } catch (RuntimeException exception) {
+                log.error("Erro ao enviar {} alertas {}: {}", taskIds.size(),
+                        event, exception.getMessage());
+            }
+        });
+        try {
+            ShardContext.forEachShard(() -> saveWatermark(processed));
+        } catch (RuntimeException exception) {
+            log.warn("Erro ao gravar o minuto processado {}: {}", processed,
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * Dispara os alertas cujo minuto passou entre o ultimo minuto gravado e
+     * {@code processed}: atraso das tarefas que venceram nesse intervalo e
+     * vencimento proximo das que ainda nao venceram. Os demais timers sao
+     * agendados por {@link #loadPending}.
+     */
+    private int catchUp(final LocalDateTime processed) {
+        final Optional<SchedulerWatermark> watermark =
+                watermarkRepository.findById(WATERMARK_NAME);
+        if (watermark.isEmpty()
+                || !watermark.get().getProcessedAt().isBefore(processed)) {
+            saveWatermark(processed);
+            return 0;
+        }
+        final LocalDateTime from = watermark.get().getProcessedAt();
+        long lastId = 0L;
+        int fired = 0;
+        List<TaskDueView> batch;
+        do {
+            batch = taskRepository.findPendingDueViewsBetween(from,
+                    processed.plus(DUE_SOON_LEAD), lastId,
+                    Limit.of(REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            final Map<DueDateEvent, List<Long>> missed =
+                    new EnumMap<>(DueDateEvent.class);
+            for (final TaskDueView view : batch) {
+                final LocalDateTime dueDate = view.getDueDate();
+                if (!dueDate.isAfter(processed)) {
+                    missed.computeIfAbsent(DueDateEvent.OVERDUE,
+                            key -> new ArrayList<>()).add(view.getId());
+                } else if (dueDate.minus(DUE_SOON_LEAD).isAfter(from)) {
+                    missed.computeIfAbsent(DueDateEvent.DUE_SOON,
+                            key -> new ArrayList<>()).add(view.getId());
+                }
+            }
+            for (final Map.Entry<DueDateEvent, List<Long>> entry
+                    : missed.entrySet()) {
+                try {
+                    notificationService.sendDueDateAlerts(entry.getKey(),
+                            entry.getValue());
+                    fired += entry.getValue().size();
+                } catch (RuntimeException exception) {
+                    log.error("Erro ao enviar {} alertas {} recuperados: {}",
+                            entry.getValue().size(), entry.getKey(),
+                            exception.getMessage());
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        saveWatermark(processed);
+        return fired;
+    }
+
+    private void saveWatermark(final LocalDateTime processed) {
+        watermarkRepository.save(SchedulerWatermark.builder()
+                .name(WATERMARK_NAME)
+                .processedAt(processed)
+                .build());
+    }
+
+    private int loadPending(final LocalDateTime now) {
+        long lastId = 0L;
+        int loaded = 0;
+        List<TaskDueView> batch;
+        do {
+            batch = taskRepository.findPendingDueViewsAfter(now, lastId,
+                    Limit.of(REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            scheduleViews(batch);
+            loaded += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return loaded;
+    }
+
+    private void scheduleViews(final List<TaskDueView> views) {
+        final Map<Long, LocalDateTime> dueDates = new HashMap<>();
+        for (final TaskDueView view : views) {
+            dueDates.put(view.getId(), view.getDueDate());
+        }
+        reschedule(dueDates);
+    }
+
+    private void reschedule(final Map<Long, LocalDateTime> dueDates) {
+        synchronized (wheel) {
+            final long currentTick = wheel.getCurrentTick();
+            dueDates.forEach((taskId, dueDate) -> {
+                cancel(taskId);
+                if (dueDate == null) {
+                    return;
+                }
+                final long overdueTick = ceilTick(dueDate);
+                if (overdueTick <= currentTick) {
+                    return;
+                }
+                wheel.schedule(new DueTimer(taskId, DueDateEvent.OVERDUE),
+                        overdueTick);
+                final long dueSoonTick = ceilTick(dueDate.minus(DUE_SOON_LEAD));
+                if (dueSoonTick > currentTick) {
+                    wheel.schedule(new DueTimer(taskId, DueDateEvent.DUE_SOON),
+                            dueSoonTick);
+                }
+            });
+        }
+    }
+
+    private void cancel(final Long taskId) {
+        wheel.cancel(new DueTimer(taskId, DueDateEvent.DUE_SOON));
+        wheel.cancel(new DueTimer(taskId, DueDateEvent.OVERDUE));
+    }
+
+    private static long floorTick(final LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC),
+                SECONDS_PER_TICK);
+    }
+
+    private static long ceilTick(final LocalDateTime dateTime) {
+        final long tick = floorTick(dateTime);
+        return dateTime.equals(tickStart(tick)) ? tick : tick + 1;
+    }
+
+    private static LocalDateTime tickStart(final long tick) {
+        return LocalDateTime.ofEpochSecond(tick * SECONDS_PER_TICK, 0,
+                ZoneOffset.UTC);
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+
+    /**
+     * Chave de um timer: a tarefa e o evento que ele dispara.
+     *
+     * @param taskId identificador da tarefa
+     * @param event evento disparado
+     */
+    private record DueTimer(Long taskId, DueDateEvent event) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.smarttask.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roda de tempo hierarquica com resolucao de um tick.
+ *
+ * <p>Sao {@link #LEVELS} niveis de {@link #WHEEL_SIZE} posicoes. O nivel
+ * {@code n} cobre {@code 64^(n+1)} ticks e cada posicao dele agrupa os
+ * timers de uma janela de {@code 64^n} ticks. Quando o tempo chega ao
+ * inicio de uma janela, os timers daquela posicao descem para os niveis
+ * inferiores, ate chegarem ao nivel zero, onde vencem no tick exato.
+ * Agendar e cancelar custam O(1) e avancar o tempo custa O(1) por tick mais
+ * o trabalho proporcional aos timers que descem ou vencem.</p>
+ *
+ * <p>Prazos alem do alcance do ultimo nivel ficam na posicao mais distante
+ * e sao reposicionados a cada volta. A classe nao e thread-safe.</p>
+ *
+ * @param <K> chave que identifica cada timer
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    /** Bits usados pelo indice de posicao de cada nivel. */
+    static final int WHEEL_BITS = 6;
+
+    /** Posicoes por nivel. */
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    /** Quantidade de niveis. */
+    static final int LEVELS = 4;
+
+    /** Mascara do indice de posicao. */
+    private static final long SLOT_MASK = WHEEL_SIZE - 1;
+
+    /** Maior distancia, em ticks, representada sem reposicionamento. */
+    private static final long HORIZON = 1L << (WHEEL_BITS * LEVELS);
+
+    /** Posicoes de cada nivel. */
+    private final List<List<Set<Timer<K>>>> levels = new ArrayList<>();
+
+    /** Timers agendados, pela chave. */
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+
+    /** Timers vencidos ao serem agendados, entregues no proximo avanco. */
+    private final Set<Timer<K>> expired = new LinkedHashSet<>();
+
+    /** Ultimo tick processado. */
+    private long currentTick;
+
+    /**
+     * Cria a roda posicionada no tick informado.
+     *
+     * @param startTick tick inicial
+     */
+    public HierarchicalTimingWheel(final long startTick) {
+        this.currentTick = startTick;
+        for (int level = 0; level < LEVELS; level++) {
+            final List<Set<Timer<K>>> slots = new ArrayList<>(WHEEL_SIZE);
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Agenda ou reagenda um timer. Prazos que ja passaram vencem no proximo
+     * avanco.
+     *
+     * @param key chave do timer
+     * @param deadlineTick tick em que o timer vence
+     */
+    public void schedule(final K key, final long deadlineTick) {
+        cancel(key);
+        final Timer<K> timer = new Timer<>(key, deadlineTick);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /**
+     * Cancela um timer, se existir.
+     *
+     * @param key chave do timer
+     * @return {@code true} quando havia timer agendado
+     */
+    public boolean cancel(final K key) {
+        final Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.slot == null) {
+            expired.remove(timer);
+        } else {
+            timer.slot.remove(timer);
+        }
+        return true;
+    }
+
+    /**
+     * Avanca o tempo ate o tick informado e devolve os timers vencidos, na
+     * ordem dos prazos.
+     *
+     * @param tick novo tick corrente
+     * @return chaves dos timers vencidos
+     */
+    public List<K> advance(final long tick) {
+        final List<K> fired = new ArrayList<>();
+        drainExpired(fired);
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            drainExpired(fired);
+            final Set<Timer<K>> slot = levels.get(0)
+                    .get((int) (currentTick & SLOT_MASK));
+            for (final Timer<K> timer : slot) {
+                timers.remove(timer.key);
+                fired.add(timer.key);
+            }
+            slot.clear();
+        }
+        return fired;
+    }
+
+    /**
+     * Tick corrente da roda.
+     *
+     * @return ultimo tick processado
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Quantidade de timers agendados.
+     *
+     * @return timers pendentes
+     */
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Indica se existe timer agendado para a chave.
+     *
+     * @param key chave do timer
+     * @return {@code true} quando ha timer pendente
+     */
+    public boolean contains(final K key) {
+        return timers.containsKey(key);
+    }
+
+    private void cascade(final int level) {
+        final Set<Timer<K>> slot = levels.get(level)
+                .get((int) ((currentTick >>> (WHEEL_BITS * level))
+                        & SLOT_MASK));
+        final List<Timer<K>> moving = new ArrayList<>(slot);
+        slot.clear();
+        for (final Timer<K> timer : moving) {
+            place(timer);
+        }
+    }
+
+    private void place(final Timer<K> timer) {
+        final long delta = timer.deadlineTick - currentTick;
+        if (delta <= 0) {
+            timer.slot = null;
+            expired.add(timer);
+            return;
+        }
+        final long target = delta < HORIZON
+                ? timer.deadlineTick
+                : currentTick + HORIZON - 1;
+        final long distance = target - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1
+                && distance >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        final Set<Timer<K>> slot = levels.get(level)
+                .get((int) ((target >>> (WHEEL_BITS * level)) & SLOT_MASK));
+        timer.slot = slot;
+        slot.add(timer);
+    }
+
+    private void drainExpired(final List<K> fired) {
+        for (final Timer<K> timer : expired) {
+            timers.remove(timer.key);
+            fired.add(timer.key);
+        }
+        expired.clear();
+    }
+
+    /**
+     * Timer agendado e a posicao que ocupa.
+     *
+     * @param <K> chave do timer
+     */
+    private static final class Timer<K> {
+
+        /** Chave do timer. */
+        private final K key;
+
+        /** Tick de vencimento. */
+        private final long deadlineTick;
+
+        /** Posicao atual ou {@code null} quando ja venceu. */
+        private Set<Timer<K>> slot;
+
+        private Timer(final K key, final long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Agenda em memoria dos vencimentos de tarefas, baseada em uma roda de
+ * tempo hierarquica, que dispara os alertas de vencimento proximo e de
+ * atraso no minuto em que acontecem.
+ */
+package com.smarttask.reminder;
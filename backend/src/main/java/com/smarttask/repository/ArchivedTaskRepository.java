@@ -0,0 +1,116 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.smarttask.model.ArchivedTask;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio das tarefas arquivadas. As consultas da tabela ativa nunca
+ * passam por aqui; apenas a listagem explicita do arquivo, a restauracao e
+ * a exportacao leem o armazenamento frio.
+ */
+@Repository
+public interface ArchivedTaskRepository
+        extends JpaRepository<ArchivedTask, Long> {
+
+    /** Clausula de selecao da projecao {@link ArchivedTaskView}. */
+    String ARCHIVED_VIEW_SELECT =
+        "SELECT a.id AS id, a.title AS title, "
+        + "a.description AS description, a.status AS status, "
+        + "a.priority AS priority, a.dueDate AS dueDate, "
+        + "a.completedAt AS completedAt, "
+        + "a.estimatedHours AS estimatedHours, "
+        + "a.actualHours AS actualHours, "
+        + "a.parentTaskId AS parentTaskId, "
+        + "a.aiSuggestedPriority AS aiSuggestedPriority, "
+        + "a.aiAnalysis AS aiAnalysis, a.createdAt AS createdAt, "
+        + "a.updatedAt AS updatedAt, a.archivedAt AS archivedAt "
+        + "FROM ArchivedTask a ";
+
+    /**
+     * Primeira pagina das tarefas arquivadas de um usuario, do arquivamento
+     * mais recente para o mais antigo.
+     *
+     * @param userId identificador do usuario
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas ordenadas por {@code (archivedAt, id)} decrescente
+     */
+    @Query(
+        ARCHIVED_VIEW_SELECT + "WHERE a.userId = :userId "
+        + "ORDER BY a.archivedAt DESC, a.id DESC")
+    List<ArchivedTaskView> findPageByUserId(
+        @Param("userId") Long userId,
+        Limit limit);
+
+    /**
+     * Pagina seguinte das tarefas arquivadas a partir do cursor informado.
+     *
+     * @param userId identificador do usuario
+     * @param archivedAt arquivamento da ultima tarefa entregue
+     * @param id identificador da ultima tarefa entregue
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas posteriores ao cursor na ordem decrescente
+     */
+    @Query(
+        ARCHIVED_VIEW_SELECT + "WHERE a.userId = :userId "
+        + "AND (a.archivedAt < :archivedAt "
+        + "OR (a.archivedAt = :archivedAt AND a.id < :id)) "
+        + "ORDER BY a.archivedAt DESC, a.id DESC")
+    List<ArchivedTaskView> findPageByUserIdAfter(
+        @Param("userId") Long userId,
+        @Param("archivedAt") LocalDateTime archivedAt,
+        @Param("id") Long id,
+        Limit limit);
+
+    /**
+     * Percorre as tarefas arquivadas de um usuario em ordem de
+     * identificador, para a exportacao. Deve ser consumido dentro de uma
+     * transacao e fechado ao final.
+     *
+     * @param userId identificador do usuario
+     * @return fluxo de projecoes ordenado por identificador
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+                value = TaskRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ARCHIVED_VIEW_SELECT + "WHERE a.userId = :userId ORDER BY a.id")
+    Stream<ArchivedTaskView> streamViewsByUserId(
+        @Param("userId") Long userId);
+
+    /**
+     * Carrega as tags de um conjunto de tarefas arquivadas.
+     *
+     * @param taskIds identificadores das tarefas
+     * @return pares tarefa/tag
+     */
+    @Query(
+        "SELECT a.id AS taskId, tag AS tag FROM ArchivedTask a "
+        + "JOIN a.tags tag WHERE a.id IN :taskIds")
+    List<TaskTagView> findTagsByTaskIds(
+        @Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Lista as subtarefas arquivadas diretas de um conjunto de tarefas.
+     *
+     * @param parentIds identificadores das tarefas pai
+     * @return pares pai/filho ordenados pelo identificador do filho
+     */
+    @Query(
+        "SELECT a.parentTaskId AS parentId, a.id AS id FROM ArchivedTask a "
+        + "WHERE a.parentTaskId IN :parentIds ORDER BY a.id")
+    List<TaskChildView> findChildIdsByParentIds(
+        @Param("parentIds") Collection<Long> parentIds);
+}
@@ -0,0 +1,118 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+
+/**
+ * Projecao de leitura das tarefas arquivadas, com as mesmas colunas
+ * escalares de {@link TaskView} e o momento do arquivamento.
+ */
+public interface ArchivedTaskView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador unico
+     */
+    Long getId();
+
+    /**
+     * Titulo da tarefa.
+     *
+     * @return titulo
+     */
+    String getTitle();
+
+    /**
+     * Descricao da tarefa.
+     *
+     * @return descricao ou {@code null}
+     */
+    String getDescription();
+
+    /**
+     * Status no momento do arquivamento.
+     *
+     * @return status
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Prioridade da tarefa.
+     *
+     * @return prioridade
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Data de vencimento.
+     *
+     * @return vencimento ou {@code null}
+     */
+    LocalDateTime getDueDate();
+
+    /**
+     * Data de conclusao.
+     *
+     * @return conclusao ou {@code null}
+     */
+    LocalDateTime getCompletedAt();
+
+    /**
+     * Horas estimadas.
+     *
+     * @return estimativa ou {@code null}
+     */
+    Integer getEstimatedHours();
+
+    /**
+     * Horas gastas.
+     *
+     * @return horas gastas ou {@code null}
+     */
+    Integer getActualHours();
+
+    /**
+     * Tarefa pai no momento do arquivamento.
+     *
+     * @return identificador do pai ou {@code null}
+     */
+    Long getParentTaskId();
+
+    /**
+     * Indica se a prioridade foi sugerida pela IA.
+     *
+     * @return indicador ou {@code null}
+     */
+    Boolean getAiSuggestedPriority();
+
+    /**
+     * Analise gerada pela IA.
+     *
+     * @return analise ou {@code null}
+     */
+    String getAiAnalysis();
+
+    /**
+     * Criacao da tarefa original.
+     *
+     * @return data de criacao
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Ultima alteracao antes do arquivamento.
+     *
+     * @return data de atualizacao
+     */
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Momento do arquivamento.
+     *
+     * @return data de arquivamento
+     */
+    LocalDateTime getArchivedAt();
+}
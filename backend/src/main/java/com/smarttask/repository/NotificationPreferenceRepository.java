@@ -1,12 +1,16 @@
 package com.smarttask.repository;
 
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import com.smarttask.model.NotificationPreference;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -19,10 +23,13 @@ public interface NotificationPreferenceRepository
 
     /**
      * Localiza a configuracao de notificacao pelo identificador do usuario.
+     * O resultado fica no cache de consultas.
      *
      * @param userId identificador do usuario
      * @return preferencia configurada, caso exista
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE,
+        value = "true"))
     Optional<NotificationPreference> findByUserId(Long userId);
 
         /**
@@ -44,4 +51,18 @@ public interface NotificationPreferenceRepository
      */
     @Query("SELECT np FROM NotificationPreference np WHERE np.enabled = true")
     List<NotificationPreference> findAllEnabled();
+
+    /**
+     * Recupera as configuracoes habilitadas dos usuarios informados que
+     * aceitam alertas de prazo.
+     *
+     * @param userIds identificadores dos usuarios
+     * @return preferencias aptas a receber alertas de prazo
+     */
+    @Query(
+            "SELECT np FROM NotificationPreference np "
+            + "WHERE np.enabled = true AND np.sendOverdueAlerts = true "
+            + "AND np.user.id IN :userIds")
+    List<NotificationPreference> findOverdueAlertsEnabledByUserIds(
+            Collection<Long> userIds);
 }
@@ -1,10 +1,12 @@
 package com.smarttask.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import com.smarttask.model.PomodoroSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -59,4 +61,14 @@ public interface PomodoroSessionRepository
             "SELECT COUNT(p) FROM PomodoroSession p WHERE p.user.id = :userId "
             + "AND p.completed = true")
     Long countCompletedSessionsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Remove as sessoes vinculadas as tarefas informadas.
+     *
+     * @param taskIds identificadores das tarefas removidas
+     * @return total de sessoes removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM PomodoroSession p WHERE p.task.id IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
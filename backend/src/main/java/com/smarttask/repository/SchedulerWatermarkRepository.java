@@ -0,0 +1,13 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.SchedulerWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio dos instantes processados pelos agendadores em memoria.
+ */
+@Repository
+public interface SchedulerWatermarkRepository
+        extends JpaRepository<SchedulerWatermark, String> {
+}
@@ -0,0 +1,23 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao de um par tarefa-ancestral devolvido pela consulta recursiva
+ * que sobe a hierarquia; cada tarefa consultada aparece tambem como
+ * ancestral de si mesma.
+ */
+public interface TaskAncestorView {
+
+    /**
+     * Tarefa consultada.
+     *
+     * @return identificador da tarefa de origem
+     */
+    Long getOrigin();
+
+    /**
+     * A propria tarefa consultada ou um dos seus ancestrais.
+     *
+     * @return identificador do ancestral
+     */
+    Long getAncestor();
+}
@@ -0,0 +1,31 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskStatus;
+
+/**
+ * Projecao com as colunas do indice do quadro kanban: a posicao de uma
+ * tarefa na coluna do seu status.
+ */
+public interface TaskBoardView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa
+     */
+    Long getId();
+
+    /**
+     * Status da tarefa, isto e, a coluna do quadro.
+     *
+     * @return status atual
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Chave de ordem da tarefa na coluna.
+     *
+     * @return chave fracionaria ou {@code null} quando ainda nao posicionada
+     */
+    String getRank();
+}
@@ -0,0 +1,46 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Projecao com as colunas exibidas no calendario de tarefas.
+ */
+public interface TaskCalendarView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa
+     */
+    Long getId();
+
+    /**
+     * Titulo da tarefa.
+     *
+     * @return titulo
+     */
+    String getTitle();
+
+    /**
+     * Status da tarefa.
+     *
+     * @return status atual
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Prioridade da tarefa.
+     *
+     * @return prioridade atual
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Prazo da tarefa.
+     *
+     * @return data limite
+     */
+    LocalDateTime getDueDate();
+}
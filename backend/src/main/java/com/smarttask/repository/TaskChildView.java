@@ -0,0 +1,21 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao de um vinculo entre tarefa pai e subtarefa direta.
+ */
+public interface TaskChildView {
+
+    /**
+     * Identificador da tarefa pai.
+     *
+     * @return identificador do pai
+     */
+    Long getParentId();
+
+    /**
+     * Identificador da subtarefa.
+     *
+     * @return identificador do filho
+     */
+    Long getId();
+}
@@ -0,0 +1,24 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ultima alteracao das tarefas de um usuario, usada para derivar a versao
+ * da colecao exposta nos ETags das listagens.
+ */
+public interface TaskCollectionView {
+
+    /**
+     * Maior posicao das tarefas do usuario na sequencia de alteracoes.
+     *
+     * @return ultima posicao atribuida
+     */
+    Long getChangeSeq();
+
+    /**
+     * Data da alteracao que recebeu a ultima posicao.
+     *
+     * @return data de atualizacao da tarefa
+     */
+    LocalDateTime getChangedAt();
+}
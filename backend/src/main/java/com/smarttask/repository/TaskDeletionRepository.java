@@ -0,0 +1,39 @@
+package com.smarttask.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.smarttask.model.TaskDeletion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio dos registros de remocao de tarefas.
+ */
+@Repository
+public interface TaskDeletionRepository
+        extends JpaRepository<TaskDeletion, Long> {
+
+    /**
+     * Remocoes do usuario posteriores a uma posicao da sequencia de
+     * alteracoes, em ordem crescente.
+     *
+     * @param userId identificador do usuario
+     * @param changeSeq ultima posicao ja entregue ao cliente
+     * @param limit quantidade maxima de registros
+     * @return remocoes ordenadas pela sequencia
+     */
+    List<TaskDeletion> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(
+            Long userId, Long changeSeq, Limit limit);
+
+    /**
+     * Remocao mais recente do usuario, lida pelo fim do indice
+     * {@code (user_id, change_seq)}.
+     *
+     * @param userId identificador do usuario
+     * @return ultima remocao ou vazio quando nao ha remocoes
+     */
+    Optional<TaskDeletion> findFirstByUserIdOrderByChangeSeqDesc(
+            Long userId);
+}
@@ -0,0 +1,83 @@
+package com.smarttask.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.smarttask.model.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio das arestas do grafo de dependencias entre tarefas. O grafo
+ * completo de um usuario e lido por
+ * {@link com.smarttask.dependency.TaskDependencyGraph}, direto em arrays
+ * primitivos.
+ */
+@Repository
+public interface TaskDependencyRepository
+        extends JpaRepository<TaskDependency, Long> {
+
+    /**
+     * Indica se a tarefa ja esta bloqueada pelo bloqueador.
+     *
+     * @param taskId tarefa bloqueada
+     * @param blockerId bloqueador
+     * @return {@code true} quando a aresta existe
+     */
+    boolean existsByTaskIdAndBlockerId(Long taskId, Long blockerId);
+
+    /**
+     * Bloqueadores de uma tarefa do usuario.
+     *
+     * @param taskId tarefa bloqueada
+     * @param userId identificador do usuario
+     * @return identificadores em ordem crescente
+     */
+    @Query("SELECT d.blockerId FROM TaskDependency d "
+        + "WHERE d.taskId = :taskId AND d.userId = :userId "
+        + "ORDER BY d.blockerId")
+    List<Long> findBlockerIds(
+        @Param("taskId") Long taskId,
+        @Param("userId") Long userId);
+
+    /**
+     * Impressao atual do grafo do usuario, comparada com a da fotografia
+     * em memoria antes de validar uma nova aresta.
+     *
+     * @param userId identificador do usuario
+     * @return quantidade de arestas e maior id
+     */
+    @Query("SELECT COUNT(d) AS edges, MAX(d.id) AS lastId "
+        + "FROM TaskDependency d WHERE d.userId = :userId")
+    TaskDependencyStampView findStamp(@Param("userId") Long userId);
+
+    /**
+     * Remove uma aresta do usuario.
+     *
+     * @param taskId tarefa bloqueada
+     * @param blockerId bloqueador
+     * @param userId identificador do usuario
+     * @return linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TaskDependency d WHERE d.taskId = :taskId "
+        + "AND d.blockerId = :blockerId AND d.userId = :userId")
+    int deleteEdge(
+        @Param("taskId") Long taskId,
+        @Param("blockerId") Long blockerId,
+        @Param("userId") Long userId);
+
+    /**
+     * Remove as arestas que chegam ou saem de tarefas removidas.
+     *
+     * @param taskIds tarefas removidas
+     * @return total de arestas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TaskDependency d "
+        + "WHERE d.taskId IN :taskIds OR d.blockerId IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+}
@@ -0,0 +1,22 @@
+package com.smarttask.repository;
+
+/**
+ * Impressao do grafo de dependencias de um usuario. Como os ids das arestas
+ * so crescem, qualquer insercao ou remocao muda a quantidade ou o maior id.
+ */
+public interface TaskDependencyStampView {
+
+    /**
+     * Quantidade de arestas do usuario.
+     *
+     * @return total de arestas
+     */
+    long getEdges();
+
+    /**
+     * Maior id entre as arestas do usuario.
+     *
+     * @return maior id ou {@code null} quando nao ha arestas
+     */
+    Long getLastId();
+}
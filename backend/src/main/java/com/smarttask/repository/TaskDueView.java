@@ -0,0 +1,24 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projecao com o prazo de uma tarefa, usada para reconstruir os timers de
+ * vencimento sem carregar entidades.
+ */
+public interface TaskDueView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa
+     */
+    Long getId();
+
+    /**
+     * Prazo da tarefa.
+     *
+     * @return data limite
+     */
+    LocalDateTime getDueDate();
+}
@@ -0,0 +1,24 @@
+package com.smarttask.repository;
+
+import java.util.Optional;
+
+import com.smarttask.model.TaskImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio das importacoes de tarefas em massa.
+ */
+@Repository
+public interface TaskImportJobRepository
+        extends JpaRepository<TaskImportJob, Long> {
+
+    /**
+     * Recupera uma importacao pertencente ao usuario.
+     *
+     * @param id identificador da importacao
+     * @param userId identificador do usuario
+     * @return importacao encontrada
+     */
+    Optional<TaskImportJob> findByIdAndUserId(Long id, Long userId);
+}
@@ -0,0 +1,65 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.smarttask.model.TaskOccurrence;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio das ocorrencias de series recorrentes que viraram tarefas.
+ */
+@Repository
+public interface TaskOccurrenceRepository
+        extends JpaRepository<TaskOccurrence, Long> {
+
+    /**
+     * Ocorrencias ja materializadas das series no intervalo.
+     *
+     * @param templateIds tarefas modelo das series
+     * @param start inicio do intervalo, inclusivo
+     * @param end fim do intervalo, exclusivo
+     * @return chaves das ocorrencias materializadas
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
+    @Query(
+        "SELECT o.templateId AS templateId, "
+        + "o.occurrenceAt AS occurrenceAt FROM TaskOccurrence o "
+        + "WHERE o.templateId IN :templateIds "
+        + "AND o.occurrenceAt >= :start AND o.occurrenceAt < :end")
+    List<TaskOccurrenceView> findMaterialized(
+        @Param("templateIds") Collection<Long> templateIds,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end);
+
+    /**
+     * Indica se uma ocorrencia ja virou tarefa.
+     *
+     * @param templateId tarefa modelo da serie
+     * @param occurrenceAt prazo original da ocorrencia
+     * @return {@code true} quando a ocorrencia ja foi materializada
+     */
+    boolean existsByTemplateIdAndOccurrenceAt(Long templateId,
+        LocalDateTime occurrenceAt);
+
+    /**
+     * Remove os registros das series de tarefas modelo removidas ou que
+     * deixaram de ser recorrentes.
+     *
+     * @param templateIds tarefas modelo
+     * @return total de registros removidos
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TaskOccurrence o WHERE o.templateId IN :templateIds")
+    int deleteByTemplateIdIn(
+        @Param("templateIds") Collection<Long> templateIds);
+}
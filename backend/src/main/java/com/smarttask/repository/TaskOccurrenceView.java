@@ -0,0 +1,23 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projecao com a chave de uma ocorrencia ja materializada.
+ */
+public interface TaskOccurrenceView {
+
+    /**
+     * Tarefa modelo da serie.
+     *
+     * @return identificador da tarefa modelo
+     */
+    Long getTemplateId();
+
+    /**
+     * Prazo original da ocorrencia na serie.
+     *
+     * @return prazo da ocorrencia
+     */
+    LocalDateTime getOccurrenceAt();
+}
@@ -0,0 +1,46 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskPriority;
+import java.time.LocalDateTime;
+
+/**
+ * Projecao com as colunas usadas na pontuacao das proximas tarefas, sem
+ * textos nem associacoes.
+ */
+public interface TaskRankView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa
+     */
+    Long getId();
+
+    /**
+     * Prioridade da tarefa.
+     *
+     * @return prioridade atual
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Prazo da tarefa.
+     *
+     * @return data limite ou {@code null}
+     */
+    LocalDateTime getDueDate();
+
+    /**
+     * Horas estimadas para concluir a tarefa.
+     *
+     * @return estimativa em horas ou {@code null}
+     */
+    Integer getEstimatedHours();
+
+    /**
+     * Indica se a prioridade veio da sugestao da IA.
+     *
+     * @return {@code true} quando a sugestao foi aplicada
+     */
+    Boolean getAiSuggestedPriority();
+}
@@ -0,0 +1,62 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.smarttask.model.TaskRecurrence;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio das regras de recorrencia das tarefas modelo.
+ */
+@Repository
+public interface TaskRecurrenceRepository
+        extends JpaRepository<TaskRecurrence, Long> {
+
+    /**
+     * Series do usuario com ocorrencias possiveis no intervalo, com os
+     * dados atuais da tarefa modelo. Series cuja tarefa modelo nao existe
+     * mais ficam de fora.
+     *
+     * @param userId identificador do usuario
+     * @param start inicio do intervalo, inclusivo
+     * @param end fim do intervalo, exclusivo
+     * @param limit quantidade maxima de series
+     * @return series em ordem de inicio
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
+    @Query(
+        "SELECT r.taskId AS taskId, t.title AS title, "
+        + "t.priority AS priority, r.rule AS rule, "
+        + "r.startsAt AS startsAt, r.endsAt AS endsAt "
+        + "FROM TaskRecurrence r JOIN Task t "
+        + "ON t.id = r.taskId AND t.user.id = r.userId "
+        + "WHERE r.userId = :userId AND r.startsAt < :end "
+        + "AND (r.endsAt IS NULL OR r.endsAt >= :start) "
+        + "ORDER BY r.startsAt ASC, r.taskId ASC")
+    List<TaskSeriesView> findSeries(
+        @Param("userId") Long userId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end,
+        Limit limit);
+
+    /**
+     * Remove as regras de tarefas modelo removidas.
+     *
+     * @param taskIds tarefas removidas
+     * @return total de regras removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TaskRecurrence r WHERE r.taskId IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+}
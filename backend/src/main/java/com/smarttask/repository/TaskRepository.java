@@ -1,12 +1,21 @@
 package com.smarttask.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
 import com.smarttask.model.Task.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,6 +26,68 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    /**
+     * Clausula de selecao da projecao {@link TaskView}: colunas escalares,
+     * chave da tarefa pai e contagem agregada de subtarefas.
+     */
+    String TASK_VIEW_SELECT =
+        "SELECT t.id AS id, t.title AS title, "
+        + "t.description AS description, t.status AS status, "
+        + "t.priority AS priority, t.dueDate AS dueDate, "
+        + "t.completedAt AS completedAt, "
+        + "t.estimatedHours AS estimatedHours, "
+        + "t.actualHours AS actualHours, "
+        + "t.parentTask.id AS parentTaskId, "
+        + "(SELECT COUNT(s) FROM Task s WHERE s.parentTask.id = t.id) "
+        + "AS subtaskCount, "
+        + "t.subtreeEstimatedHours AS subtreeEstimatedHours, "
+        + "t.subtreeActualHours AS subtreeActualHours, "
+        + "t.subtreeOpenCount AS subtreeOpenCount, "
+        + "t.subtreeCompletedCount AS subtreeCompletedCount, "
+        + "t.aiSuggestedPriority AS aiSuggestedPriority, "
+        + "t.aiAnalysis AS aiAnalysis, t.createdAt AS createdAt, "
+        + "t.updatedAt AS updatedAt, t.changeSeq AS changeSeq, "
+        + "t.version AS version FROM Task t ";
+
+    /**
+     * Somas da projecao {@link TaskStatsView}: atrasadas (mesma regra de
+     * {@link #findOverdueTasks}) e horas estimadas e gastas.
+     */
+    String TASK_STATS_SUMS =
+        "SUM(CASE WHEN t.dueDate < :now AND t.status != 'COMPLETED' "
+        + "THEN 1L ELSE 0L END) AS overdueCount, "
+        + "COALESCE(SUM(t.estimatedHours), 0L) AS estimatedHours, "
+        + "COALESCE(SUM(t.actualHours), 0L) AS actualHours ";
+
+    /** Linhas trazidas do banco a cada ida ao cursor de exportacao. */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /** Linhas trazidas do banco a cada ida ao cursor da pontuacao. */
+    String RANK_FETCH_SIZE = "100";
+
+    /**
+     * Clausula de selecao da projecao {@link TaskBoardView}, atendida apenas
+     * pelo indice {@code (user_id, status, board_rank, id)}.
+     */
+    String TASK_BOARD_SELECT =
+        "SELECT t.id AS id, t.status AS status, t.rank AS rank FROM Task t ";
+
+    /** Profundidade maxima percorrida pelas consultas recursivas. */
+    int MAX_TREE_DEPTH = 64;
+
+    /**
+     * CTE recursiva que percorre, a partir das raizes informadas, todas as
+     * subtarefas do usuario com a profundidade de cada no.
+     */
+    String SUBTREE_CTE =
+        "WITH RECURSIVE subtree(id, depth) AS ("
+        + "SELECT t.id, 0 FROM tasks t "
+        + "WHERE t.id IN (:rootIds) AND t.user_id = :userId "
+        + "UNION ALL "
+        + "SELECT c.id, s.depth + 1 FROM tasks c "
+        + "JOIN subtree s ON c.parent_task_id = s.id "
+        + "WHERE s.depth < " + MAX_TREE_DEPTH + ") ";
+
     /**
     * Lista todas as tarefas pertencentes a um usuario.
      *
@@ -81,6 +152,548 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
         @Param("userId") Long userId,
         @Param("now") LocalDateTime now);
 
+    /**
+     * Primeira pagina das tarefas de um usuario, da atualizacao mais recente
+     * para a mais antiga.
+     *
+     * @param userId identificador do usuario
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas ordenadas por {@code (updatedAt, id)} decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserId(
+        @Param("userId") Long userId,
+        Limit limit);
+
+    /**
+     * Pagina seguinte das tarefas de um usuario a partir do cursor informado.
+     *
+     * @param userId identificador do usuario
+     * @param updatedAt data de atualizacao da ultima tarefa entregue
+     * @param id identificador da ultima tarefa entregue
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas posteriores ao cursor na ordem decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND (t.updatedAt < :updatedAt "
+        + "OR (t.updatedAt = :updatedAt AND t.id < :id)) "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserIdAfter(
+        @Param("userId") Long userId,
+        @Param("updatedAt") LocalDateTime updatedAt,
+        @Param("id") Long id,
+        Limit limit);
+
+    /**
+     * Primeira pagina das tarefas de um usuario em um status.
+     *
+     * @param userId identificador do usuario
+     * @param status status desejado
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas ordenadas por {@code (updatedAt, id)} decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status = :status "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserIdAndStatus(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        Limit limit);
+
+    /**
+     * Pagina seguinte das tarefas de um usuario em um status.
+     *
+     * @param userId identificador do usuario
+     * @param status status desejado
+     * @param updatedAt data de atualizacao da ultima tarefa entregue
+     * @param id identificador da ultima tarefa entregue
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas posteriores ao cursor na ordem decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status = :status "
+        + "AND (t.updatedAt < :updatedAt "
+        + "OR (t.updatedAt = :updatedAt AND t.id < :id)) "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserIdAndStatusAfter(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        @Param("updatedAt") LocalDateTime updatedAt,
+        @Param("id") Long id,
+        Limit limit);
+
+    /**
+     * Primeira pagina das tarefas de um usuario marcadas com uma tag,
+     * filtradas pelos vinculos com o dicionario de tags.
+     *
+     * @param userId identificador do usuario
+     * @param tagId identificador da tag no dicionario
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas ordenadas por {@code (updatedAt, id)} decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.id IN (SELECT l.taskId FROM TaskTagLink l "
+        + "WHERE l.tagId = :tagId) "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserIdAndTagId(
+        @Param("userId") Long userId,
+        @Param("tagId") Long tagId,
+        Limit limit);
+
+    /**
+     * Pagina seguinte das tarefas de um usuario marcadas com uma tag.
+     *
+     * @param userId identificador do usuario
+     * @param tagId identificador da tag no dicionario
+     * @param updatedAt data de atualizacao da ultima tarefa entregue
+     * @param id identificador da ultima tarefa entregue
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas posteriores ao cursor na ordem decrescente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.id IN (SELECT l.taskId FROM TaskTagLink l "
+        + "WHERE l.tagId = :tagId) "
+        + "AND (t.updatedAt < :updatedAt "
+        + "OR (t.updatedAt = :updatedAt AND t.id < :id)) "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findPageByUserIdAndTagIdAfter(
+        @Param("userId") Long userId,
+        @Param("tagId") Long tagId,
+        @Param("updatedAt") LocalDateTime updatedAt,
+        @Param("id") Long id,
+        Limit limit);
+
+    /**
+     * Primeira pagina das tarefas atrasadas, do vencimento mais antigo para o
+     * mais recente.
+     *
+     * @param userId identificador do usuario
+     * @param now data de referencia para atraso
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas atrasadas ordenadas por {@code (dueDate, id)}
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status != 'COMPLETED' AND t.dueDate < :now "
+        + "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskView> findOverduePage(
+        @Param("userId") Long userId,
+        @Param("now") LocalDateTime now,
+        Limit limit);
+
+    /**
+     * Pagina seguinte das tarefas atrasadas a partir do cursor informado.
+     *
+     * @param userId identificador do usuario
+     * @param now data de referencia para atraso
+     * @param dueDate vencimento da ultima tarefa entregue
+     * @param id identificador da ultima tarefa entregue
+     * @param limit quantidade maxima de linhas lidas
+     * @return tarefas atrasadas posteriores ao cursor
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status != 'COMPLETED' AND t.dueDate < :now "
+        + "AND (t.dueDate > :dueDate "
+        + "OR (t.dueDate = :dueDate AND t.id > :id)) "
+        + "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskView> findOverduePageAfter(
+        @Param("userId") Long userId,
+        @Param("now") LocalDateTime now,
+        @Param("dueDate") LocalDateTime dueDate,
+        @Param("id") Long id,
+        Limit limit);
+
+    /**
+     * Lista todas as tarefas de um usuario como projecao de leitura.
+     *
+     * @param userId identificador do usuario
+     * @return projecoes ordenadas da atualizacao mais recente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lista as tarefas de um usuario em um status como projecao de leitura.
+     *
+     * @param userId identificador do usuario
+     * @param status status desejado
+     * @return projecoes ordenadas da atualizacao mais recente
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status = :status "
+        + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<TaskView> findViewsByUserIdAndStatus(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status);
+
+    /**
+     * Lista as tarefas atrasadas de um usuario como projecao de leitura.
+     *
+     * @param userId identificador do usuario
+     * @param now data de referencia para atraso
+     * @return projecoes ordenadas pelo vencimento mais antigo
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status != 'COMPLETED' AND t.dueDate < :now "
+        + "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskView> findOverdueViews(
+        @Param("userId") Long userId,
+        @Param("now") LocalDateTime now);
+
+    /**
+     * Lista tarefas de um usuario a partir de um conjunto de identificadores,
+     * como projecao de leitura.
+     *
+     * @param userId identificador do usuario
+     * @param ids identificadores desejados
+     * @return projecoes das tarefas encontradas, sem ordem definida
+     */
+    @Query(
+        TASK_VIEW_SELECT + "WHERE t.user.id = :userId AND t.id IN :ids")
+    List<TaskView> findViewsByUserIdAndIdIn(
+        @Param("userId") Long userId,
+        @Param("ids") Collection<Long> ids);
+
+    /**
+     * Le os campos textuais de todas as tarefas em ordem de identificador,
+     * a partir do identificador informado.
+     *
+     * @param afterId ultimo identificador ja lido
+     * @param limit quantidade maxima de linhas lidas
+     * @return projecoes textuais ordenadas por identificador
+     */
+    @Query(
+        "SELECT t.id AS id, t.user.id AS userId, t.title AS title, "
+        + "t.description AS description, t.aiAnalysis AS aiAnalysis "
+        + "FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<TaskTextView> findTextViewsAfter(
+        @Param("afterId") Long afterId,
+        Limit limit);
+
+    /**
+     * Le os campos textuais das tarefas informadas.
+     *
+     * @param ids identificadores das tarefas
+     * @return projecoes textuais ordenadas por identificador
+     */
+    @Query(
+        "SELECT t.id AS id, t.user.id AS userId, t.title AS title, "
+        + "t.description AS description, t.aiAnalysis AS aiAnalysis "
+        + "FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<TaskTextView> findTextViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projecoes das tarefas do usuario alteradas depois de uma posicao da
+     * sequencia de alteracoes, em ordem crescente.
+     *
+     * @param userId identificador do usuario
+     * @param changeSeq ultima posicao ja entregue ao cliente
+     * @param limit quantidade maxima de linhas lidas
+     * @return projecoes ordenadas pela sequencia
+     */
+    @Query(TASK_VIEW_SELECT
+        + "WHERE t.user.id = :userId AND t.changeSeq > :changeSeq "
+        + "ORDER BY t.changeSeq")
+    List<TaskView> findViewsChangedAfter(
+        @Param("userId") Long userId,
+        @Param("changeSeq") Long changeSeq,
+        Limit limit);
+
+    /**
+     * Versao de uma tarefa do usuario, lida sem carregar a entidade, para
+     * responder requisicoes condicionais.
+     *
+     * @param id identificador da tarefa
+     * @param userId identificador do dono
+     * @return versao atual ou vazio quando a tarefa nao pertence ao usuario
+     */
+    @Query("SELECT t.version FROM Task t "
+        + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(
+        @Param("id") Long id,
+        @Param("userId") Long userId);
+
+    /**
+     * Ultimas alteracoes do usuario, da maior posicao na sequencia para a
+     * menor. Com limite de uma linha, le apenas o fim do indice
+     * {@code (user_id, change_seq)}.
+     *
+     * @param userId identificador do usuario
+     * @param limit quantidade maxima de linhas
+     * @return posicoes e datas das ultimas alteracoes
+     */
+    @Query("SELECT t.changeSeq AS changeSeq, t.updatedAt AS changedAt "
+        + "FROM Task t WHERE t.user.id = :userId "
+        + "AND t.changeSeq IS NOT NULL ORDER BY t.changeSeq DESC")
+    List<TaskCollectionView> findLastChangesByUserId(
+        @Param("userId") Long userId, Limit limit);
+
+    /**
+     * Pais das tarefas informadas, excluindo tarefas sem pai.
+     *
+     * @param ids identificadores das tarefas
+     * @return identificadores distintos dos pais
+     */
+    @Query("SELECT DISTINCT t.parentTask.id FROM Task t "
+        + "WHERE t.id IN :ids AND t.parentTask IS NOT NULL")
+    List<Long> findParentIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Le os prazos futuros de tarefas nao concluidas em ordem de
+     * identificador, a partir do identificador informado.
+     *
+     * @param from instante a partir do qual os prazos interessam
+     * @param afterId ultimo identificador ja lido
+     * @param limit quantidade maxima de linhas lidas
+     * @return projecoes de prazo ordenadas por identificador
+     */
+    @Query(
+        "SELECT t.id AS id, t.dueDate AS dueDate FROM Task t "
+        + "WHERE t.dueDate > :from AND t.status != 'COMPLETED' "
+        + "AND t.id > :afterId ORDER BY t.id")
+    List<TaskDueView> findPendingDueViewsAfter(
+        @Param("from") LocalDateTime from,
+        @Param("afterId") Long afterId,
+        Limit limit);
+
+    /**
+     * Le os prazos de tarefas nao concluidas contidos em {@code (from, to]}
+     * em ordem de identificador, a partir do identificador informado.
+     *
+     * @param from inicio do intervalo, exclusivo
+     * @param to fim do intervalo, inclusivo
+     * @param afterId ultimo identificador ja lido
+     * @param limit quantidade maxima de linhas lidas
+     * @return projecoes de prazo ordenadas por identificador
+     */
+    @Query(
+        "SELECT t.id AS id, t.dueDate AS dueDate FROM Task t "
+        + "WHERE t.dueDate > :from AND t.dueDate <= :to "
+        + "AND t.status != 'COMPLETED' AND t.id > :afterId ORDER BY t.id")
+    List<TaskDueView> findPendingDueViewsBetween(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("afterId") Long afterId,
+        Limit limit);
+
+    /**
+     * Le os prazos das tarefas informadas que ainda nao foram concluidas.
+     *
+     * @param ids identificadores das tarefas
+     * @return projecoes de prazo das tarefas com data limite
+     */
+    @Query(
+        "SELECT t.id AS id, t.dueDate AS dueDate FROM Task t "
+        + "WHERE t.id IN :ids AND t.dueDate IS NOT NULL "
+        + "AND t.status != 'COMPLETED'")
+    List<TaskDueView> findPendingDueViewsByIdIn(
+        @Param("ids") Collection<Long> ids);
+
+    /**
+     * Carrega as tarefas informadas com o usuario dono, para o disparo de
+     * alertas de prazo.
+     *
+     * @param ids identificadores das tarefas
+     * @return tarefas encontradas
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.id IN :ids")
+    List<Task> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Percorre todas as tarefas de um usuario em ordem de identificador por
+     * um cursor somente-avante, trazendo poucas linhas por vez. Deve ser
+     * consumido dentro de uma transacao e fechado ao final.
+     *
+     * @param userId identificador do usuario
+     * @return fluxo de projecoes ordenado por identificador
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+                value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TASK_VIEW_SELECT + "WHERE t.user.id = :userId ORDER BY t.id")
+    Stream<TaskView> streamViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lista as subtarefas diretas de um conjunto de tarefas.
+     *
+     * @param parentIds identificadores das tarefas pai
+     * @return pares pai/filho ordenados pelo identificador do filho
+     */
+    @Query(
+        "SELECT t.parentTask.id AS parentId, t.id AS id FROM Task t "
+        + "WHERE t.parentTask.id IN :parentIds ORDER BY t.id")
+    List<TaskChildView> findChildIdsByParentIds(
+        @Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * Carrega, em uma unica consulta, as tags de um conjunto de tarefas.
+     *
+     * @param taskIds identificadores das tarefas da pagina
+     * @return pares tarefa/tag
+     */
+    @Query(
+        "SELECT t.id AS taskId, tag AS tag FROM Task t JOIN t.tags tag "
+        + "WHERE t.id IN :taskIds")
+    List<TaskTagView> findTagsByTaskIds(
+        @Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Lista, em um unico comando, os nos das subarvores das raizes
+     * informadas, incluindo as proprias raizes.
+     *
+     * @param rootIds identificadores das raizes
+     * @param userId identificador do usuario dono das tarefas
+     * @return nos encontrados com sua profundidade
+     */
+    @Query(
+        value = SUBTREE_CTE + "SELECT id AS id, depth AS depth FROM subtree",
+        nativeQuery = true)
+    List<TaskTreeEntryView> findSubtree(
+        @Param("rootIds") Collection<Long> rootIds,
+        @Param("userId") Long userId);
+
+    /**
+     * Lista, em um unico comando, as tarefas informadas e todos os seus
+     * ancestrais, subindo a hierarquia pela tarefa pai.
+     *
+     * @param ids identificadores das tarefas de origem
+     * @param userId identificador do usuario dono das tarefas
+     * @return um par por tarefa de origem e ancestral, incluindo a origem
+     */
+    @Query(
+        value = "WITH RECURSIVE ancestry(origin, ancestor, depth) AS ("
+            + "SELECT t.id, t.id, 0 FROM tasks t "
+            + "WHERE t.id IN (:ids) AND t.user_id = :userId "
+            + "UNION ALL "
+            + "SELECT a.origin, p.parent_task_id, a.depth + 1 FROM tasks p "
+            + "JOIN ancestry a ON p.id = a.ancestor "
+            + "WHERE p.user_id = :userId AND p.parent_task_id IS NOT NULL "
+            + "AND a.depth < " + MAX_TREE_DEPTH + ") "
+            + "SELECT origin AS origin, ancestor AS ancestor FROM ancestry",
+        nativeQuery = true)
+    List<TaskAncestorView> findAncestry(
+        @Param("ids") Collection<Long> ids,
+        @Param("userId") Long userId);
+
+    /**
+     * Le a contribuicao propria e os totais de subarvore das tarefas
+     * informadas.
+     *
+     * @param ids identificadores das tarefas
+     * @param userId identificador do usuario dono das tarefas
+     * @return projecoes das tarefas encontradas, sem ordem definida
+     */
+    @Query("SELECT t.id AS id, t.parentTask.id AS parentTaskId, "
+        + "t.status AS status, t.estimatedHours AS estimatedHours, "
+        + "t.actualHours AS actualHours, "
+        + "t.subtreeEstimatedHours AS subtreeEstimatedHours, "
+        + "t.subtreeActualHours AS subtreeActualHours, "
+        + "t.subtreeOpenCount AS subtreeOpenCount, "
+        + "t.subtreeCompletedCount AS subtreeCompletedCount "
+        + "FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<TaskRollupView> findRollupsByUserIdAndIdIn(
+        @Param("userId") Long userId,
+        @Param("ids") Collection<Long> ids);
+
+    /**
+     * Move uma tarefa para outro pai, levando junto toda a sua subarvore.
+     *
+     * @param taskId identificador da tarefa movida
+     * @param parent nova tarefa pai ou {@code null} para virar raiz
+     * @param updatedAt data de atualizacao registrada
+     * @return linhas alteradas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "UPDATE Task t SET t.parentTask = :parent, t.updatedAt = :updatedAt "
+        + "WHERE t.id = :taskId")
+    int updateParent(
+        @Param("taskId") Long taskId,
+        @Param("parent") Task parent,
+        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Desfaz os vinculos de pai das tarefas informadas, permitindo remove-las
+     * em um unico comando sem violar a chave estrangeira.
+     *
+     * @param ids identificadores das tarefas
+     * @return linhas alteradas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.parentTask = NULL WHERE t.id IN :ids")
+    int detachParents(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Remove as tags das tarefas informadas.
+     *
+     * @param ids identificadores das tarefas
+     * @return linhas removidas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        value = "DELETE FROM task_tags WHERE task_id IN (:ids)",
+        nativeQuery = true)
+    int deleteTagsByTaskIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Remove as tarefas informadas sem carregar entidades nem cascatas.
+     *
+     * @param ids identificadores das tarefas
+     * @return linhas removidas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Agrega as tarefas dos usuarios por status e prioridade.
+     *
+     * @param userIds identificadores dos usuarios
+     * @param now data de referencia para atraso
+     * @return um grupo por usuario, status e prioridade
+     */
+    @Query(
+        "SELECT t.user.id AS userId, t.status AS status, "
+        + "t.priority AS priority, COUNT(t) AS taskCount, "
+        + TASK_STATS_SUMS
+        + "FROM Task t WHERE t.user.id IN :userIds "
+        + "GROUP BY t.user.id, t.status, t.priority")
+    List<TaskStatsView> aggregateStatsByUserIds(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("now") LocalDateTime now);
+
+    /**
+     * Agrega as tarefas informadas por status e prioridade, usado para
+     * descontar dos contadores as tarefas que serao removidas.
+     *
+     * @param ids identificadores das tarefas
+     * @param now data de referencia para atraso
+     * @return um grupo por usuario, status e prioridade
+     */
+    @Query(
+        "SELECT t.user.id AS userId, t.status AS status, "
+        + "t.priority AS priority, COUNT(t) AS taskCount, "
+        + TASK_STATS_SUMS
+        + "FROM Task t WHERE t.id IN :ids "
+        + "GROUP BY t.user.id, t.status, t.priority")
+    List<TaskStatsView> aggregateStatsByIds(
+        @Param("ids") Collection<Long> ids,
+        @Param("now") LocalDateTime now);
+
     /**
      * Conta tarefas de um usuario agrupadas por status.
      *
@@ -94,4 +707,178 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Long countByUserIdAndStatus(
         @Param("userId") Long userId,
         @Param("status") TaskStatus status);
+
+    /**
+     * Percorre as tarefas abertas (nem concluidas nem canceladas) de uma
+     * prioridade do usuario, do prazo mais proximo ao mais distante e sem
+     * prazo por ultimo, trazendo poucas linhas por vez. Deve ser consumido
+     * dentro de uma transacao e fechado ao final.
+     *
+     * @param userId identificador do usuario
+     * @param priority prioridade das tarefas
+     * @return fluxo de projecoes ordenado por prazo e identificador
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+                value = RANK_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(
+        "SELECT t.id AS id, t.priority AS priority, t.dueDate AS dueDate, "
+        + "t.estimatedHours AS estimatedHours, "
+        + "t.aiSuggestedPriority AS aiSuggestedPriority FROM Task t "
+        + "WHERE t.user.id = :userId AND t.priority = :priority "
+        + "AND t.status != 'COMPLETED' AND t.status != 'CANCELLED' "
+        + "ORDER BY t.dueDate ASC NULLS LAST, t.id ASC")
+    Stream<TaskRankView> streamOpenRankViews(
+        @Param("userId") Long userId,
+        @Param("priority") TaskPriority priority);
+
+    /**
+     * Lista as tarefas com prazo do usuario, do prazo mais proximo ao mais
+     * distante, para montar o calendario em memoria.
+     *
+     * @param userId identificador do usuario
+     * @param limit quantidade maxima de tarefas
+     * @return projecoes ordenadas por prazo e identificador
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
+    @Query(
+        "SELECT t.id AS id, t.title AS title, t.status AS status, "
+        + "t.priority AS priority, t.dueDate AS dueDate FROM Task t "
+        + "WHERE t.user.id = :userId AND t.dueDate IS NOT NULL "
+        + "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskCalendarView> findCalendarViews(
+        @Param("userId") Long userId,
+        Limit limit);
+
+    /**
+     * Lista as tarefas do usuario com prazo no intervalo {@code [start, end)},
+     * do prazo mais proximo ao mais distante.
+     *
+     * @param userId identificador do usuario
+     * @param start inicio do intervalo, inclusivo
+     * @param end fim do intervalo, exclusivo
+     * @return projecoes ordenadas por prazo e identificador
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
+    @Query(
+        "SELECT t.id AS id, t.title AS title, t.status AS status, "
+        + "t.priority AS priority, t.dueDate AS dueDate FROM Task t "
+        + "WHERE t.user.id = :userId AND t.dueDate >= :start "
+        + "AND t.dueDate < :end ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskCalendarView> findCalendarViewsBetween(
+        @Param("userId") Long userId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end);
+
+    /**
+     * Lista as posicoes de uma coluna do quadro, da primeira a ultima; as
+     * tarefas ainda sem chave vem no fim, em ordem de identificador.
+     *
+     * @param userId identificador do usuario
+     * @param status status da coluna
+     * @param limit quantidade maxima de linhas lidas
+     * @return posicoes na ordem do quadro
+     */
+    @Query(
+        TASK_BOARD_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status = :status "
+        + "ORDER BY t.rank ASC NULLS LAST, t.id ASC")
+    List<TaskBoardView> findBoardColumn(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        Limit limit);
+
+    /**
+     * Lista as posicoes de uma coluna a partir de uma chave, inclusive, para
+     * encontrar o vizinho seguinte de um cartao.
+     *
+     * @param userId identificador do usuario
+     * @param status status da coluna
+     * @param rank chave inicial
+     * @param limit quantidade maxima de linhas lidas
+     * @return posicoes com chave maior ou igual, na ordem do quadro
+     */
+    @Query(
+        TASK_BOARD_SELECT + "WHERE t.user.id = :userId "
+        + "AND t.status = :status AND t.rank >= :rank "
+        + "ORDER BY t.rank ASC, t.id ASC")
+    List<TaskBoardView> findBoardColumnFrom(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        @Param("rank") String rank,
+        Limit limit);
+
+    /**
+     * Posicao de uma tarefa do usuario no quadro.
+     *
+     * @param id identificador da tarefa
+     * @param userId identificador do dono
+     * @return posicao ou vazio quando a tarefa nao pertence ao usuario
+     */
+    @Query(TASK_BOARD_SELECT + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TaskBoardView> findBoardEntry(
+        @Param("id") Long id,
+        @Param("userId") Long userId);
+
+    /**
+     * Maior chave de uma coluna do quadro.
+     *
+     * @param userId identificador do usuario
+     * @param status status da coluna
+     * @return maior chave ou {@code null} quando nenhuma tarefa tem chave
+     */
+    @Query("SELECT MAX(t.rank) FROM Task t WHERE t.user.id = :userId "
+        + "AND t.status = :status")
+    String findMaxRank(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status);
+
+    /**
+     * Tarefas de uma coluna ainda sem chave, na ordem em que aparecem no
+     * quadro.
+     *
+     * @param userId identificador do usuario
+     * @param status status da coluna
+     * @return identificadores em ordem crescente
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId "
+        + "AND t.status = :status AND t.rank IS NULL ORDER BY t.id")
+    List<Long> findUnrankedIds(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status);
+
+    /**
+     * Grava a chave de ordem de uma tarefa, sem tocar nas demais colunas
+     * nem na versao.
+     *
+     * @param id identificador da tarefa
+     * @param userId identificador do dono
+     * @param rank nova chave
+     * @return linhas alteradas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.rank = :rank "
+        + "WHERE t.id = :id AND t.user.id = :userId")
+    int updateRank(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("rank") String rank);
+
+    /**
+     * Identificadores das tarefas do usuario nos status informados, lidos
+     * so pelo indice {@code (user_id, status, board_rank, id)}.
+     *
+     * @param userId identificador do usuario
+     * @param statuses status desejados
+     * @return identificadores, sem ordem definida
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId "
+        + "AND t.status IN :statuses")
+    List<Long> findIdsByUserIdAndStatusIn(
+        @Param("userId") Long userId,
+        @Param("statuses") Collection<TaskStatus> statuses);
 }
@@ -0,0 +1,73 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskStatus;
+
+/**
+ * Projecao com os campos que compoem os totais de subarvore de uma tarefa:
+ * a contribuicao da propria tarefa e os totais gravados.
+ */
+public interface TaskRollupView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador unico
+     */
+    Long getId();
+
+    /**
+     * Identificador da tarefa pai.
+     *
+     * @return pai ou {@code null} para tarefas de nivel superior
+     */
+    Long getParentTaskId();
+
+    /**
+     * Status da tarefa.
+     *
+     * @return status atual
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Horas estimadas da propria tarefa.
+     *
+     * @return estimativa ou {@code null}
+     */
+    Integer getEstimatedHours();
+
+    /**
+     * Horas reais da propria tarefa.
+     *
+     * @return horas reais ou {@code null}
+     */
+    Integer getActualHours();
+
+    /**
+     * Horas estimadas gravadas para a subarvore.
+     *
+     * @return soma das estimativas da subarvore
+     */
+    Long getSubtreeEstimatedHours();
+
+    /**
+     * Horas reais gravadas para a subarvore.
+     *
+     * @return soma das horas reais da subarvore
+     */
+    Long getSubtreeActualHours();
+
+    /**
+     * Tarefas abertas gravadas para a subarvore.
+     *
+     * @return quantidade de tarefas abertas
+     */
+    Long getSubtreeOpenCount();
+
+    /**
+     * Tarefas concluidas gravadas para a subarvore.
+     *
+     * @return quantidade de tarefas concluidas
+     */
+    Long getSubtreeCompletedCount();
+}
@@ -0,0 +1,53 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskPriority;
+import java.time.LocalDateTime;
+
+/**
+ * Projecao de uma serie recorrente com os dados da tarefa modelo copiados
+ * para as ocorrencias expandidas.
+ */
+public interface TaskSeriesView {
+
+    /**
+     * Identificador da tarefa modelo.
+     *
+     * @return identificador da tarefa modelo
+     */
+    Long getTaskId();
+
+    /**
+     * Titulo atual da tarefa modelo.
+     *
+     * @return titulo
+     */
+    String getTitle();
+
+    /**
+     * Prioridade atual da tarefa modelo.
+     *
+     * @return prioridade
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Regra de recorrencia no formato canonico.
+     *
+     * @return regra
+     */
+    String getRule();
+
+    /**
+     * Primeira ocorrencia da serie.
+     *
+     * @return prazo da tarefa modelo ao definir a regra
+     */
+    LocalDateTime getStartsAt();
+
+    /**
+     * Ultima ocorrencia possivel da serie.
+     *
+     * @return ultima ocorrencia ou {@code null} nas series sem fim
+     */
+    LocalDateTime getEndsAt();
+}
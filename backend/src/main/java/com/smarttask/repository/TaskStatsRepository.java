@@ -0,0 +1,83 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.smarttask.model.TaskStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio dos contadores agregados de tarefas por usuario.
+ */
+@Repository
+public interface TaskStatsRepository extends JpaRepository<TaskStats, Long> {
+
+    /**
+     * Soma os deltas aos contadores do usuario em um unico comando, sem ler a
+     * linha antes. A linha fica bloqueada ate o fim da transacao, o que
+     * serializa escritas concorrentes do mesmo usuario.
+     *
+     * @param userId identificador do usuario
+     * @param todo delta de tarefas {@code TODO}
+     * @param inProgress delta de tarefas {@code IN_PROGRESS}
+     * @param completed delta de tarefas {@code COMPLETED}
+     * @param cancelled delta de tarefas {@code CANCELLED}
+     * @param low delta de tarefas de prioridade {@code LOW}
+     * @param medium delta de tarefas de prioridade {@code MEDIUM}
+     * @param high delta de tarefas de prioridade {@code HIGH}
+     * @param urgent delta de tarefas de prioridade {@code URGENT}
+     * @param overdue delta de tarefas atrasadas
+     * @param estimatedHours delta das horas estimadas
+     * @param actualHours delta das horas gastas
+     * @param now momento da alteracao
+     * @return linhas alteradas; zero quando o usuario ainda nao tem contadores
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "UPDATE TaskStats s SET "
+        + "s.todoCount = s.todoCount + :todo, "
+        + "s.inProgressCount = s.inProgressCount + :inProgress, "
+        + "s.completedCount = s.completedCount + :completed, "
+        + "s.cancelledCount = s.cancelledCount + :cancelled, "
+        + "s.lowPriorityCount = s.lowPriorityCount + :low, "
+        + "s.mediumPriorityCount = s.mediumPriorityCount + :medium, "
+        + "s.highPriorityCount = s.highPriorityCount + :high, "
+        + "s.urgentPriorityCount = s.urgentPriorityCount + :urgent, "
+        + "s.overdueCount = s.overdueCount + :overdue, "
+        + "s.estimatedHours = s.estimatedHours + :estimatedHours, "
+        + "s.actualHours = s.actualHours + :actualHours, "
+        + "s.updatedAt = :now "
+        + "WHERE s.userId = :userId")
+    int applyDelta(
+        @Param("userId") Long userId,
+        @Param("todo") long todo,
+        @Param("inProgress") long inProgress,
+        @Param("completed") long completed,
+        @Param("cancelled") long cancelled,
+        @Param("low") long low,
+        @Param("medium") long medium,
+        @Param("high") long high,
+        @Param("urgent") long urgent,
+        @Param("overdue") long overdue,
+        @Param("estimatedHours") long estimatedHours,
+        @Param("actualHours") long actualHours,
+        @Param("now") LocalDateTime now);
+
+    /**
+     * Le e bloqueia os contadores dos usuarios para a reconciliacao, de modo
+     * que nenhum delta seja aplicado entre a contagem e a correcao.
+     *
+     * @param userIds identificadores dos usuarios
+     * @return contadores existentes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TaskStats s WHERE s.userId IN :userIds")
+    List<TaskStats> lockByUserIds(@Param("userIds") Collection<Long> userIds);
+}
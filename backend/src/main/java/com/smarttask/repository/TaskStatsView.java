@@ -0,0 +1,60 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+
+/**
+ * Agregado das tarefas de um usuario por status e prioridade, usado para
+ * recalcular e ajustar os contadores de {@code task_stats}.
+ */
+public interface TaskStatsView {
+
+    /**
+     * Identificador do usuario dono das tarefas.
+     *
+     * @return identificador do usuario
+     */
+    Long getUserId();
+
+    /**
+     * Status das tarefas agregadas.
+     *
+     * @return status
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Prioridade das tarefas agregadas.
+     *
+     * @return prioridade
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Quantidade de tarefas no grupo.
+     *
+     * @return quantidade de tarefas
+     */
+    Long getTaskCount();
+
+    /**
+     * Tarefas do grupo atrasadas e nao concluidas.
+     *
+     * @return quantidade de tarefas atrasadas
+     */
+    Long getOverdueCount();
+
+    /**
+     * Soma das horas estimadas do grupo.
+     *
+     * @return horas estimadas
+     */
+    Long getEstimatedHours();
+
+    /**
+     * Soma das horas gastas do grupo.
+     *
+     * @return horas gastas
+     */
+    Long getActualHours();
+}
@@ -0,0 +1,21 @@
+package com.smarttask.repository;
+
+/**
+ * Quantidade de vinculos de uma tag entre as tarefas consultadas.
+ */
+public interface TaskTagCountView {
+
+    /**
+     * Entrada do dicionario.
+     *
+     * @return identificador da tag
+     */
+    Long getTagId();
+
+    /**
+     * Quantidade de tarefas vinculadas.
+     *
+     * @return total de vinculos
+     */
+    Long getTaskCount();
+}
@@ -0,0 +1,40 @@
+package com.smarttask.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.smarttask.model.TaskTagLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio dos vinculos entre tarefas e o dicionario de tags.
+ */
+@Repository
+public interface TaskTagLinkRepository
+        extends JpaRepository<TaskTagLink, TaskTagLink.Key> {
+
+    /**
+     * Conta os vinculos das tarefas informadas por tag.
+     *
+     * @param taskIds identificadores das tarefas
+     * @return quantidade de vinculos por tag
+     */
+    @Query("SELECT l.tagId AS tagId, COUNT(l) AS taskCount "
+        + "FROM TaskTagLink l WHERE l.taskId IN :taskIds GROUP BY l.tagId")
+    List<TaskTagCountView> countByTaskIds(
+        @Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Remove os vinculos das tarefas informadas.
+     *
+     * @param taskIds identificadores das tarefas
+     * @return vinculos removidos
+     */
+    @Modifying
+    @Query("DELETE FROM TaskTagLink l WHERE l.taskId IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+}
@@ -0,0 +1,22 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao de uma associacao entre tarefa e tag, usada para carregar as tags
+ * de uma pagina inteira de tarefas em uma unica consulta.
+ */
+public interface TaskTagView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa dona da tag
+     */
+    Long getTaskId();
+
+    /**
+     * Nome da tag associada.
+     *
+     * @return tag da tarefa
+     */
+    String getTag();
+}
@@ -0,0 +1,43 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao com os campos textuais de uma tarefa, usada para reconstruir o
+ * indice de busca sem carregar entidades.
+ */
+public interface TaskTextView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador da tarefa
+     */
+    Long getId();
+
+    /**
+     * Identificador do usuario dono da tarefa.
+     *
+     * @return identificador do usuario
+     */
+    Long getUserId();
+
+    /**
+     * Titulo da tarefa.
+     *
+     * @return titulo
+     */
+    String getTitle();
+
+    /**
+     * Descricao da tarefa.
+     *
+     * @return descricao ou {@code null}
+     */
+    String getDescription();
+
+    /**
+     * Analise gerada pela IA.
+     *
+     * @return analise ou {@code null}
+     */
+    String getAiAnalysis();
+}
@@ -0,0 +1,22 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao de um no da subarvore de tarefas devolvido pela consulta
+ * recursiva, com a profundidade relativa a raiz consultada.
+ */
+public interface TaskTreeEntryView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador do no
+     */
+    Long getId();
+
+    /**
+     * Distancia ate a raiz consultada; a propria raiz tem profundidade zero.
+     *
+     * @return profundidade do no
+     */
+    Integer getDepth();
+}
@@ -0,0 +1,161 @@
+package com.smarttask.repository;
+
+import java.time.LocalDateTime;
+
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+
+/**
+ * Projecao de leitura das tarefas com as colunas escalares, o identificador
+ * da tarefa pai e a contagem agregada de subtarefas, obtida em uma unica
+ * consulta sem hidratar o grafo de entidades.
+ */
+public interface TaskView {
+
+    /**
+     * Identificador da tarefa.
+     *
+     * @return identificador unico
+     */
+    Long getId();
+
+    /**
+     * Titulo da tarefa.
+     *
+     * @return titulo cadastrado
+     */
+    String getTitle();
+
+    /**
+     * Descricao detalhada da tarefa.
+     *
+     * @return descricao ou {@code null}
+     */
+    String getDescription();
+
+    /**
+     * Status atual da tarefa.
+     *
+     * @return status da tarefa
+     */
+    TaskStatus getStatus();
+
+    /**
+     * Prioridade da tarefa.
+     *
+     * @return prioridade definida
+     */
+    TaskPriority getPriority();
+
+    /**
+     * Data de vencimento.
+     *
+     * @return vencimento ou {@code null}
+     */
+    LocalDateTime getDueDate();
+
+    /**
+     * Data de conclusao.
+     *
+     * @return conclusao ou {@code null}
+     */
+    LocalDateTime getCompletedAt();
+
+    /**
+     * Estimativa de horas.
+     *
+     * @return horas estimadas ou {@code null}
+     */
+    Integer getEstimatedHours();
+
+    /**
+     * Horas efetivamente gastas.
+     *
+     * @return horas reais ou {@code null}
+     */
+    Integer getActualHours();
+
+    /**
+     * Identificador da tarefa pai, lido diretamente da chave estrangeira.
+     *
+     * @return identificador da tarefa pai ou {@code null}
+     */
+    Long getParentTaskId();
+
+    /**
+     * Quantidade de subtarefas diretas, agregada na propria consulta.
+     *
+     * @return total de subtarefas
+     */
+    Long getSubtaskCount();
+
+    /**
+     * Indica se a prioridade foi sugerida pela IA.
+     *
+     * @return indicador de sugestao da IA
+     */
+    Boolean getAiSuggestedPriority();
+
+    /**
+     * Analise produzida pela IA.
+     *
+     * @return texto da analise ou {@code null}
+     */
+    String getAiAnalysis();
+
+    /**
+     * Data de criacao.
+     *
+     * @return momento da criacao
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Data da ultima atualizacao.
+     *
+     * @return momento da ultima atualizacao
+     */
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Posicao da ultima alteracao na sequencia de alteracoes.
+     *
+     * @return posicao da ultima alteracao
+     */
+    Long getChangeSeq();
+
+    /**
+     * Horas estimadas da tarefa somadas as de toda a sua subarvore.
+     *
+     * @return total de horas estimadas
+     */
+    Long getSubtreeEstimatedHours();
+
+    /**
+     * Horas reais da tarefa somadas as de toda a sua subarvore.
+     *
+     * @return total de horas reais
+     */
+    Long getSubtreeActualHours();
+
+    /**
+     * Tarefas abertas na subarvore, incluindo a propria tarefa.
+     *
+     * @return quantidade de tarefas abertas
+     */
+    Long getSubtreeOpenCount();
+
+    /**
+     * Tarefas concluidas na subarvore, incluindo a propria tarefa.
+     *
+     * @return quantidade de tarefas concluidas
+     */
+    Long getSubtreeCompletedCount();
+
+    /**
+     * Versao da tarefa usada no controle de concorrencia otimista.
+     *
+     * @return versao atual
+     */
+    Long getVersion();
+}
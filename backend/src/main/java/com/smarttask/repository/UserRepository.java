@@ -1,9 +1,16 @@
 package com.smarttask.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.smarttask.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,19 +20,25 @@ import org.springframework.stereotype.Repository;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Busca um usuário pelo username informado.
+     * Busca um usuário pelo username informado. O resultado fica no cache
+     * de consultas, invalidado a cada escrita na tabela de usuários.
      *
      * @param username identificador textual único
      * @return usuário correspondente, caso exista
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE,
+        value = "true"))
     Optional<User> findByUsername(String username);
 
     /**
-     * Busca um usuário pelo e-mail cadastrado.
+     * Busca um usuário pelo e-mail cadastrado. O resultado fica no cache de
+     * consultas.
      *
      * @param email endereço de e-mail
      * @return usuário correspondente, caso exista
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE,
+        value = "true"))
     Optional<User> findByEmail(String email);
 
     /**
@@ -43,4 +56,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return {@code true} quando o e-mail já está em uso
      */
     Boolean existsByEmail(String email);
+
+    /**
+     * Le identificadores de usuarios em ordem crescente a partir do
+     * identificador informado, para percorrer a tabela em blocos.
+     *
+     * @param afterId ultimo identificador ja lido
+     * @param limit quantidade maxima de identificadores
+     * @return identificadores ordenados
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
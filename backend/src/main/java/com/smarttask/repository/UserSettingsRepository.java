@@ -3,6 +3,9 @@ package com.smarttask.repository;
 import java.util.Optional;
 
 import com.smarttask.model.UserSettings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,11 +17,14 @@ public interface UserSettingsRepository
     extends CrudRepository<UserSettings, Long> {
 
     /**
-     * Busca as configuracoes de um usuario especifico.
+     * Busca as configuracoes de um usuario especifico. O resultado fica no
+     * cache de consultas, invalidado a cada escrita na tabela.
      *
      * @param userId identificador do usuario
      * @return configuracoes encapsuladas em {@link Optional}
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE,
+        value = "true"))
     Optional<UserSettings> findByUserId(Long userId);
 
     /**
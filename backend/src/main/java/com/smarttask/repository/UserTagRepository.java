@@ -0,0 +1,48 @@
+package com.smarttask.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.smarttask.model.UserTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio do dicionario de tags por usuario.
+ */
+@Repository
+public interface UserTagRepository extends JpaRepository<UserTag, Long> {
+
+    /**
+     * Entrada do dicionario pelo nome.
+     *
+     * @param userId identificador do usuario
+     * @param name nome da tag
+     * @return entrada encontrada
+     */
+    Optional<UserTagView> findByUserIdAndName(Long userId, String name);
+
+    /**
+     * Entradas do dicionario pelos nomes.
+     *
+     * @param userId identificador do usuario
+     * @param names nomes das tags
+     * @return entradas encontradas
+     */
+    List<UserTagView> findByUserIdAndNameIn(Long userId,
+        Collection<String> names);
+
+    /**
+     * Tags em uso pelo usuario, da mais para a menos usada.
+     *
+     * @param userId identificador do usuario
+     * @return entradas com ao menos uma tarefa
+     */
+    @Query("SELECT u.id AS id, u.name AS name, u.taskCount AS taskCount "
+        + "FROM UserTag u WHERE u.userId = :userId "
+        + "AND u.taskCount > 0 ORDER BY u.taskCount DESC, u.name")
+    List<UserTagView> findFacetsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,30 @@
+package com.smarttask.repository;
+
+/**
+ * Projecao de leitura de uma entrada do dicionario de tags. Lida sem
+ * gerenciar a entidade, ja que as contagens sao alteradas por comandos
+ * JDBC na mesma transacao.
+ */
+public interface UserTagView {
+
+    /**
+     * Identificador da tag no dicionario.
+     *
+     * @return identificador da tag
+     */
+    Long getId();
+
+    /**
+     * Nome da tag.
+     *
+     * @return nome da tag
+     */
+    String getName();
+
+    /**
+     * Quantidade de tarefas com a tag.
+     *
+     * @return total de tarefas
+     */
+    long getTaskCount();
+}
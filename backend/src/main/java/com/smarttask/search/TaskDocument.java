@@ -0,0 +1,37 @@
+package com.smarttask.search;
+
+import com.smarttask.model.Task;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Campos textuais de uma tarefa enviados ao indice de busca.
+ *
+ * @param taskId identificador da tarefa
+ * @param userId identificador do usuario dono da tarefa
+ * @param title titulo da tarefa
+ * @param description descricao da tarefa
+ * @param tags tags associadas
+ * @param aiAnalysis analise gerada pela IA
+ */
+public record TaskDocument(
+        Long taskId,
+        Long userId,
+        String title,
+        String description,
+        Collection<String> tags,
+        String aiAnalysis) {
+
+    /**
+     * Extrai os campos indexaveis de uma tarefa carregada.
+     *
+     * @param task tarefa persistida
+     * @return documento pronto para indexacao
+     */
+    public static TaskDocument of(final Task task) {
+        return new TaskDocument(task.getId(), task.getUser().getId(),
+                task.getTitle(), task.getDescription(),
+                task.getTags() == null ? Set.of() : Set.copyOf(task.getTags()),
+                task.getAiAnalysis());
+    }
+}
@@ -0,0 +1,651 @@
+package com.smarttask.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indice invertido em memoria, particionado por usuario, sobre titulo,
+ * descricao, tags e analise de IA das tarefas.
+ *
+ * <p>Cada usuario possui um dicionario ordenado de termos (permitindo a
+ * expansao por prefixo) cujas listas de postagens guardam ordinais inteiros
+ * de documentos e a frequencia ponderada do termo. Remocoes marcam o ordinal
+ * como inativo e o indice do usuario e compactado quando os ordinais
+ * inativos passam a dominar. O ranking usa BM25 com pesos por campo.</p>
+ *
+ * <p>A reconstrucao monta um conjunto novo de indices sem bloquear buscas
+ * nem escritas. As escritas recebidas enquanto ela roda sao aplicadas ao
+ * indice atual e guardadas; ao publicar, elas sao reaplicadas sobre o
+ * conjunto novo, que entao substitui o atual de uma so vez.</p>
+ */
+@Component
+public class TaskSearchIndex {
+
+    /** Quantidade maxima de resultados devolvidos por busca. */
+    public static final int MAX_RESULTS = 100;
+
+    /** Parametro de saturacao de frequencia do BM25. */
+    static final double K1 = 1.2;
+
+    /** Parametro de normalizacao por tamanho do BM25. */
+    static final double B = 0.75;
+
+    /** Peso dos termos do titulo. */
+    static final int TITLE_WEIGHT = 3;
+
+    /** Peso dos termos das tags. */
+    static final int TAG_WEIGHT = 2;
+
+    /** Peso dos termos da descricao e da analise de IA. */
+    static final int BODY_WEIGHT = 1;
+
+    /**
+     * Maior numero de termos considerados na expansao de um prefixo; alem
+     * do termo exato, ficam os presentes em mais documentos.
+     */
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /** Indices por usuario, substituidos ao publicar uma reconstrucao. */
+    private volatile Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Compartilhada pelas escritas e tomada com exclusividade ao iniciar e
+     * ao publicar uma reconstrucao.
+     */
+    private final ReentrantReadWriteLock publishLock =
+            new ReentrantReadWriteLock();
+
+    /**
+     * Escritas recebidas durante a reconstrucao em andamento, ou
+     * {@code null} quando nenhuma esta em andamento.
+     */
+    private Queue<Consumer<Map<Long, UserIndex>>> pending;
+
+    /**
+     * Inclui ou substitui uma tarefa no indice do seu usuario.
+     *
+     * @param document campos textuais da tarefa
+     */
+    public void index(final TaskDocument document) {
+        write(target -> put(target, document));
+    }
+
+    /**
+     * Inclui ou substitui um conjunto de tarefas.
+     *
+     * @param documents campos textuais das tarefas
+     */
+    public void indexAll(final Collection<TaskDocument> documents) {
+        for (final TaskDocument document : documents) {
+            index(document);
+        }
+    }
+
+    /**
+     * Remove uma tarefa do indice.
+     *
+     * @param userId identificador do usuario dono da tarefa
+     * @param taskId identificador da tarefa
+     */
+    public void remove(final Long userId, final Long taskId) {
+        write(target -> {
+            final UserIndex index = target.get(userId);
+            if (index != null) {
+                index.remove(taskId);
+            }
+        });
+    }
+
+    /**
+     * Remove todas as tarefas indexadas de todos os usuarios.
+     */
+    public void clear() {
+        publishLock.writeLock().lock();
+        try {
+            indexes = new ConcurrentHashMap<>();
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inicia a reconstrucao do indice. Deve ser chamado antes de ler as
+     * tarefas do banco, para que as escritas confirmadas depois da leitura
+     * sejam reaplicadas na publicacao.
+     *
+     * @return reconstrucao a preencher e publicar
+     * @throws IllegalStateException se outra reconstrucao esta em andamento
+     */
+    public Rebuild startRebuild() {
+        publishLock.writeLock().lock();
+        try {
+            if (pending != null) {
+                throw new IllegalStateException(
+                        "Reconstrucao do indice de busca ja em andamento");
+            }
+            pending = new ConcurrentLinkedQueue<>();
+            return new Rebuild();
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de tarefas indexadas para um usuario.
+     *
+     * @param userId identificador do usuario
+     * @return tarefas ativas no indice
+     */
+    public int size(final Long userId) {
+        final UserIndex index = indexes.get(userId);
+        return index == null ? 0 : index.liveCount();
+    }
+
+    /**
+     * Busca tarefas do usuario que contenham todos os termos da consulta,
+     * aceitando cada termo como prefixo.
+     *
+     * @param userId identificador do usuario
+     * @param query texto livre informado pelo cliente
+     * @param limit quantidade maxima de resultados
+     * @return identificadores das tarefas, do mais para o menos relevante
+     */
+    public List<Long> search(final Long userId, final String query,
+            final int limit) {
+        final UserIndex index = indexes.get(userId);
+        final List<String> terms = TextNormalizer.tokenize(query);
+        if (index == null || terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return index.search(terms, Math.min(limit, MAX_RESULTS));
+    }
+
+    private void write(final Consumer<Map<Long, UserIndex>> operation) {
+        publishLock.readLock().lock();
+        try {
+            operation.accept(indexes);
+            final Queue<Consumer<Map<Long, UserIndex>>> journal = pending;
+            if (journal != null) {
+                journal.add(operation);
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private static void put(final Map<Long, UserIndex> target,
+            final TaskDocument document) {
+        target.computeIfAbsent(document.userId(), key -> new UserIndex())
+                .put(document);
+    }
+
+    /**
+     * Conjunto novo de indices em montagem. Usado por uma unica thread.
+     */
+    public final class Rebuild {
+
+        /** Indices por usuario em montagem. */
+        private final Map<Long, UserIndex> fresh = new ConcurrentHashMap<>();
+
+        private Rebuild() {
+        }
+
+        /**
+         * Inclui uma tarefa lida do banco.
+         *
+         * @param document campos textuais da tarefa
+         */
+        public void index(final TaskDocument document) {
+            put(fresh, document);
+        }
+
+        /**
+         * Reaplica as escritas recebidas durante a reconstrucao e passa a
+         * atender as buscas com o conjunto novo.
+         */
+        public void publish() {
+            publishLock.writeLock().lock();
+            try {
+                for (final Consumer<Map<Long, UserIndex>> operation
+                        : pending) {
+                    operation.accept(fresh);
+                }
+                indexes = fresh;
+                pending = null;
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Descarta a reconstrucao, mantendo o indice atual.
+         */
+        public void abandon() {
+            publishLock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Documentos que casam com os termos da consulta ja processados, em
+     * ordem crescente de ordinal, com a pontuacao acumulada.
+     */
+    private static final class Matches {
+
+        /** Ordinais dos documentos. */
+        private final int[] docs;
+
+        /** Pontuacao acumulada de cada documento. */
+        private final float[] scores;
+
+        /** Entradas ocupadas. */
+        private int size;
+
+        private Matches(final int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private void add(final int doc, final float score) {
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        /**
+         * Documentos presentes nos dois conjuntos, somando as pontuacoes.
+         */
+        private Matches intersect(final Matches other) {
+            final Matches both = new Matches(Math.min(size, other.size));
+            int left = 0;
+            int right = 0;
+            while (left < size && right < other.size) {
+                if (docs[left] < other.docs[right]) {
+                    left++;
+                } else if (docs[left] > other.docs[right]) {
+                    right++;
+                } else {
+                    both.add(docs[left], scores[left] + other.scores[right]);
+                    left++;
+                    right++;
+                }
+            }
+            return both;
+        }
+    }
+
+    /**
+     * Lista de postagens de um termo: ordinais dos documentos e frequencia
+     * ponderada, em arrays primitivos para evitar boxing.
+     */
+    private static final class Postings {
+
+        /** Capacidade inicial das listas. */
+        private static final int INITIAL_CAPACITY = 4;
+
+        /** Ordinais dos documentos que contem o termo. */
+        private int[] docs = new int[INITIAL_CAPACITY];
+
+        /** Frequencia ponderada do termo em cada documento. */
+        private int[] frequencies = new int[INITIAL_CAPACITY];
+
+        /** Entradas ocupadas, inclusive de documentos inativos. */
+        private int length;
+
+        /** Documentos ativos que contem o termo. */
+        private int liveDocs;
+
+        private void add(final int doc, final int frequency) {
+            if (length == docs.length) {
+                docs = Arrays.copyOf(docs, length * 2);
+                frequencies = Arrays.copyOf(frequencies,
+                        length * 2);
+            }
+            docs[length] = doc;
+            frequencies[length] = frequency;
+            length++;
+            liveDocs++;
+        }
+    }
+
+    /**
+     * Indice de um unico usuario, protegido por trava de leitura e escrita.
+     */
+    private static final class UserIndex {
+
+        /** Capacidade inicial das tabelas de ordinais. */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /** Trava que serializa escritas e permite leituras concorrentes. */
+        private final ReentrantReadWriteLock lock =
+                new ReentrantReadWriteLock();
+
+        /** Dicionario ordenado de termos para expansao por prefixo. */
+        private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+
+        /** Ordinal ativo de cada tarefa. */
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+
+        /** Tarefa de cada ordinal. */
+        private long[] taskIds = new long[INITIAL_CAPACITY];
+
+        /** Tamanho ponderado de cada documento; zero quando inativo. */
+        private int[] lengths = new int[INITIAL_CAPACITY];
+
+        /** Termos distintos de cada documento, para ajuste na remocao. */
+        private String[][] documentTerms = new String[INITIAL_CAPACITY][];
+
+        /** Proximo ordinal livre. */
+        private int nextOrdinal;
+
+        /** Soma dos tamanhos ponderados dos documentos ativos. */
+        private long totalLength;
+
+        private int liveCount() {
+            lock.readLock().lock();
+            try {
+                return ordinals.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void put(final TaskDocument document) {
+            final Map<String, Integer> frequencies = weightedTerms(document);
+            lock.writeLock().lock();
+            try {
+                removeLocked(document.taskId());
+                if (!frequencies.isEmpty()) {
+                    addLocked(document.taskId(), frequencies);
+                }
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(final Long taskId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void addLocked(final long taskId,
+                final Map<String, Integer> frequencies) {
+            ensureCapacity(nextOrdinal + 1);
+            final int doc = nextOrdinal++;
+            int length = 0;
+            final String[] terms = new String[frequencies.size()];
+            int position = 0;
+            for (final Map.Entry<String, Integer> entry
+                    : frequencies.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(),
+                        key -> new Postings()).add(doc, entry.getValue());
+                terms[position++] = entry.getKey();
+                length += entry.getValue();
+            }
+            taskIds[doc] = taskId;
+            lengths[doc] = length;
+            documentTerms[doc] = terms;
+            totalLength += length;
+            ordinals.put(taskId, doc);
+        }
+
+        private void removeLocked(final Long taskId) {
+            final Integer doc = ordinals.remove(taskId);
+            if (doc == null) {
+                return;
+            }
+            for (final String term : documentTerms[doc]) {
+                final Postings postings = dictionary.get(term);
+                postings.liveDocs--;
+                if (postings.liveDocs == 0) {
+                    dictionary.remove(term);
+                }
+            }
+            totalLength -= lengths[doc];
+            lengths[doc] = 0;
+            documentTerms[doc] = null;
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity <= taskIds.length) {
+                return;
+            }
+            final int grown = Math.max(capacity, taskIds.length * 2);
+            taskIds = Arrays.copyOf(taskIds, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+            documentTerms = Arrays.copyOf(documentTerms, grown);
+        }
+
+        /**
+         * Reconstroi o indice com ordinais densos quando mais da metade dos
+         * ordinais alocados pertence a documentos removidos ou substituidos.
+         */
+        private void compactIfSparse() {
+            if (nextOrdinal < INITIAL_CAPACITY
+                    || ordinals.size() * 2 > nextOrdinal) {
+                return;
+            }
+            final int[] remap = new int[nextOrdinal];
+            Arrays.fill(remap, -1);
+            final long[] oldTaskIds = taskIds;
+            final int[] oldLengths = lengths;
+            final String[][] oldTerms = documentTerms;
+            final int capacity = Math.max(INITIAL_CAPACITY,
+                    ordinals.size() * 2);
+            taskIds = new long[capacity];
+            lengths = new int[capacity];
+            documentTerms = new String[capacity][];
+            int next = 0;
+            for (int doc = 0; doc < nextOrdinal; doc++) {
+                if (oldTerms[doc] != null) {
+                    remap[doc] = next;
+                    taskIds[next] = oldTaskIds[doc];
+                    lengths[next] = oldLengths[doc];
+                    documentTerms[next] = oldTerms[doc];
+                    ordinals.put(oldTaskIds[doc], next);
+                    next++;
+                }
+            }
+            nextOrdinal = next;
+
+            for (final Postings postings : dictionary.values()) {
+                int kept = 0;
+                for (int entry = 0; entry < postings.length; entry++) {
+                    final int mapped = remap[postings.docs[entry]];
+                    if (mapped >= 0) {
+                        postings.docs[kept] = mapped;
+                        postings.frequencies[kept] =
+                                postings.frequencies[entry];
+                        kept++;
+                    }
+                }
+                postings.length = kept;
+            }
+        }
+
+        private List<Long> search(final List<String> terms, final int limit) {
+            lock.readLock().lock();
+            try {
+                final int liveDocs = ordinals.size();
+                if (liveDocs == 0) {
+                    return new ArrayList<>();
+                }
+                final double averageLength =
+                        (double) totalLength / liveDocs;
+                Matches matches = null;
+                for (final String term : terms) {
+                    final List<Postings> expansions = expand(term);
+                    if (expansions.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    final Matches termMatches = score(expansions, liveDocs,
+                            averageLength);
+                    matches = matches == null
+                            ? termMatches
+                            : matches.intersect(termMatches);
+                    if (matches.size == 0) {
+                        return new ArrayList<>();
+                    }
+                }
+                return topResults(matches, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Termos do dicionario que comecam com o prefixo: o termo exato, se
+         * existir, e os demais presentes em mais documentos, ate
+         * {@link #MAX_PREFIX_EXPANSIONS}.
+         */
+        private List<Postings> expand(final String prefix) {
+            final Map<String, Postings> candidates = dictionary.subMap(prefix,
+                    true, prefix + Character.MAX_VALUE, false);
+            final Postings exact = dictionary.get(prefix);
+            final int slots = exact == null
+                    ? MAX_PREFIX_EXPANSIONS
+                    : MAX_PREFIX_EXPANSIONS - 1;
+            final PriorityQueue<Postings> frequent = new PriorityQueue<>(
+                    slots + 1, Comparator.comparingInt(
+                            postings -> postings.liveDocs));
+            for (final Postings postings : candidates.values()) {
+                if (postings == exact) {
+                    continue;
+                }
+                frequent.add(postings);
+                if (frequent.size() > slots) {
+                    frequent.poll();
+                }
+            }
+            final List<Postings> expansions = new ArrayList<>(frequent);
+            if (exact != null) {
+                expansions.add(exact);
+            }
+            return expansions;
+        }
+
+        /**
+         * Pontua os documentos que contem alguma expansao de um termo da
+         * consulta, mantendo para cada documento a melhor expansao. Apenas
+         * as postagens das expansoes sao percorridas: cada entrada e
+         * codificada como ordinal e pontuacao num {@code long}, de modo que
+         * a ordenacao agrupa o documento e deixa a maior pontuacao por
+         * ultimo.
+         */
+        private Matches score(final List<Postings> expansions,
+                final int liveDocs, final double averageLength) {
+            int total = 0;
+            for (final Postings postings : expansions) {
+                total += postings.length;
+            }
+            final long[] entries = new long[total];
+            int count = 0;
+            for (final Postings postings : expansions) {
+                final double idf = Math.log(1 + (liveDocs - postings.liveDocs
+                        + 0.5) / (postings.liveDocs + 0.5));
+                for (int entry = 0; entry < postings.length; entry++) {
+                    final int doc = postings.docs[entry];
+                    if (documentTerms[doc] == null) {
+                        continue;
+                    }
+                    final double frequency = postings.frequencies[entry];
+                    final double norm = K1 * (1 - B
+                            + B * lengths[doc] / averageLength);
+                    final float score = (float) (idf * frequency * (K1 + 1)
+                            / (frequency + norm));
+                    entries[count++] = (long) doc << Integer.SIZE
+                            | Float.floatToIntBits(score) & 0xFFFFFFFFL;
+                }
+            }
+            Arrays.sort(entries, 0, count);
+            final Matches matches = new Matches(count);
+            for (int entry = 0; entry < count; entry++) {
+                final int doc = (int) (entries[entry] >>> Integer.SIZE);
+                if (entry + 1 < count
+                        && (int) (entries[entry + 1] >>> Integer.SIZE) == doc) {
+                    continue;
+                }
+                matches.add(doc, Float.intBitsToFloat((int) entries[entry]));
+            }
+            return matches;
+        }
+
+        private List<Long> topResults(final Matches matches,
+                final int limit) {
+            final PriorityQueue<Integer> heap = new PriorityQueue<>(
+                    limit + 1, (left, right) ->
+                            compare(matches, left, right));
+            for (int match = 0; match < matches.size; match++) {
+                if (heap.size() < limit) {
+                    heap.add(match);
+                } else if (compare(matches, match, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(match);
+                }
+            }
+            final Long[] ranked = new Long[heap.size()];
+            for (int position = ranked.length - 1; position >= 0;
+                    position--) {
+                ranked[position] = taskIds[matches.docs[heap.poll()]];
+            }
+            return new ArrayList<>(List.of(ranked));
+        }
+
+        /**
+         * Ordena por pontuacao e, no empate, pela tarefa mais recente (maior
+         * identificador).
+         */
+        private int compare(final Matches matches, final int left,
+                final int right) {
+            final int byScore = Float.compare(matches.scores[left],
+                    matches.scores[right]);
+            return byScore != 0 ? byScore
+                    : Long.compare(taskIds[matches.docs[left]],
+                            taskIds[matches.docs[right]]);
+        }
+
+        private static Map<String, Integer> weightedTerms(
+                final TaskDocument document) {
+            final Map<String, Integer> frequencies = new HashMap<>();
+            addTerms(frequencies, document.title(), TITLE_WEIGHT);
+            addTerms(frequencies, document.description(), BODY_WEIGHT);
+            addTerms(frequencies, document.aiAnalysis(), BODY_WEIGHT);
+            if (document.tags() != null) {
+                for (final String tag : document.tags()) {
+                    addTerms(frequencies, tag, TAG_WEIGHT);
+                }
+            }
+            return frequencies;
+        }
+
+        private static void addTerms(final Map<String, Integer> frequencies,
+                final String text, final int weight) {
+            for (final String term : TextNormalizer.tokenize(text)) {
+                frequencies.merge(term, weight, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.smarttask.search;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.model.Task;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskTagView;
+import com.smarttask.repository.TaskTextView;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantem o {@link TaskSearchIndex} sincronizado com a tabela de tarefas.
+ *
+ * <p>Alteracoes feitas pelos servicos sao aplicadas ao indice somente apos o
+ * commit da transacao, para que rollbacks nao deixem documentos fantasmas.
+ * Na inicializacao o indice e reconstruido lendo a tabela em blocos
+ * ordenados por identificador.</p>
+ *
+ * <p>Cada instancia so recebe as alteracoes feitas por ela mesma. A
+ * reconstrucao e repetida a cada {@code tasks.search.refresh-interval}, o
+ * que limita o atraso de alteracoes feitas por outras instancias; as buscas
+ * continuam no indice atual ate a troca pelo indice novo.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSearchIndexer {
+
+    /** Quantidade de tarefas lidas por bloco na reconstrucao. */
+    static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** Indice mantido por este componente. */
+    private final TaskSearchIndex taskSearchIndex;
+
+    /** Repositorio usado na reconstrucao do indice. */
+    private final TaskRepository taskRepository;
+
+    /**
+     * Agenda a indexacao das tarefas para depois do commit corrente.
+     *
+     * @param tasks tarefas criadas ou alteradas
+     */
+    public void indexAfterCommit(final Collection<Task> tasks) {
+        final List<TaskDocument> documents = new ArrayList<>(tasks.size());
+        for (final Task task : tasks) {
+            documents.add(TaskDocument.of(task));
+        }
+        afterCommit(() -> taskSearchIndex.indexAll(documents));
+    }
+
+    /**
+     * Agenda a remocao das tarefas para depois do commit corrente.
+     *
+     * @param userId identificador do usuario dono das tarefas
+     * @param taskIds tarefas removidas, incluindo subtarefas
+     */
+    public void removeAfterCommit(final Long userId,
+            final Collection<Long> taskIds) {
+        final List<Long> removed = List.copyOf(taskIds);
+        afterCommit(() -> {
+            for (final Long taskId : removed) {
+                taskSearchIndex.remove(userId, taskId);
+            }
+        });
+    }
+
+    /**
+     * Reconstroi o indice a partir da tabela de tarefas quando a aplicacao
+     * termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        final long startTime = System.currentTimeMillis();
+        final TaskSearchIndex.Rebuild rebuild = taskSearchIndex.startRebuild();
+        final AtomicInteger indexed = new AtomicInteger();
+        try {
+            ShardContext.forEachShard(() ->
+                    indexed.addAndGet(indexAll(rebuild::index)));
+            rebuild.publish();
+        } catch (RuntimeException ex) {
+            rebuild.abandon();
+            throw ex;
+        }
+        log.info("Indice de busca reconstruido com {} tarefas em {} ms",
+                indexed.get(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Reconstroi o indice periodicamente, trazendo as alteracoes feitas por
+     * outras instancias.
+     */
+    @Scheduled(initialDelayString = "${tasks.search.refresh-interval:10m}",
+            fixedDelayString = "${tasks.search.refresh-interval:10m}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reconstruir o indice de busca", ex);
+        }
+    }
+
+    /**
+     * Indexa tarefas gravadas fora do JPA, lendo-as do banco pelo
+     * identificador. Deve ser chamado depois do commit que as criou.
+     *
+     * @param taskIds identificadores das tarefas
+     */
+    public void indexByIds(final Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            indexViews(taskRepository.findTextViewsByIdIn(taskIds),
+                    taskSearchIndex::index);
+        }
+    }
+
+    private int indexAll(final Consumer<TaskDocument> sink) {
+        long lastId = 0L;
+        int indexed = 0;
+        List<TaskTextView> batch;
+        do {
+            batch = taskRepository.findTextViewsAfter(lastId,
+                    Limit.of(REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            indexViews(batch, sink);
+            indexed += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return indexed;
+    }
+
+    private void indexViews(final List<TaskTextView> views,
+            final Consumer<TaskDocument> sink) {
+        final Map<Long, Set<String>> tags = loadTags(views);
+        for (final TaskTextView view : views) {
+            sink.accept(new TaskDocument(view.getId(),
+                    view.getUserId(), view.getTitle(),
+                    view.getDescription(),
+                    tags.getOrDefault(view.getId(), Set.of()),
+                    view.getAiAnalysis()));
+        }
+    }
+
+    private Map<Long, Set<String>> loadTags(final List<TaskTextView> batch) {
+        final List<Long> ids = new ArrayList<>(batch.size());
+        for (final TaskTextView view : batch) {
+            ids.add(view.getId());
+        }
+        final Map<Long, Set<String>> tags = new HashMap<>();
+        for (final TaskTagView tag : taskRepository.findTagsByTaskIds(ids)) {
+            tags.computeIfAbsent(tag.getTaskId(), key -> new HashSet<>())
+                    .add(tag.getTag());
+        }
+        return tags;
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+}
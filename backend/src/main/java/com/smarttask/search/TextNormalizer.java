@@ -0,0 +1,80 @@
+package com.smarttask.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Quebra textos em termos indexaveis: remove acentos (NFD sem marcas
+ * combinantes), converte para minusculas e descarta stopwords comuns do
+ * portugues e do ingles.
+ */
+public final class TextNormalizer {
+
+    /** Palavras muito frequentes que nao contribuem para o ranking. */
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "do", "da", "dos", "das",
+            "em", "no", "na", "nos", "nas", "um", "uma", "para", "por",
+            "com", "que", "se", "ao", "the", "and", "of", "to", "in", "for");
+
+    /** Maior termo aceito; termos maiores sao truncados. */
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private TextNormalizer() {
+        // Classe utilitaria.
+    }
+
+    /**
+     * Normaliza um texto livre removendo acentos e caixa.
+     *
+     * @param text texto original
+     * @return texto normalizado ou vazio quando nulo
+     */
+    public static String fold(final String text) {
+        if (text == null) {
+            return "";
+        }
+        final String decomposed = Normalizer.normalize(text,
+                Normalizer.Form.NFD);
+        final StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int index = 0; index < decomposed.length(); index++) {
+            final char character = decomposed.charAt(index);
+            if (Character.getType(character) != Character.NON_SPACING_MARK) {
+                folded.append(character);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Extrai os termos indexaveis de um texto.
+     *
+     * @param text texto original
+     * @return termos normalizados na ordem em que aparecem
+     */
+    public static List<String> tokenize(final String text) {
+        final String folded = fold(text);
+        final List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int index = 0; index <= folded.length(); index++) {
+            final boolean wordChar = index < folded.length()
+                    && Character.isLetterOrDigit(folded.charAt(index));
+            if (wordChar && start < 0) {
+                start = index;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start,
+                        Math.min(index, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(final List<String> terms, final String term) {
+        if (!STOPWORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Indice invertido em memoria usado na busca textual de tarefas, com
+ * normalizacao de acentos, correspondencia por prefixo e ranking BM25.
+ */
+package com.smarttask.search;
@@ -1,24 +1,31 @@
 package com.smarttask.service;
 
+import com.smarttask.datasource.ShardContext;
 import com.smarttask.dto.NotificationPreferenceRequest;
 import com.smarttask.dto.NotificationPreferenceResponse;
 import com.smarttask.exception.ResourceNotFoundException;
 import com.smarttask.model.NotificationPreference;
 import com.smarttask.model.Task;
 import com.smarttask.model.User;
+import com.smarttask.reminder.DueDateEvent;
 import com.smarttask.repository.NotificationPreferenceRepository;
 import com.smarttask.repository.TaskRepository;
 import com.smarttask.repository.UserRepository;
 import com.smarttask.security.UserPrincipal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 /**
@@ -33,20 +40,13 @@ public class NotificationService {
     /** Expressao cron para execucoes a cada minuto. */
     private static final String CRON_EVERY_MINUTE = "0 * * * * *";
 
-    /** Expressao cron para execucoes a cada seis horas. */
-    private static final String CRON_EVERY_SIX_HOURS = "0 0 */6 * * *";
-
     /** Mensagem exibida quando o numero de WhatsApp nao foi informado. */
     private static final String VALID_NUMBER_MESSAGE =
             "Configure um numero de WhatsApp valido antes de ativar as "
                     + "notificacoes.";
 
-    /** Ordenador que prioriza tarefas por maior prioridade primeiro. */
-    private static final Comparator<Task> PRIORITY_COMPARATOR =
-            Comparator.comparing(
-                    Task::getPriority,
-                    Comparator.nullsLast(Comparator.naturalOrder()))
-                    .reversed();
+    /** Tarefas listadas no lembrete diario, as de maior pontuacao. */
+    private static final int DAILY_REMINDER_SIZE = 10;
 
     /** Repositório de preferências de notificação por usuário. */
     private final NotificationPreferenceRepository preferenceRepository;
@@ -60,6 +60,12 @@ public class NotificationService {
         /** Servico responsavel por enviar mensagens via WhatsApp. */
     private final WhatsAppService whatsAppService;
 
+    /** Escolhe as tarefas listadas no lembrete diario. */
+    private final TaskRankingService taskRankingService;
+
+    /** Abre uma transacao por shard nas rotinas agendadas. */
+    private final PlatformTransactionManager transactionManager;
+
                 /**
                  * Salva ou atualiza as preferencias de notificacao do usuario
                  * autenticado.
@@ -154,63 +160,92 @@ public class NotificationService {
      * Agenda lembretes diários de tarefas ativas.
      */
     @Scheduled(cron = CRON_EVERY_MINUTE)
-    @Transactional
     public void sendScheduledNotifications() {
         final LocalTime currentTime = LocalTime.now().withSecond(0).withNano(0);
-        final List<NotificationPreference> preferences = preferenceRepository
-                .findByDailyReminderTime(currentTime);
+        final TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+        ShardContext.forEachShard(() -> transaction.executeWithoutResult(
+                status -> sendDailyReminders(currentTime)));
+    }
 
-        log.info(
-                "Verificando notificacoes agendadas as {}: {} "
-                        + "usuarios encontrados",
-                currentTime,
-                preferences.size());
+    /**
+     * Envia os alertas de prazo disparados pelo
+     * {@link com.smarttask.reminder.DueDateScheduler}.
+     * As tarefas sao relidas para descartar as que foram concluidas ou
+     * tiveram o prazo alterado desde o agendamento, e os alertas vao apenas
+     * para usuarios com notificacoes e alertas de atraso habilitados.
+     *
+     * @param event evento de prazo disparado
+     * @param taskIds tarefas cujo timer venceu
+     */
+    @Transactional(readOnly = true)
+    public void sendDueDateAlerts(final DueDateEvent event,
+            final Collection<Long> taskIds) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, List<Task>> tasksByUser = new LinkedHashMap<>();
+        for (final Task task : taskRepository.findWithUserByIdIn(taskIds)) {
+            if (isStillDue(event, task, now)) {
+                tasksByUser.computeIfAbsent(task.getUser().getId(),
+                        key -> new ArrayList<>()).add(task);
+            }
+        }
+        if (tasksByUser.isEmpty()) {
+            return;
+        }
+
+        final List<NotificationPreference> preferences = preferenceRepository
+                .findOverdueAlertsEnabledByUserIds(tasksByUser.keySet());
+        log.info("Disparando alertas {} de {} tarefas para {} usuarios",
+                event, taskIds.size(), preferences.size());
 
         for (final NotificationPreference preference : preferences) {
+            final User user = preference.getUser();
+            final List<Task> tasks = tasksByUser.get(user.getId());
+            tasks.sort(TaskRankingService.bestFirst(now));
             try {
-                sendDailyReminder(preference);
+                if (event == DueDateEvent.OVERDUE) {
+                    whatsAppService.sendOverdueAlert(user.getId(),
+                            user.getUsername(), tasks);
+                } else {
+                    whatsAppService.sendDueSoonAlert(user.getId(),
+                            user.getUsername(), tasks);
+                }
             } catch (Exception exception) {
                 log.error(
-                        "Erro ao enviar notificacao para o usuario {}: {}",
-                        preference.getUser().getId(),
+                        "Erro ao enviar alerta de prazo para o usuario {}: {}",
+                        user.getId(),
                         exception.getMessage());
             }
         }
     }
 
-    /**
-     * Agenda alertas periódicos sobre tarefas atrasadas.
-     */
-    @Scheduled(cron = CRON_EVERY_SIX_HOURS)
-    @Transactional
-    public void sendOverdueAlerts() {
-        final List<NotificationPreference> preferences =
-                preferenceRepository.findAllEnabled();
+    private boolean isStillDue(final DueDateEvent event, final Task task,
+            final LocalDateTime now) {
+        if (task.getDueDate() == null
+                || task.getStatus() == Task.TaskStatus.COMPLETED) {
+            return false;
+        }
+        return event == DueDateEvent.OVERDUE
+                ? !task.getDueDate().isAfter(now)
+                : task.getDueDate().isAfter(now);
+    }
+
+    private void sendDailyReminders(final LocalTime currentTime) {
+        final List<NotificationPreference> preferences = preferenceRepository
+                .findByDailyReminderTime(currentTime);
 
         log.info(
-                "Verificando tarefas atrasadas: {} usuarios com notificacoes "
-                        + "habilitadas",
+                "Verificando notificacoes agendadas as {}: {} "
+                        + "usuarios encontrados",
+                currentTime,
                 preferences.size());
 
         for (final NotificationPreference preference : preferences) {
-            if (!Boolean.TRUE.equals(preference.getSendOverdueAlerts())) {
-                continue;
-            }
-
             try {
-                final List<Task> overdueTasks = taskRepository.findOverdueTasks(
-                        preference.getUser().getId(),
-                        LocalDateTime.now());
-
-                if (!overdueTasks.isEmpty()) {
-                    whatsAppService.sendOverdueAlert(
-                            preference.getUser().getId(),
-                            preference.getUser().getUsername(),
-                            overdueTasks);
-                }
+                sendDailyReminder(preference);
             } catch (Exception exception) {
                 log.error(
-                        "Erro ao enviar alerta de atraso para o usuario {}: {}",
+                        "Erro ao enviar notificacao para o usuario {}: {}",
                         preference.getUser().getId(),
                         exception.getMessage());
             }
@@ -220,12 +255,11 @@ public class NotificationService {
     private void sendDailyReminder(final NotificationPreference preference) {
         final User user = preference.getUser();
 
-        final List<Task> tasksToReview = taskRepository.findByUserIdAndStatus(
-                user.getId(), Task.TaskStatus.TODO);
-        tasksToReview.addAll(taskRepository.findByUserIdAndStatus(user.getId(),
-                Task.TaskStatus.IN_PROGRESS));
-
-        tasksToReview.sort(PRIORITY_COMPARATOR);
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Task> tasksToReview = taskRepository.findAllById(
+                taskRankingService.rank(user.getId(), DAILY_REMINDER_SIZE,
+                        now));
+        tasksToReview.sort(TaskRankingService.bestFirst(now));
 
         whatsAppService.sendDailyTaskReminder(
                 user.getId(),
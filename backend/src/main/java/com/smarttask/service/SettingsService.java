@@ -157,7 +157,9 @@ public class SettingsService {
     }
 
     private void ensureUserExists(final Long userId) {
-        if (!userRepository.existsById(userId)) {
+        // findById e atendido pelo cache de segundo nivel; existsById
+        // sempre consulta o banco
+        if (userRepository.findById(userId).isEmpty()) {
             throw new RuntimeException(USER_NOT_FOUND_MESSAGE);
         }
     }
@@ -0,0 +1,428 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.dto.TaskPageResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.ArchivedTask;
+import com.smarttask.model.Task;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.ArchivedTaskRepository;
+import com.smarttask.repository.ArchivedTaskView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskTagView;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Arquivamento das tarefas concluidas ou canceladas ha mais de alguns dias
+ * em {@code tasks_archive}, mantendo a tabela ativa apenas com os dados
+ * quentes.
+ *
+ * <p>O job diario move as tarefas em blocos, cada um em sua propria
+ * transacao: copia as linhas e as tags com {@code INSERT ... SELECT} e
+ * remove as originais por {@link TaskTreeService#deleteSubtrees}, que ja
+ * desconta contadores e tags, grava os tombstones da sincronizacao e limpa
+ * indice de busca e timers. Apenas folhas sao elegiveis, de modo que as
+ * subarvores sao arquivadas de baixo para cima ao longo dos blocos; tarefas
+ * com sessoes de pomodoro, modelos de series recorrentes e canceladas que
+ * ainda bloqueiam outras permanecem ativos. As dependencias das tarefas
+ * arquivadas sao removidas; as de um bloqueador concluido ja estavam
+ * satisfeitas.</p>
+ */
+@Service
+@Slf4j
+public class TaskArchiveService {
+
+    /** Expressao cron para arquivar uma vez por dia, de madrugada. */
+    private static final String CRON_DAILY = "0 30 3 * * *";
+
+    /** Mensagem padrao para tarefa arquivada inexistente. */
+    private static final String TASK_NOT_FOUND_MESSAGE =
+            "Archived task not found";
+
+    /** Aviso de acesso negado a tarefas de outro usuario. */
+    private static final String ACCESS_DENIED_MESSAGE =
+            "You don't have permission to access this task";
+
+    /** Colunas copiadas sem transformacao entre as duas tabelas. */
+    private static final String COPIED_COLUMNS = "id, title, description, "
+            + "status, priority, due_date, completed_at, estimated_hours, "
+            + "actual_hours, user_id, ai_suggested_priority, ai_analysis, "
+            + "created_at";
+
+    /**
+     * Seleciona e bloqueia um bloco de tarefas elegiveis: concluidas ou
+     * canceladas antes do corte, sem subtarefas ativas, sem sessoes de
+     * pomodoro, que nao sejam modelo de uma serie recorrente e, se
+     * canceladas, que nao bloqueiem outras tarefas.
+     */
+    private static final String SELECT_ELIGIBLE = "SELECT t.id, t.user_id "
+            + "FROM tasks t "
+            + "WHERE t.status IN ('COMPLETED', 'CANCELLED') "
+            + "AND COALESCE(t.completed_at, t.updated_at) < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM tasks c "
+            + "WHERE c.parent_task_id = t.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM pomodoro_sessions p "
+            + "WHERE p.task_id = t.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM task_recurrences r "
+            + "WHERE r.task_id = t.id) "
+            + "AND (t.status = 'COMPLETED' OR NOT EXISTS (SELECT 1 "
+            + "FROM task_dependencies d WHERE d.blocker_id = t.id)) "
+            + "ORDER BY t.id FETCH FIRST ? ROWS ONLY FOR UPDATE";
+
+    /** Copia uma tarefa ativa para o arquivo. */
+    private static final String COPY_TO_ARCHIVE =
+            "INSERT INTO tasks_archive (" + COPIED_COLUMNS
+            + ", parent_task_id, updated_at, archived_at) "
+            + "SELECT " + COPIED_COLUMNS + ", parent_task_id, updated_at, ? "
+            + "FROM tasks WHERE id = ?";
+
+    /** Copia as tags de uma tarefa ativa para o arquivo. */
+    private static final String COPY_TAGS_TO_ARCHIVE =
+            "INSERT INTO task_tags_archive (task_id, tag) "
+            + "SELECT task_id, tag FROM task_tags WHERE task_id = ?";
+
+    /** Remove as tags arquivadas de uma tarefa restaurada. */
+    private static final String DELETE_ARCHIVED_TAGS =
+            "DELETE FROM task_tags_archive WHERE task_id = ?";
+
+    /** Remove a linha arquivada de uma tarefa restaurada. */
+    private static final String DELETE_ARCHIVED =
+            "DELETE FROM tasks_archive WHERE id = ?";
+
+    /** Devolve as tags de uma tarefa arquivada a tabela ativa. */
+    private static final String RESTORE_TAGS =
+            "INSERT INTO task_tags (task_id, tag) "
+            + "SELECT task_id, tag FROM task_tags_archive WHERE task_id = ?";
+
+    /** Quantidade maxima de identificadores por consulta de tags. */
+    private static final int TAG_BATCH_SIZE = 1000;
+
+    /** Repositorio das tarefas arquivadas. */
+    private final ArchivedTaskRepository archivedTaskRepository;
+
+    /** Repositorio das tarefas ativas. */
+    private final TaskRepository taskRepository;
+
+    /** Montador das respostas das tarefas restauradas. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Remocao por conjunto das tarefas movidas para o arquivo. */
+    private final TaskTreeService taskTreeService;
+
+    /** Contadores agregados, recompostos na restauracao. */
+    private final TaskStatsService taskStatsService;
+
+    /** Dicionario de tags, recomposto na restauracao. */
+    private final TaskTagService taskTagService;
+
+    /** Sequencia de alteracoes lida pela sincronizacao incremental. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Totais das subarvores, somados ao pai na restauracao. */
+    private final TaskRollupService taskRollupService;
+
+    /** Sincronizador do indice de busca com as transacoes. */
+    private final TaskSearchIndexer taskSearchIndexer;
+
+    /** Timers dos alertas de vencimento e atraso. */
+    private final DueDateScheduler dueDateScheduler;
+
+    /** Indice em memoria do calendario de tarefas. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Servico de metricas das operacoes com tarefas. */
+    private final MetricsService metricsService;
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transacao de cada bloco do arquivamento. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Dias apos a conclusao ou o cancelamento ate o arquivamento. */
+    private final int afterDays;
+
+    /** Tarefas movidas por transacao. */
+    private final int batchSize;
+
+    /**
+     * Cria o servico de arquivamento.
+     *
+     * @param archivedTaskRepository repositorio das tarefas arquivadas
+     * @param taskRepository repositorio das tarefas ativas
+     * @param taskViewAssembler montador das respostas
+     * @param taskTreeService remocao por conjunto das tarefas
+     * @param taskStatsService contadores agregados
+     * @param taskTagService dicionario de tags
+     * @param taskChangeTracker sequencia de alteracoes
+     * @param taskRollupService totais das subarvores
+     * @param taskSearchIndexer indice de busca
+     * @param dueDateScheduler timers de vencimento
+     * @param taskCalendarIndex indice do calendario
+     * @param metricsService metricas das operacoes
+     * @param jdbcTemplate acesso JDBC
+     * @param transactionManager gerenciador das transacoes dos blocos
+     * @param afterDays dias ate o arquivamento
+     * @param batchSize tarefas movidas por transacao
+     */
+    public TaskArchiveService(
+            final ArchivedTaskRepository archivedTaskRepository,
+            final TaskRepository taskRepository,
+            final TaskViewAssembler taskViewAssembler,
+            final TaskTreeService taskTreeService,
+            final TaskStatsService taskStatsService,
+            final TaskTagService taskTagService,
+            final TaskChangeTracker taskChangeTracker,
+            final TaskRollupService taskRollupService,
+            final TaskSearchIndexer taskSearchIndexer,
+            final DueDateScheduler dueDateScheduler,
+            final TaskCalendarIndex taskCalendarIndex,
+            final MetricsService metricsService,
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final @Value("${tasks.archive.after-days:30}") int afterDays,
+            final @Value("${tasks.archive.batch-size:500}") int batchSize) {
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskRepository = taskRepository;
+        this.taskViewAssembler = taskViewAssembler;
+        this.taskTreeService = taskTreeService;
+        this.taskStatsService = taskStatsService;
+        this.taskTagService = taskTagService;
+        this.taskChangeTracker = taskChangeTracker;
+        this.taskRollupService = taskRollupService;
+        this.taskSearchIndexer = taskSearchIndexer;
+        this.dueDateScheduler = dueDateScheduler;
+        this.taskCalendarIndex = taskCalendarIndex;
+        this.metricsService = metricsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Arquiva as tarefas concluidas ou canceladas ha mais de
+     * {@code tasks.archive.after-days} dias.
+     */
+    @Scheduled(cron = CRON_DAILY)
+    public void archive() {
+        final LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        ShardContext.forEachShard(() -> archiveFinishedBefore(cutoff));
+    }
+
+    /**
+     * Move para o arquivo, em blocos, as tarefas finalizadas antes do corte,
+     * ate nao restar nenhuma elegivel. Cada bloco volta a consultar as
+     * elegiveis, o que inclui os pais cujas ultimas subtarefas acabaram de
+     * ser arquivadas.
+     *
+     * @param cutoff instante limite da conclusao ou do cancelamento
+     * @return quantidade de tarefas arquivadas
+     */
+    public int archiveFinishedBefore(final LocalDateTime cutoff) {
+        final long startTime = System.currentTimeMillis();
+        int archived = 0;
+        int moved;
+        do {
+            final Integer result = transactionTemplate.execute(status ->
+                    archiveBatch(cutoff));
+            moved = result == null ? 0 : result;
+            archived += moved;
+        } while (moved > 0);
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "archive");
+        if (archived > 0) {
+            log.info("{} tarefas movidas para o arquivo", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Lista uma pagina das tarefas arquivadas do usuario, do arquivamento
+     * mais recente para o mais antigo.
+     *
+     * @param cursor cursor devolvido pela pagina anterior ou {@code null}
+     * @param size tamanho de pagina desejado
+     * @param currentUser usuario autenticado
+     * @return pagina de tarefas arquivadas com o cursor da proxima pagina
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskArchiveService.getArchivePage")
+    public TaskPageResponse getArchivePage(final String cursor,
+            final Integer size, final UserPrincipal currentUser) {
+        final int pageSize = size == null
+                ? TaskService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, TaskService.MAX_PAGE_SIZE));
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<ArchivedTaskView> rows;
+        if (cursor == null) {
+            rows = archivedTaskRepository.findPageByUserId(
+                    currentUser.getId(), limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            rows = archivedTaskRepository.findPageByUserIdAfter(
+                    currentUser.getId(), position.sortKey(), position.id(),
+                    limit);
+        }
+        final boolean hasMore = rows.size() > pageSize;
+        final List<ArchivedTaskView> pageRows =
+                hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            final ArchivedTaskView last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new TaskCursor(last.getArchivedAt(), last.getId())
+                    .encode();
+        }
+        return TaskPageResponse.builder()
+                .items(toResponses(pageRows))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(pageSize)
+                .build();
+    }
+
+    /**
+     * Devolve uma tarefa arquivada a tabela ativa com o mesmo identificador.
+     * A tarefa volta para baixo do pai apenas se ele ainda estiver ativo;
+     * subtarefas arquivadas continuam no arquivo.
+     *
+     * @param taskId identificador da tarefa arquivada
+     * @param currentUser usuario autenticado
+     * @return tarefa restaurada
+     */
+    @Transactional
+    @Traced("TaskArchiveService.restore")
+    public TaskResponse restore(final Long taskId,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Long userId = currentUser.getId();
+        final ArchivedTask archived = archivedTaskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        TASK_NOT_FOUND_MESSAGE));
+        if (!archived.getUserId().equals(userId)) {
+            throw new AccessDeniedException(ACCESS_DENIED_MESSAGE);
+        }
+
+        jdbcTemplate.update("INSERT INTO tasks (" + COPIED_COLUMNS
+                + ", " + TaskRollupService.TOTAL_COLUMNS
+                + ", parent_task_id, updated_at, change_seq, version) "
+                + "SELECT " + COPIED_COLUMNS + ", "
+                + TaskRollupService.OWN_TOTALS + ", CASE WHEN EXISTS ("
+                + "SELECT 1 FROM tasks p WHERE p.id = a.parent_task_id) "
+                + "THEN a.parent_task_id END, ?, "
+                + taskChangeTracker.nextValueExpression() + ", 0 "
+                + "FROM tasks_archive a WHERE a.id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), taskId);
+        jdbcTemplate.update(RESTORE_TAGS, taskId);
+        jdbcTemplate.update(DELETE_ARCHIVED_TAGS, taskId);
+        jdbcTemplate.update(DELETE_ARCHIVED, taskId);
+        taskRollupService.recordInserted(userId, List.of(taskId));
+
+        final Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        TASK_NOT_FOUND_MESSAGE));
+        final List<Task> restored = List.of(task);
+        taskStatsService.recordCreated(userId, restored);
+        taskTagService.recordCreated(userId, restored);
+        taskChangeTracker.forgetDeletions(List.of(taskId));
+        if (task.getParentTask() != null) {
+            taskChangeTracker.touch(List.of(task.getParentTask().getId()));
+        }
+        taskSearchIndexer.indexAfterCommit(restored);
+        dueDateScheduler.scheduleAfterCommit(restored);
+        taskCalendarIndex.invalidateAfterCommit(List.of(userId));
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "restore");
+        return taskViewAssembler.toResponses(taskRepository
+                .findViewsByUserIdAndIdIn(userId, List.of(taskId))).get(0);
+    }
+
+    private int archiveBatch(final LocalDateTime cutoff) {
+        final Map<Long, List<Long>> idsByUser = new TreeMap<>();
+        final List<Object[]> rows = new ArrayList<>();
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.query(SELECT_ELIGIBLE, resultSet -> {
+            final long taskId = resultSet.getLong(1);
+            idsByUser.computeIfAbsent(resultSet.getLong(2),
+                    key -> new ArrayList<>()).add(taskId);
+            rows.add(new Object[] {now, taskId});
+        }, Timestamp.valueOf(cutoff), batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(COPY_TO_ARCHIVE, rows);
+        final List<Object[]> taskIds = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            taskIds.add(new Object[] {row[1]});
+        }
+        jdbcTemplate.batchUpdate(COPY_TAGS_TO_ARCHIVE, taskIds);
+        idsByUser.forEach(taskTreeService::deleteSubtrees);
+        return rows.size();
+    }
+
+    private List<TaskResponse> toResponses(
+            final List<ArchivedTaskView> views) {
+        final List<Long> ids = new ArrayList<>(views.size());
+        for (final ArchivedTaskView view : views) {
+            ids.add(view.getId());
+        }
+        final Map<Long, Set<String>> tags = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += TAG_BATCH_SIZE) {
+            for (final TaskTagView tag : archivedTaskRepository
+                    .findTagsByTaskIds(ids.subList(start,
+                            Math.min(start + TAG_BATCH_SIZE, ids.size())))) {
+                tags.computeIfAbsent(tag.getTaskId(),
+                        key -> new HashSet<>()).add(tag.getTag());
+            }
+        }
+
+        final List<TaskResponse> responses = new ArrayList<>(views.size());
+        for (final ArchivedTaskView view : views) {
+            responses.add(TaskResponse.builder()
+                    .id(view.getId())
+                    .title(view.getTitle())
+                    .description(view.getDescription())
+                    .status(view.getStatus())
+                    .priority(view.getPriority())
+                    .dueDate(view.getDueDate())
+                    .completedAt(view.getCompletedAt())
+                    .estimatedHours(view.getEstimatedHours())
+                    .actualHours(view.getActualHours())
+                    .tags(tags.getOrDefault(view.getId(), new HashSet<>()))
+                    .parentTaskId(view.getParentTaskId())
+                    .subtaskCount(0)
+                    .aiSuggestedPriority(view.getAiSuggestedPriority())
+                    .aiAnalysis(view.getAiAnalysis())
+                    .createdAt(view.getCreatedAt())
+                    .updatedAt(view.getUpdatedAt())
+                    .build());
+        }
+        return responses;
+    }
+}
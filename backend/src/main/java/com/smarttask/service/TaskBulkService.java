@@ -0,0 +1,565 @@
+package com.smarttask.service;
+
+import com.smarttask.board.TaskBoardService;
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dto.BulkTaskCreateRequest;
+import com.smarttask.dto.BulkTaskDeleteRequest;
+import com.smarttask.dto.BulkTaskResponse;
+import com.smarttask.dto.BulkTaskResponse.BulkItemResult;
+import com.smarttask.dto.BulkTaskResponse.BulkItemStatus;
+import com.smarttask.dto.BulkTaskUpdateItem;
+import com.smarttask.dto.BulkTaskUpdateRequest;
+import com.smarttask.dto.TaskRequest;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOutboxEvent.EventType;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Executa criacao, atualizacao e remocao de tarefas em lote.
+ *
+ * <p>Os itens sao processados em blocos de {@link #CHUNK_SIZE}, cada bloco
+ * em sua propria transacao, para que o Hibernate envie inserts, updates e
+ * deletes como lotes JDBC. Quando um bloco falha na gravacao, seus itens
+ * sao reprocessados individualmente para isolar o item problematico e
+ * reportar a falha apenas para ele.</p>
+ */
+@Service
+@Slf4j
+public class TaskBulkService {
+
+    /** Quantidade de itens gravados por transacao. */
+    static final int CHUNK_SIZE = 500;
+
+    /** Mensagem para tarefas inexistentes. */
+    private static final String TASK_NOT_FOUND_MESSAGE = "Task not found";
+
+    /** Mensagem para tarefa pai inexistente ou de outro usuario. */
+    private static final String PARENT_TASK_NOT_FOUND_MESSAGE =
+            "Parent task not found";
+
+    /** Mensagem para tarefas que pertencem a outro usuario. */
+    private static final String ACCESS_DENIED_MESSAGE =
+            "You don't have permission to access this task";
+
+    /** Mensagem para itens cuja gravacao falhou no banco. */
+    private static final String PERSISTENCE_FAILED_MESSAGE =
+            "Item could not be persisted";
+
+    /** Mensagem para titulos vazios em atualizacoes parciais. */
+    private static final String BLANK_TITLE_MESSAGE =
+            "title: must not be blank";
+
+    /** Repositório de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositório de usuários. */
+    private final UserRepository userRepository;
+
+    /** Serviço de métricas das operações com tarefas. */
+    private final MetricsService metricsService;
+
+    /** Validador usado para checar cada item individualmente. */
+    private final Validator validator;
+
+    /** Sincronizador do indice de busca com as transações. */
+    private final TaskSearchIndexer taskSearchIndexer;
+
+    /** Operações por conjunto sobre a hierarquia de subtarefas. */
+    private final TaskTreeService taskTreeService;
+
+    /** Contadores agregados exibidos no dashboard. */
+    private final TaskStatsService taskStatsService;
+
+    /** Timers dos alertas de vencimento e atraso. */
+    private final DueDateScheduler dueDateScheduler;
+
+    /** Indice em memoria do calendario de tarefas. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Outbox dos eventos do ciclo de vida das tarefas. */
+    private final TaskOutbox taskOutbox;
+
+    /** Sequencia de alteracoes lida pela sincronizacao incremental. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Dicionário de tags e contagens por tag. */
+    private final TaskTagService taskTagService;
+
+    /** Totais de horas e tarefas das subárvores. */
+    private final TaskRollupService taskRollupService;
+
+    /** Template que delimita a transação de cada bloco. */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Cria o serviço com as dependências de persistência e validação.
+     *
+     * @param taskRepository repositório de tarefas
+     * @param userRepository repositório de usuários
+     * @param metricsService serviço de métricas
+     * @param validator validador de beans
+     * @param taskSearchIndexer sincronizador do indice de busca
+     * @param taskTreeService remoção de subarvores por conjunto
+     * @param taskStatsService contadores agregados por usuário
+     * @param dueDateScheduler timers dos alertas de prazo
+     * @param taskCalendarIndex indice do calendario
+     * @param taskOutbox outbox dos eventos das tarefas
+     * @param taskChangeTracker sequencia de alteracoes das tarefas
+     * @param taskTagService dicionário de tags por usuário
+     * @param taskRollupService totais das subárvores
+     * @param transactionManager gerenciador das transações por bloco
+     */
+    public TaskBulkService(final TaskRepository taskRepository,
+            final UserRepository userRepository,
+            final MetricsService metricsService,
+            final Validator validator,
+            final TaskSearchIndexer taskSearchIndexer,
+            final TaskTreeService taskTreeService,
+            final TaskStatsService taskStatsService,
+            final DueDateScheduler dueDateScheduler,
+            final TaskCalendarIndex taskCalendarIndex,
+            final TaskOutbox taskOutbox,
+            final TaskChangeTracker taskChangeTracker,
+            final TaskTagService taskTagService,
+            final TaskRollupService taskRollupService,
+            final PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.metricsService = metricsService;
+        this.validator = validator;
+        this.taskSearchIndexer = taskSearchIndexer;
+        this.taskTreeService = taskTreeService;
+        this.taskStatsService = taskStatsService;
+        this.dueDateScheduler = dueDateScheduler;
+        this.taskCalendarIndex = taskCalendarIndex;
+        this.taskOutbox = taskOutbox;
+        this.taskChangeTracker = taskChangeTracker;
+        this.taskTagService = taskTagService;
+        this.taskRollupService = taskRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cria as tarefas do lote para o usuário autenticado.
+     *
+     * @param request itens a criar
+     * @param currentUser usuário autenticado
+     * @return resultado por item
+     */
+    @Traced("TaskBulkService.createTasks")
+    public BulkTaskResponse createTasks(final BulkTaskCreateRequest request,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<TaskRequest> items = request.getTasks();
+        final BulkTaskResponse response = processInChunks(items.size(),
+                (from, to) -> createRange(items, from, to,
+                        currentUser.getId()),
+                index -> null);
+        recordDuration(startTime, "bulk_create");
+        return response;
+    }
+
+    /**
+     * Aplica as atualizações parciais do lote.
+     *
+     * @param request itens a atualizar
+     * @param currentUser usuário autenticado
+     * @return resultado por item
+     */
+    @Traced("TaskBulkService.updateTasks")
+    public BulkTaskResponse updateTasks(final BulkTaskUpdateRequest request,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<BulkTaskUpdateItem> items = request.getTasks();
+        final BulkTaskResponse response = processInChunks(items.size(),
+                (from, to) -> updateRange(items, from, to,
+                        currentUser.getId()),
+                index -> items.get(index) == null
+                        ? null
+                        : items.get(index).getId());
+        recordDuration(startTime, "bulk_update");
+        return response;
+    }
+
+    /**
+     * Remove as tarefas do lote.
+     *
+     * @param request identificadores a remover
+     * @param currentUser usuário autenticado
+     * @return resultado por item
+     */
+    @Traced("TaskBulkService.deleteTasks")
+    public BulkTaskResponse deleteTasks(final BulkTaskDeleteRequest request,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<Long> ids = request.getIds();
+        final BulkTaskResponse response = processInChunks(ids.size(),
+                (from, to) -> deleteRange(ids, from, to, currentUser.getId()),
+                ids::get);
+        recordDuration(startTime, "bulk_delete");
+        return response;
+    }
+
+    private BulkTaskResponse processInChunks(final int size,
+            final RangeHandler handler, final IdResolver idResolver) {
+        final BulkItemResult[] results = new BulkItemResult[size];
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            final int from = start;
+            final int to = Math.min(start + CHUNK_SIZE, size);
+            try {
+                copy(transactionTemplate.execute(
+                        status -> handler.handle(from, to)), from, results);
+            } catch (RuntimeException chunkFailure) {
+                log.warn("Falha ao gravar bloco [{}, {}); reprocessando itens "
+                        + "individualmente: {}", from, to,
+                        chunkFailure.getMessage());
+                retryIndividually(from, to, handler, idResolver, results);
+            }
+        }
+
+        final int failed = (int) Arrays.stream(results)
+                .filter(result -> result.status() == BulkItemStatus.FAILED)
+                .count();
+        return BulkTaskResponse.builder()
+                .succeeded(size - failed)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void retryIndividually(final int from, final int to,
+            final RangeHandler handler, final IdResolver idResolver,
+            final BulkItemResult[] results) {
+        for (int index = from; index < to; index++) {
+            final int item = index;
+            try {
+                copy(transactionTemplate.execute(
+                        status -> handler.handle(item, item + 1)),
+                        item, results);
+            } catch (RuntimeException itemFailure) {
+                log.warn("Item {} do lote rejeitado pelo banco: {}", item,
+                        itemFailure.getMessage());
+                results[item] = failure(item, idResolver.idAt(item),
+                        PERSISTENCE_FAILED_MESSAGE);
+            }
+        }
+    }
+
+    private List<BulkItemResult> createRange(final List<TaskRequest> items,
+            final int from, final int to, final Long userId) {
+        final User user = userRepository.getReferenceById(userId);
+        final Map<Long, Task> parents = loadOwnedTasks(items.subList(from, to)
+                .stream()
+                .filter(Objects::nonNull)
+                .map(TaskRequest::getParentTaskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()), userId);
+
+        final BulkItemResult[] results = new BulkItemResult[to - from];
+        final List<Task> toSave = new ArrayList<>();
+        final List<Integer> savedIndexes = new ArrayList<>();
+        for (int index = from; index < to; index++) {
+            final TaskRequest item = items.get(index);
+            String error = validate(item);
+            if (error == null && item.getParentTaskId() != null
+                    && !parents.containsKey(item.getParentTaskId())) {
+                error = PARENT_TASK_NOT_FOUND_MESSAGE;
+            }
+            if (error != null) {
+                results[index - from] = failure(index, null, error);
+                continue;
+            }
+
+            toSave.add(Task.builder()
+                    .title(item.getTitle())
+                    .description(item.getDescription())
+                    .status(item.getStatus() == null
+                            ? TaskStatus.TODO
+                            : item.getStatus())
+                    .priority(item.getPriority() == null
+                            ? TaskPriority.MEDIUM
+                            : item.getPriority())
+                    .dueDate(item.getDueDate())
+                    .estimatedHours(item.getEstimatedHours())
+                    .tags(item.getTags() == null
+                            ? new HashSet<>()
+                            : new HashSet<>(item.getTags()))
+                    .parentTask(parents.get(item.getParentTaskId()))
+                    .user(user)
+                    .build());
+            savedIndexes.add(index);
+        }
+
+        taskChangeTracker.stampCreated(toSave);
+        taskRepository.saveAll(toSave);
+        taskRepository.flush();
+        taskSearchIndexer.indexAfterCommit(toSave);
+        taskStatsService.recordCreated(userId, toSave);
+        taskTagService.recordCreated(userId, toSave);
+        taskRollupService.recordCreated(userId, toSave);
+        dueDateScheduler.scheduleAfterCommit(toSave);
+        taskCalendarIndex.invalidateAfterCommit(List.of(userId));
+        taskOutbox.publish(EventType.CREATED, userId, toSave);
+
+        for (int position = 0; position < toSave.size(); position++) {
+            final Task saved = toSave.get(position);
+            final int index = savedIndexes.get(position);
+            results[index - from] = new BulkItemResult(index, saved.getId(),
+                    BulkItemStatus.CREATED, null);
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<BulkItemResult> updateRange(
+            final List<BulkTaskUpdateItem> items, final int from,
+            final int to, final Long userId) {
+        final Map<Long, Task> tasks = loadTasks(items.subList(from, to)
+                .stream()
+                .filter(Objects::nonNull)
+                .map(BulkTaskUpdateItem::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        final BulkItemResult[] results = new BulkItemResult[to - from];
+        final List<Integer> updatedIndexes = new ArrayList<>();
+        final List<Task> updatedTasks = new ArrayList<>();
+        final List<Task> changedTasks = new ArrayList<>();
+        final List<Task> completedTasks = new ArrayList<>();
+        final LocalDateTime now = LocalDateTime.now();
+        final TaskStatsDelta delta = TaskStatsDelta.empty();
+        final Map<Long, Set<String>> tagsBefore = new HashMap<>();
+        final Map<Long, TaskRollup> rollupsBefore = new HashMap<>();
+        for (int index = from; index < to; index++) {
+            final BulkTaskUpdateItem item = items.get(index);
+            final Long id = item == null ? null : item.getId();
+            final String error = checkUpdate(item, tasks.get(id), userId);
+            if (error != null) {
+                results[index - from] = failure(index, id, error);
+                continue;
+            }
+            delta.subtract(TaskStatsDelta.of(tasks.get(id), now));
+            tagsBefore.putIfAbsent(id, Set.copyOf(tasks.get(id).getTags()));
+            rollupsBefore.putIfAbsent(id, TaskRollup.of(tasks.get(id)));
+            if (applyUpdate(tasks.get(id), item)) {
+                completedTasks.add(tasks.get(id));
+            } else {
+                changedTasks.add(tasks.get(id));
+            }
+            delta.add(TaskStatsDelta.of(tasks.get(id), now));
+            updatedIndexes.add(index);
+            updatedTasks.add(tasks.get(id));
+        }
+
+        taskChangeTracker.stamp(updatedTasks);
+        taskRepository.flush();
+        taskSearchIndexer.indexAfterCommit(updatedTasks);
+        taskStatsService.record(userId, delta);
+        taskTagService.recordChanges(userId, tagsBefore, updatedTasks);
+        taskRollupService.recordChanges(userId, rollupsBefore, updatedTasks);
+        dueDateScheduler.scheduleAfterCommit(updatedTasks);
+        taskCalendarIndex.invalidateAfterCommit(List.of(userId));
+        taskOutbox.publish(EventType.UPDATED, userId, changedTasks);
+        taskOutbox.publish(EventType.COMPLETED, userId, completedTasks);
+
+        for (final int index : updatedIndexes) {
+            results[index - from] = new BulkItemResult(index,
+                    items.get(index).getId(), BulkItemStatus.UPDATED, null);
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<BulkItemResult> deleteRange(final List<Long> ids,
+            final int from, final int to, final Long userId) {
+        final Map<Long, Task> tasks = loadTasks(ids.subList(from, to)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        final BulkItemResult[] results = new BulkItemResult[to - from];
+        final List<Task> toDelete = new ArrayList<>();
+        final List<Integer> deletedIndexes = new ArrayList<>();
+        for (int index = from; index < to; index++) {
+            final Long id = ids.get(index);
+            final Task task = id == null ? null : tasks.get(id);
+            final String error = ownershipError(task, userId);
+            if (error != null) {
+                results[index - from] = failure(index, id, error);
+                continue;
+            }
+            if (!toDelete.contains(task)) {
+                toDelete.add(task);
+            }
+            deletedIndexes.add(index);
+        }
+
+        final List<Long> rootIds = new ArrayList<>(toDelete.size());
+        for (final Task task : toDelete) {
+            rootIds.add(task.getId());
+        }
+        taskOutbox.publishDeleted(userId,
+                taskTreeService.deleteSubtrees(userId, rootIds));
+
+        for (final int index : deletedIndexes) {
+            results[index - from] = new BulkItemResult(index, ids.get(index),
+                    BulkItemStatus.DELETED, null);
+        }
+        return Arrays.asList(results);
+    }
+
+    private String checkUpdate(final BulkTaskUpdateItem item, final Task task,
+            final Long userId) {
+        final String validation = validate(item);
+        if (validation != null) {
+            return validation;
+        }
+        if (item.getTitle() != null && !StringUtils.hasText(item.getTitle())) {
+            return BLANK_TITLE_MESSAGE;
+        }
+        return ownershipError(task, userId);
+    }
+
+    private boolean applyUpdate(final Task task,
+            final BulkTaskUpdateItem item) {
+        if (item.getTitle() != null) {
+            task.setTitle(item.getTitle());
+        }
+        if (item.getDescription() != null) {
+            task.setDescription(item.getDescription());
+        }
+        if (item.getPriority() != null) {
+            task.setPriority(item.getPriority());
+        }
+        if (item.getDueDate() != null) {
+            task.setDueDate(item.getDueDate());
+        }
+        if (item.getEstimatedHours() != null) {
+            task.setEstimatedHours(item.getEstimatedHours());
+        }
+        if (item.getActualHours() != null) {
+            task.setActualHours(item.getActualHours());
+        }
+        if (item.getTags() != null) {
+            task.getTags().retainAll(item.getTags());
+            task.getTags().addAll(item.getTags());
+        }
+        if (item.getStatus() != null) {
+            TaskBoardService.changeStatus(task, item.getStatus());
+            if (item.getStatus() == TaskStatus.COMPLETED
+                    && task.getCompletedAt() == null) {
+                task.setCompletedAt(LocalDateTime.now());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<Long, Task> loadOwnedTasks(final Set<Long> ids,
+            final Long userId) {
+        final Map<Long, Task> owned = new HashMap<>();
+        loadTasks(ids).forEach((id, task) -> {
+            if (ownershipError(task, userId) == null) {
+                owned.put(id, task);
+            }
+        });
+        return owned;
+    }
+
+    private Map<Long, Task> loadTasks(final Set<Long> ids) {
+        final Map<Long, Task> tasks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return tasks;
+        }
+        for (final Task task : taskRepository.findAllById(ids)) {
+            tasks.put(task.getId(), task);
+        }
+        return tasks;
+    }
+
+    private String ownershipError(final Task task, final Long userId) {
+        if (task == null) {
+            return TASK_NOT_FOUND_MESSAGE;
+        }
+        if (!task.getUser().getId().equals(userId)) {
+            return ACCESS_DENIED_MESSAGE;
+        }
+        return null;
+    }
+
+    private <T> String validate(final T item) {
+        if (item == null) {
+            return "item: must not be null";
+        }
+        final Set<ConstraintViolation<T>> violations =
+                validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": "
+                        + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void copy(final List<BulkItemResult> chunkResults, final int from,
+            final BulkItemResult[] results) {
+        for (int offset = 0; offset < chunkResults.size(); offset++) {
+            results[from + offset] = chunkResults.get(offset);
+        }
+    }
+
+    private BulkItemResult failure(final int index, final Long id,
+            final String error) {
+        return new BulkItemResult(index, id, BulkItemStatus.FAILED, error);
+    }
+
+    private void recordDuration(final long startTime, final String operation) {
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, operation);
+    }
+
+    /**
+     * Processa os itens do intervalo {@code [from, to)} dentro da transação
+     * corrente.
+     */
+    @FunctionalInterface
+    private interface RangeHandler {
+        List<BulkItemResult> handle(int from, int to);
+    }
+
+    /**
+     * Resolve o identificador de tarefa conhecido para um item do lote.
+     */
+    @FunctionalInterface
+    private interface IdResolver {
+        Long idAt(int index);
+    }
+}
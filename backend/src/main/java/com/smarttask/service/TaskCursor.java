@@ -0,0 +1,58 @@
+package com.smarttask.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posicao opaca de paginacao por keyset, composta pela chave de ordenacao
+ * (data de atualizacao ou de vencimento) e pelo identificador da tarefa
+ * usado como desempate.
+ *
+ * @param sortKey valor da coluna de ordenacao da ultima tarefa entregue
+ * @param id identificador da ultima tarefa entregue
+ */
+public record TaskCursor(LocalDateTime sortKey, Long id) {
+
+    /** Mensagem retornada quando o cursor recebido nao pode ser lido. */
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+
+    /** Separador entre a chave de ordenacao e o identificador. */
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Serializa o cursor em um token seguro para URLs.
+     *
+     * @return token opaco repassado ao cliente
+     */
+    public String encode() {
+        final String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reconstroi um cursor a partir do token recebido do cliente.
+     *
+     * @param token token opaco gerado por {@link #encode()}
+     * @return cursor decodificado
+     * @throws IllegalStateException quando o token e invalido
+     */
+    public static TaskCursor decode(final String token) {
+        try {
+            final String raw = new String(
+                    Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8);
+            final int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalStateException(INVALID_CURSOR_MESSAGE);
+            }
+            return new TaskCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new IllegalStateException(INVALID_CURSOR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.smarttask.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.dto.TaskExportRow;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.repository.ArchivedTaskRepository;
+import com.smarttask.repository.ArchivedTaskView;
+import com.smarttask.repository.TaskChildView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskTagView;
+import com.smarttask.repository.TaskView;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Exporta o historico completo de tarefas de um usuario em NDJSON ou CSV.
+ *
+ * <p>As linhas sao lidas de um cursor somente-avante com fetch size limitado
+ * e escritas diretamente na saida. Tags e subtarefas sao carregadas por
+ * bloco de {@link #CHUNK_SIZE} linhas, de modo que a memoria usada nao
+ * depende da quantidade de tarefas do usuario.</p>
+ *
+ * <p>As tarefas arquivadas seguem as ativas na mesma saida, lidas de
+ * {@code tasks_archive} pelo mesmo tipo de cursor.</p>
+ */
+@Service
+public class TaskExportService {
+
+    /** Quantidade de linhas agrupadas para as consultas de tags e filhos. */
+    static final int CHUNK_SIZE = 500;
+
+    /** Separador dos valores de colunas multivaloradas no CSV. */
+    private static final String LIST_SEPARATOR = ";";
+
+    /** Cabecalho do CSV, na mesma ordem das colunas escritas. */
+    private static final String CSV_HEADER = "id,title,description,status,"
+            + "priority,dueDate,completedAt,estimatedHours,actualHours,tags,"
+            + "parentTaskId,subtaskIds,aiSuggestedPriority,aiAnalysis,"
+            + "createdAt,updatedAt";
+
+    /** Mensagem para formatos de exportacao desconhecidos. */
+    private static final String INVALID_FORMAT_MESSAGE =
+            "Unsupported export format";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositorio das tarefas arquivadas. */
+    private final ArchivedTaskRepository archivedTaskRepository;
+
+    /** Serializador JSON configurado pela aplicacao. */
+    private final ObjectMapper objectMapper;
+
+    /** Servico de metricas das operacoes com tarefas. */
+    private final MetricsService metricsService;
+
+    /** Transacao somente leitura que mantem o cursor aberto. */
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Formatos de exportacao suportados.
+     */
+    public enum ExportFormat {
+        /** Um objeto JSON por linha. */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /** Valores separados por virgula com cabecalho. */
+        CSV("text/csv", "csv");
+
+        /** Tipo de conteudo da resposta. */
+        private final MediaType mediaType;
+
+        /** Extensao sugerida para o arquivo. */
+        private final String extension;
+
+        ExportFormat(final String mediaType, final String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        /**
+         * Tipo de conteudo da resposta.
+         *
+         * @return media type do formato
+         */
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Extensao sugerida para o arquivo.
+         *
+         * @return extensao sem ponto
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Converte o parametro recebido do cliente.
+         *
+         * @param value nome do formato, sem diferenciar maiusculas
+         * @return formato correspondente
+         * @throws IllegalStateException quando o formato nao e suportado
+         */
+        public static ExportFormat from(final String value) {
+            for (final ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalStateException(INVALID_FORMAT_MESSAGE);
+        }
+    }
+
+    /**
+     * Cria o servico com as dependencias de leitura e serializacao.
+     *
+     * @param taskRepository repositorio de tarefas
+     * @param archivedTaskRepository repositorio das tarefas arquivadas
+     * @param objectMapper serializador JSON
+     * @param metricsService servico de metricas
+     * @param transactionManager gerenciador da transacao de leitura
+     */
+    public TaskExportService(final TaskRepository taskRepository,
+            final ArchivedTaskRepository archivedTaskRepository,
+            final ObjectMapper objectMapper,
+            final MetricsService metricsService,
+            final PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Escreve todas as tarefas do usuario no formato pedido, incluindo as
+     * arquivadas.
+     *
+     * @param format formato da exportacao
+     * @param userId identificador do usuario
+     * @param output saida da resposta; nao e fechada por este metodo
+     * @return quantidade de tarefas exportadas
+     */
+    public long export(final ExportFormat format, final Long userId,
+            final OutputStream output) {
+        final long startTime = System.currentTimeMillis();
+        final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        final Long exported = readOnlyTransaction.execute(status -> {
+            try (Stream<TaskView> views =
+                    taskRepository.streamViewsByUserId(userId);
+                    Stream<ArchivedTaskView> archived = archivedTaskRepository
+                            .streamViewsByUserId(userId)) {
+                if (format == ExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                return writeAll(format, views.iterator(), this::toRows,
+                        writer)
+                        + writeAll(format, archived.iterator(),
+                                this::toArchivedRows, writer);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime,
+                "export_" + format.getExtension());
+        return exported == null ? 0L : exported;
+    }
+
+    private <T> long writeAll(final ExportFormat format,
+            final Iterator<T> views,
+            final Function<List<T>, List<TaskExportRow>> mapper,
+            final Writer writer) throws IOException {
+        long exported = 0;
+        final List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (views.hasNext()) {
+            chunk.add(views.next());
+            if (chunk.size() == CHUNK_SIZE || !views.hasNext()) {
+                for (final TaskExportRow row : mapper.apply(chunk)) {
+                    writeRow(format, row, writer);
+                }
+                exported += chunk.size();
+                chunk.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    private List<TaskExportRow> toRows(final List<TaskView> chunk) {
+        final List<Long> ids = new ArrayList<>(chunk.size());
+        for (final TaskView view : chunk) {
+            ids.add(view.getId());
+        }
+        final Map<Long, Set<String>> tags = new HashMap<>();
+        for (final TaskTagView tag : taskRepository.findTagsByTaskIds(ids)) {
+            tags.computeIfAbsent(tag.getTaskId(), key -> new TreeSet<>())
+                    .add(tag.getTag());
+        }
+        final Map<Long, List<Long>> children = new HashMap<>();
+        for (final TaskChildView child
+                : taskRepository.findChildIdsByParentIds(ids)) {
+            children.computeIfAbsent(child.getParentId(),
+                    key -> new ArrayList<>()).add(child.getId());
+        }
+
+        final List<TaskExportRow> rows = new ArrayList<>(chunk.size());
+        for (final TaskView view : chunk) {
+            rows.add(TaskExportRow.builder()
+                    .id(view.getId())
+                    .title(view.getTitle())
+                    .description(view.getDescription())
+                    .status(view.getStatus())
+                    .priority(view.getPriority())
+                    .dueDate(view.getDueDate())
+                    .completedAt(view.getCompletedAt())
+                    .estimatedHours(view.getEstimatedHours())
+                    .actualHours(view.getActualHours())
+                    .tags(tags.getOrDefault(view.getId(), new TreeSet<>()))
+                    .parentTaskId(view.getParentTaskId())
+                    .subtaskIds(children.getOrDefault(view.getId(),
+                            new ArrayList<>()))
+                    .aiSuggestedPriority(view.getAiSuggestedPriority())
+                    .aiAnalysis(view.getAiAnalysis())
+                    .createdAt(view.getCreatedAt())
+                    .updatedAt(view.getUpdatedAt())
+                    .build());
+        }
+        return rows;
+    }
+
+    private List<TaskExportRow> toArchivedRows(
+            final List<ArchivedTaskView> chunk) {
+        final List<Long> ids = new ArrayList<>(chunk.size());
+        for (final ArchivedTaskView view : chunk) {
+            ids.add(view.getId());
+        }
+        final Map<Long, Set<String>> tags = new HashMap<>();
+        for (final TaskTagView tag
+                : archivedTaskRepository.findTagsByTaskIds(ids)) {
+            tags.computeIfAbsent(tag.getTaskId(), key -> new TreeSet<>())
+                    .add(tag.getTag());
+        }
+        final Map<Long, List<Long>> children = new HashMap<>();
+        for (final TaskChildView child
+                : archivedTaskRepository.findChildIdsByParentIds(ids)) {
+            children.computeIfAbsent(child.getParentId(),
+                    key -> new ArrayList<>()).add(child.getId());
+        }
+
+        final List<TaskExportRow> rows = new ArrayList<>(chunk.size());
+        for (final ArchivedTaskView view : chunk) {
+            rows.add(TaskExportRow.builder()
+                    .id(view.getId())
+                    .title(view.getTitle())
+                    .description(view.getDescription())
+                    .status(view.getStatus())
+                    .priority(view.getPriority())
+                    .dueDate(view.getDueDate())
+                    .completedAt(view.getCompletedAt())
+                    .estimatedHours(view.getEstimatedHours())
+                    .actualHours(view.getActualHours())
+                    .tags(tags.getOrDefault(view.getId(), new TreeSet<>()))
+                    .parentTaskId(view.getParentTaskId())
+                    .subtaskIds(children.getOrDefault(view.getId(),
+                            new ArrayList<>()))
+                    .aiSuggestedPriority(view.getAiSuggestedPriority())
+                    .aiAnalysis(view.getAiAnalysis())
+                    .createdAt(view.getCreatedAt())
+                    .updatedAt(view.getUpdatedAt())
+                    .build());
+        }
+        return rows;
+    }
+
+    private void writeRow(final ExportFormat format, final TaskExportRow row,
+            final Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(row));
+        } else {
+            writer.write(csvLine(row));
+        }
+        writer.write('\n');
+    }
+
+    private String csvLine(final TaskExportRow row) {
+        return String.join(",",
+                csv(row.getId()),
+                csv(row.getTitle()),
+                csv(row.getDescription()),
+                csv(row.getStatus()),
+                csv(row.getPriority()),
+                csv(row.getDueDate()),
+                csv(row.getCompletedAt()),
+                csv(row.getEstimatedHours()),
+                csv(row.getActualHours()),
+                csv(String.join(LIST_SEPARATOR, row.getTags())),
+                csv(row.getParentTaskId()),
+                csv(row.getSubtaskIds().stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(LIST_SEPARATOR))),
+                csv(row.getAiSuggestedPriority()),
+                csv(row.getAiAnalysis()),
+                csv(row.getCreatedAt()),
+                csv(row.getUpdatedAt()));
+    }
+
+    /**
+     * Escapa um valor segundo a RFC 4180, envolvendo em aspas apenas quando
+     * necessario.
+     */
+    private static String csv(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        final String text = value.toString();
+        if (text.isEmpty()) {
+            return text;
+        }
+        final boolean quote = text.indexOf(',') >= 0
+                || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0;
+        return quote ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+
+    /**
+     * Nome sugerido para o arquivo exportado.
+     *
+     * @param format formato da exportacao
+     * @return nome do arquivo com extensao
+     */
+    public static String fileName(final ExportFormat format) {
+        return "tasks." + format.getExtension();
+    }
+}
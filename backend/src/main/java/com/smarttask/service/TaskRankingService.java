@@ -0,0 +1,268 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskRankView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskView;
+import com.smarttask.security.UserPrincipal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Escolhe as proximas tarefas em que o usuario deve trabalhar.
+ *
+ * <p>Cada tarefa aberta recebe uma pontuacao que soma o peso da
+ * prioridade, a urgencia do prazo, um bonus para tarefas curtas e um bonus
+ * quando a prioridade veio da IA. As tarefas sao lidas por prioridade, do
+ * prazo mais proximo ao mais distante, e so as K melhores ficam em memoria.
+ * Como a urgencia so diminui ao longo dessa ordem, a leitura de uma
+ * prioridade para assim que a maior pontuacao possivel das restantes nao
+ * supera a pior das escolhidas, e as prioridades menores nem sao lidas
+ * quando o seu maximo fica abaixo dela.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskRankingService {
+
+    /** Quantidade de tarefas devolvida quando o cliente nao informa. */
+    public static final int DEFAULT_LIMIT = 10;
+
+    /** Maior quantidade de tarefas aceita. */
+    public static final int MAX_LIMIT = 100;
+
+    /** Maior pontuacao da urgencia, para prazos vencidos ou no momento. */
+    static final double MAX_URGENCY = 40.0;
+
+    /** Maior bonus de esforco, para tarefas estimadas em zero horas. */
+    static final double MAX_EFFORT = 10.0;
+
+    /** Bonus para prioridades sugeridas pela IA. */
+    static final double AI_BONUS = 5.0;
+
+    /** Prazo a partir do qual a urgencia deixa de contar. */
+    static final Duration URGENCY_HORIZON = Duration.ofDays(14);
+
+    /** Estimativa que recebe metade do bonus de esforco. */
+    private static final double HALF_EFFORT_HOURS = 4.0;
+
+    /** Prioridades na ordem de leitura, da maior para a menor. */
+    private static final TaskPriority[] PRIORITIES_DESCENDING = {
+        TaskPriority.URGENT, TaskPriority.HIGH, TaskPriority.MEDIUM,
+        TaskPriority.LOW};
+
+    /** Melhores primeiro; empates pelo prazo e depois pelo identificador. */
+    private static final Comparator<Ranked> BEST_FIRST = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparing(Ranked::dueDate,
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Ranked::id);
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Montador das respostas de leitura a partir de projecoes. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Servico de metricas. */
+    private final MetricsService metricsService;
+
+    /**
+     * Lista as K tarefas abertas de maior pontuacao do usuario.
+     *
+     * @param limit quantidade de tarefas (opcional, ate {@value #MAX_LIMIT})
+     * @param currentUser usuario autenticado
+     * @return tarefas da melhor para a pior
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskRankingService.getNextTasks")
+    public List<TaskResponse> getNextTasks(final Integer limit,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<Long> ids = rank(currentUser.getId(), resolveLimit(limit),
+                LocalDateTime.now());
+        final Map<Long, TaskView> viewsById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (final TaskView view : taskRepository
+                    .findViewsByUserIdAndIdIn(currentUser.getId(), ids)) {
+                viewsById.put(view.getId(), view);
+            }
+        }
+        final List<TaskView> ranked = new ArrayList<>(ids.size());
+        for (final Long id : ids) {
+            final TaskView view = viewsById.get(id);
+            if (view != null) {
+                ranked.add(view);
+            }
+        }
+        final List<TaskResponse> tasks = taskViewAssembler.toResponses(ranked);
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, "next");
+        return tasks;
+    }
+
+    /**
+     * Identificadores das K tarefas abertas de maior pontuacao. Deve ser
+     * chamado dentro de uma transacao.
+     *
+     * @param userId identificador do usuario
+     * @param limit quantidade de tarefas
+     * @param now instante de referencia da urgencia
+     * @return identificadores da melhor para a pior
+     */
+    public List<Long> rank(final Long userId, final int limit,
+            final LocalDateTime now) {
+        final PriorityQueue<Ranked> best =
+                new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (final TaskPriority priority : PRIORITIES_DESCENDING) {
+            if (isFullAndAbove(best, limit, maxScore(priority, MAX_URGENCY))) {
+                break;
+            }
+            try (Stream<TaskRankView> rows =
+                    taskRepository.streamOpenRankViews(userId, priority)) {
+                final Iterator<TaskRankView> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    final TaskRankView row = iterator.next();
+                    if (isFullAndAbove(best, limit,
+                            maxScore(priority,
+                                    urgency(row.getDueDate(), now)))) {
+                        break;
+                    }
+                    offer(best, limit, new Ranked(row.getId(),
+                            row.getDueDate(), score(row.getPriority(),
+                                    row.getDueDate(), row.getEstimatedHours(),
+                                    row.getAiSuggestedPriority(), now)));
+                }
+            }
+        }
+        final List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(BEST_FIRST);
+        final List<Long> ids = new ArrayList<>(ranked.size());
+        for (final Ranked entry : ranked) {
+            ids.add(entry.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Ordena tarefas carregadas da melhor para a pior, pela mesma pontuacao
+     * de {@link #rank}.
+     *
+     * @param now instante de referencia da urgencia
+     * @return comparador das tarefas
+     */
+    static Comparator<Task> bestFirst(final LocalDateTime now) {
+        return Comparator.<Task>comparingDouble(task -> score(
+                        task.getPriority(), task.getDueDate(),
+                        task.getEstimatedHours(),
+                        task.getAiSuggestedPriority(), now))
+                .reversed()
+                .thenComparing(Task::getDueDate,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Pontuacao de uma tarefa aberta.
+     *
+     * @param priority prioridade
+     * @param dueDate prazo ou {@code null}
+     * @param estimatedHours estimativa ou {@code null}
+     * @param aiSuggestedPriority se a prioridade veio da IA
+     * @param now instante de referencia da urgencia
+     * @return pontuacao; maior e melhor
+     */
+    static double score(final TaskPriority priority,
+            final LocalDateTime dueDate, final Integer estimatedHours,
+            final Boolean aiSuggestedPriority, final LocalDateTime now) {
+        return weight(priority) + urgency(dueDate, now)
+                + effort(estimatedHours)
+                + (Boolean.TRUE.equals(aiSuggestedPriority) ? AI_BONUS : 0.0);
+    }
+
+    private static double maxScore(final TaskPriority priority,
+            final double urgency) {
+        return weight(priority) + urgency + MAX_EFFORT + AI_BONUS;
+    }
+
+    private static double weight(final TaskPriority priority) {
+        if (priority == null) {
+            return 0.0;
+        }
+        return switch (priority) {
+            case URGENT -> 40.0;
+            case HIGH -> 30.0;
+            case MEDIUM -> 20.0;
+            case LOW -> 10.0;
+        };
+    }
+
+    private static double urgency(final LocalDateTime dueDate,
+            final LocalDateTime now) {
+        if (dueDate == null) {
+            return 0.0;
+        }
+        final double remaining = Duration.between(now, dueDate).toMinutes();
+        final double horizon = URGENCY_HORIZON.toMinutes();
+        if (remaining <= 0) {
+            return MAX_URGENCY;
+        }
+        return remaining >= horizon
+                ? 0.0
+                : MAX_URGENCY * (1.0 - remaining / horizon);
+    }
+
+    private static double effort(final Integer estimatedHours) {
+        final double hours = estimatedHours == null
+                ? HALF_EFFORT_HOURS
+                : Math.max(0, estimatedHours);
+        return MAX_EFFORT * HALF_EFFORT_HOURS / (HALF_EFFORT_HOURS + hours);
+    }
+
+    private static boolean isFullAndAbove(final PriorityQueue<Ranked> best,
+            final int limit, final double maxScore) {
+        return best.size() == limit && best.peek().score() > maxScore;
+    }
+
+    private static void offer(final PriorityQueue<Ranked> best,
+            final int limit, final Ranked candidate) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (BEST_FIRST.compare(candidate, best.peek()) < 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private static int resolveLimit(final Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Tarefa pontuada.
+     *
+     * @param id identificador
+     * @param dueDate prazo, usado no desempate
+     * @param score pontuacao
+     */
+    private record Ranked(Long id, LocalDateTime dueDate, double score) {
+    }
+}
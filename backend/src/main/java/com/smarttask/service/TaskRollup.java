@@ -0,0 +1,220 @@
+package com.smarttask.service;
+
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.repository.TaskRollupView;
+
+/**
+ * Contribuicao de tarefas aos totais de subarvore: horas estimadas, horas
+ * reais, tarefas abertas e tarefas concluidas. Serve tanto para a
+ * contribuicao de uma tarefa quanto para os totais de uma subarvore e para
+ * os deltas aplicados aos ancestrais.
+ */
+public final class TaskRollup {
+
+    /** Soma das horas estimadas. */
+    private long estimatedHours;
+
+    /** Soma das horas gastas. */
+    private long actualHours;
+
+    /** Tarefas abertas (TODO ou IN_PROGRESS). */
+    private long openCount;
+
+    /** Tarefas concluidas. */
+    private long completedCount;
+
+    private TaskRollup() {
+    }
+
+    /**
+     * Contribuicao vazia.
+     *
+     * @return nova contribuicao zerada
+     */
+    public static TaskRollup empty() {
+        return new TaskRollup();
+    }
+
+    /**
+     * Contribuicao da propria tarefa, sem as subtarefas.
+     *
+     * @param task tarefa
+     * @return contribuicao da tarefa
+     */
+    public static TaskRollup of(final Task task) {
+        return of(task.getStatus(), task.getEstimatedHours(),
+                task.getActualHours());
+    }
+
+    /**
+     * Contribuicao da propria tarefa lida como projecao.
+     *
+     * @param view projecao da tarefa
+     * @return contribuicao da tarefa
+     */
+    public static TaskRollup of(final TaskRollupView view) {
+        return of(view.getStatus(), view.getEstimatedHours(),
+                view.getActualHours());
+    }
+
+    /**
+     * Contribuicao equivalente a um delta de contadores de uma unica tarefa,
+     * usada quando o estado anterior ja foi capturado para os contadores.
+     *
+     * @param stats contribuicao da tarefa aos contadores
+     * @return contribuicao da tarefa
+     */
+    public static TaskRollup of(final TaskStatsDelta stats) {
+        final TaskRollup rollup = new TaskRollup();
+        rollup.estimatedHours = stats.getEstimatedHours();
+        rollup.actualHours = stats.getActualHours();
+        rollup.openCount = stats.statusCount(TaskStatus.TODO)
+                + stats.statusCount(TaskStatus.IN_PROGRESS);
+        rollup.completedCount = stats.statusCount(TaskStatus.COMPLETED);
+        return rollup;
+    }
+
+    /**
+     * Totais gravados da subarvore de uma tarefa carregada.
+     *
+     * @param task raiz da subarvore
+     * @return totais da subarvore
+     */
+    public static TaskRollup subtreeOf(final Task task) {
+        return subtree(task.getSubtreeEstimatedHours(),
+                task.getSubtreeActualHours(), task.getSubtreeOpenCount(),
+                task.getSubtreeCompletedCount());
+    }
+
+    /**
+     * Totais gravados da subarvore de uma tarefa lida como projecao.
+     *
+     * @param view projecao da raiz da subarvore
+     * @return totais da subarvore
+     */
+    public static TaskRollup subtreeOf(final TaskRollupView view) {
+        return subtree(view.getSubtreeEstimatedHours(),
+                view.getSubtreeActualHours(), view.getSubtreeOpenCount(),
+                view.getSubtreeCompletedCount());
+    }
+
+    /**
+     * Soma outra contribuicao a esta.
+     *
+     * @param other contribuicao somada
+     * @return esta contribuicao
+     */
+    public TaskRollup add(final TaskRollup other) {
+        return combine(other, 1);
+    }
+
+    /**
+     * Subtrai outra contribuicao desta.
+     *
+     * @param other contribuicao subtraida
+     * @return esta contribuicao
+     */
+    public TaskRollup subtract(final TaskRollup other) {
+        return combine(other, -1);
+    }
+
+    /**
+     * Indica se todos os valores sao zero.
+     *
+     * @return {@code true} quando nao ha nada a aplicar
+     */
+    public boolean isEmpty() {
+        return estimatedHours == 0 && actualHours == 0 && openCount == 0
+                && completedCount == 0;
+    }
+
+    /**
+     * Soma esta contribuicao aos totais de uma tarefa em memoria, sem
+     * grava-los.
+     *
+     * @param task tarefa cujos totais sao ajustados
+     */
+    public void addTo(final Task task) {
+        task.setSubtreeEstimatedHours(value(task.getSubtreeEstimatedHours())
+                + estimatedHours);
+        task.setSubtreeActualHours(value(task.getSubtreeActualHours())
+                + actualHours);
+        task.setSubtreeOpenCount(value(task.getSubtreeOpenCount())
+                + openCount);
+        task.setSubtreeCompletedCount(value(task.getSubtreeCompletedCount())
+                + completedCount);
+    }
+
+    /**
+     * Horas estimadas.
+     *
+     * @return soma das horas estimadas
+     */
+    public long getEstimatedHours() {
+        return estimatedHours;
+    }
+
+    /**
+     * Horas reais.
+     *
+     * @return soma das horas reais
+     */
+    public long getActualHours() {
+        return actualHours;
+    }
+
+    /**
+     * Tarefas abertas (TODO ou IN_PROGRESS).
+     *
+     * @return quantidade de tarefas abertas
+     */
+    public long getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Tarefas concluidas.
+     *
+     * @return quantidade de tarefas concluidas
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    private static TaskRollup of(final TaskStatus status,
+            final Integer estimatedHours, final Integer actualHours) {
+        final TaskRollup rollup = new TaskRollup();
+        rollup.estimatedHours = estimatedHours == null ? 0L : estimatedHours;
+        rollup.actualHours = actualHours == null ? 0L : actualHours;
+        if (status == TaskStatus.TODO || status == TaskStatus.IN_PROGRESS) {
+            rollup.openCount = 1;
+        } else if (status == TaskStatus.COMPLETED) {
+            rollup.completedCount = 1;
+        }
+        return rollup;
+    }
+
+    private static TaskRollup subtree(final Long estimatedHours,
+            final Long actualHours, final Long openCount,
+            final Long completedCount) {
+        final TaskRollup rollup = new TaskRollup();
+        rollup.estimatedHours = value(estimatedHours);
+        rollup.actualHours = value(actualHours);
+        rollup.openCount = value(openCount);
+        rollup.completedCount = value(completedCount);
+        return rollup;
+    }
+
+    private TaskRollup combine(final TaskRollup other, final int sign) {
+        estimatedHours += sign * other.estimatedHours;
+        actualHours += sign * other.actualHours;
+        openCount += sign * other.openCount;
+        completedCount += sign * other.completedCount;
+        return this;
+    }
+
+    private static long value(final Long value) {
+        return value == null ? 0L : value;
+    }
+}
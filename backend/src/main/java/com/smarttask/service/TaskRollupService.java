@@ -0,0 +1,302 @@
+package com.smarttask.service;
+
+import com.smarttask.model.Task;
+import com.smarttask.repository.TaskAncestorView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskRollupView;
+import com.smarttask.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantem os totais de subarvore de cada tarefa: horas estimadas, horas
+ * reais, tarefas abertas e tarefas concluidas, somando a propria tarefa e
+ * todas as suas subtarefas.
+ *
+ * <p>Os servicos de escrita chamam este componente dentro da propria
+ * transacao. Cada alteracao vira um delta aplicado a uma tarefa de origem e
+ * a todos os seus ancestrais: os deltas da chamada sao somados por
+ * ancestral, descobertos com uma unica consulta recursiva por bloco de
+ * origens, e gravados em um lote de {@code UPDATE}s incrementais, em ordem
+ * de identificador para que alteracoes concorrentes na mesma arvore
+ * bloqueiem os ancestrais sempre na mesma ordem. Como em
+ * {@link TaskChangeTracker#touch}, cada tarefa alterada recebe uma nova
+ * posicao na sequencia de alteracoes e a data de atualizacao usada na
+ * janela de acomodacao da sincronizacao, o que tambem a leva ao inicio das
+ * listagens por data de atualizacao.</p>
+ *
+ * <p>A versao, que muda o ETag, sobe uma unica vez por escrita. As tarefas
+ * de origem dos deltas ja sao versionadas pelo chamador: as criadas ou
+ * alteradas pelo JPA, carimbadas pelo {@link TaskChangeTracker}, e os pais
+ * de subarvores inseridas, movidas ou removidas, marcados com
+ * {@link TaskChangeTracker#touch}. Aqui sobe apenas a versao dos demais
+ * ancestrais. Tarefas ja carregadas na transacao tem os totais ajustados em
+ * memoria e a versao incrementada pelo proprio JPA, para que a resposta da
+ * requisicao reflita a alteracao e escritas posteriores na mesma transacao
+ * nao falhem na verificacao de versao.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskRollupService {
+
+    /** Colunas dos totais de subarvore, na ordem de {@link #OWN_TOTALS}. */
+    public static final String TOTAL_COLUMNS = "subtree_estimated_hours, "
+            + "subtree_actual_hours, subtree_open_count, "
+            + "subtree_completed_count";
+
+    /**
+     * Totais proprios de uma linha com as colunas de {@code tasks}, para
+     * comandos {@code INSERT ... SELECT} que criam tarefas sem o JPA.
+     */
+    public static final String OWN_TOTALS = "COALESCE(estimated_hours, 0), "
+            + "COALESCE(actual_hours, 0), "
+            + "CASE WHEN status IN ('TODO', 'IN_PROGRESS') THEN 1 ELSE 0 END, "
+            + "CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END";
+
+    /** Tarefas de origem por consulta de ancestrais. */
+    static final int ID_BATCH_SIZE = 1000;
+
+    /**
+     * Soma um delta aos totais de uma tarefa. O marcador recebe a expressao
+     * do proximo valor da sequencia de alteracoes; o incremento da versao e
+     * zero para as tarefas de origem, versionadas pelo chamador, e para as
+     * carregadas, versionadas pelo JPA.
+     */
+    private static final String APPLY_DELTA = "UPDATE tasks SET "
+            + "subtree_estimated_hours = subtree_estimated_hours + ?, "
+            + "subtree_actual_hours = subtree_actual_hours + ?, "
+            + "subtree_open_count = subtree_open_count + ?, "
+            + "subtree_completed_count = subtree_completed_count + ?, "
+            + "change_seq = %s, updated_at = ?, version = version + ? "
+            + "WHERE id = ? AND user_id = ?";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Sequencia de alteracoes lida pela sincronizacao incremental. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Contexto de persistencia da transacao corrente. */
+    private final EntityManager entityManager;
+
+    /**
+     * Soma as tarefas criadas pelo JPA aos totais dos seus ancestrais. Os
+     * totais das proprias tarefas ja sao gravados na insercao.
+     *
+     * @param userId identificador do usuario
+     * @param tasks tarefas criadas
+     */
+    public void recordCreated(final Long userId,
+            final Collection<Task> tasks) {
+        final Map<Long, TaskRollup> deltas = new HashMap<>();
+        for (final Task task : tasks) {
+            if (task.getParentTask() != null) {
+                deltas.computeIfAbsent(task.getParentTask().getId(),
+                        key -> TaskRollup.empty()).add(TaskRollup.of(task));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        taskRepository.flush();
+        apply(userId, deltas);
+    }
+
+    /**
+     * Aplica a diferenca entre o estado anterior e o atual de uma tarefa.
+     *
+     * @param userId identificador do usuario
+     * @param before contribuicao da tarefa antes da alteracao
+     * @param after tarefa alterada
+     */
+    public void recordChange(final Long userId, final TaskRollup before,
+            final Task after) {
+        recordChanges(userId, Map.of(after.getId(), before), List.of(after));
+    }
+
+    /**
+     * Aplica as diferencas entre o estado anterior e o atual das tarefas
+     * alteradas. Tarefas repetidas sao consideradas uma vez.
+     *
+     * @param userId identificador do usuario
+     * @param before contribuicao de cada tarefa antes das alteracoes
+     * @param tasks tarefas alteradas
+     */
+    public void recordChanges(final Long userId,
+            final Map<Long, TaskRollup> before,
+            final Collection<Task> tasks) {
+        final Map<Long, TaskRollup> deltas = new HashMap<>();
+        for (final Task task : tasks) {
+            final TaskRollup previous = before.get(task.getId());
+            if (previous == null || deltas.containsKey(task.getId())) {
+                continue;
+            }
+            final TaskRollup delta = TaskRollup.of(task).subtract(previous);
+            if (!delta.isEmpty()) {
+                deltas.put(task.getId(), delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        taskRepository.flush();
+        apply(userId, deltas);
+    }
+
+    /**
+     * Soma aos ancestrais as tarefas inseridas por SQL, cujos totais
+     * proprios ja foram gravados na insercao. Tarefas inseridas junto com
+     * seus pais, como em uma importacao, acumulam nos pais as subtarefas
+     * inseridas.
+     *
+     * @param userId identificador do usuario
+     * @param taskIds tarefas inseridas
+     */
+    public void recordInserted(final Long userId,
+            final Collection<Long> taskIds) {
+        final Map<Long, TaskRollup> deltas = new HashMap<>();
+        for (final List<Long> batch : batches(taskIds)) {
+            for (final TaskRollupView view : taskRepository
+                    .findRollupsByUserIdAndIdIn(userId, batch)) {
+                if (view.getParentTaskId() != null) {
+                    deltas.computeIfAbsent(view.getParentTaskId(),
+                            key -> TaskRollup.empty())
+                            .add(TaskRollup.of(view));
+                }
+            }
+        }
+        apply(userId, deltas);
+    }
+
+    /**
+     * Desconta dos ancestrais as subarvores que serao removidas. Deve ser
+     * chamado antes da remocao, na mesma transacao, com todas as tarefas
+     * removidas: apenas as raizes cujo pai permanece sao descontadas.
+     *
+     * @param userId identificador do usuario
+     * @param taskIds tarefas removidas
+     */
+    public void recordRemoval(final Long userId,
+            final Collection<Long> taskIds) {
+        final Set<Long> removed = new HashSet<>(taskIds);
+        final Map<Long, TaskRollup> deltas = new HashMap<>();
+        for (final List<Long> batch : batches(taskIds)) {
+            for (final TaskRollupView view : taskRepository
+                    .findRollupsByUserIdAndIdIn(userId, batch)) {
+                final Long parentId = view.getParentTaskId();
+                if (parentId != null && !removed.contains(parentId)) {
+                    deltas.computeIfAbsent(parentId,
+                            key -> TaskRollup.empty())
+                            .subtract(TaskRollup.subtreeOf(view));
+                }
+            }
+        }
+        apply(userId, deltas);
+    }
+
+    /**
+     * Transfere os totais de uma subarvore da cadeia do pai atual para a do
+     * novo pai. Deve ser chamado antes da troca de pai.
+     *
+     * @param userId identificador do usuario
+     * @param task raiz da subarvore movida, com o pai atual
+     * @param parentId novo pai ou {@code null} para virar raiz
+     */
+    public void recordMove(final Long userId, final Task task,
+            final Long parentId) {
+        final TaskRollup subtree = TaskRollup.subtreeOf(task);
+        final Map<Long, TaskRollup> deltas = new HashMap<>();
+        if (task.getParentTask() != null) {
+            deltas.computeIfAbsent(task.getParentTask().getId(),
+                    key -> TaskRollup.empty()).subtract(subtree);
+        }
+        if (parentId != null) {
+            deltas.computeIfAbsent(parentId, key -> TaskRollup.empty())
+                    .add(subtree);
+        }
+        apply(userId, deltas);
+    }
+
+    private void apply(final Long userId,
+            final Map<Long, TaskRollup> deltas) {
+        final List<Long> origins = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            if (!delta.isEmpty()) {
+                origins.add(id);
+            }
+        });
+        if (origins.isEmpty()) {
+            return;
+        }
+
+        final Map<Long, TaskRollup> totals = new TreeMap<>();
+        for (final List<Long> batch : batches(origins)) {
+            for (final TaskAncestorView row
+                    : taskRepository.findAncestry(batch, userId)) {
+                totals.computeIfAbsent(row.getAncestor(),
+                        key -> TaskRollup.empty())
+                        .add(deltas.get(row.getOrigin()));
+            }
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        final Map<Long, Task> loaded = new LinkedHashMap<>();
+        final List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((id, total) -> {
+            if (total.isEmpty()) {
+                return;
+            }
+            // Devolve a instancia gerenciada quando ja carregada; as demais
+            // viram proxies sem consulta e leem os valores gravados.
+            final Task task = entityManager.getReference(Task.class, id);
+            final boolean managed = Hibernate.isInitialized(task);
+            if (managed) {
+                loaded.put(id, task);
+            }
+            final boolean versioned = managed || deltas.containsKey(id);
+            rows.add(new Object[] {total.getEstimatedHours(),
+                    total.getActualHours(), total.getOpenCount(),
+                    total.getCompletedCount(), now, versioned ? 0 : 1, id,
+                    userId});
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(String.format(APPLY_DELTA,
+                taskChangeTracker.nextValueExpression()), rows);
+        loaded.forEach((id, task) -> {
+            totals.get(id).addTo(task);
+            if (!deltas.containsKey(id)) {
+                entityManager.lock(task,
+                        LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            }
+        });
+    }
+
+    private static List<List<Long>> batches(final Collection<Long> ids) {
+        final List<Long> list = new ArrayList<>(ids);
+        final List<List<Long>> batches = new ArrayList<>();
+        for (int start = 0; start < list.size(); start += ID_BATCH_SIZE) {
+            batches.add(list.subList(start,
+                    Math.min(start + ID_BATCH_SIZE, list.size())));
+        }
+        return batches;
+    }
+}
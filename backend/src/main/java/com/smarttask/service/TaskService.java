@@ -1,28 +1,47 @@
 package com.smarttask.service;
 
+import com.smarttask.board.TaskBoardService;
+import com.smarttask.calendar.TaskCalendarIndex;
 import com.smarttask.dto.AIAnalysisRequest;
 import com.smarttask.dto.AIAnalysisResponse;
+import com.smarttask.dto.TaskPageResponse;
+import com.smarttask.dto.TaskPatchRequest;
 import com.smarttask.dto.TaskRequest;
 import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.PreconditionFailedException;
 import com.smarttask.exception.ResourceNotFoundException;
 import com.smarttask.model.Task;
 import com.smarttask.model.Task.TaskPriority;
 import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOutboxEvent.EventType;
 import com.smarttask.model.User;
 import com.smarttask.observability.MetricsService;
 import com.smarttask.observability.Traced;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.reminder.DueDateScheduler;
 import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskView;
 import com.smarttask.repository.UserRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
 import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 /**
  * Orquestra o ciclo de vida das tarefas e integrações relacionadas.
@@ -53,6 +72,16 @@ public class TaskService {
     private static final String DELETE_DENIED_MESSAGE =
             "You don't have permission to delete this task";
 
+    /** Aviso para atualizacoes sobre uma versao desatualizada. */
+    private static final String VERSION_MISMATCH_MESSAGE =
+            "Task was modified since it was read";
+
+    /** Tamanho de pagina aplicado quando o cliente nao informa um valor. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Maior tamanho de pagina aceito nas listagens paginadas. */
+    public static final int MAX_PAGE_SIZE = 200;
+
     /** Repositório para acesso a dados de tarefas. */
     private final TaskRepository taskRepository;
 
@@ -65,6 +94,39 @@ public class TaskService {
     /** Serviço de métricas utilizado para registrar eventos de tarefas. */
     private final MetricsService metricsService;
 
+    /** Montador das respostas de leitura a partir de projeções. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Indice de busca textual das tarefas. */
+    private final TaskSearchIndex taskSearchIndex;
+
+    /** Sincronizador do indice de busca com as transações. */
+    private final TaskSearchIndexer taskSearchIndexer;
+
+    /** Operações por conjunto sobre a hierarquia de subtarefas. */
+    private final TaskTreeService taskTreeService;
+
+    /** Contadores agregados exibidos no dashboard. */
+    private final TaskStatsService taskStatsService;
+
+    /** Timers dos alertas de vencimento e atraso. */
+    private final DueDateScheduler dueDateScheduler;
+
+    /** Indice em memoria do calendario de tarefas. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Outbox dos eventos do ciclo de vida das tarefas. */
+    private final TaskOutbox taskOutbox;
+
+    /** Sequencia de alteracoes lida pela sincronizacao incremental. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Dicionário de tags e contagens por tag. */
+    private final TaskTagService taskTagService;
+
+    /** Totais de horas e tarefas das subárvores. */
+    private final TaskRollupService taskRollupService;
+
     /**
      * Cria uma nova tarefa para o usuário autenticado.
      *
@@ -92,8 +154,16 @@ public class TaskService {
 
         attachParentTask(request.getParentTaskId(), task);
 
+        taskChangeTracker.stampCreated(List.of(task));
         final Task savedTask = taskRepository.save(task);
-        metricsService.recordTaskCreated(savedTask.getPriority().toString());
+        taskSearchIndexer.indexAfterCommit(List.of(savedTask));
+        taskStatsService.recordCreated(user.getId(), List.of(savedTask));
+        taskTagService.recordCreated(user.getId(), List.of(savedTask));
+        taskRollupService.recordCreated(user.getId(), List.of(savedTask));
+        dueDateScheduler.scheduleAfterCommit(List.of(savedTask));
+        taskCalendarIndex.invalidateAfterCommit(List.of(user.getId()));
+        taskOutbox.publish(EventType.CREATED, user.getId(),
+                List.of(savedTask));
         recordDuration(startTime, "create");
         return mapToResponse(savedTask);
     }
@@ -126,10 +196,18 @@ public class TaskService {
                 .user(user)
                 .build();
 
+        taskChangeTracker.stamp(List.of(task));
         final Task savedTask = taskRepository.save(task);
+        taskSearchIndexer.indexAfterCommit(List.of(savedTask));
+        taskStatsService.recordCreated(user.getId(), List.of(savedTask));
+        taskTagService.recordCreated(user.getId(), List.of(savedTask));
+        taskRollupService.recordCreated(user.getId(), List.of(savedTask));
+        dueDateScheduler.scheduleAfterCommit(List.of(savedTask));
+        taskCalendarIndex.invalidateAfterCommit(List.of(user.getId()));
         createSuggestedSubtasks(analysis, user, savedTask);
 
-        metricsService.recordTaskCreated(savedTask.getPriority().toString());
+        taskOutbox.publish(EventType.CREATED, user.getId(),
+                List.of(savedTask));
         recordDuration(startTime, "create_with_ai");
         final Task persistedTask = taskRepository.findById(savedTask.getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -138,7 +216,9 @@ public class TaskService {
     }
 
     /**
-     * Lista todas as tarefas do usuário autenticado.
+     * Lista todas as tarefas do usuário autenticado sem paginação.
+     * Disponível apenas mediante opt-in explícito do cliente; prefira
+     * {@link #getTasksPage(String, Integer, UserPrincipal)}.
      *
      * @param currentUser usuário autenticado
      * @return lista de tarefas serializadas
@@ -147,17 +227,14 @@ public class TaskService {
     @Traced("TaskService.getAllTasks")
     public List<TaskResponse> getAllTasks(final UserPrincipal currentUser) {
         final long startTime = System.currentTimeMillis();
-        final List<TaskResponse> tasks = taskRepository
-                .findByUserId(currentUser.getId())
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        final List<TaskResponse> tasks = taskViewAssembler.toResponses(
+                taskRepository.findViewsByUserId(currentUser.getId()));
         recordDuration(startTime, "list_all");
         return tasks;
     }
 
     /**
-     * Lista tarefas do usuário por status.
+     * Lista tarefas do usuário por status sem paginação.
      *
      * @param status status desejado
      * @param currentUser usuário autenticado
@@ -167,10 +244,170 @@ public class TaskService {
     @Traced("TaskService.getTasksByStatus")
     public List<TaskResponse> getTasksByStatus(final TaskStatus status,
             final UserPrincipal currentUser) {
-        return taskRepository.findByUserIdAndStatus(currentUser.getId(), status)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return taskViewAssembler.toResponses(taskRepository
+                .findViewsByUserIdAndStatus(currentUser.getId(), status));
+    }
+
+    /**
+     * Lista uma página das tarefas do usuário, da atualização mais recente
+     * para a mais antiga, lendo do banco apenas as linhas da página.
+     *
+     * @param cursor cursor devolvido pela página anterior ou {@code null}
+     * @param size tamanho de página desejado
+     * @param currentUser usuário autenticado
+     * @return página de tarefas com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.getTasksPage")
+    public TaskPageResponse getTasksPage(final String cursor,
+            final Integer size, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final int pageSize = resolvePageSize(size);
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<TaskView> rows;
+        if (cursor == null) {
+            rows = taskRepository.findPageByUserId(currentUser.getId(), limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            rows = taskRepository.findPageByUserIdAfter(currentUser.getId(),
+                    position.sortKey(), position.id(), limit);
+        }
+        final TaskPageResponse page =
+                toPage(rows, pageSize, TaskView::getUpdatedAt);
+        recordDuration(startTime, "list_page");
+        return page;
+    }
+
+    /**
+     * Lista uma página das tarefas do usuário em um status.
+     *
+     * @param status status desejado
+     * @param cursor cursor devolvido pela página anterior ou {@code null}
+     * @param size tamanho de página desejado
+     * @param currentUser usuário autenticado
+     * @return página de tarefas com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.getTasksByStatusPage")
+    public TaskPageResponse getTasksByStatusPage(final TaskStatus status,
+            final String cursor, final Integer size,
+            final UserPrincipal currentUser) {
+        final int pageSize = resolvePageSize(size);
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<TaskView> rows;
+        if (cursor == null) {
+            rows = taskRepository.findPageByUserIdAndStatus(
+                    currentUser.getId(), status, limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            rows = taskRepository.findPageByUserIdAndStatusAfter(
+                    currentUser.getId(), status,
+                    position.sortKey(), position.id(), limit);
+        }
+        return toPage(rows, pageSize, TaskView::getUpdatedAt);
+    }
+
+    /**
+     * Lista uma página das tarefas do usuário marcadas com uma tag. O filtro
+     * usa os vínculos com o dicionário de tags; uma tag que o usuário nunca
+     * usou resulta em uma página vazia.
+     *
+     * @param tag nome da tag
+     * @param cursor cursor devolvido pela página anterior ou {@code null}
+     * @param size tamanho de página desejado
+     * @param currentUser usuário autenticado
+     * @return página de tarefas com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.getTasksByTagPage")
+    public TaskPageResponse getTasksByTagPage(final String tag,
+            final String cursor, final Integer size,
+            final UserPrincipal currentUser) {
+        final int pageSize = resolvePageSize(size);
+        final Optional<Long> tagId =
+                taskTagService.findTagId(currentUser.getId(), tag);
+        if (tagId.isEmpty()) {
+            return toPage(List.of(), pageSize, TaskView::getUpdatedAt);
+        }
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<TaskView> rows;
+        if (cursor == null) {
+            rows = taskRepository.findPageByUserIdAndTagId(
+                    currentUser.getId(), tagId.get(), limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            rows = taskRepository.findPageByUserIdAndTagIdAfter(
+                    currentUser.getId(), tagId.get(),
+                    position.sortKey(), position.id(), limit);
+        }
+        return toPage(rows, pageSize, TaskView::getUpdatedAt);
+    }
+
+    /**
+     * Lista uma página das tarefas atrasadas, do vencimento mais antigo para
+     * o mais recente.
+     *
+     * @param cursor cursor devolvido pela página anterior ou {@code null}
+     * @param size tamanho de página desejado
+     * @param currentUser usuário autenticado
+     * @return página de tarefas em atraso
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.getOverdueTasksPage")
+    public TaskPageResponse getOverdueTasksPage(final String cursor,
+            final Integer size, final UserPrincipal currentUser) {
+        final int pageSize = resolvePageSize(size);
+        final Limit limit = Limit.of(pageSize + 1);
+        final LocalDateTime now = LocalDateTime.now();
+        final List<TaskView> rows;
+        if (cursor == null) {
+            rows = taskRepository.findOverduePage(
+                    currentUser.getId(), now, limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            rows = taskRepository.findOverduePageAfter(currentUser.getId(),
+                    now, position.sortKey(), position.id(), limit);
+        }
+        return toPage(rows, pageSize, TaskView::getDueDate);
+    }
+
+    /**
+     * Busca tarefas do usuário por texto livre no título, descrição, tags e
+     * análise de IA, ordenadas por relevância. Cada termo da consulta é
+     * aceito como prefixo e acentos são ignorados.
+     *
+     * @param query texto da busca
+     * @param limit quantidade máxima de resultados
+     * @param currentUser usuário autenticado
+     * @return tarefas encontradas, da mais para a menos relevante
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.searchTasks")
+    public List<TaskResponse> searchTasks(final String query,
+            final Integer limit, final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<Long> ids = taskSearchIndex.search(currentUser.getId(),
+                query, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        if (ids.isEmpty()) {
+            recordDuration(startTime, "search");
+            return new ArrayList<>();
+        }
+
+        final Map<Long, TaskView> viewsById = new HashMap<>();
+        for (final TaskView view : taskRepository.findViewsByUserIdAndIdIn(
+                currentUser.getId(), ids)) {
+            viewsById.put(view.getId(), view);
+        }
+        final List<TaskView> ranked = new ArrayList<>(viewsById.size());
+        for (final Long id : ids) {
+            final TaskView view = viewsById.get(id);
+            if (view != null) {
+                ranked.add(view);
+            }
+        }
+        final List<TaskResponse> tasks = taskViewAssembler.toResponses(ranked);
+        recordDuration(startTime, "search");
+        return tasks;
     }
 
     /**
@@ -189,43 +426,103 @@ public class TaskService {
         return mapToResponse(task);
     }
 
+    /**
+     * Lê apenas a versão de uma tarefa do usuário, sem carregar o grafo de
+     * entidades, para responder requisições condicionais.
+     *
+     * @param taskId identificador da tarefa
+     * @param currentUser usuário autenticado
+     * @return versão atual ou vazio quando a tarefa não existe ou pertence
+     *     a outro usuário
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskService.findTaskVersion")
+    public Optional<Long> findTaskVersion(final Long taskId,
+            final UserPrincipal currentUser) {
+        return taskRepository.findVersionByIdAndUserId(taskId,
+                currentUser.getId());
+    }
+
     /**
      * Atualiza os dados de uma tarefa do usuário.
      *
      * @param taskId identificador da tarefa
      * @param request dados para atualização
+     * @param expectedVersion versão lida pelo cliente ({@code If-Match}) ou
+     *     {@code null} para atualizar sem verificação
      * @param currentUser usuário autenticado
      * @return tarefa atualizada
      */
     @Transactional
     @Traced(value = "TaskService.updateTask", captureParameters = true)
     public TaskResponse updateTask(final Long taskId, final TaskRequest request,
-            final UserPrincipal currentUser) {
+            final Long expectedVersion, final UserPrincipal currentUser) {
         final long startTime = System.currentTimeMillis();
         final Task task = findTask(taskId);
         ensureOwnership(task, currentUser, UPDATE_DENIED_MESSAGE);
+        ensureVersion(task, expectedVersion);
+        final TaskStatsDelta before =
+                TaskStatsDelta.of(task, LocalDateTime.now());
+        final Set<String> tagsBefore = Set.copyOf(task.getTags());
 
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
-        task.setStatus(request.getStatus());
+        TaskBoardService.changeStatus(task, request.getStatus());
         task.setPriority(request.getPriority());
         task.setDueDate(request.getDueDate());
         task.setEstimatedHours(request.getEstimatedHours());
-        task.setTags(request.getTags());
+        replaceTags(task, request.getTags());
+        final boolean completed = markCompletion(task);
 
-        if (request.getStatus() == TaskStatus.COMPLETED
-                && task.getCompletedAt() == null) {
-            task.setCompletedAt(LocalDateTime.now());
-            metricsService.recordTaskCompleted();
+        final TaskResponse response = saveChanges(task, before, tagsBefore,
+                completed, currentUser);
+        recordDuration(startTime, "update");
+        return response;
+    }
+
+    /**
+     * Aplica um documento JSON Merge Patch a uma tarefa do usuário. Apenas
+     * os campos presentes no documento são alterados e, com a atualização
+     * dinâmica da entidade, apenas as colunas que mudaram são gravadas; as
+     * tags são comparadas com as atuais e só as diferenças chegam ao banco.
+     *
+     * @param taskId identificador da tarefa
+     * @param patch campos alterados
+     * @param expectedVersion versão lida pelo cliente ({@code If-Match}) ou
+     *     {@code null} para atualizar sem verificação
+     * @param currentUser usuário autenticado
+     * @return tarefa atualizada
+     */
+    @Transactional
+    @Traced(value = "TaskService.patchTask", captureParameters = true)
+    public TaskResponse patchTask(final Long taskId,
+            final TaskPatchRequest patch, final Long expectedVersion,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final Task task = findTask(taskId);
+        ensureOwnership(task, currentUser, UPDATE_DENIED_MESSAGE);
+        ensureVersion(task, expectedVersion);
+        if (patch.getVersion() != null
+                && !patch.getVersion().equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(
+                    Task.class, taskId);
         }
+        final TaskStatsDelta before =
+                TaskStatsDelta.of(task, LocalDateTime.now());
+        final Set<String> tagsBefore = Set.copyOf(task.getTags());
 
-        final Task updatedTask = taskRepository.save(task);
-        recordDuration(startTime, "update");
-        return mapToResponse(updatedTask);
+        applyPatch(task, patch);
+        final boolean completed = markCompletion(task);
+
+        final TaskResponse response = saveChanges(task, before, tagsBefore,
+                completed, currentUser);
+        recordDuration(startTime, "patch");
+        return response;
     }
 
     /**
-     * Remove uma tarefa pertencente ao usuário autenticado.
+     * Remove uma tarefa pertencente ao usuário autenticado junto com toda a
+     * sua subarvore, usando comandos por conjunto.
      *
      * @param taskId identificador da tarefa
      * @param currentUser usuário autenticado
@@ -237,13 +534,13 @@ public class TaskService {
         final Task task = findTask(taskId);
         ensureOwnership(task, currentUser, DELETE_DENIED_MESSAGE);
 
-        taskRepository.delete(task);
-        metricsService.recordTaskDeleted();
+        taskOutbox.publishDeleted(currentUser.getId(), taskTreeService
+                .deleteSubtrees(currentUser.getId(), List.of(taskId)));
         recordDuration(startTime, "delete");
     }
 
     /**
-     * Lista tarefas atrasadas do usuário autenticado.
+     * Lista tarefas atrasadas do usuário autenticado sem paginação.
      *
      * @param currentUser usuário autenticado
      * @return lista de tarefas em atraso
@@ -251,11 +548,92 @@ public class TaskService {
     @Transactional(readOnly = true)
     @Traced("TaskService.getOverdueTasks")
     public List<TaskResponse> getOverdueTasks(final UserPrincipal currentUser) {
-        return taskRepository
-                .findOverdueTasks(currentUser.getId(), LocalDateTime.now())
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return taskViewAssembler.toResponses(taskRepository
+                .findOverdueViews(currentUser.getId(), LocalDateTime.now()));
+    }
+
+    private void ensureVersion(final Task task, final Long expectedVersion) {
+        if (expectedVersion != null
+                && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException(VERSION_MISMATCH_MESSAGE);
+        }
+    }
+
+    private void applyPatch(final Task task, final TaskPatchRequest patch) {
+        if (patch.has(TaskPatchRequest.TITLE)) {
+            task.setTitle(required(patch.getTitle(), TaskPatchRequest.TITLE));
+        }
+        if (patch.has(TaskPatchRequest.DESCRIPTION)) {
+            task.setDescription(patch.getDescription());
+        }
+        if (patch.has(TaskPatchRequest.STATUS)) {
+            TaskBoardService.changeStatus(task, required(patch.getStatus(),
+                    TaskPatchRequest.STATUS));
+        }
+        if (patch.has(TaskPatchRequest.PRIORITY)) {
+            task.setPriority(required(patch.getPriority(),
+                    TaskPatchRequest.PRIORITY));
+        }
+        if (patch.has(TaskPatchRequest.DUE_DATE)) {
+            task.setDueDate(patch.getDueDate());
+        }
+        if (patch.has(TaskPatchRequest.ESTIMATED_HOURS)) {
+            task.setEstimatedHours(patch.getEstimatedHours());
+        }
+        if (patch.has(TaskPatchRequest.ACTUAL_HOURS)) {
+            task.setActualHours(patch.getActualHours());
+        }
+        if (patch.has(TaskPatchRequest.TAGS)) {
+            replaceTags(task, patch.getTags());
+        }
+    }
+
+    private static <T> T required(final T value, final String field) {
+        if (value == null
+                || value instanceof String text && !StringUtils.hasText(text)) {
+            throw new IllegalStateException(
+                    "Field '" + field + "' cannot be empty");
+        }
+        return value;
+    }
+
+    private void replaceTags(final Task task, final Set<String> tags) {
+        // Altera a colecao gerenciada: o Hibernate grava apenas as tags
+        // removidas e adicionadas, em vez de recriar todas as linhas.
+        if (tags == null) {
+            task.getTags().clear();
+            return;
+        }
+        task.getTags().retainAll(tags);
+        task.getTags().addAll(tags);
+    }
+
+    private boolean markCompletion(final Task task) {
+        if (task.getStatus() == TaskStatus.COMPLETED
+                && task.getCompletedAt() == null) {
+            task.setCompletedAt(LocalDateTime.now());
+            return true;
+        }
+        return false;
+    }
+
+    private TaskResponse saveChanges(final Task task,
+            final TaskStatsDelta before, final Set<String> tagsBefore,
+            final boolean completed, final UserPrincipal currentUser) {
+        taskChangeTracker.stamp(List.of(task));
+        final Task updatedTask = taskRepository.saveAndFlush(task);
+        taskSearchIndexer.indexAfterCommit(List.of(updatedTask));
+        taskStatsService.recordChange(currentUser.getId(), before, updatedTask);
+        taskRollupService.recordChange(currentUser.getId(),
+                TaskRollup.of(before), updatedTask);
+        taskTagService.recordChange(currentUser.getId(), tagsBefore,
+                updatedTask);
+        dueDateScheduler.scheduleAfterCommit(List.of(updatedTask));
+        taskCalendarIndex.invalidateAfterCommit(
+                List.of(currentUser.getId()));
+        taskOutbox.publish(completed ? EventType.COMPLETED : EventType.UPDATED,
+                currentUser.getId(), List.of(updatedTask));
+        return mapToResponse(updatedTask);
     }
 
     private void attachParentTask(final Long parentTaskId, final Task task) {
@@ -294,6 +672,33 @@ public class TaskService {
         return status == null ? TaskStatus.TODO : status;
     }
 
+    private int resolvePageSize(final Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private TaskPageResponse toPage(final List<TaskView> rows,
+            final int pageSize,
+            final Function<TaskView, LocalDateTime> sortKey) {
+        final boolean hasMore = rows.size() > pageSize;
+        final List<TaskView> pageRows =
+                hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            final TaskView last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new TaskCursor(sortKey.apply(last), last.getId())
+                    .encode();
+        }
+        return TaskPageResponse.builder()
+                .items(taskViewAssembler.toResponses(pageRows))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(pageSize)
+                .build();
+    }
+
     private TaskResponse mapToResponse(final Task task) {
         final Long parentTaskId = task.getParentTask() == null
                 ? null
@@ -312,10 +717,15 @@ public class TaskService {
                 .tags(task.getTags())
                 .parentTaskId(parentTaskId)
                 .subtaskCount(task.getSubtasks().size())
+                .subtreeEstimatedHours(task.getSubtreeEstimatedHours())
+                .subtreeActualHours(task.getSubtreeActualHours())
+                .subtreeOpenCount(task.getSubtreeOpenCount())
+                .subtreeCompletedCount(task.getSubtreeCompletedCount())
                 .aiSuggestedPriority(task.getAiSuggestedPriority())
                 .aiAnalysis(task.getAiAnalysis())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
 
@@ -357,16 +767,23 @@ public class TaskService {
             return;
         }
 
+        final List<Task> subtasks = new ArrayList<>();
         for (final String title : analysis.getSuggestedSubtasks()) {
-            final Task subtask = Task.builder()
+            subtasks.add(Task.builder()
                     .title(title)
                     .status(TaskStatus.TODO)
                     .priority(parentTask.getPriority())
                     .user(user)
                     .parentTask(parentTask)
-                    .build();
-            taskRepository.save(subtask);
+                    .build());
         }
+        taskChangeTracker.stampCreated(subtasks);
+        taskRepository.saveAll(subtasks);
+        taskSearchIndexer.indexAfterCommit(subtasks);
+        taskStatsService.recordCreated(user.getId(), subtasks);
+        taskRollupService.recordCreated(user.getId(), subtasks);
+        dueDateScheduler.scheduleAfterCommit(subtasks);
+        taskOutbox.publish(EventType.CREATED, user.getId(), subtasks);
     }
 
     private void recordDuration(final long startTime, final String operation) {
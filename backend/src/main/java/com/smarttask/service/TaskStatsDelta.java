@@ -0,0 +1,238 @@
+package com.smarttask.service;
+
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskStats;
+import com.smarttask.repository.TaskStatsView;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Contribuicao de um conjunto de tarefas para os contadores de
+ * {@link TaskStats}. Acumula somas e diferencas para que cada operacao
+ * aplique um unico delta por usuario.
+ */
+public final class TaskStatsDelta {
+
+    /** Quantidade por status, indexada pelo ordinal. */
+    private final long[] statusCounts = new long[TaskStatus.values().length];
+
+    /** Quantidade por prioridade, indexada pelo ordinal. */
+    private final long[] priorityCounts =
+            new long[TaskPriority.values().length];
+
+    /** Tarefas atrasadas e nao concluidas. */
+    private long overdue;
+
+    /** Soma das horas estimadas. */
+    private long estimatedHours;
+
+    /** Soma das horas gastas. */
+    private long actualHours;
+
+    /**
+     * Cria um delta vazio.
+     *
+     * @return delta sem contribuicoes
+     */
+    public static TaskStatsDelta empty() {
+        return new TaskStatsDelta();
+    }
+
+    /**
+     * Contribuicao de uma tarefa no estado atual.
+     *
+     * @param task tarefa
+     * @param now data de referencia para atraso
+     * @return delta com a contribuicao da tarefa
+     */
+    public static TaskStatsDelta of(final Task task, final LocalDateTime now) {
+        final TaskStatsDelta delta = new TaskStatsDelta();
+        if (task.getStatus() != null) {
+            delta.statusCounts[task.getStatus().ordinal()]++;
+        }
+        if (task.getPriority() != null) {
+            delta.priorityCounts[task.getPriority().ordinal()]++;
+        }
+        if (task.getDueDate() != null && task.getDueDate().isBefore(now)
+                && task.getStatus() != TaskStatus.COMPLETED) {
+            delta.overdue++;
+        }
+        delta.estimatedHours += hours(task.getEstimatedHours());
+        delta.actualHours += hours(task.getActualHours());
+        return delta;
+    }
+
+    /**
+     * Soma um grupo agregado no banco.
+     *
+     * @param view grupo por status e prioridade
+     * @return este delta
+     */
+    public TaskStatsDelta add(final TaskStatsView view) {
+        final long count = value(view.getTaskCount());
+        if (view.getStatus() != null) {
+            statusCounts[view.getStatus().ordinal()] += count;
+        }
+        if (view.getPriority() != null) {
+            priorityCounts[view.getPriority().ordinal()] += count;
+        }
+        overdue += value(view.getOverdueCount());
+        estimatedHours += value(view.getEstimatedHours());
+        actualHours += value(view.getActualHours());
+        return this;
+    }
+
+    /**
+     * Soma outro delta.
+     *
+     * @param other delta somado
+     * @return este delta
+     */
+    public TaskStatsDelta add(final TaskStatsDelta other) {
+        return combine(other, 1);
+    }
+
+    /**
+     * Subtrai outro delta.
+     *
+     * @param other delta subtraido
+     * @return este delta
+     */
+    public TaskStatsDelta subtract(final TaskStatsDelta other) {
+        return combine(other, -1);
+    }
+
+    /**
+     * Inverte o sinal de todas as contribuicoes.
+     *
+     * @return este delta
+     */
+    public TaskStatsDelta negate() {
+        for (int index = 0; index < statusCounts.length; index++) {
+            statusCounts[index] = -statusCounts[index];
+        }
+        for (int index = 0; index < priorityCounts.length; index++) {
+            priorityCounts[index] = -priorityCounts[index];
+        }
+        overdue = -overdue;
+        estimatedHours = -estimatedHours;
+        actualHours = -actualHours;
+        return this;
+    }
+
+    /**
+     * Indica se o delta nao altera nenhum contador.
+     *
+     * @return {@code true} quando todas as contribuicoes sao zero
+     */
+    public boolean isEmpty() {
+        return Arrays.stream(statusCounts).allMatch(count -> count == 0)
+                && Arrays.stream(priorityCounts).allMatch(count -> count == 0)
+                && overdue == 0 && estimatedHours == 0 && actualHours == 0;
+    }
+
+    /**
+     * Contribuicao para um status.
+     *
+     * @param status status
+     * @return quantidade de tarefas
+     */
+    public long statusCount(final TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Contribuicao para uma prioridade.
+     *
+     * @param priority prioridade
+     * @return quantidade de tarefas
+     */
+    public long priorityCount(final TaskPriority priority) {
+        return priorityCounts[priority.ordinal()];
+    }
+
+    /**
+     * Contribuicao para as tarefas atrasadas.
+     *
+     * @return quantidade de tarefas atrasadas
+     */
+    public long getOverdue() {
+        return overdue;
+    }
+
+    /**
+     * Contribuicao para as horas estimadas.
+     *
+     * @return horas estimadas
+     */
+    public long getEstimatedHours() {
+        return estimatedHours;
+    }
+
+    /**
+     * Contribuicao para as horas gastas.
+     *
+     * @return horas gastas
+     */
+    public long getActualHours() {
+        return actualHours;
+    }
+
+    /**
+     * Copia os valores para os contadores de um usuario.
+     *
+     * @param stats contadores atualizados
+     */
+    public void copyTo(final TaskStats stats) {
+        stats.setTodoCount(statusCount(TaskStatus.TODO));
+        stats.setInProgressCount(statusCount(TaskStatus.IN_PROGRESS));
+        stats.setCompletedCount(statusCount(TaskStatus.COMPLETED));
+        stats.setCancelledCount(statusCount(TaskStatus.CANCELLED));
+        stats.setLowPriorityCount(priorityCount(TaskPriority.LOW));
+        stats.setMediumPriorityCount(priorityCount(TaskPriority.MEDIUM));
+        stats.setHighPriorityCount(priorityCount(TaskPriority.HIGH));
+        stats.setUrgentPriorityCount(priorityCount(TaskPriority.URGENT));
+        stats.setOverdueCount(overdue);
+        stats.setEstimatedHours(estimatedHours);
+        stats.setActualHours(actualHours);
+    }
+
+    /**
+     * Indica se os contadores de um usuario ja refletem este delta.
+     *
+     * @param stats contadores persistidos
+     * @return {@code true} quando todos os valores coincidem
+     */
+    public boolean matches(final TaskStats stats) {
+        final TaskStats expected = new TaskStats();
+        copyTo(expected);
+        expected.setUserId(stats.getUserId());
+        expected.setUpdatedAt(stats.getUpdatedAt());
+        expected.setReconciledAt(stats.getReconciledAt());
+        return expected.equals(stats);
+    }
+
+    private TaskStatsDelta combine(final TaskStatsDelta other,
+            final int sign) {
+        for (int index = 0; index < statusCounts.length; index++) {
+            statusCounts[index] += sign * other.statusCounts[index];
+        }
+        for (int index = 0; index < priorityCounts.length; index++) {
+            priorityCounts[index] += sign * other.priorityCounts[index];
+        }
+        overdue += sign * other.overdue;
+        estimatedHours += sign * other.estimatedHours;
+        actualHours += sign * other.actualHours;
+        return this;
+    }
+
+    private static long hours(final Integer hours) {
+        return hours == null ? 0L : hours;
+    }
+
+    private static long value(final Long value) {
+        return value == null ? 0L : value;
+    }
+}
@@ -0,0 +1,298 @@
+package com.smarttask.service;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.dto.TaskSummaryResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskStats;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskStatsRepository;
+import com.smarttask.repository.TaskStatsView;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.security.UserPrincipal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantem os contadores agregados de {@code task_stats} e responde o resumo
+ * do dashboard a partir deles.
+ *
+ * <p>Os servicos de escrita chamam este componente dentro da propria
+ * transacao, aplicando um unico {@code UPDATE} com os deltas do usuario. A
+ * reconciliacao periodica recalcula os contadores a partir da tabela de
+ * tarefas, cria as linhas que faltam e corrige qualquer divergencia, como
+ * tarefas que passaram a estar atrasadas apenas com o passar do tempo.</p>
+ */
+@Service
+@Slf4j
+public class TaskStatsService {
+
+    /** Usuarios conferidos por transacao na reconciliacao. */
+    static final int RECONCILE_BATCH_SIZE = 500;
+
+    /** Tarefas agregadas por consulta ao descontar remocoes. */
+    static final int ID_BATCH_SIZE = 1000;
+
+    /** Expressao cron para reconciliar a cada dez minutos. */
+    private static final String CRON_EVERY_TEN_MINUTES = "0 */10 * * * *";
+
+    /** Repositorio dos contadores. */
+    private final TaskStatsRepository taskStatsRepository;
+
+    /** Repositorio de tarefas, fonte da reconciliacao. */
+    private final TaskRepository taskRepository;
+
+    /** Repositorio de usuarios percorrido pela reconciliacao. */
+    private final UserRepository userRepository;
+
+    /** Transacao de cada bloco da reconciliacao. */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Cria o servico de contadores.
+     *
+     * @param taskStatsRepository repositorio dos contadores
+     * @param taskRepository repositorio de tarefas
+     * @param userRepository repositorio de usuarios
+     * @param transactionManager gerenciador das transacoes da reconciliacao
+     */
+    public TaskStatsService(final TaskStatsRepository taskStatsRepository,
+            final TaskRepository taskRepository,
+            final UserRepository userRepository,
+            final PlatformTransactionManager transactionManager) {
+        this.taskStatsRepository = taskStatsRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Soma as tarefas criadas aos contadores do usuario.
+     *
+     * @param userId identificador do usuario
+     * @param tasks tarefas criadas
+     */
+    public void recordCreated(final Long userId,
+            final Collection<Task> tasks) {
+        final LocalDateTime now = LocalDateTime.now();
+        final TaskStatsDelta delta = TaskStatsDelta.empty();
+        for (final Task task : tasks) {
+            delta.add(TaskStatsDelta.of(task, now));
+        }
+        record(userId, delta);
+    }
+
+    /**
+     * Aplica a diferenca entre o estado anterior e o atual de uma tarefa.
+     *
+     * @param userId identificador do usuario
+     * @param before contribuicao da tarefa antes da alteracao
+     * @param after tarefa alterada
+     */
+    public void recordChange(final Long userId, final TaskStatsDelta before,
+            final Task after) {
+        record(userId, TaskStatsDelta.of(after, LocalDateTime.now())
+                .subtract(before));
+    }
+
+    /**
+     * Desconta dos contadores as tarefas que serao removidas. Deve ser
+     * chamado antes da remocao, na mesma transacao.
+     *
+     * @param taskIds tarefas removidas
+     */
+    public void recordRemoval(final Collection<Long> taskIds) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> ids = new ArrayList<>(taskIds);
+        final Map<Long, TaskStatsDelta> deltas = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += ID_BATCH_SIZE) {
+            for (final TaskStatsView view : taskRepository.aggregateStatsByIds(
+                    ids.subList(start, Math.min(start + ID_BATCH_SIZE,
+                            ids.size())), now)) {
+                deltas.computeIfAbsent(view.getUserId(),
+                        key -> TaskStatsDelta.empty()).add(view);
+            }
+        }
+        deltas.forEach((userId, delta) -> record(userId, delta.negate()));
+    }
+
+    /**
+     * Aplica um delta aos contadores do usuario. Usuarios sem contadores
+     * sao ignorados: a linha e criada a partir da tabela de tarefas na
+     * primeira consulta ou na proxima reconciliacao.
+     *
+     * @param userId identificador do usuario
+     * @param delta delta acumulado
+     */
+    public void record(final Long userId, final TaskStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        taskStatsRepository.applyDelta(userId,
+                delta.statusCount(TaskStatus.TODO),
+                delta.statusCount(TaskStatus.IN_PROGRESS),
+                delta.statusCount(TaskStatus.COMPLETED),
+                delta.statusCount(TaskStatus.CANCELLED),
+                delta.priorityCount(TaskPriority.LOW),
+                delta.priorityCount(TaskPriority.MEDIUM),
+                delta.priorityCount(TaskPriority.HIGH),
+                delta.priorityCount(TaskPriority.URGENT),
+                delta.getOverdue(),
+                delta.getEstimatedHours(),
+                delta.getActualHours(),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Resumo das tarefas do usuario lido da linha de contadores.
+     *
+     * @param currentUser usuario autenticado
+     * @return resumo para o dashboard
+     */
+    @Traced("TaskStatsService.getSummary")
+    public TaskSummaryResponse getSummary(final UserPrincipal currentUser) {
+        final Long userId = currentUser.getId();
+        Optional<TaskStats> stats = taskStatsRepository.findById(userId);
+        if (stats.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        reconcileUsers(List.of(userId)));
+            } catch (DataIntegrityViolationException concurrentInsert) {
+                log.debug("Contadores do usuario {} criados em paralelo",
+                        userId);
+            }
+            stats = taskStatsRepository.findById(userId);
+        }
+        return toResponse(stats.orElseGet(() ->
+                TaskStats.builder().userId(userId).build()));
+    }
+
+    /**
+     * Recalcula os contadores de todos os usuarios em blocos e corrige as
+     * divergencias encontradas.
+     */
+    @Scheduled(cron = CRON_EVERY_TEN_MINUTES)
+    public void reconcile() {
+        ShardContext.forEachShard(this::reconcileShard);
+    }
+
+    /**
+     * Recalcula os contadores dos usuarios a partir da tabela de tarefas,
+     * bloqueando as linhas existentes para que nenhum delta concorrente se
+     * perca. Deve ser chamado dentro de uma transacao.
+     *
+     * @param userIds identificadores dos usuarios
+     * @return quantidade de linhas criadas ou corrigidas
+     */
+    public int reconcileUsers(final Collection<Long> userIds) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, TaskStats> existing = new HashMap<>();
+        for (final TaskStats stats
+                : taskStatsRepository.lockByUserIds(userIds)) {
+            existing.put(stats.getUserId(), stats);
+        }
+        final Map<Long, TaskStatsDelta> expected = new HashMap<>();
+        for (final TaskStatsView view
+                : taskRepository.aggregateStatsByUserIds(userIds, now)) {
+            expected.computeIfAbsent(view.getUserId(),
+                    key -> TaskStatsDelta.empty()).add(view);
+        }
+
+        int repaired = 0;
+        for (final Long userId : userIds) {
+            final TaskStatsDelta totals = expected.getOrDefault(userId,
+                    TaskStatsDelta.empty());
+            TaskStats stats = existing.get(userId);
+            if (stats != null && totals.matches(stats)) {
+                stats.setReconciledAt(now);
+                continue;
+            }
+            if (stats == null) {
+                stats = TaskStats.builder().userId(userId).build();
+            }
+            totals.copyTo(stats);
+            stats.setUpdatedAt(now);
+            stats.setReconciledAt(now);
+            taskStatsRepository.save(stats);
+            repaired++;
+        }
+        return repaired;
+    }
+
+    private void reconcileShard() {
+        final long startTime = System.currentTimeMillis();
+        long lastId = 0L;
+        int checked = 0;
+        int repaired = 0;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(lastId,
+                    Limit.of(RECONCILE_BATCH_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            final List<Long> batch = userIds.stream()
+                    .filter(ShardContext::isHomeShard)
+                    .toList();
+            if (!batch.isEmpty()) {
+                final Integer fixed = transactionTemplate.execute(status ->
+                        reconcileUsers(batch));
+                repaired += fixed == null ? 0 : fixed;
+            }
+            checked += batch.size();
+            lastId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == RECONCILE_BATCH_SIZE);
+        if (repaired > 0) {
+            log.warn("Reconciliacao de contadores corrigiu {} de {} usuarios "
+                    + "em {} ms", repaired, checked,
+                    System.currentTimeMillis() - startTime);
+        } else {
+            log.debug("Reconciliacao de contadores conferiu {} usuarios em "
+                    + "{} ms", checked, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private TaskSummaryResponse toResponse(final TaskStats stats) {
+        final Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        byStatus.put(TaskStatus.TODO, stats.getTodoCount());
+        byStatus.put(TaskStatus.IN_PROGRESS, stats.getInProgressCount());
+        byStatus.put(TaskStatus.COMPLETED, stats.getCompletedCount());
+        byStatus.put(TaskStatus.CANCELLED, stats.getCancelledCount());
+
+        final Map<TaskPriority, Long> byPriority =
+                new EnumMap<>(TaskPriority.class);
+        byPriority.put(TaskPriority.LOW, stats.getLowPriorityCount());
+        byPriority.put(TaskPriority.MEDIUM, stats.getMediumPriorityCount());
+        byPriority.put(TaskPriority.HIGH, stats.getHighPriorityCount());
+        byPriority.put(TaskPriority.URGENT, stats.getUrgentPriorityCount());
+
+        long total = 0;
+        for (final long count : byStatus.values()) {
+            total += count;
+        }
+        return TaskSummaryResponse.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .overdue(Math.max(0L, stats.getOverdueCount()))
+                .estimatedHours(stats.getEstimatedHours())
+                .actualHours(stats.getActualHours())
+                .reconciledAt(stats.getReconciledAt())
+                .build();
+    }
+}
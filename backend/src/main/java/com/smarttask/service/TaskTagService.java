@@ -0,0 +1,328 @@
+package com.smarttask.service;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.dto.TagFacetResponse;
+import com.smarttask.model.Task;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskTagCountView;
+import com.smarttask.repository.TaskTagLinkRepository;
+import com.smarttask.repository.UserTagRepository;
+import com.smarttask.repository.UserTagView;
+import com.smarttask.security.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantem o dicionario de tags de cada usuario, os vinculos entre tarefas e
+ * tags e a quantidade de tarefas por tag.
+ *
+ * <p>Os servicos de escrita chamam este componente dentro da propria
+ * transacao com as tags adicionadas e removidas de cada tarefa. Os vinculos
+ * sao gravados em lote e as contagens recebem apenas os deltas, em ordem
+ * crescente de tag para que transacoes concorrentes bloqueiem as linhas na
+ * mesma ordem. Nomes novos entram no dicionario em uma transacao propria,
+ * de modo que dois usuarios criando a mesma tag ao mesmo tempo nao abortem
+ * a transacao que grava as tarefas.</p>
+ */
+@Service
+@Slf4j
+public class TaskTagService {
+
+    /** Tarefas consultadas por comando ao descontar remocoes. */
+    static final int ID_BATCH_SIZE = 1000;
+
+    /** Cria os nomes do dicionario que ainda nao existem. */
+    private static final String BACKFILL_DICTIONARY = "INSERT INTO user_tags "
+            + "(user_id, name, task_count) SELECT DISTINCT t.user_id, tt.tag, 0 "
+            + "FROM task_tags tt JOIN tasks t ON t.id = tt.task_id "
+            + "WHERE tt.tag IS NOT NULL AND NOT EXISTS (SELECT 1 FROM "
+            + "user_tags u WHERE u.user_id = t.user_id AND u.name = tt.tag)";
+
+    /** Cria os vinculos que ainda nao existem. */
+    private static final String BACKFILL_LINKS = "INSERT INTO task_tag_links "
+            + "(tag_id, task_id) SELECT u.id, tt.task_id FROM task_tags tt "
+            + "JOIN tasks t ON t.id = tt.task_id "
+            + "JOIN user_tags u ON u.user_id = t.user_id AND u.name = tt.tag "
+            + "WHERE NOT EXISTS (SELECT 1 FROM task_tag_links l "
+            + "WHERE l.tag_id = u.id AND l.task_id = tt.task_id)";
+
+    /** Recalcula as contagens a partir dos vinculos. */
+    private static final String RECOUNT = "UPDATE user_tags SET task_count = "
+            + "(SELECT COUNT(*) FROM task_tag_links l "
+            + "WHERE l.tag_id = user_tags.id)";
+
+    /** Repositorio do dicionario. */
+    private final UserTagRepository userTagRepository;
+
+    /** Repositorio dos vinculos. */
+    private final TaskTagLinkRepository taskTagLinkRepository;
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transacao propria de cada nome novo do dicionario. */
+    private final TransactionTemplate dictionaryTransaction;
+
+    /**
+     * Cria o servico de tags.
+     *
+     * @param userTagRepository repositorio do dicionario
+     * @param taskTagLinkRepository repositorio dos vinculos
+     * @param jdbcTemplate acesso JDBC
+     * @param transactionManager gerenciador das transacoes do dicionario
+     */
+    public TaskTagService(final UserTagRepository userTagRepository,
+            final TaskTagLinkRepository taskTagLinkRepository,
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager) {
+        this.userTagRepository = userTagRepository;
+        this.taskTagLinkRepository = taskTagLinkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionaryTransaction = new TransactionTemplate(transactionManager);
+        this.dictionaryTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Vincula as tarefas criadas as suas tags.
+     *
+     * @param userId identificador do usuario
+     * @param tasks tarefas criadas
+     */
+    public void recordCreated(final Long userId,
+            final Collection<Task> tasks) {
+        recordChanges(userId, Map.of(), tasks);
+    }
+
+    /**
+     * Aplica a diferenca entre as tags anteriores e as atuais de uma tarefa.
+     *
+     * @param userId identificador do usuario
+     * @param before tags da tarefa antes da alteracao
+     * @param after tarefa alterada
+     */
+    public void recordChange(final Long userId, final Set<String> before,
+            final Task after) {
+        recordChanges(userId, Map.of(after.getId(), before), List.of(after));
+    }
+
+    /**
+     * Aplica a diferenca entre as tags anteriores e as atuais de varias
+     * tarefas. Tarefas ausentes de {@code before} sao tratadas como novas
+     * e tarefas repetidas sao consideradas uma unica vez.
+     *
+     * @param userId identificador do usuario
+     * @param before tags de cada tarefa antes da alteracao
+     * @param after tarefas gravadas
+     */
+    public void recordChanges(final Long userId,
+            final Map<Long, Set<String>> before,
+            final Collection<Task> after) {
+        final Map<Long, Set<String>> added = new HashMap<>();
+        final Map<Long, Set<String>> removed = new HashMap<>();
+        final Set<Long> seen = new HashSet<>();
+        for (final Task task : after) {
+            if (!seen.add(task.getId())) {
+                continue;
+            }
+            final Set<String> previous =
+                    before.getOrDefault(task.getId(), Set.of());
+            final Set<String> current = task.getTags() == null
+                    ? Set.of()
+                    : task.getTags();
+            final Set<String> gained = new HashSet<>(current);
+            gained.removeAll(previous);
+            gained.remove(null);
+            final Set<String> lost = new HashSet<>(previous);
+            lost.removeAll(current);
+            lost.remove(null);
+            if (!gained.isEmpty()) {
+                added.put(task.getId(), gained);
+            }
+            if (!lost.isEmpty()) {
+                removed.put(task.getId(), lost);
+            }
+        }
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        final Set<String> names = new HashSet<>();
+        added.values().forEach(names::addAll);
+        removed.values().forEach(names::addAll);
+        final Map<String, Long> tagIds = resolve(userId, names,
+                collectNames(added));
+
+        final Map<Long, Long> deltas = new TreeMap<>();
+        final List<Object[]> inserts = new ArrayList<>();
+        added.forEach((taskId, tags) -> {
+            for (final String tag : tags) {
+                final Long tagId = tagIds.get(tag);
+                inserts.add(new Object[] {tagId, taskId});
+                deltas.merge(tagId, 1L, Long::sum);
+            }
+        });
+        final List<Object[]> deletes = new ArrayList<>();
+        removed.forEach((taskId, tags) -> {
+            for (final String tag : tags) {
+                final Long tagId = tagIds.get(tag);
+                if (tagId != null) {
+                    deletes.add(new Object[] {tagId, taskId});
+                    deltas.merge(tagId, -1L, Long::sum);
+                }
+            }
+        });
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM task_tag_links "
+                    + "WHERE tag_id = ? AND task_id = ?", deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO task_tag_links "
+                    + "(tag_id, task_id) VALUES (?, ?)", inserts);
+        }
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Desconta das contagens e remove os vinculos das tarefas que serao
+     * removidas. Deve ser chamado antes da remocao, na mesma transacao.
+     *
+     * @param taskIds tarefas removidas
+     */
+    public void recordRemoval(final Collection<Long> taskIds) {
+        final List<Long> ids = new ArrayList<>(taskIds);
+        final Map<Long, Long> deltas = new TreeMap<>();
+        for (int start = 0; start < ids.size(); start += ID_BATCH_SIZE) {
+            final List<Long> batch = ids.subList(start,
+                    Math.min(start + ID_BATCH_SIZE, ids.size()));
+            for (final TaskTagCountView view
+                    : taskTagLinkRepository.countByTaskIds(batch)) {
+                deltas.merge(view.getTagId(), -view.getTaskCount(),
+                        Long::sum);
+            }
+            taskTagLinkRepository.deleteByTaskIds(batch);
+        }
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Identificador de uma tag no dicionario do usuario.
+     *
+     * @param userId identificador do usuario
+     * @param name nome da tag
+     * @return identificador, vazio quando o usuario nunca usou a tag
+     */
+    public Optional<Long> findTagId(final Long userId, final String name) {
+        return userTagRepository.findByUserIdAndName(userId, name)
+                .map(UserTagView::getId);
+    }
+
+    /**
+     * Tags em uso pelo usuario com a quantidade de tarefas de cada uma,
+     * lidas das contagens mantidas a cada escrita.
+     *
+     * @param currentUser usuario autenticado
+     * @return tags da mais para a menos usada
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskTagService.getFacets")
+    public List<TagFacetResponse> getFacets(final UserPrincipal currentUser) {
+        final List<TagFacetResponse> facets = new ArrayList<>();
+        for (final UserTagView tag
+                : userTagRepository.findFacetsByUserId(currentUser.getId())) {
+            facets.add(TagFacetResponse.builder()
+                    .id(tag.getId())
+                    .name(tag.getName())
+                    .count(tag.getTaskCount())
+                    .build());
+        }
+        return facets;
+    }
+
+    /**
+     * Preenche o dicionario e os vinculos a partir das tags gravadas antes
+     * da sua existencia e recalcula as contagens quando algo foi criado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        ShardContext.forEachShard(this::backfillShard);
+    }
+
+    private void backfillShard() {
+        final int names = jdbcTemplate.update(BACKFILL_DICTIONARY);
+        final int links = jdbcTemplate.update(BACKFILL_LINKS);
+        if (links > 0) {
+            jdbcTemplate.update(RECOUNT);
+            log.info("Dicionario de tags preenchido com {} tags e {} vinculos",
+                    names, links);
+        }
+    }
+
+    private Map<String, Long> resolve(final Long userId,
+            final Set<String> names, final Set<String> required) {
+        final Map<String, Long> tagIds = new HashMap<>();
+        for (final UserTagView tag
+                : userTagRepository.findByUserIdAndNameIn(userId, names)) {
+            tagIds.put(tag.getName(), tag.getId());
+        }
+        final Set<String> missing = new HashSet<>(required);
+        missing.removeAll(tagIds.keySet());
+        if (missing.isEmpty()) {
+            return tagIds;
+        }
+        for (final String name : missing) {
+            try {
+                dictionaryTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.update("INSERT INTO user_tags "
+                                + "(user_id, name, task_count) "
+                                + "VALUES (?, ?, 0)", userId, name));
+            } catch (DataIntegrityViolationException concurrentInsert) {
+                log.debug("Tag '{}' do usuario {} criada em paralelo",
+                        name, userId);
+            }
+        }
+        for (final UserTagView tag
+                : userTagRepository.findByUserIdAndNameIn(userId, missing)) {
+            tagIds.put(tag.getName(), tag.getId());
+        }
+        return tagIds;
+    }
+
+    private void applyDeltas(final Map<Long, Long> deltas) {
+        final List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((tagId, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[] {delta, tagId});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE user_tags SET task_count = "
+                    + "task_count + ? WHERE id = ?", rows);
+        }
+    }
+
+    private static Set<String> collectNames(
+            final Map<Long, Set<String>> tagsByTask) {
+        final Set<String> names = new HashSet<>();
+        tagsByTask.values().forEach(names::addAll);
+        return names;
+    }
+}
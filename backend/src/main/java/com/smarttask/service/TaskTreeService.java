@@ -0,0 +1,312 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dependency.TaskDependencyGraph;
+import com.smarttask.dto.ReparentTaskRequest;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.dto.TaskTreeNode;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.Task;
+import com.smarttask.model.TaskOutboxEvent.EventType;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.observability.Traced;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.PomodoroSessionRepository;
+import com.smarttask.repository.TaskDependencyRepository;
+import com.smarttask.repository.TaskOccurrenceRepository;
+import com.smarttask.repository.TaskRecurrenceRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskTreeEntryView;
+import com.smarttask.repository.TaskView;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Operacoes sobre a hierarquia de subtarefas executadas com SQL por
+ * conjunto: leitura da subarvore completa por CTE recursiva, troca de pai e
+ * remocao de subarvores sem carregar entidades nem depender de cascatas.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskTreeService {
+
+    /** Quantidade maxima de identificadores por comando em lote. */
+    static final int ID_BATCH_SIZE = 1000;
+
+    /** Mensagem padrao para tarefa inexistente. */
+    private static final String TASK_NOT_FOUND_MESSAGE = "Task not found";
+
+    /** Mensagem utilizada quando a tarefa pai nao existe. */
+    private static final String PARENT_TASK_NOT_FOUND_MESSAGE =
+            "Parent task not found";
+
+    /** Aviso de acesso negado a tarefas que nao pertencem ao usuario. */
+    private static final String ACCESS_DENIED_MESSAGE =
+            "You don't have permission to access this task";
+
+    /** Aviso para operacoes de atualizacao sem permissao. */
+    private static final String UPDATE_DENIED_MESSAGE =
+            "You don't have permission to update this task";
+
+    /** Mensagem para movimentos que criariam um ciclo na hierarquia. */
+    private static final String CYCLE_MESSAGE =
+            "A task cannot be moved under itself or one of its subtasks";
+
+    /** Repositório de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositório das sessões de pomodoro vinculadas às tarefas. */
+    private final PomodoroSessionRepository pomodoroSessionRepository;
+
+    /** Repositorio das regras de recorrencia das tarefas modelo. */
+    private final TaskRecurrenceRepository taskRecurrenceRepository;
+
+    /** Repositorio das ocorrencias materializadas das series. */
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+
+    /** Repositorio das dependencias entre tarefas. */
+    private final TaskDependencyRepository taskDependencyRepository;
+
+    /** Grafo de dependencias em memoria. */
+    private final TaskDependencyGraph taskDependencyGraph;
+
+    /** Montador das respostas de leitura a partir de projeções. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /** Sincronizador do indice de busca com as transações. */
+    private final TaskSearchIndexer taskSearchIndexer;
+
+    /** Serviço de métricas das operações com tarefas. */
+    private final MetricsService metricsService;
+
+    /** Contadores agregados descontados nas remocoes. */
+    private final TaskStatsService taskStatsService;
+
+    /** Totais das subarvores, transferidos e descontados nos ancestrais. */
+    private final TaskRollupService taskRollupService;
+
+    /** Timers dos alertas de vencimento e atraso. */
+    private final DueDateScheduler dueDateScheduler;
+
+    /** Indice em memoria do calendario de tarefas. */
+    private final TaskCalendarIndex taskCalendarIndex;
+
+    /** Sequencia de alteracoes lida pela sincronizacao incremental. */
+    private final TaskChangeTracker taskChangeTracker;
+
+    /** Dicionário de tags, cujas contagens são descontadas nas remoções. */
+    private final TaskTagService taskTagService;
+
+    /** Outbox dos eventos do ciclo de vida das tarefas. */
+    private final TaskOutbox taskOutbox;
+
+    /**
+     * Retorna a subarvore completa de uma tarefa, com todos os níveis,
+     * usando uma única consulta recursiva para descobrir os nós.
+     *
+     * @param taskId identificador da raiz
+     * @param currentUser usuário autenticado
+     * @return raiz da árvore com os filhos aninhados
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskTreeService.getTaskTree")
+    public TaskTreeNode getTaskTree(final Long taskId,
+            final UserPrincipal currentUser) {
+        final long startTime = System.currentTimeMillis();
+        final List<TaskTreeEntryView> entries = taskRepository.findSubtree(
+                List.of(taskId), currentUser.getId());
+        if (entries.isEmpty()) {
+            throw missingOrForeign(taskId);
+        }
+
+        final Map<Long, Integer> depths = new HashMap<>();
+        for (final TaskTreeEntryView entry : entries) {
+            depths.put(entry.getId(), entry.getDepth());
+        }
+        final List<TaskResponse> tasks = taskViewAssembler.toResponses(
+                loadViews(currentUser.getId(), depths.keySet()));
+        tasks.sort(Comparator.comparing(TaskResponse::getId));
+
+        final Map<Long, TaskTreeNode> nodes = new HashMap<>();
+        for (final TaskResponse task : tasks) {
+            nodes.put(task.getId(), TaskTreeNode.builder()
+                    .task(task)
+                    .depth(depths.get(task.getId()))
+                    .build());
+        }
+        for (final TaskResponse task : tasks) {
+            final TaskTreeNode parent = task.getId().equals(taskId)
+                    ? null
+                    : nodes.get(task.getParentTaskId());
+            if (parent != null) {
+                parent.getChildren().add(nodes.get(task.getId()));
+            }
+        }
+        recordDuration(startTime, "tree");
+        return nodes.get(taskId);
+    }
+
+    /**
+     * Move uma tarefa, com toda a sua subarvore, para outro pai ou para a
+     * raiz.
+     *
+     * @param taskId identificador da tarefa movida
+     * @param request novo pai desejado
+     * @param currentUser usuário autenticado
+     * @return tarefa com o novo pai
+     */
+    @Transactional
+    @Traced("TaskTreeService.reparentTask")
+    public TaskResponse reparentTask(final Long taskId,
+            final ReparentTaskRequest request,
+            final UserPrincipal currentUser) {
+        final Long userId = currentUser.getId();
+        final Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        TASK_NOT_FOUND_MESSAGE));
+        if (!task.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException(UPDATE_DENIED_MESSAGE);
+        }
+
+        final Long parentId = request.getParentTaskId();
+        Task parent = null;
+        if (parentId != null) {
+            parent = taskRepository.findById(parentId)
+                    .filter(found -> found.getUser().getId().equals(userId))
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            PARENT_TASK_NOT_FOUND_MESSAGE));
+            final boolean cycle = taskRepository
+                    .findSubtree(List.of(taskId), userId)
+                    .stream()
+                    .anyMatch(entry -> entry.getId().equals(parentId));
+            if (cycle) {
+                throw new IllegalStateException(CYCLE_MESSAGE);
+            }
+        }
+
+        final Set<Long> touched = new LinkedHashSet<>();
+        touched.add(taskId);
+        if (task.getParentTask() != null) {
+            touched.add(task.getParentTask().getId());
+        }
+        if (parentId != null) {
+            touched.add(parentId);
+        }
+        taskRollupService.recordMove(userId, task, parentId);
+        taskRepository.updateParent(taskId, parent, LocalDateTime.now());
+        taskChangeTracker.touch(touched);
+        taskOutbox.publish(EventType.UPDATED, userId, List.of(task));
+        return taskViewAssembler.toResponses(
+                loadViews(userId, List.of(taskId))).get(0);
+    }
+
+    /**
+     * Remove as subarvores das raízes informadas com comandos por conjunto:
+     * contadores agregados, contagens de tags, totais dos ancestrais,
+     * tombstones da sincronização, sessões de pomodoro, dependências, tags,
+     * vínculos de pai e, por fim, as tarefas.
+     * Raízes de outro usuário são ignoradas.
+     *
+     * @param userId identificador do usuário dono das tarefas
+     * @param rootIds raízes das subarvores
+     * @return identificadores de todas as tarefas removidas
+     */
+    @Transactional
+    public Set<Long> deleteSubtrees(final Long userId,
+            final Collection<Long> rootIds) {
+        final Set<Long> ids = new LinkedHashSet<>();
+        final List<Long> roots = new ArrayList<>(rootIds);
+        for (final List<Long> batch : batches(roots)) {
+            for (final TaskTreeEntryView entry
+                    : taskRepository.findSubtree(batch, userId)) {
+                ids.add(entry.getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        taskStatsService.recordRemoval(ids);
+        taskTagService.recordRemoval(ids);
+        taskRollupService.recordRemoval(userId, ids);
+        final List<Long> ownedRoots = new ArrayList<>();
+        for (final Long rootId : roots) {
+            if (ids.contains(rootId)) {
+                ownedRoots.add(rootId);
+            }
+        }
+        final Set<Long> parents = new LinkedHashSet<>();
+        for (final List<Long> batch : batches(ownedRoots)) {
+            parents.addAll(taskRepository.findParentIds(batch));
+        }
+        parents.removeAll(ids);
+        taskChangeTracker.touch(parents);
+        taskChangeTracker.recordDeletions(userId, ids);
+        final List<List<Long>> batches = batches(new ArrayList<>(ids));
+        int dependencies = 0;
+        for (final List<Long> batch : batches) {
+            pomodoroSessionRepository.deleteByTaskIdIn(batch);
+            dependencies += taskDependencyRepository.deleteByTaskIdIn(batch);
+            taskRecurrenceRepository.deleteByTaskIdIn(batch);
+            taskOccurrenceRepository.deleteByTemplateIdIn(batch);
+            taskRepository.deleteTagsByTaskIds(batch);
+            taskRepository.detachParents(batch);
+        }
+        for (final List<Long> batch : batches) {
+            taskRepository.deleteAllByIdIn(batch);
+        }
+        taskSearchIndexer.removeAfterCommit(userId, ids);
+        dueDateScheduler.cancelAfterCommit(ids);
+        taskCalendarIndex.invalidateAfterCommit(List.of(userId));
+        if (dependencies > 0) {
+            taskDependencyGraph.invalidateAfterCommit(List.of(userId));
+        }
+        return ids;
+    }
+
+    private List<TaskView> loadViews(final Long userId,
+            final Collection<Long> ids) {
+        final List<TaskView> views = new ArrayList<>(ids.size());
+        for (final List<Long> batch : batches(new ArrayList<>(ids))) {
+            views.addAll(taskRepository.findViewsByUserIdAndIdIn(userId,
+                    batch));
+        }
+        return views;
+    }
+
+    private static List<List<Long>> batches(final List<Long> ids) {
+        final List<List<Long>> batches = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += ID_BATCH_SIZE) {
+            batches.add(ids.subList(start,
+                    Math.min(start + ID_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+
+    private RuntimeException missingOrForeign(final Long taskId) {
+        if (taskRepository.existsById(taskId)) {
+            return new AccessDeniedException(ACCESS_DENIED_MESSAGE);
+        }
+        return new ResourceNotFoundException(TASK_NOT_FOUND_MESSAGE);
+    }
+
+    private void recordDuration(final long startTime, final String operation) {
+        metricsService.recordTaskDuration(
+                System.currentTimeMillis() - startTime, operation);
+    }
+}
@@ -0,0 +1,98 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskTagView;
+import com.smarttask.repository.TaskView;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converte projecoes {@link TaskView} em {@link TaskResponse}, carregando as
+ * tags de todas as tarefas com uma consulta em lote por bloco de
+ * identificadores, sem inicializar colecoes lazy das entidades.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskViewAssembler {
+
+    /** Quantidade maxima de identificadores por consulta de tags. */
+    static final int TAG_BATCH_SIZE = 1000;
+
+    /** Repositorio de tarefas usado para a consulta em lote de tags. */
+    private final TaskRepository taskRepository;
+
+    /**
+     * Monta as respostas na mesma ordem das projecoes recebidas.
+     *
+     * @param views projecoes lidas do banco
+     * @return respostas prontas para serializacao
+     */
+    public List<TaskResponse> toResponses(final List<TaskView> views) {
+        if (views.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Map<Long, Set<String>> tagsByTask = loadTags(views);
+        final List<TaskResponse> responses = new ArrayList<>(views.size());
+        for (final TaskView view : views) {
+            responses.add(toResponse(view,
+                    tagsByTask.getOrDefault(view.getId(), new HashSet<>())));
+        }
+        return responses;
+    }
+
+    private Map<Long, Set<String>> loadTags(final List<TaskView> views) {
+        final Map<Long, Set<String>> tagsByTask = new HashMap<>();
+        final List<Long> ids = new ArrayList<>(views.size());
+        for (final TaskView view : views) {
+            ids.add(view.getId());
+        }
+
+        for (int start = 0; start < ids.size(); start += TAG_BATCH_SIZE) {
+            final List<Long> batch = ids.subList(start,
+                    Math.min(start + TAG_BATCH_SIZE, ids.size()));
+            for (final TaskTagView tag : taskRepository.findTagsByTaskIds(
+                    batch)) {
+                tagsByTask.computeIfAbsent(tag.getTaskId(),
+                        key -> new HashSet<>()).add(tag.getTag());
+            }
+        }
+        return tagsByTask;
+    }
+
+    private TaskResponse toResponse(final TaskView view,
+            final Set<String> tags) {
+        return TaskResponse.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .status(view.getStatus())
+                .priority(view.getPriority())
+                .dueDate(view.getDueDate())
+                .completedAt(view.getCompletedAt())
+                .estimatedHours(view.getEstimatedHours())
+                .actualHours(view.getActualHours())
+                .tags(tags)
+                .parentTaskId(view.getParentTaskId())
+                .subtaskCount(view.getSubtaskCount() == null
+                        ? 0
+                        : view.getSubtaskCount().intValue())
+                .subtreeEstimatedHours(view.getSubtreeEstimatedHours())
+                .subtreeActualHours(view.getSubtreeActualHours())
+                .subtreeOpenCount(view.getSubtreeOpenCount())
+                .subtreeCompletedCount(view.getSubtreeCompletedCount())
+                .aiSuggestedPriority(view.getAiSuggestedPriority())
+                .aiAnalysis(view.getAiAnalysis())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .version(view.getVersion())
+                .build();
+    }
+}
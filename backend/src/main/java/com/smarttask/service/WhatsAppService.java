@@ -144,6 +144,37 @@ public class WhatsAppService {
         sendMessage(userId, toNumber, message, "overdue_alert");
     }
 
+    /**
+     * Envia um aviso de tarefas com prazo se aproximando.
+     *
+     * @param userId identificador do usuario
+     * @param userName nome do usuario
+     * @param dueSoonTasks lista de tarefas perto do prazo
+     */
+    @Traced("WhatsAppService.sendDueSoonAlert")
+    public final void sendDueSoonAlert(
+            final Long userId,
+            final String userName,
+            final List<Task> dueSoonTasks) {
+        if (dueSoonTasks.isEmpty()) {
+            return;
+        }
+
+        final SettingsService.TwilioCredentials credentials =
+                settingsService.getDecryptedTwilioCredentials(userId);
+        final String toNumber = credentials.userWhatsappNumber();
+
+        if (!StringUtils.hasText(toNumber)) {
+            log.warn(
+                    "Usuario {} sem numero WhatsApp. Mensagem ignorada.",
+                    userId);
+            return;
+        }
+
+        final String message = buildDueSoonAlertMessage(userName, dueSoonTasks);
+        sendMessage(userId, toNumber, message, "due_soon_alert");
+    }
+
     /**
      * Envia um resumo de tarefas concluidas no dia.
      *
@@ -282,6 +313,38 @@ public class WhatsAppService {
         return builder.toString();
     }
 
+    private String buildDueSoonAlertMessage(
+            final String userName,
+            final List<Task> dueSoonTasks) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Lembrete, ")
+                .append(userName)
+                .append("!")
+                .append(LINE_BREAK)
+                .append(LINE_BREAK)
+                .append("Voce possui ")
+                .append(dueSoonTasks.size())
+                .append(" tarefa(s) com prazo se aproximando:")
+                .append(LINE_BREAK)
+                .append(LINE_BREAK);
+
+        int index = 1;
+        for (Task task : dueSoonTasks) {
+            builder.append(index++)
+                    .append(". ")
+                    .append(priorityPrefix(task))
+                    .append(task.getTitle())
+                    .append(LINE_BREAK)
+                    .append("   Vence em: ")
+                    .append(task.getDueDate().format(OVERDUE_FORMAT))
+                    .append(LINE_BREAK)
+                    .append(LINE_BREAK);
+        }
+
+        builder.append("Ainda da tempo de concluir no prazo.");
+        return builder.toString();
+    }
+
     private String buildCompletionSummaryMessage(
             final String userName,
             final int completedToday,
@@ -0,0 +1,222 @@
+package com.smarttask.sync;
+
+import com.smarttask.datasource.ShardContext;
+import com.smarttask.model.Task;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Atribui a posicao na sequencia de alteracoes ({@code task_change_seq}) a
+ * cada tarefa gravada e registra os tombstones das remocoes.
+ *
+ * <p>Os servicos de escrita chamam este componente dentro da propria
+ * transacao, antes de gravar as tarefas. Os valores da sequencia sao
+ * reservados com uma unica consulta por chamada, sem blocos pre-alocados
+ * em memoria, para que a ordem da sequencia acompanhe a ordem das escritas
+ * entre instancias da aplicacao.</p>
+ *
+ * <p>A sequencia e criada pelas migracoes; no perfil H2, pelo Hibernate, a
+ * partir do gerador declarado em {@link com.smarttask.model.TaskDeletion}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TaskChangeTracker {
+
+    /** Sequencia compartilhada por tarefas e tombstones. */
+    public static final String SEQUENCE = "task_change_seq";
+
+    /** Reserva valores da sequencia no PostgreSQL. */
+    private static final String POSTGRES_NEXT_VALUES =
+            "SELECT nextval('" + SEQUENCE + "') FROM generate_series(1, ?)";
+
+    /** Reserva valores da sequencia no H2. */
+    private static final String H2_NEXT_VALUES =
+            "SELECT NEXT VALUE FOR " + SEQUENCE + " FROM SYSTEM_RANGE(1, ?)";
+
+    /** Acesso JDBC que participa da transacao JPA corrente. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Indica se o banco e PostgreSQL; resolvido na primeira utilizacao. */
+    private volatile Boolean postgres;
+
+    /**
+     * Cria o componente sobre o {@link JdbcTemplate} da aplicacao.
+     *
+     * @param jdbcTemplate acesso JDBC
+     */
+    public TaskChangeTracker(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Atribui uma nova posicao da sequencia a cada tarefa alterada.
+     *
+     * @param tasks tarefas que serao gravadas
+     */
+    public void stamp(final Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final long[] values = next(tasks.size());
+        int index = 0;
+        for (final Task task : tasks) {
+            task.setChangeSeq(values[index++]);
+        }
+    }
+
+    /**
+     * Atribui posicoes as tarefas criadas e aos seus pais, cuja contagem de
+     * subtarefas muda com a criacao.
+     *
+     * @param tasks tarefas criadas
+     */
+    public void stampCreated(final Collection<Task> tasks) {
+        final Set<Task> changed =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Task task : tasks) {
+            if (task.getParentTask() != null) {
+                changed.add(task.getParentTask());
+            }
+        }
+        final List<Task> ordered = new ArrayList<>(changed);
+        ordered.addAll(tasks);
+        stamp(ordered);
+    }
+
+    /**
+     * Marca como alteradas tarefas gravadas fora do JPA, como os pais de
+     * subarvores movidas ou removidas, incrementando tambem a versao usada
+     * nos ETags.
+     *
+     * @param taskIds identificadores das tarefas
+     */
+    public void touch(final Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        final long[] values = next(taskIds.size());
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        final List<Object[]> rows = new ArrayList<>(taskIds.size());
+        int index = 0;
+        for (final Long taskId : taskIds) {
+            rows.add(new Object[] {values[index++], now, taskId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE tasks SET change_seq = ?, "
+                + "updated_at = ?, version = version + 1 WHERE id = ?", rows);
+    }
+
+    /**
+     * Registra os tombstones das tarefas removidas.
+     *
+     * @param userId usuario dono das tarefas
+     * @param taskIds tarefas removidas
+     */
+    public void recordDeletions(final Long userId,
+            final Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        final long[] values = next(taskIds.size());
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        final List<Object[]> rows = new ArrayList<>(taskIds.size());
+        int index = 0;
+        for (final Long taskId : taskIds) {
+            rows.add(new Object[] {values[index++], taskId, userId, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task_deletions (change_seq, "
+                + "task_id, user_id, deleted_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Descarta os tombstones de tarefas que voltaram a existir, como as
+     * restauradas do arquivo, para que nenhum cliente as remova ao aplicar
+     * a mesma pagina de alteracoes.
+     *
+     * @param taskIds tarefas restauradas
+     */
+    public void forgetDeletions(final Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        final List<Object[]> rows = new ArrayList<>(taskIds.size());
+        for (final Long taskId : taskIds) {
+            rows.add(new Object[] {taskId});
+        }
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM task_deletions WHERE task_id = ?", rows);
+    }
+
+    /**
+     * Expressao SQL que le o proximo valor da sequencia, para comandos por
+     * conjunto que gravam tarefas sem passar pelo JPA.
+     *
+     * @return expressao do proximo valor no banco corrente
+     */
+    public String nextValueExpression() {
+        return isPostgres()
+                ? "nextval('" + SEQUENCE + "')"
+                : "NEXT VALUE FOR " + SEQUENCE;
+    }
+
+    /**
+     * Atribui posicoes as tarefas gravadas antes da existencia da sequencia,
+     * para que aparecam na primeira sincronizacao dos clientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        ShardContext.forEachShard(this::backfillShard);
+    }
+
+    /**
+     * Reserva valores consecutivos da sequencia.
+     *
+     * @param count quantidade de valores
+     * @return valores reservados em ordem crescente
+     */
+    long[] next(final int count) {
+        final List<Long> values = jdbcTemplate.queryForList(
+                isPostgres() ? POSTGRES_NEXT_VALUES : H2_NEXT_VALUES,
+                Long.class, count);
+        final long[] result = new long[values.size()];
+        for (int index = 0; index < result.length; index++) {
+            result[index] = values.get(index);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void backfillShard() {
+        final int updated = jdbcTemplate.update("UPDATE tasks SET "
+                + "change_seq = " + nextValueExpression()
+                + " WHERE change_seq IS NULL");
+        if (updated > 0) {
+            log.info("Sequencia de alteracoes atribuida a {} tarefas",
+                    updated);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean resolved = postgres;
+        if (resolved == null) {
+            resolved = jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                    connection -> connection.isWrapperFor(PGConnection.class));
+            postgres = resolved;
+        }
+        return Boolean.TRUE.equals(resolved);
+    }
+}
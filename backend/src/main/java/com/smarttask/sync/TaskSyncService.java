@@ -0,0 +1,197 @@
+package com.smarttask.sync;
+
+import com.smarttask.dto.TaskChangesResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.TaskDeletion;
+import com.smarttask.observability.Traced;
+import com.smarttask.repository.TaskCollectionView;
+import com.smarttask.repository.TaskDeletionRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskView;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskViewAssembler;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+/**
+ * Entrega as alteracoes das tarefas de um usuario desde um cursor, para que
+ * os clientes mantenham uma replica local.
+ *
+ * <p>O cursor e a ultima posicao da sequencia de alteracoes ja aplicada pelo
+ * cliente. Como os valores da sequencia sao reservados antes do commit, uma
+ * transacao mais lenta pode tornar visivel uma posicao menor depois de
+ * outra maior. Por isso o cursor devolvido so avanca sobre alteracoes mais
+ * antigas que {@link #SETTLE_WINDOW}; as mais recentes sao entregues de novo
+ * na chamada seguinte e o cliente as aplica de forma idempotente.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskSyncService {
+
+    /** Quantidade padrao de alteracoes por chamada. */
+    public static final int DEFAULT_PAGE_SIZE = 200;
+
+    /** Quantidade maxima de alteracoes por chamada. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Idade minima de uma alteracao para que o cursor avance sobre ela. */
+    static final Duration SETTLE_WINDOW = Duration.ofSeconds(30);
+
+    /** Mensagem retornada quando o cursor recebido nao pode ser lido. */
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+
+    /** Repositorio de tarefas. */
+    private final TaskRepository taskRepository;
+
+    /** Repositorio dos tombstones. */
+    private final TaskDeletionRepository taskDeletionRepository;
+
+    /** Conversor das projecoes em respostas. */
+    private final TaskViewAssembler taskViewAssembler;
+
+    /**
+     * Lista as tarefas criadas, alteradas e removidas depois do cursor.
+     *
+     * @param since cursor devolvido pela chamada anterior ou {@code null}
+     *     para a carga inicial
+     * @param size quantidade maxima de alteracoes desejada
+     * @param currentUser usuario autenticado
+     * @return alteracoes e o cursor da proxima chamada
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskSyncService.getChanges")
+    public TaskChangesResponse getChanges(final String since,
+            final Integer size, final UserPrincipal currentUser) {
+        final long position = parseCursor(since);
+        final int pageSize = size == null
+                ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<TaskView> views = taskRepository.findViewsChangedAfter(
+                currentUser.getId(), position, limit);
+        final List<TaskDeletion> deletions = taskDeletionRepository
+                .findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(
+                        currentUser.getId(), position, limit);
+
+        final LocalDateTime settled = LocalDateTime.now()
+                .minus(SETTLE_WINDOW);
+        final List<TaskView> changed = new ArrayList<>();
+        final List<Long> deleted = new ArrayList<>();
+        long cursor = position;
+        boolean cursorBlocked = false;
+        int viewIndex = 0;
+        int deletionIndex = 0;
+        while (changed.size() + deleted.size() < pageSize
+                && (viewIndex < views.size()
+                        || deletionIndex < deletions.size())) {
+            final long changeSeq;
+            final LocalDateTime changedAt;
+            if (deletionIndex >= deletions.size()
+                    || (viewIndex < views.size()
+                            && views.get(viewIndex).getChangeSeq()
+                            < deletions.get(deletionIndex).getChangeSeq())) {
+                final TaskView view = views.get(viewIndex++);
+                changed.add(view);
+                changeSeq = view.getChangeSeq();
+                changedAt = view.getUpdatedAt();
+            } else {
+                final TaskDeletion deletion = deletions.get(deletionIndex++);
+                deleted.add(deletion.getTaskId());
+                changeSeq = deletion.getChangeSeq();
+                changedAt = deletion.getDeletedAt();
+            }
+            if (!cursorBlocked && changedAt != null
+                    && changedAt.isAfter(settled)) {
+                cursorBlocked = true;
+            }
+            if (!cursorBlocked) {
+                cursor = changeSeq;
+            }
+        }
+        final boolean remaining = viewIndex < views.size()
+                || deletionIndex < deletions.size();
+
+        final List<TaskResponse> responses =
+                taskViewAssembler.toResponses(changed);
+        return TaskChangesResponse.builder()
+                .changed(responses)
+                .deleted(deleted)
+                .cursor(Long.toString(cursor))
+                .hasMore(remaining && !cursorBlocked)
+                .build();
+    }
+
+    /**
+     * Versao da colecao de tarefas do usuario, usada como ETag das
+     * listagens. Deriva da maior posicao das tarefas na sequencia de
+     * alteracoes e da ultima remocao, lidas pelo fim dos indices
+     * {@code (user_id, change_seq)}: toda escrita que muda a representacao
+     * de alguma tarefa atribui a ela uma posicao nova e, portanto, muda a
+     * versao, sem percorrer as tarefas do usuario.
+     *
+     * <p>Como em {@link #getChanges}, uma transacao mais lenta pode tornar
+     * visivel uma posicao menor depois da maior ja lida, sem mudar o maximo.
+     * Por isso, enquanto a ultima alteracao for mais recente que
+     * {@link #SETTLE_WINDOW}, nao ha versao e as listagens respondem sem
+     * ETag.</p>
+     *
+     * @param currentUser usuario autenticado
+     * @return versao opaca da colecao ou vazio enquanto ela se acomoda
+     */
+    @Transactional(readOnly = true)
+    @Traced("TaskSyncService.getCollectionVersion")
+    public Optional<String> getCollectionVersion(
+            final UserPrincipal currentUser) {
+        final Long userId = currentUser.getId();
+        final LocalDateTime settled = LocalDateTime.now()
+                .minus(SETTLE_WINDOW);
+        long lastChange = 0L;
+        for (final TaskCollectionView change : taskRepository
+                .findLastChangesByUserId(userId, Limit.of(1))) {
+            if (isRecent(change.getChangedAt(), settled)) {
+                return Optional.empty();
+            }
+            lastChange = change.getChangeSeq();
+        }
+        long lastDeletion = 0L;
+        final Optional<TaskDeletion> deletion = taskDeletionRepository
+                .findFirstByUserIdOrderByChangeSeqDesc(userId);
+        if (deletion.isPresent()) {
+            if (isRecent(deletion.get().getDeletedAt(), settled)) {
+                return Optional.empty();
+            }
+            lastDeletion = deletion.get().getChangeSeq();
+        }
+        return Optional.of(Long.toHexString(userId)
+                + '-' + Long.toHexString(lastChange)
+                + '-' + Long.toHexString(lastDeletion));
+    }
+
+    private static boolean isRecent(final LocalDateTime changedAt,
+            final LocalDateTime settled) {
+        return changedAt == null || changedAt.isAfter(settled);
+    }
+
+    private long parseCursor(final String since) {
+        if (!StringUtils.hasText(since)) {
+            return 0L;
+        }
+        try {
+            final long position = Long.parseLong(since.trim());
+            if (position < 0) {
+                throw new IllegalStateException(INVALID_CURSOR_MESSAGE);
+            }
+            return position;
+        } catch (NumberFormatException exception) {
+            throw new IllegalStateException(INVALID_CURSOR_MESSAGE);
+        }
+    }
+}
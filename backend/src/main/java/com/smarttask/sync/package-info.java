@@ -0,0 +1,5 @@
+/**
+ * Sincronizacao incremental das tarefas: sequencia de alteracoes, tombstones
+ * das remocoes e a consulta de alteracoes desde um cursor do cliente.
+ */
+package com.smarttask.sync;
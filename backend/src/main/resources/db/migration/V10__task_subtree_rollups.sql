@@ -0,0 +1,38 @@
+-- Totais de subarvore de cada tarefa, incluindo a propria: horas estimadas,
+-- horas reais, tarefas abertas (TODO ou IN_PROGRESS) e concluidas. A
+-- aplicacao os mantem com incrementos nos ancestrais a cada escrita, na
+-- mesma transacao (TaskRollupService). As colunas entram com default
+-- constante, sem reescrever a tabela, e o preenchimento abaixo soma cada
+-- tarefa em si mesma e em todos os seus ancestrais, com o mesmo limite de
+-- profundidade das consultas recursivas da aplicacao.
+alter table tasks
+    add column subtree_estimated_hours bigint default 0 not null,
+    add column subtree_actual_hours bigint default 0 not null,
+    add column subtree_open_count bigint default 0 not null,
+    add column subtree_completed_count bigint default 0 not null;
+
+with recursive ancestry (user_id, origin, ancestor, depth) as (
+    select t.user_id, t.id, t.id, 0 from tasks t
+    union all
+    select a.user_id, a.origin, p.parent_task_id, a.depth + 1
+    from ancestry a
+    join tasks p on p.id = a.ancestor and p.user_id = a.user_id
+    where p.parent_task_id is not null and a.depth < 64
+), totals as (
+    select a.user_id, a.ancestor as id,
+        sum(coalesce(t.estimated_hours, 0)) as estimated_hours,
+        sum(coalesce(t.actual_hours, 0)) as actual_hours,
+        count(*) filter (where t.status in ('TODO', 'IN_PROGRESS'))
+            as open_count,
+        count(*) filter (where t.status = 'COMPLETED') as completed_count
+    from ancestry a
+    join tasks t on t.id = a.origin and t.user_id = a.user_id
+    group by a.user_id, a.ancestor
+)
+update tasks t set
+    subtree_estimated_hours = totals.estimated_hours,
+    subtree_actual_hours = totals.actual_hours,
+    subtree_open_count = totals.open_count,
+    subtree_completed_count = totals.completed_count
+from totals
+where t.id = totals.id and t.user_id = totals.user_id;
@@ -0,0 +1,14 @@
+-- Os identificadores das tarefas passam de IDENTITY (V1) para task_seq, com
+-- a alocacao em blocos de 50 do mapeamento. A sequencia comeca acima do
+-- maior identificador ja usado, inclusive no arquivo, cujas tarefas voltam
+-- com o mesmo identificador ao serem restauradas, e nunca recua: blocos ja
+-- reservados por instancias em execucao continuam validos.
+create sequence if not exists task_seq start with 1 increment by 50;
+alter sequence task_seq increment by 50;
+
+select setval('task_seq', greatest(
+    (select last_value from task_seq),
+    (select coalesce(max(id), 0) + 50 from tasks),
+    (select coalesce(max(id), 0) + 50 from tasks_archive)));
+
+alter table tasks alter column id drop identity if exists;
@@ -0,0 +1,9 @@
+-- Ultimo instante ja processado por agendadores em memoria. O
+-- DueDateScheduler grava aqui o minuto ate o qual os timers de vencimento
+-- foram entregues e, ao subir, dispara os alertas dos prazos que venceram
+-- entre esse instante e a reconstrucao da roda.
+create table scheduler_watermarks (
+    name varchar(64) not null,
+    processed_at timestamp(6) not null,
+    primary key (name)
+);
@@ -0,0 +1,17 @@
+-- Jobs da importacao em massa de tarefas (TaskImportService): progresso,
+-- contadores e erros por linha de cada arquivo NDJSON ou CSV importado.
+create table task_import_jobs (
+    created_at timestamp(6) not null,
+    finished_at timestamp(6),
+    id bigint generated by default as identity,
+    imported_rows bigint not null,
+    processed_rows bigint not null,
+    rejected_rows bigint not null,
+    started_at timestamp(6),
+    user_id bigint not null,
+    failure_reason varchar(500),
+    format varchar(255) not null check (format in ('NDJSON','CSV')),
+    row_errors TEXT,
+    status varchar(255) not null check (status in ('PENDING','LOADING','RESOLVING','COMPLETED','FAILED')),
+    primary key (id)
+);
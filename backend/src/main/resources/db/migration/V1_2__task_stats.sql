@@ -0,0 +1,20 @@
+-- Contadores de tarefas por usuario mantidos a cada escrita
+-- (TaskStatsService). As linhas sao criadas e corrigidas pela reconciliacao
+-- periodica, inclusive para os usuarios que ja tinham tarefas.
+create table task_stats (
+    actual_hours bigint not null,
+    cancelled_count bigint not null,
+    completed_count bigint not null,
+    estimated_hours bigint not null,
+    high_priority_count bigint not null,
+    in_progress_count bigint not null,
+    low_priority_count bigint not null,
+    medium_priority_count bigint not null,
+    overdue_count bigint not null,
+    reconciled_at timestamp(6),
+    todo_count bigint not null,
+    updated_at timestamp(6),
+    urgent_priority_count bigint not null,
+    user_id bigint not null,
+    primary key (user_id)
+);
@@ -0,0 +1,26 @@
+-- Sincronizacao incremental e ETags. change_seq e a posicao de cada tarefa
+-- na sequencia de alteracoes (task_change_seq), compartilhada com os
+-- tombstones de task_deletions; as tarefas ja existentes recebem posicoes
+-- do TaskChangeTracker na subida. version e a versao otimista usada nos
+-- ETags e entra com default constante, sem reescrever a tabela. O indice de
+-- tasks e criado com CONCURRENTLY, como na V2, por isso esta migracao roda
+-- fora de transacao (V1_3__task_change_tracking.sql.conf).
+create sequence if not exists task_change_seq;
+
+alter table tasks
+    add column change_seq bigint,
+    add column version bigint default 0 not null;
+
+create table task_deletions (
+    change_seq bigint not null,
+    deleted_at timestamp(6) not null,
+    task_id bigint not null,
+    user_id bigint not null,
+    primary key (change_seq)
+);
+
+create index idx_task_deletions_user_seq
+   on task_deletions (user_id, change_seq);
+
+create index concurrently if not exists idx_tasks_user_change_seq
+    on tasks (user_id, change_seq);
@@ -0,0 +1,20 @@
+-- Dicionario de tags por usuario com a contagem de tarefas de cada tag
+-- (TaskTagService) e a ligacao das tarefas as tags do dicionario. As tags
+-- ja gravadas em task_tags entram no dicionario na subida da aplicacao.
+create table user_tags (
+    id bigint generated by default as identity,
+    task_count bigint not null,
+    user_id bigint not null,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_user_tags_user_name unique (user_id, name)
+);
+
+create table task_tag_links (
+    tag_id bigint not null,
+    task_id bigint not null,
+    primary key (tag_id, task_id)
+);
+
+create index idx_task_tag_links_task
+   on task_tag_links (task_id);
@@ -0,0 +1,35 @@
+-- Arquivo das tarefas concluidas ou canceladas (TaskArchiveService), com as
+-- tags em tabela propria. As tarefas mantem o identificador ao serem
+-- arquivadas e restauradas.
+create table tasks_archive (
+    actual_hours integer,
+    ai_suggested_priority boolean,
+    estimated_hours integer,
+    archived_at timestamp(6) not null,
+    completed_at timestamp(6),
+    created_at timestamp(6) not null,
+    due_date timestamp(6),
+    id bigint not null,
+    parent_task_id bigint,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    ai_analysis TEXT,
+    description TEXT,
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    status varchar(255) not null check (status in ('TODO','IN_PROGRESS','COMPLETED','CANCELLED')),
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table task_tags_archive (
+    task_id bigint not null,
+    tag varchar(255)
+);
+
+create index idx_tasks_archive_user_archived
+   on tasks_archive (user_id, archived_at, id);
+
+alter table if exists task_tags_archive
+   add constraint FKcw3esijveshwbl4huyov8ouun
+   foreign key (task_id)
+   references tasks_archive;
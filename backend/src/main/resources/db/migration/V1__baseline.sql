@@ -0,0 +1,128 @@
+-- Schema da primeira versao da aplicacao, equivalente ao gerado pelo
+-- Hibernate (ddl-auto: update) antes das migracoes. Bancos criados assim
+-- sao marcados nesta versao por spring.flyway.baseline-on-migrate e seguem
+-- para as migracoes seguintes, que criam todo o resto; os nomes das chaves
+-- estrangeiras sao os mesmos que o Hibernate gera para que as migracoes
+-- encontrem os mesmos objetos nos dois casos. Os identificadores das
+-- tarefas ainda sao IDENTITY aqui; a V11 passa a gera-los por task_seq.
+
+create table notification_preferences (
+    daily_reminder_time time(6),
+    enabled boolean not null,
+    send_completion_summary boolean,
+    send_overdue_alerts boolean,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null unique,
+    timezone varchar(255),
+    whatsapp_number varchar(255),
+    primary key (id)
+);
+
+create table pomodoro_sessions (
+    completed boolean not null,
+    duration_minutes integer not null,
+    created_at timestamp(6) not null,
+    ended_at timestamp(6),
+    id bigint generated by default as identity,
+    started_at timestamp(6) not null,
+    task_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table task_tags (
+    task_id bigint not null,
+    tag varchar(255)
+);
+
+create table tasks (
+    actual_hours integer,
+    ai_suggested_priority boolean,
+    estimated_hours integer,
+    completed_at timestamp(6),
+    created_at timestamp(6) not null,
+    due_date timestamp(6),
+    id bigint generated by default as identity,
+    parent_task_id bigint,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    title varchar(200) not null,
+    ai_analysis TEXT,
+    description TEXT,
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    status varchar(255) not null check (status in ('TODO','IN_PROGRESS','COMPLETED','CANCELLED')),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255)
+);
+
+create table user_settings (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null unique,
+    twilio_whatsapp_number varchar(50),
+    user_whatsapp_number varchar(50),
+    openai_api_key varchar(500),
+    twilio_account_sid varchar(500),
+    twilio_auth_token varchar(500),
+    primary key (id)
+);
+
+create table users (
+    active boolean not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    username varchar(50) not null unique,
+    avatar_url varchar(255),
+    email varchar(255) not null unique,
+    full_name varchar(255),
+    password varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists notification_preferences
+   add constraint FKt9qjvmcl36i14utm5uptyqg84
+   foreign key (user_id)
+   references users;
+
+alter table if exists pomodoro_sessions
+   add constraint FKnpvatx1dl04up2vkdpp8g6iif
+   foreign key (task_id)
+   references tasks;
+
+alter table if exists pomodoro_sessions
+   add constraint FK1gfxjxnkmju1xarm4udaljm0u
+   foreign key (user_id)
+   references users;
+
+alter table if exists task_tags
+   add constraint FK7xi1reghkj37gqwlr1ujxrxll
+   foreign key (task_id)
+   references tasks;
+
+alter table if exists tasks
+   add constraint FK76tiq4q248au3u79a8nkexoth
+   foreign key (parent_task_id)
+   references tasks;
+
+alter table if exists tasks
+   add constraint FK6s1ob9k4ihi75xbxe2w0ylsdh
+   foreign key (user_id)
+   references users;
+
+alter table if exists user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users;
+
+alter table if exists user_settings
+   add constraint FK8v82nj88rmai0nyck19f873dw
+   foreign key (user_id)
+   references users;
@@ -0,0 +1,67 @@
+-- Indices das consultas de TaskRepository, NotificationPreferenceRepository,
+-- PomodoroSessionRepository e ArchivedTaskRepository. Criados com
+-- CONCURRENTLY para nao bloquear escritas em bancos ja populados, por isso
+-- esta migracao roda fora de transacao (V2__workload_indexes.sql.conf).
+-- RepositoryQueryPlanTest confere, no PostgreSQL, que nenhuma consulta dos
+-- repositorios cai em varredura sequencial.
+
+-- Listagens paginadas por updated_at (keyset), findByUserId, exportacao e
+-- contagem da colecao (ETag)
+create index concurrently if not exists idx_tasks_user_updated
+    on tasks (user_id, updated_at desc, id desc);
+
+-- Listagens por status, findByUserIdAndStatus, countByUserIdAndStatus e
+-- agregacao das estatisticas por usuario
+create index concurrently if not exists idx_tasks_user_status_updated
+    on tasks (user_id, status, updated_at desc, id desc);
+
+-- Tarefas atrasadas (findOverdueTasks, findOverduePage*, findOverdueViews):
+-- so as pendentes entram no indice, na ordem da paginacao
+create index concurrently if not exists idx_tasks_user_due_open
+    on tasks (user_id, due_date, id)
+    where status <> 'COMPLETED';
+
+-- Intervalo de vencimento sem filtro de status
+-- (findByUserIdAndDueDateBetween)
+create index concurrently if not exists idx_tasks_user_due
+    on tasks (user_id, due_date);
+
+-- Subtarefas: contagem em TASK_VIEW_SELECT, findByParentTaskId,
+-- findChildIdsByParentIds e a CTE recursiva de findSubtree
+create index concurrently if not exists idx_tasks_parent
+    on tasks (parent_task_id);
+
+-- Varredura de vencimentos pendentes ao iniciar os lembretes
+-- (findPendingDueViewsAfter): cobre due_date e pula tarefas concluidas
+create index concurrently if not exists idx_tasks_pending_due
+    on tasks (id) include (due_date)
+    where status <> 'COMPLETED' and due_date is not null;
+
+-- Tags por tarefa (findTagsByTaskIds, deleteTagsByTaskIds, carga da colecao)
+create index concurrently if not exists idx_task_tags_task
+    on task_tags (task_id) include (tag);
+
+create index concurrently if not exists idx_task_tags_archive_task
+    on task_tags_archive (task_id) include (tag);
+
+-- Subtarefas arquivadas (ArchivedTaskRepository.findChildIdsByParentIds)
+create index concurrently if not exists idx_tasks_archive_parent
+    on tasks_archive (parent_task_id);
+
+-- Lembretes diarios (findByDailyReminderTime) e findAllEnabled
+create index concurrently if not exists idx_notification_preferences_reminder
+    on notification_preferences (enabled, daily_reminder_time);
+
+-- Sessoes por usuario e periodo (findByUserIdAndDateRange, findByUserId,
+-- countCompletedSessionsByUserId)
+create index concurrently if not exists idx_pomodoro_sessions_user_created
+    on pomodoro_sessions (user_id, created_at);
+
+-- Sessoes por tarefa (findByTaskId, deleteByTaskIdIn e a verificacao do
+-- arquivamento)
+create index concurrently if not exists idx_pomodoro_sessions_task
+    on pomodoro_sessions (task_id);
+
+-- Perfis carregados junto com o usuario (colecao EAGER de User.roles)
+create index concurrently if not exists idx_user_roles_user
+    on user_roles (user_id);
@@ -0,0 +1,130 @@
+-- Procedimento que converte tasks, pomodoro_sessions e task_tags em tabelas
+-- com particionamento declarativo por hash. Nao roda sozinho: a conversao
+-- reescreve as tabelas sob lock exclusivo e deve ser disparada em janela de
+-- manutencao com
+--
+--     CALL partition_by_user(16);
+--
+-- tasks e pomodoro_sessions sao particionadas por user_id, com o user_id na
+-- chave primaria e nas chaves estrangeiras entre elas (tarefa pai e tarefa
+-- da sessao). task_tags nao tem user_id (a colecao de tags do JPA grava so
+-- task_id e tag), entao e particionada por task_id e perde a chave
+-- estrangeira para tasks; as remocoes de tags ja acompanham as de tarefas
+-- no codigo. Colunas, defaults, checks e indices sao copiados das tabelas
+-- existentes, o que mantem o procedimento valido para migracoes futuras.
+create or replace procedure partition_by_user(partitions integer)
+language plpgsql
+as $$
+declare
+    tables constant text[] := array['tasks', 'pomodoro_sessions', 'task_tags'];
+    partition_keys constant text[] := array['user_id', 'user_id', 'task_id'];
+    primary_keys constant text[] := array['id, user_id', 'id, user_id', null];
+    table_name text;
+    partition_key text;
+    index_definitions text[];
+    foreign_keys text[];
+    definition text;
+    identity_column record;
+    referencing record;
+    table_index integer;
+    part integer;
+begin
+    if partitions is null or partitions < 2 then
+        raise exception 'partition_by_user: informe ao menos 2 particoes';
+    end if;
+    if exists (select 1 from pg_partitioned_table
+               where partrelid = 'tasks'::regclass) then
+        raise notice 'partition_by_user: tasks ja esta particionada';
+        return;
+    end if;
+
+    lock table tasks, pomodoro_sessions, task_tags in access exclusive mode;
+
+    -- Sem unicidade em tasks(id), nenhuma chave estrangeira pode apontar so
+    -- para o id; as de tarefa pai e de sessao voltam compostas no final
+    for referencing in
+        select conrelid::regclass as source_table, conname
+        from pg_constraint
+        where contype = 'f' and confrelid = 'tasks'::regclass
+    loop
+        execute format('alter table %s drop constraint %I',
+                referencing.source_table, referencing.conname);
+        raise notice 'partition_by_user: chave % de % removida',
+                referencing.conname, referencing.source_table;
+    end loop;
+
+    for table_index in 1 .. array_length(tables, 1) loop
+        table_name := tables[table_index];
+        partition_key := partition_keys[table_index];
+
+        select coalesce(array_agg(i.indexdef), '{}')
+        into index_definitions
+        from pg_indexes i
+        where i.schemaname = current_schema()
+          and i.tablename = table_name
+          and not exists (select 1 from pg_constraint c
+                          where c.conrelid = table_name::regclass
+                            and c.contype = 'p'
+                            and c.conname = i.indexname);
+
+        select coalesce(array_agg(format('alter table %I add constraint %I %s',
+                table_name, conname, pg_get_constraintdef(oid))), '{}')
+        into foreign_keys
+        from pg_constraint
+        where contype = 'f' and conrelid = table_name::regclass;
+
+        execute format('alter table %I rename to %I',
+                table_name, table_name || '_unpartitioned');
+        execute format('create table %I (like %I including defaults '
+                || 'including constraints including identity '
+                || 'including generated including storage) '
+                || 'partition by hash (%I)',
+                table_name, table_name || '_unpartitioned', partition_key);
+        for part in 0 .. partitions - 1 loop
+            execute format('create table %I partition of %I '
+                    || 'for values with (modulus %s, remainder %s)',
+                    table_name || '_p' || part, table_name,
+                    partitions, part);
+        end loop;
+        execute format('insert into %I select * from %I',
+                table_name, table_name || '_unpartitioned');
+
+        for identity_column in
+            select a.attname
+            from pg_attribute a
+            where a.attrelid = table_name::regclass and a.attidentity <> ''
+        loop
+            -- a sequencia nova continua de onde a antiga parou
+            execute format('select setval(pg_get_serial_sequence(%L, %L), '
+                    || 'greatest(coalesce((select max(%I) from %I), 0), '
+                    || 'coalesce(pg_sequence_last_value('
+                    || 'pg_get_serial_sequence(%L, %L)), 0)) + 1, false)',
+                    table_name, identity_column.attname,
+                    identity_column.attname, table_name,
+                    table_name || '_unpartitioned', identity_column.attname);
+        end loop;
+
+        execute format('drop table %I', table_name || '_unpartitioned');
+
+        if primary_keys[table_index] is not null then
+            execute format('alter table %I add primary key (%s)',
+                    table_name, primary_keys[table_index]);
+        end if;
+        foreach definition in array index_definitions loop
+            execute definition;
+        end loop;
+        foreach definition in array foreign_keys loop
+            execute definition;
+        end loop;
+    end loop;
+
+    alter table tasks add constraint fk_tasks_parent
+        foreign key (user_id, parent_task_id) references tasks (user_id, id);
+    alter table pomodoro_sessions add constraint fk_pomodoro_sessions_task
+        foreign key (user_id, task_id) references tasks (user_id, id);
+
+    analyze tasks;
+    analyze pomodoro_sessions;
+    analyze task_tags;
+end;
+$$;
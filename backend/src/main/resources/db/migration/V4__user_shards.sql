@@ -0,0 +1,14 @@
+-- Diretorio de shards: usuario -> banco que guarda os seus dados. Usado so
+-- no shard padrao (shard-0) quando datasource.sharding.shards esta
+-- configurado; usuarios sem linha aqui ficam no shard padrao.
+-- moving_to preenchido indica uma movimentacao em andamento: o roteamento
+-- espera ela terminar antes de abrir conexoes para o usuario.
+create table user_shards (
+    user_id bigint not null,
+    shard varchar(64) not null,
+    moving_to varchar(64),
+    updated_at timestamp(6) not null,
+    primary key (user_id)
+);
+
+create index idx_user_shards_shard on user_shards (shard);
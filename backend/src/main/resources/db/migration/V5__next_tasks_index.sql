@@ -0,0 +1,8 @@
+-- Proximas tarefas (streamOpenRankViews): as abertas de cada prioridade na
+-- ordem do prazo, para que a pontuacao pare de ler uma prioridade assim que
+-- as restantes nao superam as ja escolhidas. Sem CONCURRENTLY porque ele nao
+-- e aceito em tabelas particionadas (partition_by_user); a criacao bloqueia
+-- escritas em tasks enquanto dura.
+create index if not exists idx_tasks_user_priority_due_open
+    on tasks (user_id, priority, due_date, id)
+    where status <> 'COMPLETED';
@@ -0,0 +1,19 @@
+-- Outbox transacional dos eventos de tarefas: gravado na mesma transacao da
+-- alteracao e drenado em blocos pelo TaskOutboxDispatcher, que remove cada
+-- linha depois de entrega-la. idx_task_outbox_user_id atende a verificacao
+-- de ordem por usuario (eventos anteriores ainda pendentes).
+create table task_outbox (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    task_id bigint not null,
+    event_type varchar(20) not null check (event_type in ('CREATED','UPDATED','COMPLETED','DELETED')),
+    status varchar(20) check (status in ('TODO','IN_PROGRESS','COMPLETED','CANCELLED')),
+    priority varchar(20) check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    occurred_at timestamp(6) not null,
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error varchar(500),
+    primary key (id)
+);
+
+create index idx_task_outbox_user_id on task_outbox (user_id, id);
@@ -0,0 +1,33 @@
+-- Tarefas recorrentes: a regra fica em task_recurrences, ligada a tarefa
+-- modelo, e as ocorrencias sao expandidas em memoria apenas na janela
+-- consultada. idx_task_recurrences_user_starts atende a busca das series de
+-- um usuario que comecam antes do fim da janela. task_occurrences guarda so
+-- as ocorrencias que viraram tarefas reais; a chave unica (template_id,
+-- occurrence_at) impede materializar a mesma ocorrencia duas vezes e atende
+-- a exclusao das ocorrencias materializadas na expansao. Sem chave
+-- estrangeira para tasks, que partition_by_user removeria; as remocoes
+-- acompanham as da tarefa modelo no codigo.
+create table task_recurrences (
+    task_id bigint not null,
+    user_id bigint not null,
+    rule varchar(200) not null,
+    starts_at timestamp(6) not null,
+    ends_at timestamp(6),
+    created_at timestamp(6) not null,
+    primary key (task_id)
+);
+
+create index idx_task_recurrences_user_starts
+    on task_recurrences (user_id, starts_at);
+
+create table task_occurrences (
+    id bigint generated by default as identity,
+    template_id bigint not null,
+    user_id bigint not null,
+    occurrence_at timestamp(6) not null,
+    task_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_task_occurrences_template_at
+        unique (template_id, occurrence_at)
+);
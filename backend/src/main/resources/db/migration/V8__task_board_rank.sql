@@ -0,0 +1,12 @@
+-- Ordem das tarefas no quadro kanban: board_rank e uma chave fracionaria
+-- comparada byte a byte (collate "C"), de modo que mover um cartao grava
+-- apenas a sua linha. Tarefas existentes ficam sem chave e aparecem no fim
+-- da coluna, na ordem de criacao, ate receberem uma no primeiro movimento
+-- ou no rebalanceamento. idx_tasks_user_status_rank serve a leitura do
+-- quadro (GET /tasks/board) so pelo indice, a busca do vizinho seguinte em
+-- um movimento e a das tarefas ainda sem chave. Sem CONCURRENTLY porque ele
+-- nao e aceito em tabelas particionadas (partition_by_user).
+alter table tasks add column board_rank varchar(128) collate "C";
+
+create index if not exists idx_tasks_user_status_rank
+    on tasks (user_id, status, board_rank, id);
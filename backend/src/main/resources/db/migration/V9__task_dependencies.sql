@@ -0,0 +1,25 @@
+-- Dependencias entre tarefas: cada linha diz que task_id esta bloqueada por
+-- blocker_id, ambas do mesmo usuario. A chave unica (task_id, blocker_id)
+-- recusa arestas repetidas e atende a lista dos bloqueadores de uma tarefa;
+-- idx_task_dependencies_blocker atende a remocao das arestas de tarefas
+-- removidas e o filtro do arquivamento. idx_task_dependencies_user carrega
+-- o grafo do usuario e calcula a sua impressao (quantidade de arestas e
+-- maior id) so pelo indice. Sem chave estrangeira para tasks, que
+-- partition_by_user removeria; as remocoes acompanham as das tarefas no
+-- codigo.
+create table task_dependencies (
+    id bigint generated by default as identity,
+    task_id bigint not null,
+    blocker_id bigint not null,
+    user_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_task_dependencies_task_blocker
+        unique (task_id, blocker_id)
+);
+
+create index idx_task_dependencies_blocker
+    on task_dependencies (blocker_id);
+
+create index idx_task_dependencies_user
+    on task_dependencies (user_id, id, task_id, blocker_id);
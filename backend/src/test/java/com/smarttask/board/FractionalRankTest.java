@@ -0,0 +1,77 @@
+package com.smarttask.board;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class FractionalRankTest {
+
+    @Test
+    void between_deveGerarChaveEntreOsVizinhos() {
+        assertThat(FractionalRank.between("a", "b")).isStrictlyBetween("a",
+                "b");
+        assertThat(FractionalRank.between("a", "a1")).isStrictlyBetween("a",
+                "a1");
+        assertThat(FractionalRank.between("az", "b")).isStrictlyBetween("az",
+                "b");
+        assertThat(FractionalRank.between(null, "1")).isLessThan("1")
+                .isNotEmpty();
+        assertThat(FractionalRank.between("zzzz", null))
+                .isGreaterThan("zzzz");
+        assertThat(FractionalRank.between(null, null)).isNotEmpty();
+    }
+
+    @Test
+    void between_deveRejeitarLimitesForaDeOrdem() {
+        assertThatThrownBy(() -> FractionalRank.between("b", "a"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FractionalRank.between("a", "a"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void after_deveManterChavesCurtasAoEmpilharNoFim() {
+        String key = FractionalRank.between(null, null);
+        for (int i = 0; i < 100_000; i++) {
+            String next = FractionalRank.after(key);
+            assertThat(next).isGreaterThan(key);
+            key = next;
+        }
+        assertThat(key).hasSizeLessThanOrEqualTo(
+                FractionalRank.STEP_WIDTH);
+    }
+
+    @Test
+    void between_deveManterOrdemEmInsercoesAleatorias() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int position = random.nextInt(keys.size() + 1);
+            String lower = position == 0 ? null : keys.get(position - 1);
+            String upper = position == keys.size() ? null
+                    : keys.get(position);
+            keys.add(position, FractionalRank.between(lower, upper));
+        }
+
+        assertThat(keys).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allSatisfy(key -> assertThat(key)
+                .doesNotEndWith("0").hasSizeLessThan(16));
+    }
+
+    @Test
+    void spread_deveGerarChavesOrdenadasDeMesmoComprimento() {
+        List<String> keys = FractionalRank.spread(5_000);
+
+        assertThat(keys).hasSize(5_000).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allSatisfy(key -> assertThat(key)
+                .hasSizeLessThanOrEqualTo(4));
+        assertThat(FractionalRank.between(keys.get(0), keys.get(1)))
+                .hasSizeLessThanOrEqualTo(5);
+        assertThat(FractionalRank.spread(0)).isEmpty();
+    }
+}
@@ -0,0 +1,275 @@
+package com.smarttask.board;
+
+import com.smarttask.dto.TaskBoardResponse;
+import com.smarttask.dto.TaskBoardResponse.BoardColumn;
+import com.smarttask.dto.TaskMoveRequest;
+import com.smarttask.dto.TaskPatchRequest;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskService;
+import com.smarttask.service.TaskViewAssembler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = "tasks.board.max-rank-length=3")
+@Import({TaskBoardService.class, TaskBoardRebalancer.class,
+        TaskViewAssembler.class})
+class TaskBoardServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskBoardService taskBoardService;
+
+    @Autowired
+    private TaskBoardRebalancer taskBoardRebalancer;
+
+    @MockitoBean
+    private TaskService taskService;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+    }
+
+    @Test
+    void getBoard_deveListarColunasNaOrdemDasChavesComSemChaveNoFim() {
+        Task unranked = persist("Sem chave", TaskStatus.TODO, null, owner);
+        Task second = persist("Segunda", TaskStatus.TODO, "b", owner);
+        Task first = persist("Primeira", TaskStatus.TODO, "a", owner);
+        Task doing = persist("Fazendo", TaskStatus.IN_PROGRESS, null, owner);
+        persist("Alheia", TaskStatus.TODO, "0", entityManager.persist(
+                user("other")));
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskBoardResponse board = taskBoardService.getBoard(null, null,
+                principal);
+
+        assertThat(board.getColumns()).extracting(BoardColumn::status)
+                .containsExactly(TaskStatus.values());
+        assertThat(ids(board, TaskStatus.TODO)).containsExactly(
+                first.getId(), second.getId(), unranked.getId());
+        assertThat(ids(board, TaskStatus.IN_PROGRESS))
+                .containsExactly(doing.getId());
+        assertThat(ids(board, TaskStatus.COMPLETED)).isEmpty();
+    }
+
+    @Test
+    void getBoard_deveLimitarCadaColuna() {
+        persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        persist("Tarefa B", TaskStatus.TODO, "b", owner);
+        persist("Tarefa C", TaskStatus.TODO, "c", owner);
+        entityManager.flush();
+
+        TaskBoardResponse board = taskBoardService.getBoard(TaskStatus.TODO,
+                2, principal);
+
+        assertThat(board.getColumns()).hasSize(1);
+        assertThat(board.getColumns().get(0).tasks())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Tarefa A", "Tarefa B");
+        assertThat(board.getColumns().get(0).hasMore()).isTrue();
+    }
+
+    @Test
+    void moveTask_deveGravarApenasAChaveDaTarefaMovida() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, "b", owner);
+        Task c = persist("Tarefa C", TaskStatus.TODO, "c", owner);
+        entityManager.flush();
+
+        taskBoardService.moveTask(c.getId(), move(null, a.getId()),
+                principal);
+        entityManager.clear();
+
+        assertThat(titles(TaskStatus.TODO))
+                .containsExactly("Tarefa A", "Tarefa C", "Tarefa B");
+        assertThat(rank(a)).isEqualTo("a");
+        assertThat(rank(b)).isEqualTo("b");
+        assertThat(rank(c)).isStrictlyBetween("a", "b");
+        assertThat(entityManager.find(Task.class, c.getId()).getVersion())
+                .isEqualTo(c.getVersion());
+        verify(taskService, never()).patchTask(any(), any(), any(), any());
+    }
+
+    @Test
+    void moveTask_deveMoverParaOTopo() {
+        persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, "b", owner);
+        entityManager.flush();
+
+        taskBoardService.moveTask(b.getId(), move(TaskStatus.TODO, null),
+                principal);
+        entityManager.clear();
+
+        assertThat(titles(TaskStatus.TODO))
+                .containsExactly("Tarefa B", "Tarefa A");
+    }
+
+    @Test
+    void moveTask_deveDarChavesAsTarefasSemChaveAntesDaReferencia() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, null, owner);
+        Task c = persist("Tarefa C", TaskStatus.TODO, null, owner);
+        entityManager.flush();
+
+        taskBoardService.moveTask(a.getId(), move(null, b.getId()),
+                principal);
+        entityManager.clear();
+
+        assertThat(titles(TaskStatus.TODO))
+                .containsExactly("Tarefa B", "Tarefa A", "Tarefa C");
+        assertThat(rank(b)).isNotNull();
+        assertThat(rank(c)).isNotNull();
+    }
+
+    @Test
+    void moveTask_deveRebalancearColunaComChavesRepetidas() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, "a", owner);
+        Task c = persist("Tarefa C", TaskStatus.TODO, "c", owner);
+        entityManager.flush();
+
+        taskBoardService.moveTask(c.getId(), move(null, a.getId()),
+                principal);
+        entityManager.clear();
+
+        assertThat(titles(TaskStatus.TODO))
+                .containsExactly("Tarefa A", "Tarefa C", "Tarefa B");
+        assertThat(List.of(rank(a), rank(c), rank(b))).isSorted()
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void moveTask_deveTrocarStatusPeloServicoDeTarefas() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        entityManager.flush();
+
+        taskBoardService.moveTask(a.getId(), move(TaskStatus.IN_PROGRESS,
+                null), principal);
+
+        verify(taskService).patchTask(eq(a.getId()),
+                any(TaskPatchRequest.class), isNull(), eq(principal));
+    }
+
+    @Test
+    void moveTask_deveRejeitarReferenciaInvalida() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task done = persist("Feita", TaskStatus.COMPLETED, "a", owner);
+        Task foreign = persist("Alheia", TaskStatus.TODO, "b",
+                entityManager.persist(user("other")));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> taskBoardService.moveTask(a.getId(),
+                move(null, a.getId()), principal))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> taskBoardService.moveTask(a.getId(),
+                move(null, done.getId()), principal))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> taskBoardService.moveTask(foreign.getId(),
+                move(null, null), principal))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void rebalancePending_deveEncurtarChavesLongasMantendoAOrdem() {
+        persist("Tarefa A", TaskStatus.TODO, "a", owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, "b", owner);
+        entityManager.flush();
+        for (int i = 0; i < 5; i++) {
+            taskBoardService.moveTask(b.getId(), move(null, null), principal);
+            Task a = entityManager.getEntityManager()
+                    .createQuery("SELECT t FROM Task t"
+                            + " WHERE t.title = 'Tarefa A'", Task.class)
+                    .getSingleResult();
+            taskBoardService.moveTask(a.getId(), move(null, null), principal);
+        }
+        entityManager.clear();
+        List<String> before = titles(TaskStatus.TODO);
+        assertThat(rank(b)).hasSizeGreaterThan(3);
+
+        taskBoardRebalancer.rebalancePending();
+        entityManager.clear();
+
+        assertThat(titles(TaskStatus.TODO)).isEqualTo(before);
+        assertThat(rank(b)).hasSizeLessThanOrEqualTo(3);
+    }
+
+    private List<String> titles(TaskStatus status) {
+        return taskBoardService.getBoard(status, null, principal)
+                .getColumns().get(0).tasks().stream()
+                .map(TaskResponse::getTitle)
+                .toList();
+    }
+
+    private String rank(Task task) {
+        return entityManager.find(Task.class, task.getId()).getRank();
+    }
+
+    private static List<Long> ids(TaskBoardResponse board,
+            TaskStatus status) {
+        List<Long> ids = new ArrayList<>();
+        board.getColumns().stream()
+                .filter(column -> column.status() == status)
+                .flatMap(column -> column.tasks().stream())
+                .forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static TaskMoveRequest move(TaskStatus status, Long afterTaskId) {
+        TaskMoveRequest request = new TaskMoveRequest();
+        request.setStatus(status);
+        request.setAfterTaskId(afterTaskId);
+        return request;
+    }
+
+    private Task persist(String title, TaskStatus status, String rank,
+            User user) {
+        return entityManager.persist(Task.builder().title(title)
+                .status(status).priority(TaskPriority.MEDIUM).rank(rank)
+                .user(user).build());
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
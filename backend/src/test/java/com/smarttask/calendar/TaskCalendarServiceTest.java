@@ -0,0 +1,188 @@
+package com.smarttask.calendar;
+
+import com.smarttask.dto.TaskCalendarResponse;
+import com.smarttask.dto.TaskCalendarResponse.CalendarDay;
+import com.smarttask.dto.TaskCalendarResponse.CalendarEntry;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskRecurrence;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.recurrence.TaskOccurrenceExpander;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = "tasks.calendar.max-entries-per-user=4")
+@Import({TaskCalendarService.class, TaskCalendarIndex.class,
+        TaskOccurrenceExpander.class})
+class TaskCalendarServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2030, 3, 1);
+
+    private static final LocalDate TO = LocalDate.of(2030, 3, 31);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskCalendarService taskCalendarService;
+
+    @Autowired
+    private TaskCalendarIndex taskCalendarIndex;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+    }
+
+    @Test
+    void getCalendar_deveAgruparPorDiaDentroDoIntervalo() {
+        Task late = persist("Tarde", FROM.atTime(18, 0), owner);
+        Task early = persist("Cedo", FROM.atTime(8, 0), owner);
+        Task third = persist("Dia 3", FROM.plusDays(2).atTime(9, 30), owner);
+        persist("Depois", TO.plusDays(1).atStartOfDay(), owner);
+        persist("Sem prazo", null, owner);
+        persist("Alheia", FROM.atTime(12, 0),
+                entityManager.persist(user("other")));
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskCalendarResponse calendar =
+                taskCalendarService.getCalendar(FROM, TO, principal);
+
+        assertThat(calendar.getDays()).extracting(CalendarDay::date)
+                .containsExactly(FROM, FROM.plusDays(2));
+        assertThat(calendar.getDays().get(0).tasks())
+                .extracting(CalendarEntry::id)
+                .containsExactly(early.getId(), late.getId());
+        assertThat(calendar.getDays().get(1).tasks())
+                .extracting(CalendarEntry::id)
+                .containsExactly(third.getId());
+    }
+
+    @Test
+    void getCalendar_deveServirDaMemoriaAteInvalidar() {
+        persist("Primeira", FROM.atTime(10, 0), owner);
+        entityManager.flush();
+        assertThat(titles(taskCalendarService.getCalendar(FROM, TO,
+                principal))).containsExactly("Primeira");
+
+        persist("Segunda", FROM.plusDays(1).atTime(10, 0), owner);
+        entityManager.flush();
+        assertThat(titles(taskCalendarService.getCalendar(FROM, TO,
+                principal))).containsExactly("Primeira");
+
+        taskCalendarIndex.invalidate(List.of(owner.getId()));
+        assertThat(titles(taskCalendarService.getCalendar(FROM, TO,
+                principal))).containsExactly("Primeira", "Segunda");
+    }
+
+    @Test
+    void put_deveDescartarCargaConcorrenteComInvalidacao() {
+        long version = taskCalendarIndex.version(owner.getId());
+        taskCalendarIndex.invalidate(List.of(owner.getId()));
+
+        taskCalendarIndex.put(owner.getId(), version, List.of());
+
+        assertThat(taskCalendarIndex.find(owner.getId())).isNull();
+    }
+
+    @Test
+    void getCalendar_deveConsultarIntervaloQuandoUsuarioTemTarefasDemais() {
+        for (int day = 0; day < 6; day++) {
+            persist("Dia " + day, FROM.plusDays(day).atTime(9, 0), owner);
+        }
+        entityManager.flush();
+        assertThat(titles(taskCalendarService.getCalendar(FROM,
+                FROM.plusDays(1), principal))).containsExactly("Dia 0",
+                        "Dia 1");
+        assertThat(taskCalendarIndex.find(owner.getId()).isComplete())
+                .isFalse();
+
+        persist("Nova", FROM.atTime(7, 0), owner);
+        entityManager.flush();
+        assertThat(titles(taskCalendarService.getCalendar(FROM, FROM,
+                principal))).containsExactly("Nova", "Dia 0");
+    }
+
+    @Test
+    void getCalendar_deveIntercalarOcorrenciasDasTarefasRecorrentes() {
+        Task weekly = persist("Semanal", FROM.atTime(9, 0), owner);
+        Task monday = persist("Segunda", FROM.plusDays(3).atTime(9, 0),
+                owner);
+        entityManager.persist(TaskRecurrence.builder()
+                .taskId(weekly.getId())
+                .userId(owner.getId())
+                .rule("FREQ=WEEKLY")
+                .startsAt(weekly.getDueDate())
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        List<CalendarEntry> entries = taskCalendarService.getCalendar(FROM,
+                FROM.plusDays(7), principal).getDays().stream()
+                .flatMap(day -> day.tasks().stream())
+                .toList();
+
+        assertThat(entries).extracting(CalendarEntry::id)
+                .containsExactly(weekly.getId(), monday.getId(), null);
+        assertThat(entries.get(2).recurrenceId()).isEqualTo(weekly.getId());
+        assertThat(entries.get(2).dueDate())
+                .isEqualTo(FROM.plusDays(7).atTime(9, 0));
+    }
+
+    @Test
+    void getCalendar_deveRejeitarIntervaloInvalido() {
+        assertThatThrownBy(() -> taskCalendarService.getCalendar(TO, FROM,
+                principal)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> taskCalendarService.getCalendar(FROM,
+                FROM.plusDays(TaskCalendarService.MAX_DAYS), principal))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<String> titles(TaskCalendarResponse calendar) {
+        return calendar.getDays().stream()
+                .flatMap(day -> day.tasks().stream())
+                .map(CalendarEntry::title)
+                .toList();
+    }
+
+    private Task persist(String title, LocalDateTime dueDate, User user) {
+        return entityManager.persist(Task.builder().title(title)
+                .status(TaskStatus.TODO).priority(TaskPriority.MEDIUM)
+                .dueDate(dueDate).user(user).build());
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
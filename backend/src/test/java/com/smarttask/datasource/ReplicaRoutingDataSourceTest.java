@@ -0,0 +1,130 @@
+package com.smarttask.datasource;
+
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readTransaction;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(database("primary"),
+                Map.of("replica-1", database("replica-1")),
+                new ReadYourWritesTracker(Duration.ofMinutes(1)));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager =
+                new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void check_deveManterNoRodizioApenasReplicasEmDia() {
+        assertThat(readTarget()).isEqualTo("primary");
+
+        new ReplicaLagMonitor(routing, "SELECT 200", Duration.ofSeconds(1),
+                mock(MetricsService.class)).check();
+        assertThat(readTarget()).isEqualTo("replica-1");
+        assertThat(writeTarget()).isEqualTo("primary");
+
+        new ReplicaLagMonitor(routing, "SELECT 60000", Duration.ofSeconds(1),
+                mock(MetricsService.class)).check();
+        assertThat(routing.isAvailable("replica-1")).isFalse();
+        assertThat(readTarget()).isEqualTo("primary");
+    }
+
+    @Test
+    void check_deveRetirarReplicaInacessivel() {
+        routing.setAvailable("replica-1", true);
+
+        new ReplicaLagMonitor(routing, "SELECT pg_is_in_recovery()",
+                Duration.ofSeconds(1), mock(MetricsService.class)).check();
+
+        assertThat(routing.isAvailable("replica-1")).isFalse();
+        assertThat(readTarget()).isEqualTo("primary");
+    }
+
+    @Test
+    void determineCurrentLookupKey_deveLerDoPrimarioAposEscritaDoUsuario() {
+        routing.setAvailable("replica-1", true);
+        authenticate(1L);
+        assertThat(readTarget()).isEqualTo("replica-1");
+
+        assertThat(writeTarget()).isEqualTo("primary");
+
+        assertThat(readTarget()).isEqualTo("primary");
+        authenticate(2L);
+        assertThat(readTarget()).isEqualTo("replica-1");
+    }
+
+    private String readTarget() {
+        return readTransaction.execute(status -> jdbcTemplate
+                .queryForObject("SELECT name FROM target", String.class));
+    }
+
+    private String writeTarget() {
+        return writeTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE target SET writes = writes + 1");
+            return jdbcTemplate.queryForObject("SELECT name FROM target",
+                    String.class);
+        });
+    }
+
+    private static void authenticate(final Long userId) {
+        UserPrincipal principal = UserPrincipal.create(User.builder()
+                .id(userId)
+                .username("user" + userId)
+                .email("user" + userId + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null,
+                        principal.getAuthorities()));
+    }
+
+    private static DataSource database(final String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+                        + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE target (name VARCHAR(20), writes INT)");
+        setup.update("INSERT INTO target VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
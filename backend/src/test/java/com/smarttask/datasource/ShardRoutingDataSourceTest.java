@@ -0,0 +1,137 @@
+package com.smarttask.datasource;
+
+import com.smarttask.model.User;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+class ShardRoutingDataSourceTest {
+
+    private ShardRoutingDataSource routing;
+
+    private ShardDirectory directory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("shard-0", database("shard-0"));
+        shards.put("shard-1", database("shard-1"));
+        JdbcTemplate defaultShard = new JdbcTemplate(shards.get("shard-0"));
+        defaultShard.execute("CREATE TABLE user_shards (user_id BIGINT "
+                + "PRIMARY KEY, shard VARCHAR(64) NOT NULL, moving_to "
+                + "VARCHAR(64), updated_at TIMESTAMP NOT NULL)");
+        directory = new ShardDirectory(defaultShard, "shard-0",
+                Duration.ofMinutes(1));
+        routing = new ShardRoutingDataSource(shards, directory,
+                Duration.ofMillis(300));
+        jdbcTemplate = new JdbcTemplate(
+                new LazyConnectionDataSourceProxy(routing));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        SecurityContextHolder.clearContext();
+        routing.close();
+    }
+
+    @Test
+    void determineCurrentLookupKey_deveRotearPeloDiretorioDoUsuario() {
+        directory.completeMove(2L, "shard-1");
+
+        assertThat(target()).isEqualTo("shard-0");
+        authenticate(1L);
+        assertThat(target()).isEqualTo("shard-0");
+        authenticate(2L);
+        assertThat(target()).isEqualTo("shard-1");
+    }
+
+    @Test
+    void runForUser_deveUsarShardDoUsuarioSemAutenticacao() {
+        directory.completeMove(2L, "shard-1");
+        List<String> targets = new ArrayList<>();
+
+        ShardContext.runForUser(2L, () -> targets.add(target()));
+        targets.add(target());
+
+        assertThat(targets).containsExactly("shard-1", "shard-0");
+    }
+
+    @Test
+    void forEachShard_deveExecutarUmaVezEmCadaShard() {
+        directory.completeMove(2L, "shard-1");
+        List<String> targets = new ArrayList<>();
+        List<Boolean> homeShard = new ArrayList<>();
+
+        ShardContext.forEachShard(() -> {
+            targets.add(target());
+            homeShard.add(ShardContext.isHomeShard(2L));
+        });
+
+        assertThat(targets).containsExactly("shard-0", "shard-1");
+        assertThat(homeShard).containsExactly(false, true);
+    }
+
+    @Test
+    void shardOf_deveEsperarMovimentacaoEmAndamento() {
+        directory.beginMove(2L, "shard-0", "shard-1");
+        authenticate(2L);
+
+        assertThatThrownBy(this::target)
+                .rootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("being moved");
+
+        directory.completeMove(2L, "shard-1");
+        assertThat(target()).isEqualTo("shard-1");
+    }
+
+    private String target() {
+        return jdbcTemplate.queryForObject("SELECT name FROM target",
+                String.class);
+    }
+
+    private static void authenticate(final Long userId) {
+        UserPrincipal principal = UserPrincipal.create(User.builder()
+                .id(userId)
+                .username("user" + userId)
+                .email("user" + userId + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null,
+                        principal.getAuthorities()));
+    }
+
+    private static DataSource database(final String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+                        + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE target (name VARCHAR(20))");
+        setup.update("INSERT INTO target VALUES (?)", name);
+        return dataSource;
+    }
+}
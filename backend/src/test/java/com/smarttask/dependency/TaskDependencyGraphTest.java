@@ -0,0 +1,124 @@
+package com.smarttask.dependency;
+
+import com.smarttask.dependency.TaskDependencyGraph.Snapshot;
+import com.smarttask.repository.TaskDependencyStampView;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class TaskDependencyGraphTest {
+
+    @Test
+    void blocks_deveSeguirCadeiasNoSentidoDosBloqueios() {
+        // 20 bloqueada por 10, 30 bloqueada por 20, 40 bloqueada por 10
+        Snapshot graph = build(new long[] {20, 30, 40},
+                new long[] {10, 20, 10});
+
+        assertThat(graph.blocks(10, 30)).isTrue();
+        assertThat(graph.blocks(20, 30)).isTrue();
+        assertThat(graph.blocks(30, 10)).isFalse();
+        assertThat(graph.blocks(40, 30)).isFalse();
+        assertThat(graph.blocks(10, 99)).isFalse();
+    }
+
+    @Test
+    void depth_deveSerOMaiorNivelDosBloqueadores() {
+        // 30 bloqueada por 10 e por 20; 20 bloqueada por 10
+        Snapshot graph = build(new long[] {30, 30, 20},
+                new long[] {10, 20, 10});
+
+        assertThat(graph.depth(10)).isZero();
+        assertThat(graph.depth(20)).isEqualTo(1);
+        assertThat(graph.depth(30)).isEqualTo(2);
+        assertThat(graph.depth(99)).isZero();
+    }
+
+    @Test
+    void markBlockedBy_deveMarcarApenasBloqueadasDiretas() {
+        Snapshot graph = build(new long[] {20, 30}, new long[] {10, 20});
+
+        boolean[] marks = graph.markBlockedBy(List.of(10L, 99L));
+
+        assertThat(graph.isMarked(marks, 20)).isTrue();
+        assertThat(graph.isMarked(marks, 30)).isFalse();
+        assertThat(graph.isMarked(marks, 10)).isFalse();
+        assertThat(graph.isMarked(marks, 99)).isFalse();
+    }
+
+    @Test
+    void withEdge_deveManterArestasEAtualizarImpressao() {
+        Snapshot graph = build(new long[] {20}, new long[] {10});
+
+        Snapshot next = graph.withEdge(30, 20, 7);
+
+        assertThat(next.edges()).isEqualTo(2);
+        assertThat(next.blocks(10, 30)).isTrue();
+        assertThat(next.depth(30)).isEqualTo(2);
+        assertThat(next.matches(stamp(2, 7L))).isTrue();
+        assertThat(graph.matches(stamp(1, 1L))).isTrue();
+        assertThat(graph.matches(stamp(1, 2L))).isFalse();
+        assertThat(Snapshot.build(new long[0], new long[0], 0, null)
+                .matches(stamp(0, null))).isTrue();
+    }
+
+    @Test
+    void build_deveAtenderGrafosCom100MilArestas() {
+        int edges = 100_000;
+        long[] tasks = new long[edges];
+        long[] blockers = new long[edges];
+        Random random = new Random(7);
+        for (int i = 0; i < edges; i++) {
+            // Sempre do id menor para o maior: grafo aciclico.
+            long task = 2 + random.nextInt(40_000);
+            tasks[i] = task;
+            blockers[i] = 1 + random.nextInt((int) task - 1);
+        }
+        int unique = 0;
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < edges; i++) {
+            if (seen.add(tasks[i] * 100_000 + blockers[i])) {
+                tasks[unique] = tasks[i];
+                blockers[unique] = blockers[i];
+                unique++;
+            }
+        }
+
+        Snapshot graph = Snapshot.build(tasks, blockers, unique,
+                (long) unique);
+
+        assertThat(graph.edges()).isEqualTo(unique);
+        assertThat(graph.blocks(blockers[0], tasks[0])).isTrue();
+        assertThat(graph.blocks(tasks[0], blockers[0])).isFalse();
+        int outOfOrder = 0;
+        for (int i = 0; i < unique; i++) {
+            if (graph.depth(tasks[i]) <= graph.depth(blockers[i])) {
+                outOfOrder++;
+            }
+        }
+        assertThat(outOfOrder).isZero();
+    }
+
+    private static Snapshot build(long[] tasks, long[] blockers) {
+        return Snapshot.build(tasks, blockers, tasks.length,
+                (long) tasks.length);
+    }
+
+    private static TaskDependencyStampView stamp(long edges, Long lastId) {
+        return new TaskDependencyStampView() {
+            @Override
+            public long getEdges() {
+                return edges;
+            }
+
+            @Override
+            public Long getLastId() {
+                return lastId;
+            }
+        };
+    }
+}
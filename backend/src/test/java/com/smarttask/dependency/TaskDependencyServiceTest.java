@@ -0,0 +1,195 @@
+package com.smarttask.dependency;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskDependency;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.repository.TaskDependencyRepository;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskViewAssembler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskDependencyService.class, TaskDependencyGraph.class,
+        TaskViewAssembler.class})
+class TaskDependencyServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskDependencyService taskDependencyService;
+
+    @Autowired
+    private TaskDependencyGraph taskDependencyGraph;
+
+    @Autowired
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+    }
+
+    @Test
+    void getReadyTasks_deveListarProntasEmOrdemTopologica() {
+        Task design = persist("Design", TaskStatus.COMPLETED, owner);
+        Task build = persist("Build", TaskStatus.TODO, owner);
+        Task deploy = persist("Deploy", TaskStatus.TODO, owner);
+        Task docs = persist("Docs", TaskStatus.IN_PROGRESS, owner);
+        persist("Livre", TaskStatus.TODO, owner);
+        persist("Alheia", TaskStatus.TODO,
+                entityManager.persist(user("other")));
+        entityManager.flush();
+
+        taskDependencyService.addDependency(build.getId(), design.getId(),
+                principal);
+        taskDependencyService.addDependency(deploy.getId(), build.getId(),
+                principal);
+        taskDependencyService.addDependency(docs.getId(), design.getId(),
+                principal);
+
+        assertThat(readyTitles()).containsExactly("Livre", "Build", "Docs");
+
+        build.setStatus(TaskStatus.COMPLETED);
+        entityManager.flush();
+        assertThat(readyTitles()).containsExactly("Livre", "Docs", "Deploy");
+    }
+
+    @Test
+    void getReadyTasks_deveManterBloqueadaPorTarefaCancelada() {
+        Task cancelled = persist("Cancelada", TaskStatus.CANCELLED, owner);
+        Task blocked = persist("Bloqueada", TaskStatus.TODO, owner);
+        entityManager.flush();
+        taskDependencyService.addDependency(blocked.getId(),
+                cancelled.getId(), principal);
+
+        assertThat(readyTitles()).isEmpty();
+
+        taskDependencyService.removeDependency(blocked.getId(),
+                cancelled.getId(), principal);
+        assertThat(readyTitles()).containsExactly("Bloqueada");
+    }
+
+    @Test
+    void addDependency_deveRecusarCiclos() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, owner);
+        Task c = persist("Tarefa C", TaskStatus.TODO, owner);
+        entityManager.flush();
+        taskDependencyService.addDependency(b.getId(), a.getId(), principal);
+        taskDependencyService.addDependency(c.getId(), b.getId(), principal);
+
+        assertThatThrownBy(() -> taskDependencyService.addDependency(
+                a.getId(), c.getId(), principal))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> taskDependencyService.addDependency(
+                a.getId(), a.getId(), principal))
+                .isInstanceOf(IllegalStateException.class);
+        taskDependencyService.addDependency(c.getId(), a.getId(), principal);
+        taskDependencyService.addDependency(c.getId(), a.getId(), principal);
+        assertThat(taskDependencyRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void addDependency_deveRecarregarGrafoAlteradoPorOutraInstancia() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, owner);
+        entityManager.flush();
+        assertThat(readyTitles()).containsExactly("Tarefa A", "Tarefa B");
+
+        entityManager.persist(TaskDependency.builder()
+                .taskId(b.getId())
+                .blockerId(a.getId())
+                .userId(owner.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        assertThatThrownBy(() -> taskDependencyService.addDependency(
+                a.getId(), b.getId(), principal))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getBlockers_deveListarBloqueadoresDiretos() {
+        Task a = persist("Tarefa A", TaskStatus.TODO, owner);
+        Task b = persist("Tarefa B", TaskStatus.TODO, owner);
+        Task c = persist("Tarefa C", TaskStatus.TODO, owner);
+        entityManager.flush();
+        taskDependencyService.addDependency(c.getId(), b.getId(), principal);
+        taskDependencyService.addDependency(c.getId(), a.getId(), principal);
+        taskDependencyService.addDependency(b.getId(), a.getId(), principal);
+
+        assertThat(taskDependencyService.getBlockers(c.getId(), principal))
+                .extracting(TaskResponse::getTitle)
+                .containsExactlyInAnyOrder("Tarefa A", "Tarefa B");
+        assertThat(taskDependencyService.getBlockers(a.getId(), principal))
+                .isEmpty();
+    }
+
+    @Test
+    void addDependency_deveRecusarTarefasDeOutroUsuario() {
+        Task mine = persist("Minha", TaskStatus.TODO, owner);
+        Task foreign = persist("Alheia", TaskStatus.TODO,
+                entityManager.persist(user("other")));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> taskDependencyService.addDependency(
+                mine.getId(), foreign.getId(), principal))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> taskDependencyService.getBlockers(
+                foreign.getId(), principal))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private List<String> readyTitles() {
+        // O teste nao faz commit: descarta a fotografia que seria trocada
+        // apos o commit de cada nova dependencia.
+        taskDependencyGraph.invalidate(List.of(owner.getId()));
+        return taskDependencyService.getReadyTasks(null, principal).stream()
+                .map(TaskResponse::getTitle)
+                .toList();
+    }
+
+    private Task persist(String title, TaskStatus status, User user) {
+        return entityManager.persist(Task.builder().title(title)
+                .status(status).priority(TaskPriority.MEDIUM)
+                .user(user).build());
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
@@ -0,0 +1,299 @@
+package com.smarttask.imports;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.config.TaskImportConfig;
+import com.smarttask.dto.TaskImportJobResponse;
+import com.smarttask.exception.ResourceNotFoundException;
+import com.smarttask.model.TaskImportJob;
+import com.smarttask.model.TaskImportJob.ImportFormat;
+import com.smarttask.model.TaskImportJob.ImportStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutboxDispatcher;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.TaskImportJobRepository;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import com.smarttask.service.TaskRollupService;
+import com.smarttask.service.TaskStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskImportService.class, TaskImportStaging.class,
+        TaskSearchIndexer.class, TaskSearchIndex.class,
+        TaskStatsService.class, TaskCalendarIndex.class,
+        TaskChangeTracker.class, TaskRollupService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TaskImportServiceTest {
+
+    private static final int EXTRA_ROWS = TaskImportService.BATCH_SIZE + 3;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskImportJobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    @MockitoBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockitoBean
+    private TaskOutboxDispatcher taskOutboxDispatcher;
+
+    @MockitoBean(name = TaskImportConfig.TASK_IMPORT_EXECUTOR)
+    private TaskExecutor importExecutor;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskSearchIndex.clear();
+        jdbcTemplate.update("UPDATE tasks SET parent_task_id = NULL");
+        jdbcTemplate.update("DELETE FROM task_tags");
+        jdbcTemplate.update("DELETE FROM task_tag_links");
+        jdbcTemplate.update("DELETE FROM user_tags");
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM task_stats");
+        jobRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void runImport_ndjson_deveCriarTarefasSubtarefasETagsEReportarLinhasInvalidas()
+            throws Exception {
+        StringBuilder content = new StringBuilder()
+                .append("{\"externalId\":\"root\",\"title\":\"Migrar banco\","
+                        + "\"tags\":[\"infra\",\"db\"],\"priority\":\"high\"}\n")
+                .append("{\"externalId\":\"child\",\"parentExternalId\":\"root\","
+                        + "\"title\":\"Copiar dados\",\"status\":\"COMPLETED\","
+                        + "\"dueDate\":\"2026-01-31\",\"estimatedHours\":4}\n")
+                .append("{nao e json}\n")
+                .append("{\"title\":\"  \"}\n")
+                .append("{\"externalId\":\"root\",\"title\":\"Repetida\"}\n")
+                .append("\n");
+        for (int index = 0; index < EXTRA_ROWS; index++) {
+            content.append("{\"title\":\"Historico ").append(index)
+                    .append("\"}\n");
+        }
+        TaskImportJob job = pendingJob(ImportFormat.NDJSON);
+
+        taskImportService.runImport(job.getId(), file(content.toString()));
+
+        TaskImportJob finished = jobRepository.findById(job.getId())
+                .orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(finished.getProcessedRows()).isEqualTo(EXTRA_ROWS + 5);
+        assertThat(finished.getRejectedRows()).isEqualTo(3);
+        assertThat(finished.getImportedRows()).isEqualTo(EXTRA_ROWS + 2);
+        assertThat(finished.getFinishedAt()).isNotNull();
+
+        TaskImportJobResponse response = taskImportService.getJob(
+                job.getId(), UserPrincipal.create(owner));
+        assertThat(response.getRowErrors()).containsExactly(
+                "row 3: invalid JSON",
+                "row 4: title: must not be blank",
+                "row 5: externalId: duplicated in file");
+
+        assertThat(countTasks()).isEqualTo(EXTRA_ROWS + 2);
+        Long rootId = taskId("Migrar banco");
+        Long childId = taskId("Copiar dados");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT parent_task_id FROM tasks WHERE id = ?", Long.class,
+                childId)).isEqualTo(rootId);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT tag FROM task_tags WHERE task_id = ? ORDER BY tag",
+                String.class, rootId)).containsExactly("db", "infra");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT u.name FROM task_tag_links l JOIN user_tags u "
+                        + "ON u.id = l.tag_id WHERE l.task_id = ? "
+                        + "AND u.task_count = 1 ORDER BY u.name",
+                String.class, rootId)).containsExactly("db", "infra");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT priority FROM tasks WHERE id = ?", String.class,
+                rootId)).isEqualTo("HIGH");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE id = ? "
+                        + "AND completed_at IS NOT NULL AND estimated_hours = 4",
+                Integer.class, childId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap("SELECT subtree_estimated_hours "
+                + "AS estimated, subtree_open_count AS open_count, "
+                + "subtree_completed_count AS completed FROM tasks "
+                + "WHERE id = ?", rootId))
+                .containsEntry("ESTIMATED", 4L)
+                .containsEntry("OPEN_COUNT", 1L)
+                .containsEntry("COMPLETED", 1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_import_staging", Integer.class))
+                .isZero();
+        assertThat(taskSearchIndex.search(owner.getId(), "copiar", 5))
+                .containsExactly(childId);
+        assertThat(taskSearchIndex.size(owner.getId()))
+                .isEqualTo(EXTRA_ROWS + 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT todo_count FROM task_stats WHERE user_id = ?",
+                Long.class, owner.getId())).isEqualTo(EXTRA_ROWS + 1);
+        verify(dueDateScheduler, atLeastOnce()).scheduleByIds(anyCollection());
+    }
+
+    @Test
+    void runImport_csv_deveAceitarColunasDaExportacao() throws Exception {
+        String content = "id,title,description,status,tags,parentTaskId\n"
+                + "10,Epico,\"linha 1\nlinha 2, com virgula\",IN_PROGRESS,"
+                + "a;b,\n"
+                + "11,\"Historia \"\"curta\"\"\",,,,10\n"
+                + "12,Sem titulo valido?,,FEITO,,\n";
+        TaskImportJob job = pendingJob(ImportFormat.CSV);
+
+        taskImportService.runImport(job.getId(), file(content));
+
+        TaskImportJob finished = jobRepository.findById(job.getId())
+                .orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(finished.getImportedRows()).isEqualTo(2);
+        assertThat(finished.getRowErrors())
+                .isEqualTo("row 3: status: invalid value 'FEITO'");
+        Long epicId = taskId("Epico");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT description FROM tasks WHERE id = ?", String.class,
+                epicId)).isEqualTo("linha 1\nlinha 2, com virgula");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT parent_task_id FROM tasks WHERE id = ?", Long.class,
+                taskId("Historia \"curta\""))).isEqualTo(epicId);
+    }
+
+    @Test
+    void runImport_paiDeclaradoDepois_naoDeveCriarCiclo() throws Exception {
+        String content = "{\"externalId\":\"a\",\"parentExternalId\":\"b\","
+                + "\"title\":\"Tarefa A\"}\n"
+                + "{\"externalId\":\"b\",\"parentExternalId\":\"a\","
+                + "\"title\":\"Tarefa B\"}\n";
+        TaskImportJob job = pendingJob(ImportFormat.NDJSON);
+
+        taskImportService.runImport(job.getId(), file(content));
+
+        Long first = taskId("Tarefa A");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT parent_task_id FROM tasks WHERE id = ?", Long.class,
+                first)).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT parent_task_id FROM tasks WHERE id = ?", Long.class,
+                taskId("Tarefa B"))).isEqualTo(first);
+    }
+
+    @Test
+    void startImport_deveRegistrarJobPendenteEAgendarProcessamento() {
+        MockMultipartFile file = new MockMultipartFile("file", "tasks.ndjson",
+                "application/x-ndjson",
+                "{\"title\":\"Nova\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        TaskImportJobResponse response = taskImportService.startImport(file,
+                "NDJSON", UserPrincipal.create(owner));
+
+        assertThat(response.getStatus()).isEqualTo(ImportStatus.PENDING);
+        assertThat(jobRepository.findById(response.getId())).isPresent();
+        verify(importExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void startImport_formatoInvalido_deveLancarIllegalState() {
+        MockMultipartFile file = new MockMultipartFile("file",
+                "tasks.xml", "text/xml", new byte[] {1});
+
+        assertThatThrownBy(() -> taskImportService.startImport(file, "xml",
+                UserPrincipal.create(owner)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getJob_deOutroUsuario_deveLancarNotFound() {
+        TaskImportJob job = pendingJob(ImportFormat.CSV);
+        User stranger = userRepository.save(user("stranger"));
+
+        assertThatThrownBy(() -> taskImportService.getJob(job.getId(),
+                UserPrincipal.create(stranger)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private TaskImportJob pendingJob(ImportFormat format) {
+        return jobRepository.save(TaskImportJob.builder()
+                .userId(owner.getId())
+                .format(format)
+                .build());
+    }
+
+    private static Path file(String content) throws Exception {
+        Path path = Files.createTempFile("task-import-test-", ".tmp");
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private int countTasks() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE user_id = ?", Integer.class,
+                owner.getId());
+    }
+
+    private Long taskId(String title) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE title = ?", Long.class, title);
+        assertThat(ids).hasSize(1);
+        return ids.get(0);
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
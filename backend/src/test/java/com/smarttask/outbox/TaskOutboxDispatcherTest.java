@@ -0,0 +1,149 @@
+package com.smarttask.outbox;
+
+import com.smarttask.config.TaskOutboxConfig;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOutboxEvent;
+import com.smarttask.model.TaskOutboxEvent.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@DataJpaTest(properties = "tasks.outbox.retry-delay=1h")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskOutbox.class, TaskOutboxDispatcher.class})
+class TaskOutboxDispatcherTest {
+
+    @Autowired
+    private TaskOutbox taskOutbox;
+
+    @Autowired
+    private TaskOutboxDispatcher taskOutboxDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private TaskEventHandler handler;
+
+    @MockitoBean(name = TaskOutboxConfig.TASK_OUTBOX_EXECUTOR)
+    private TaskExecutor outboxExecutor;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM task_outbox");
+    }
+
+    @Test
+    void drain_deveEntregarNaOrdemDeGravacaoERemover() {
+        inTransaction(() -> {
+            taskOutbox.publish(EventType.CREATED, 1L,
+                    List.of(task(10L), task(11L)));
+            taskOutbox.publish(EventType.CREATED, 2L, List.of(task(20L)));
+            taskOutbox.publishDeleted(1L, List.of(10L));
+        });
+
+        taskOutboxDispatcher.drain();
+
+        assertThat(delivered()).extracting(TaskOutboxEvent::getTaskId)
+                .containsExactly(10L, 11L, 20L, 10L);
+        assertThat(delivered()).extracting(TaskOutboxEvent::getEventType)
+                .containsExactly(EventType.CREATED, EventType.CREATED,
+                        EventType.CREATED, EventType.DELETED);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void drain_deveAdiarFalhaSemPassarNaFrenteDoMesmoUsuario() {
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Long> handled = new ArrayList<>();
+        doAnswer(invocation -> {
+            TaskOutboxEvent event = invocation.getArgument(0);
+            if (event.getTaskId() == 10L && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("consumidor indisponivel");
+            }
+            handled.add(event.getTaskId());
+            return null;
+        }).when(handler).handle(any());
+        inTransaction(() -> {
+            taskOutbox.publish(EventType.CREATED, 1L,
+                    List.of(task(10L), task(11L)));
+            taskOutbox.publish(EventType.UPDATED, 2L, List.of(task(20L)));
+        });
+
+        taskOutboxDispatcher.drain();
+        taskOutboxDispatcher.drain();
+
+        assertThat(handled).containsExactly(20L);
+        assertThat(pending()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM "
+                + "task_outbox WHERE task_id = 10", Integer.class))
+                .isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE task_outbox SET next_attempt_at = "
+                + "CURRENT_TIMESTAMP - INTERVAL '1' MINUTE");
+        taskOutboxDispatcher.drain();
+
+        assertThat(handled).containsExactly(20L, 10L, 11L);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void publish_naoDeveGravarQuandoATransacaoEDesfeita() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    taskOutbox.publish(EventType.CREATED, 1L,
+                            List.of(task(10L)));
+                    status.setRollbackOnly();
+                });
+
+        assertThat(pending()).isZero();
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> action.run());
+    }
+
+    private List<TaskOutboxEvent> delivered() {
+        ArgumentCaptor<TaskOutboxEvent> events =
+                ArgumentCaptor.forClass(TaskOutboxEvent.class);
+        verify(handler, atLeastOnce()).handle(events.capture());
+        return events.getAllValues();
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_outbox",
+                Integer.class);
+    }
+
+    private static Task task(Long id) {
+        return Task.builder().id(id).title("Tarefa " + id)
+                .status(TaskStatus.TODO).priority(TaskPriority.MEDIUM)
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.smarttask.recurrence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void parse_deveGerarFormaCanonica() {
+        RecurrenceRule rule = RecurrenceRule.parse(
+                "rrule:byday=we,mo;freq=weekly;interval=2;until=20301231");
+
+        assertThat(rule.format()).isEqualTo(
+                "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;UNTIL=20301231");
+        assertThat(RecurrenceRule.parse(rule.format()).format())
+                .isEqualTo(rule.format());
+    }
+
+    @Test
+    void parse_deveRejeitarRegrasInvalidas() {
+        for (String rule : List.of("", "INTERVAL=2", "FREQ=HOURLY",
+                "FREQ=DAILY;BYDAY=MO", "FREQ=DAILY;COUNT=2;UNTIL=20301231",
+                "FREQ=DAILY;COUNT=0", "FREQ=DAILY;INTERVAL=1001",
+                "FREQ=WEEKLY;BYDAY=XX", "FREQ=DAILY;BYMONTH=1",
+                "FREQ=DAILY;UNTIL=2030")) {
+            assertThatThrownBy(() -> RecurrenceRule.parse(rule))
+                    .as(rule)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageStartingWith("Invalid recurrence rule");
+        }
+    }
+
+    @Test
+    void expand_deveSaltarDiretoParaAJanela() {
+        List<Long> delivered = new ArrayList<>();
+        RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3").expand(
+                LocalDateTime.of(2000, 1, 1, 9, 0), null,
+                LocalDate.of(2030, 3, 1).atStartOfDay(),
+                LocalDate.of(2030, 3, 10).atStartOfDay(), 100,
+                delivered::add);
+
+        assertThat(delivered).hasSize(3);
+        assertThat(delivered).allSatisfy(day -> assertThat(
+                (day - LocalDate.of(2000, 1, 1).toEpochDay()) % 3)
+                .isZero());
+        assertThat(LocalDate.ofEpochDay(delivered.get(0)))
+                .isBetween(LocalDate.of(2030, 3, 1),
+                        LocalDate.of(2030, 3, 3));
+    }
+
+    @Test
+    void expand_deveRespeitarHorarioNasBordasELimite() {
+        RecurrenceRule daily = RecurrenceRule.parse("FREQ=DAILY");
+        LocalDateTime start = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+        assertThat(days(daily, start, null,
+                LocalDateTime.of(2030, 3, 2, 9, 30),
+                LocalDateTime.of(2030, 3, 5, 9, 0), 100))
+                .containsExactly(LocalDate.of(2030, 3, 3),
+                        LocalDate.of(2030, 3, 4));
+        assertThat(days(daily, start, null, start.minusDays(5),
+                start.plusDays(2), 100))
+                .containsExactly(LocalDate.of(2030, 3, 2));
+        assertThat(days(daily, start, null, start, start.plusDays(30), 2))
+                .hasSize(2);
+    }
+
+    @Test
+    void expand_semanalDeveUsarDiasEIntervalo() {
+        RecurrenceRule rule =
+                RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,FR");
+        LocalDateTime monday = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+        assertThat(days(rule, monday, null,
+                LocalDate.of(2030, 3, 1).atStartOfDay(),
+                LocalDate.of(2030, 4, 1).atStartOfDay(), 100))
+                .containsExactly(LocalDate.of(2030, 3, 8),
+                        LocalDate.of(2030, 3, 18), LocalDate.of(2030, 3, 22));
+        assertThat(days(RecurrenceRule.parse("FREQ=WEEKLY"), monday, null,
+                monday, monday.plusDays(15), 100))
+                .containsExactly(LocalDate.of(2030, 3, 11),
+                        LocalDate.of(2030, 3, 18));
+    }
+
+    @Test
+    void expand_mensalEAnualDevemPularDatasInexistentes() {
+        assertThat(days(RecurrenceRule.parse("FREQ=MONTHLY"),
+                LocalDateTime.of(2030, 1, 31, 10, 0), null,
+                LocalDate.of(2030, 1, 1).atStartOfDay(),
+                LocalDate.of(2031, 1, 1).atStartOfDay(), 100))
+                .containsExactly(LocalDate.of(2030, 3, 31),
+                        LocalDate.of(2030, 5, 31), LocalDate.of(2030, 7, 31),
+                        LocalDate.of(2030, 8, 31), LocalDate.of(2030, 10, 31),
+                        LocalDate.of(2030, 12, 31));
+        assertThat(days(RecurrenceRule.parse("FREQ=YEARLY"),
+                LocalDateTime.of(2028, 2, 29, 10, 0), null,
+                LocalDate.of(2028, 1, 1).atStartOfDay(),
+                LocalDate.of(2037, 1, 1).atStartOfDay(), 100))
+                .containsExactly(LocalDate.of(2032, 2, 29),
+                        LocalDate.of(2036, 2, 29));
+    }
+
+    @Test
+    void lastOccurrence_deveContarATarefaModeloELimitarExpansao() {
+        LocalDateTime start = LocalDateTime.of(2030, 3, 1, 10, 0);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=3");
+        LocalDateTime end = rule.lastOccurrence(start);
+
+        assertThat(end).isEqualTo(LocalDateTime.of(2030, 3, 3, 10, 0));
+        assertThat(days(rule, start, end, start, start.plusYears(1), 100))
+                .containsExactly(LocalDate.of(2030, 3, 2),
+                        LocalDate.of(2030, 3, 3));
+        assertThat(RecurrenceRule.parse("FREQ=YEARLY;COUNT=2")
+                .lastOccurrence(LocalDateTime.of(2028, 2, 29, 10, 0)))
+                .isEqualTo(LocalDateTime.of(2032, 2, 29, 10, 0));
+        assertThat(RecurrenceRule.parse("FREQ=DAILY;COUNT=1")
+                .lastOccurrence(start)).isEqualTo(start);
+        assertThat(RecurrenceRule.parse("FREQ=DAILY").lastOccurrence(start))
+                .isNull();
+    }
+
+    private static List<LocalDate> days(RecurrenceRule rule,
+            LocalDateTime start, LocalDateTime end, LocalDateTime from,
+            LocalDateTime to, int limit) {
+        List<LocalDate> days = new ArrayList<>();
+        rule.expand(start, end, from, to, limit, day -> {
+            days.add(LocalDate.ofEpochDay(day));
+            return true;
+        });
+        return days;
+    }
+}
@@ -0,0 +1,135 @@
+package com.smarttask.recurrence;
+
+import com.smarttask.dto.TaskOccurrenceResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskOccurrence;
+import com.smarttask.model.TaskRecurrence;
+import com.smarttask.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = "tasks.recurrence.max-occurrences=5")
+@Import(TaskOccurrenceExpander.class)
+class TaskOccurrenceExpanderTest {
+
+    private static final LocalDateTime FROM =
+            LocalDate.of(2030, 3, 1).atStartOfDay();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskOccurrenceExpander taskOccurrenceExpander;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+    }
+
+    @Test
+    void expand_deveIgnorarOcorrenciasMaterializadasESeriesEncerradas() {
+        Task weekly = recurring("Semanal", FROM.plusHours(9), "FREQ=WEEKLY",
+                null, owner);
+        recurring("Encerrada", FROM.minusDays(10), "FREQ=DAILY;COUNT=3",
+                FROM.minusDays(8), owner);
+        recurring("Alheia", FROM.plusHours(9), "FREQ=WEEKLY", null,
+                entityManager.persist(user("other")));
+        entityManager.persist(TaskOccurrence.builder()
+                .templateId(weekly.getId())
+                .userId(owner.getId())
+                .occurrenceAt(FROM.plusDays(14).plusHours(9))
+                .taskId(-1L)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskOccurrenceResponse> occurrences = taskOccurrenceExpander
+                .expand(owner.getId(), FROM, FROM.plusDays(28));
+
+        assertThat(occurrences).extracting(TaskOccurrenceResponse::getDueDate)
+                .containsExactly(FROM.plusDays(7).plusHours(9),
+                        FROM.plusDays(21).plusHours(9));
+        assertThat(occurrences).allSatisfy(occurrence -> {
+            assertThat(occurrence.getRecurrenceId())
+                    .isEqualTo(weekly.getId());
+            assertThat(occurrence.getTitle()).isEqualTo("Semanal");
+            assertThat(occurrence.getStatus()).isEqualTo(TaskStatus.TODO);
+        });
+    }
+
+    @Test
+    void expand_deveLimitarOcorrenciasPorConsulta() {
+        recurring("Diaria", FROM.minusYears(5), "FREQ=DAILY", null, owner);
+        recurring("Outra diaria", FROM.minusYears(1), "FREQ=DAILY", null,
+                owner);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskOccurrenceResponse> occurrences = taskOccurrenceExpander
+                .expand(owner.getId(), FROM, FROM.plusDays(365));
+
+        assertThat(occurrences).hasSize(5)
+                .extracting(TaskOccurrenceResponse::getTitle)
+                .containsOnly("Diaria");
+        assertThat(occurrences.get(0).getDueDate())
+                .isEqualTo(FROM.toLocalDate().atTime(
+                        FROM.minusYears(5).toLocalTime()));
+    }
+
+    @Test
+    void expand_deveIgnorarSerieSemTarefaModelo() {
+        entityManager.persist(TaskRecurrence.builder()
+                .taskId(Long.MAX_VALUE)
+                .userId(owner.getId())
+                .rule("FREQ=DAILY")
+                .startsAt(FROM)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        assertThat(taskOccurrenceExpander.expand(owner.getId(), FROM,
+                FROM.plusDays(7))).isEmpty();
+    }
+
+    private Task recurring(String title, LocalDateTime dueDate, String rule,
+            LocalDateTime endsAt, User user) {
+        Task task = entityManager.persist(Task.builder().title(title)
+                .status(TaskStatus.TODO).priority(TaskPriority.MEDIUM)
+                .dueDate(dueDate).user(user).build());
+        entityManager.persist(TaskRecurrence.builder()
+                .taskId(task.getId())
+                .userId(user.getId())
+                .rule(rule)
+                .startsAt(dueDate)
+                .endsAt(endsAt)
+                .createdAt(LocalDateTime.now())
+                .build());
+        return task;
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
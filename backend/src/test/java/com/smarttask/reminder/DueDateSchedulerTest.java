@@ -0,0 +1,141 @@
+package com.smarttask.reminder;
+
+import com.smarttask.model.SchedulerWatermark;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.repository.SchedulerWatermarkRepository;
+import com.smarttask.repository.TaskDueView;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class DueDateSchedulerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private SchedulerWatermarkRepository watermarkRepository;
+
+    private DueDateScheduler scheduler;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new DueDateScheduler(taskRepository, notificationService,
+                watermarkRepository);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void scheduleAfterCommit_deveDispararAvisoEAtrasoNosMinutosCertos() {
+        LocalDateTime dueDate = now.plusHours(3);
+        scheduler.scheduleAfterCommit(List.of(task(1L, dueDate,
+                TaskStatus.TODO)));
+
+        assertThat(scheduler.pendingTimers()).isEqualTo(2);
+        scheduler.advanceTo(dueDate.minusMinutes(62));
+        verify(notificationService, never()).sendDueDateAlerts(any(),
+                anyList());
+
+        scheduler.advanceTo(dueDate.minusMinutes(59));
+        verify(notificationService).sendDueDateAlerts(DueDateEvent.DUE_SOON,
+                List.of(1L));
+
+        scheduler.advanceTo(dueDate.plusMinutes(1));
+        verify(notificationService).sendDueDateAlerts(DueDateEvent.OVERDUE,
+                List.of(1L));
+        assertThat(scheduler.pendingTimers()).isZero();
+    }
+
+    @Test
+    void scheduleAfterCommit_tarefaConcluidaOuAtrasada_naoDeveManterTimers() {
+        scheduler.scheduleAfterCommit(List.of(
+                task(1L, now.plusDays(1), TaskStatus.TODO),
+                task(2L, now.minusDays(1), TaskStatus.TODO),
+                task(3L, now.plusMinutes(30), TaskStatus.IN_PROGRESS)));
+        assertThat(scheduler.pendingTimers()).isEqualTo(3);
+
+        scheduler.scheduleAfterCommit(List.of(
+                task(1L, now.plusDays(1), TaskStatus.COMPLETED)));
+        scheduler.cancelAfterCommit(List.of(3L));
+
+        assertThat(scheduler.pendingTimers()).isZero();
+    }
+
+    @Test
+    void rebuild_deveDispararAlertasPerdidosDuranteAParada() {
+        LocalDateTime stoppedAt = now.minusHours(2);
+        when(watermarkRepository.findById(DueDateScheduler.WATERMARK_NAME))
+                .thenReturn(Optional.of(new SchedulerWatermark(
+                        DueDateScheduler.WATERMARK_NAME, stoppedAt)));
+        when(taskRepository.findPendingDueViewsBetween(eq(stoppedAt), any(),
+                eq(0L), any())).thenReturn(List.of(
+                        dueView(1L, now.minusHours(1)),
+                        dueView(2L, now.plusMinutes(30)),
+                        dueView(3L, now.plusMinutes(59))));
+
+        scheduler.rebuild();
+
+        verify(notificationService).sendDueDateAlerts(DueDateEvent.OVERDUE,
+                List.of(1L));
+        verify(notificationService).sendDueDateAlerts(DueDateEvent.DUE_SOON,
+                List.of(2L, 3L));
+        verify(watermarkRepository).save(argThat(watermark ->
+                watermark.getProcessedAt().isAfter(now.minusMinutes(2))));
+    }
+
+    @Test
+    void rebuild_semMinutoGravado_naoDeveAlertarTarefasJaAtrasadas() {
+        when(watermarkRepository.findById(DueDateScheduler.WATERMARK_NAME))
+                .thenReturn(Optional.empty());
+
+        scheduler.rebuild();
+
+        verify(notificationService, never()).sendDueDateAlerts(any(),
+                anyList());
+        verify(watermarkRepository).save(any());
+    }
+
+    private static TaskDueView dueView(Long id, LocalDateTime dueDate) {
+        return new TaskDueView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    private static Task task(Long id, LocalDateTime dueDate,
+            TaskStatus status) {
+        return Task.builder().id(id).title("Tarefa " + id).dueDate(dueDate)
+                .status(status).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.smarttask.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_003L;
+
+    private final HierarchicalTimingWheel<String> wheel =
+            new HierarchicalTimingWheel<>(START);
+
+    @Test
+    void advance_deveDispararCadaTimerNoTickExatoEmTodosOsNiveis() {
+        long[] distances = {1, 63, 64, 65, 4_095, 4_096, 262_143, 262_144,
+                16_777_215};
+        for (long distance : distances) {
+            wheel.schedule("t" + distance, START + distance);
+        }
+
+        for (long distance : distances) {
+            assertThat(wheel.advance(START + distance - 1))
+                    .doesNotContain("t" + distance);
+            assertThat(wheel.advance(START + distance))
+                    .containsExactly("t" + distance);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_deveEntregarEmOrdemDePrazoAoSaltarVariosTicks() {
+        wheel.schedule("c", START + 5_000);
+        wheel.schedule("a", START + 10);
+        wheel.schedule("b", START + 70);
+
+        assertThat(wheel.advance(START + 6_000))
+                .containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void prazoAlemDoHorizonte_deveSerReposicionadoAteVencer() {
+        long deadline = START + 40_000_000L;
+        wheel.schedule("longe", deadline);
+
+        assertThat(wheel.advance(deadline - 1)).isEmpty();
+        assertThat(wheel.contains("longe")).isTrue();
+        assertThat(wheel.advance(deadline)).containsExactly("longe");
+    }
+
+    @Test
+    void cancelEReagendamento_devemSubstituirTimerAnterior() {
+        wheel.schedule("cancelado", START + 100);
+        wheel.schedule("movido", START + 100);
+        wheel.schedule("movido", START + 300);
+
+        assertThat(wheel.cancel("cancelado")).isTrue();
+        assertThat(wheel.cancel("inexistente")).isFalse();
+        assertThat(wheel.advance(START + 299)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactly("movido");
+    }
+
+    @Test
+    void prazoJaVencido_deveDispararNoProximoAvanco() {
+        wheel.schedule("atrasado", START - 10);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START)).containsExactly("atrasado");
+        assertThat(wheel.contains("atrasado")).isFalse();
+    }
+
+    @Test
+    void advance_comMuitosTimers_naoDevePerderNemDuplicar() {
+        List<String> expected = new ArrayList<>();
+        for (int index = 0; index < 2_000; index++) {
+            long deadline = START + 1 + (index * 7_919L) % 300_000;
+            wheel.schedule("k" + index, deadline);
+            expected.add("k" + index);
+        }
+
+        List<String> fired = new ArrayList<>();
+        for (long tick = START; tick <= START + 300_000; tick += 997) {
+            fired.addAll(wheel.advance(tick));
+        }
+        fired.addAll(wheel.advance(START + 300_001));
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(expected);
+    }
+}
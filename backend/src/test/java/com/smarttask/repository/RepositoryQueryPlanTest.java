@@ -0,0 +1,335 @@
+package com.smarttask.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Executa EXPLAIN em todas as consultas declaradas nos repositorios contra
+ * um PostgreSQL (16 ou superior) com o schema das migracoes e dados de
+ * carga, e falha se alguma delas depender de varredura sequencial.
+ *
+ * <p>Roda apenas com {@code QUERY_PLAN_DATABASE_URL} definida (usuario e
+ * senha em {@code QUERY_PLAN_DATABASE_USERNAME} e
+ * {@code QUERY_PLAN_DATABASE_PASSWORD}). Os dados sao inseridos na
+ * transacao do teste e descartados no rollback. Cada metodo e chamado com
+ * argumentos de exemplo; o SQL gerado pelo Hibernate e capturado e
+ * explicado com {@code GENERIC_PLAN}, isto e, com os parametros em aberto,
+ * como nos prepared statements reais; por isso o driver usa o protocolo
+ * simples, que envia {@code $1}, {@code $2}... sem tentar vincula-los. Com tabelas de teste pequenas a
+ * varredura sequencial seria sempre a mais barata, por isso o plano e
+ * pedido com {@code enable_seqscan} desligado: ela so aparece quando nenhum
+ * indice atende a consulta.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.hikari.data-source-properties.preferQueryMode="
+                + "simple",
+        "spring.jpa.properties.hibernate.dialect="
+                + "org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DATABASE_URL",
+        matches = ".+")
+class RepositoryQueryPlanTest {
+
+    private static final long BASE_ID = 900_000L;
+
+    private static final int USERS = 200;
+
+    private static final int TASKS = 20_000;
+
+    private static final List<String> SEEDED_TABLES = List.of("users",
+            "user_roles", "user_settings", "notification_preferences",
+            "tasks", "task_tags", "tasks_archive", "task_tags_archive",
+            "pomodoro_sessions", "task_deletions", "task_stats", "user_tags",
+            "task_tag_links", "task_import_jobs", "task_recurrences",
+            "task_occurrences", "task_dependencies");
+
+    private static final List<String> SEED = List.of(
+            "INSERT INTO users (id, username, email, password, full_name, "
+            + "active, created_at) SELECT " + BASE_ID + " + g, 'plan' || g, "
+            + "'plan' || g || '@smarttask.ai', 'hash', 'Plan ' || g, true, "
+            + "now() FROM generate_series(1, " + USERS + ") g",
+            "INSERT INTO user_roles (user_id, role) SELECT id, 'USER' "
+            + "FROM users WHERE id > " + BASE_ID,
+            "INSERT INTO user_settings (user_id, created_at) SELECT id, now() "
+            + "FROM users WHERE id > " + BASE_ID,
+            "INSERT INTO notification_preferences (user_id, enabled, "
+            + "daily_reminder_time, send_overdue_alerts, created_at) "
+            + "SELECT id, id % 3 <> 0, make_time((id % 24)::int, 0, 0), "
+            + "true, now() FROM users WHERE id > " + BASE_ID,
+            "INSERT INTO tasks (id, user_id, title, status, priority, "
+            + "due_date, completed_at, parent_task_id, change_seq, version, "
+            + "board_rank, created_at, updated_at) SELECT " + BASE_ID + " + g, "
+            + BASE_ID + " + 1 + g % " + USERS + ", 'Tarefa ' || g, "
+            + "(ARRAY['TODO', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])"
+            + "[1 + g % 4], (ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])"
+            + "[1 + g / 7 % 4], now() + (g % 90 - 45) * interval '1 day', "
+            + "CASE WHEN g % 4 = 2 THEN now() END, "
+            + "CASE WHEN g % 10 = 0 AND g > " + USERS + " THEN "
+            + BASE_ID + " + g - " + USERS + " END, g, 0, "
+            + "CASE WHEN g % 3 <> 0 THEN lpad(to_hex(g), 5, '0') END, now(), "
+            + "now() - g * interval '1 minute' "
+            + "FROM generate_series(1, " + TASKS + ") g",
+            "INSERT INTO task_tags (task_id, tag) SELECT id, 'tag' || id % 20 "
+            + "FROM tasks WHERE id > " + BASE_ID,
+            "INSERT INTO tasks_archive (id, user_id, title, status, priority, "
+            + "parent_task_id, created_at, archived_at) SELECT id + " + TASKS
+            + ", user_id, title, 'COMPLETED', priority, parent_task_id + "
+            + TASKS + ", created_at, now() FROM tasks "
+            + "WHERE id > " + BASE_ID + " AND id % 4 = 0",
+            "INSERT INTO task_tags_archive (task_id, tag) SELECT id, 'tag' "
+            + "|| id % 20 FROM tasks_archive WHERE id > " + BASE_ID,
+            "INSERT INTO pomodoro_sessions (task_id, user_id, "
+            + "duration_minutes, completed, started_at, created_at) "
+            + "SELECT id, user_id, 25, id % 2 = 0, now(), "
+            + "now() - (id % 30) * interval '1 day' FROM tasks "
+            + "WHERE id > " + BASE_ID + " AND id % 2 = 0",
+            "INSERT INTO task_deletions (change_seq, task_id, user_id, "
+            + "deleted_at) SELECT " + BASE_ID + " + g, g, "
+            + BASE_ID + " + 1 + g % " + USERS + ", now() "
+            + "FROM generate_series(1, " + TASKS / 4 + ") g",
+            "INSERT INTO task_stats (user_id, todo_count, in_progress_count, "
+            + "completed_count, cancelled_count, low_priority_count, "
+            + "medium_priority_count, high_priority_count, "
+            + "urgent_priority_count, overdue_count, estimated_hours, "
+            + "actual_hours) SELECT id, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 "
+            + "FROM users WHERE id > " + BASE_ID,
+            "INSERT INTO user_tags (user_id, name, task_count) "
+            + "SELECT u.id, 'tag' || g, g FROM users u "
+            + "CROSS JOIN generate_series(0, 19) g WHERE u.id > " + BASE_ID,
+            "INSERT INTO task_tag_links (tag_id, task_id) SELECT ut.id, t.id "
+            + "FROM tasks t JOIN user_tags ut ON ut.user_id = t.user_id "
+            + "AND ut.name = 'tag' || t.id % 20 WHERE t.id > " + BASE_ID,
+            "INSERT INTO task_import_jobs (user_id, format, status, "
+            + "processed_rows, imported_rows, rejected_rows, created_at) "
+            + "SELECT id, 'CSV', 'COMPLETED', 0, 0, 0, now() FROM users "
+            + "WHERE id > " + BASE_ID,
+            "INSERT INTO task_recurrences (task_id, user_id, rule, "
+            + "starts_at, created_at) SELECT id, user_id, 'FREQ=DAILY', "
+            + "due_date, now() FROM tasks WHERE id > " + BASE_ID
+            + " AND id % 20 = 0",
+            "INSERT INTO task_occurrences (template_id, user_id, "
+            + "occurrence_at, task_id, created_at) SELECT r.task_id, "
+            + "r.user_id, r.starts_at + g * interval '1 day', r.task_id, "
+            + "now() FROM task_recurrences r CROSS JOIN "
+            + "generate_series(1, 5) g WHERE r.task_id > " + BASE_ID,
+            "INSERT INTO task_dependencies (task_id, blocker_id, user_id, "
+            + "created_at) SELECT t.id, b.id, t.user_id, now() FROM tasks t "
+            + "JOIN tasks b ON b.user_id = t.user_id AND b.id < t.id "
+            + "AND b.id >= t.id - 3 * " + USERS + " WHERE t.id > " + BASE_ID
+            + " AND b.id > " + BASE_ID);
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void database(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> System.getenv("QUERY_PLAN_DATABASE_URL"));
+        registry.add("spring.datasource.username",
+                () -> env("QUERY_PLAN_DATABASE_USERNAME", "postgres"));
+        registry.add("spring.datasource.password",
+                () -> env("QUERY_PLAN_DATABASE_PASSWORD", ""));
+        registry.add("spring.datasource.driver-class-name",
+                () -> "org.postgresql.Driver");
+    }
+
+    @BeforeEach
+    void seed() {
+        SEED.forEach(jdbcTemplate::execute);
+        SEEDED_TABLES.forEach(table -> jdbcTemplate.execute("ANALYZE " + table));
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void consultasDosRepositorios_naoDevemFazerVarreduraSequencial()
+            throws Exception {
+        List<String> sequentialScans = new ArrayList<>();
+        int explained = 0;
+        for (Class<?> repository : repositoryInterfaces()) {
+            Object bean = applicationContext.getBean(repository);
+            for (Method method : queryMethods(repository)) {
+                String name = repository.getSimpleName() + "."
+                        + method.getName();
+                CAPTURED.clear();
+                consume(method.invoke(bean, arguments(method)));
+                assertThat(CAPTURED).as(name).isNotEmpty();
+                for (String sql : new LinkedHashSet<>(CAPTURED)) {
+                    for (String table : sequentialScans(sql)) {
+                        sequentialScans.add(name + ": Seq Scan on " + table
+                                + " -> " + sql);
+                    }
+                    explained++;
+                }
+            }
+        }
+
+        assertThat(explained).isPositive();
+        assertThat(sequentialScans).isEmpty();
+    }
+
+    private List<Class<?>> repositoryInterfaces() {
+        return applicationContext.getBeansOfType(Repository.class).values()
+                .stream()
+                .<Class<?>>flatMap(bean -> Stream.of(
+                        bean.getClass().getInterfaces()))
+                .filter(type -> type.getPackage() != null && type.getPackage()
+                        .equals(RepositoryQueryPlanTest.class.getPackage()))
+                .distinct()
+                .sorted(Comparator.comparing(Class::getSimpleName))
+                .toList();
+    }
+
+    private static List<Method> queryMethods(final Class<?> repository) {
+        return Stream.of(repository.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic()
+                        && !Modifier.isStatic(method.getModifiers()))
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+    }
+
+    private List<String> sequentialScans(final String sql) throws Exception {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql),
+                String.class);
+        List<String> tables = new ArrayList<>();
+        collectSequentialScans(objectMapper.readTree(plan).get(0).get("Plan"),
+                tables);
+        return tables;
+    }
+
+    private static void collectSequentialScans(final JsonNode node,
+            final List<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, tables);
+        }
+    }
+
+    private static String numberParameters(final String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static Object[] arguments(final Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = argument(types[i], method);
+        }
+        return arguments;
+    }
+
+    private static Object argument(final Type type, final Method method) {
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            Type element = parameterized.getActualTypeArguments()[0];
+            return List.of(argument(element, method),
+                    argument(element, method));
+        }
+        Class<?> raw = (Class<?>) type;
+        if (raw == Long.class || raw == long.class) {
+            return BASE_ID + 1;
+        }
+        if (raw == String.class) {
+            return "tag1";
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == LocalTime.class) {
+            return LocalTime.of(8, 0);
+        }
+        if (raw == Limit.class) {
+            return Limit.of(20);
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (!raw.isPrimitive()) {
+            return null;
+        }
+        throw new IllegalStateException("Sem argumento de exemplo para "
+                + type + " em " + method);
+    }
+
+    private static void consume(final Object result) {
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(row -> { });
+            }
+        }
+    }
+
+    private static String env(final String name, final String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(
+                    AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        CAPTURED.add(sql);
+                        return sql;
+                    });
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.smarttask.repository;
+
+import com.smarttask.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        owner = userRepository.save(User.builder()
+                .username("owner")
+                .email("owner@example.com")
+                .password("secret")
+                .fullName("Owner")
+                .roles(new HashSet<>(Set.of("ROLE_USER")))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_leituraRepetida_naoDeveConsultarOBanco() {
+        userRepository.findById(owner.getId()).orElseThrow();
+        statistics.clear();
+
+        User cached = userRepository.findById(owner.getId()).orElseThrow();
+
+        assertThat(cached.getRoles()).containsExactly("ROLE_USER");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void save_deveInvalidarEntradaDoCache() {
+        User loaded = userRepository.findById(owner.getId()).orElseThrow();
+        loaded.setFullName("Novo nome");
+        userRepository.save(loaded);
+
+        assertThat(userRepository.findById(owner.getId()).orElseThrow()
+                .getFullName()).isEqualTo("Novo nome");
+        assertThat(userRepository.findByUsername("owner").orElseThrow()
+                .getFullName()).isEqualTo("Novo nome");
+    }
+
+    @Test
+    void findByUsername_consultaRepetida_deveUsarCacheDeConsultas() {
+        userRepository.findByUsername("owner").orElseThrow();
+        statistics.clear();
+
+        userRepository.findByUsername("owner").orElseThrow();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package com.smarttask.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+
+    @Test
+    void search_deveIgnorarAcentosEAceitarPrefixo() {
+        index.index(document(1L, 10L, "Revisão do relatório",
+                "Conferir números", Set.of()));
+        index.index(document(2L, 10L, "Comprar café", null, Set.of()));
+
+        assertThat(index.search(10L, "relat revisao", 10))
+                .containsExactly(1L);
+        assertThat(index.search(10L, "CAFE", 10)).containsExactly(2L);
+        assertThat(index.search(10L, "relatorio cafe", 10)).isEmpty();
+    }
+
+    @Test
+    void search_devePriorizarTituloSobreDescricao() {
+        index.index(document(1L, 10L, "Planejar sprint",
+                "Deploy em homologacao", Set.of()));
+        index.index(document(2L, 10L, "Deploy da API", null, Set.of()));
+        index.index(document(3L, 10L, "Atualizar docs", null,
+                Set.of("deploy")));
+
+        assertThat(index.search(10L, "deploy", 10))
+                .containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void search_deveIsolarUsuarios() {
+        index.index(document(1L, 10L, "Backup semanal", null, Set.of()));
+        index.index(document(2L, 20L, "Backup mensal", null, Set.of()));
+
+        assertThat(index.search(10L, "backup", 10)).containsExactly(1L);
+        assertThat(index.search(20L, "backup", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void index_deveSubstituirERemoverDocumentos() {
+        for (long id = 1; id <= 200; id++) {
+            index.index(document(id, 10L, "Tarefa antiga " + id, null,
+                    Set.of()));
+        }
+        for (long id = 1; id <= 200; id++) {
+            index.index(document(id, 10L, "Tarefa nova " + id, null,
+                    Set.of()));
+        }
+        index.remove(10L, 5L);
+
+        assertThat(index.search(10L, "antiga", 10)).isEmpty();
+        assertThat(index.size(10L)).isEqualTo(199);
+        assertThat(index.search(10L, "nova 150", 10)).containsExactly(150L);
+        assertThat(index.search(10L, "nova 5", 10)).doesNotContain(5L);
+    }
+
+    @Test
+    void search_deveExpandirPrefixoPelosTermosMaisFrequentes() {
+        for (long id = 1; id <= 100; id++) {
+            index.index(document(id, 10L, "Projeto variante" + id, null,
+                    Set.of()));
+        }
+        index.index(document(101L, 10L, "Projeto variantes", null,
+                Set.of()));
+        index.index(document(102L, 10L, "Projeto variantes", null,
+                Set.of()));
+
+        assertThat(index.search(10L, "variante", 100))
+                .contains(101L, 102L);
+        assertThat(index.search(10L, "variante42", 10))
+                .containsExactly(42L);
+    }
+
+    @Test
+    void startRebuild_deveReaplicarEscritasRecebidasDuranteAReconstrucao() {
+        index.index(document(1L, 10L, "Tarefa antiga", null, Set.of()));
+        index.index(document(2L, 10L, "Tarefa removida", null, Set.of()));
+
+        TaskSearchIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.index(document(1L, 10L, "Tarefa antiga", null, Set.of()));
+        rebuild.index(document(2L, 10L, "Tarefa removida", null, Set.of()));
+        index.index(document(1L, 10L, "Tarefa renomeada", null, Set.of()));
+        index.remove(10L, 2L);
+        index.index(document(3L, 10L, "Tarefa criada", null, Set.of()));
+
+        assertThat(index.search(10L, "renomeada", 10)).containsExactly(1L);
+        rebuild.publish();
+
+        assertThat(index.search(10L, "antiga", 10)).isEmpty();
+        assertThat(index.search(10L, "renomeada", 10)).containsExactly(1L);
+        assertThat(index.search(10L, "removida", 10)).isEmpty();
+        assertThat(index.search(10L, "criada", 10)).containsExactly(3L);
+        assertThat(index.size(10L)).isEqualTo(2);
+    }
+
+    @Test
+    void tokenize_deveDescartarStopwords() {
+        assertThat(TextNormalizer.tokenize("Ação de ÚLTIMA hora"))
+                .isEqualTo(List.of("acao", "ultima", "hora"));
+    }
+
+    private static TaskDocument document(Long taskId, Long userId,
+            String title, String description, Set<String> tags) {
+        return new TaskDocument(taskId, userId, title, description, tags,
+                null);
+    }
+}
@@ -0,0 +1,199 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dependency.TaskDependencyGraph;
+import com.smarttask.dto.TaskPageResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.PomodoroSession;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.outbox.TaskOutboxDispatcher;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.ArchivedTaskRepository;
+import com.smarttask.repository.TaskDeletionRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskArchiveService.class, TaskTreeService.class,
+        TaskViewAssembler.class, TaskSearchIndexer.class,
+        TaskSearchIndex.class, TaskStatsService.class,
+        TaskChangeTracker.class, TaskTagService.class,
+        TaskCalendarIndex.class, TaskOutbox.class,
+        TaskDependencyGraph.class, TaskRollupService.class})
+class TaskArchiveServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskDeletionRepository taskDeletionRepository;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    @MockitoBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockitoBean
+    private TaskOutboxDispatcher taskOutboxDispatcher;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void archiveFinishedBefore_deveMoverSubarvoresFinalizadasAntigas() {
+        Task parent = entityManager.persist(task("Projeto", null,
+                TaskStatus.COMPLETED, now.minusDays(60)));
+        Task child = entityManager.persist(task("Entrega", parent,
+                TaskStatus.COMPLETED, now.minusDays(45)));
+        child.getTags().add("infra");
+        Task recent = entityManager.persist(task("Recente", null,
+                TaskStatus.COMPLETED, now.minusDays(1)));
+        Task pending = entityManager.persist(task("Pendente", null,
+                TaskStatus.TODO, null));
+        Task focused = entityManager.persist(task("Com pomodoro", null,
+                TaskStatus.COMPLETED, now.minusDays(60)));
+        entityManager.persist(PomodoroSession.builder()
+                .task(focused)
+                .user(owner)
+                .durationMinutes(25)
+                .startedAt(now.minusDays(60))
+                .createdAt(now.minusDays(60))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        int archived = taskArchiveService.archiveFinishedBefore(
+                now.minusDays(30));
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(taskRepository.findAll()).extracting(Task::getId)
+                .containsExactlyInAnyOrder(recent.getId(), pending.getId(),
+                        focused.getId());
+        assertThat(taskDeletionRepository.findAll())
+                .extracting("taskId")
+                .containsExactlyInAnyOrder(parent.getId(), child.getId());
+
+        TaskPageResponse first = taskArchiveService.getArchivePage(null, 1,
+                principal);
+        assertThat(first.isHasMore()).isTrue();
+        TaskPageResponse second = taskArchiveService.getArchivePage(
+                first.getNextCursor(), 1, principal);
+        List<TaskResponse> items = List.of(first.getItems().get(0),
+                second.getItems().get(0));
+        assertThat(items).extracting(TaskResponse::getId)
+                .containsExactlyInAnyOrder(parent.getId(), child.getId());
+        assertThat(items).filteredOn(item -> item.getId()
+                .equals(child.getId()))
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getParentTaskId())
+                            .isEqualTo(parent.getId());
+                    assertThat(item.getTags()).containsExactly("infra");
+                });
+    }
+
+    @Test
+    void restore_deveDevolverTarefaComTagsAoPaiAtivo() {
+        Task parent = entityManager.persist(task("Projeto", null,
+                TaskStatus.IN_PROGRESS, null));
+        Task child = entityManager.persist(task("Entrega", parent,
+                TaskStatus.CANCELLED, null));
+        child.getTags().add("infra");
+        entityManager.flush();
+        entityManager.clear();
+        taskArchiveService.archiveFinishedBefore(now.plusMinutes(1));
+        entityManager.clear();
+
+        TaskResponse restored = taskArchiveService.restore(child.getId(),
+                principal);
+
+        assertThat(restored.getParentTaskId()).isEqualTo(parent.getId());
+        assertThat(restored.getTags()).containsExactly("infra");
+        assertThat(restored.getStatus()).isEqualTo(TaskStatus.CANCELLED);
+        assertThat(archivedTaskRepository.count()).isZero();
+        assertThat(taskDeletionRepository.findAll()).isEmpty();
+        assertThat(taskRepository.findById(child.getId())).isPresent();
+    }
+
+    @Test
+    void restore_deveNegarTarefaDeOutroUsuario() {
+        Task done = entityManager.persist(task("Antiga", null,
+                TaskStatus.COMPLETED, now.minusDays(60)));
+        entityManager.flush();
+        entityManager.clear();
+        taskArchiveService.archiveFinishedBefore(now.minusDays(30));
+        UserPrincipal stranger = UserPrincipal.create(
+                entityManager.persist(user("stranger")));
+
+        assertThatThrownBy(() ->
+                taskArchiveService.restore(done.getId(), stranger))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(archivedTaskRepository.existsById(done.getId())).isTrue();
+    }
+
+    private Task task(final String title, final Task parent,
+            final TaskStatus status, final LocalDateTime completedAt) {
+        return Task.builder()
+                .title(title)
+                .status(status)
+                .priority(TaskPriority.MEDIUM)
+                .completedAt(completedAt)
+                .parentTask(parent)
+                .tags(new HashSet<>())
+                .user(owner)
+                .build();
+    }
+
+    private static User user(final String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
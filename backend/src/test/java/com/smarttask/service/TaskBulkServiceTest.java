@@ -0,0 +1,173 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dependency.TaskDependencyGraph;
+import com.smarttask.dto.BulkTaskCreateRequest;
+import com.smarttask.dto.BulkTaskDeleteRequest;
+import com.smarttask.dto.BulkTaskResponse;
+import com.smarttask.dto.BulkTaskResponse.BulkItemStatus;
+import com.smarttask.dto.BulkTaskUpdateItem;
+import com.smarttask.dto.BulkTaskUpdateRequest;
+import com.smarttask.dto.TaskRequest;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.outbox.TaskOutboxDispatcher;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskBulkService.class, TaskTreeService.class,
+        TaskViewAssembler.class, TaskSearchIndexer.class,
+        TaskSearchIndex.class, TaskStatsService.class,
+        TaskChangeTracker.class, TaskTagService.class,
+        TaskCalendarIndex.class, TaskOutbox.class,
+        TaskDependencyGraph.class, TaskRollupService.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class TaskBulkServiceTest {
+
+    @Autowired
+    private TaskBulkService taskBulkService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    @MockitoBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockitoBean
+    private TaskOutboxDispatcher taskOutboxDispatcher;
+
+    private User owner;
+
+    private User stranger;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        stranger = userRepository.save(user("stranger"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskSearchIndex.clear();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createTasks_deveCriarLotesEReportarFalhasPorItem() {
+        List<TaskRequest> requests = new ArrayList<>();
+        for (int index = 0; index < TaskBulkService.CHUNK_SIZE + 10; index++) {
+            requests.add(request("Tarefa importada " + index));
+        }
+        requests.set(3, request("x"));
+
+        BulkTaskResponse response = taskBulkService.createTasks(
+                new BulkTaskCreateRequest(requests),
+                UserPrincipal.create(owner));
+
+        assertThat(response.getResults()).hasSize(requests.size());
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(3).status())
+                .isEqualTo(BulkItemStatus.FAILED);
+        assertThat(response.getResults().get(3).error()).startsWith("title");
+        assertThat(response.getResults().get(4).status())
+                .isEqualTo(BulkItemStatus.CREATED);
+        assertThat(taskRepository.count()).isEqualTo(requests.size() - 1);
+        assertThat(taskSearchIndex.search(owner.getId(), "importada 509", 5))
+                .containsExactly(response.getResults().get(509).id());
+    }
+
+    @Test
+    void updateEDelete_deveIsolarItensDeOutroUsuario() {
+        Task mine = taskRepository.save(task("Minha tarefa", owner));
+        Task theirs = taskRepository.save(task("Tarefa alheia", stranger));
+        UserPrincipal principal = UserPrincipal.create(owner);
+
+        BulkTaskUpdateItem complete = new BulkTaskUpdateItem();
+        complete.setId(mine.getId());
+        complete.setStatus(TaskStatus.COMPLETED);
+        complete.setTags(Set.of("sync"));
+        BulkTaskUpdateItem foreign = new BulkTaskUpdateItem();
+        foreign.setId(theirs.getId());
+        foreign.setTitle("Invasao");
+
+        BulkTaskResponse updated = taskBulkService.updateTasks(
+                new BulkTaskUpdateRequest(List.of(complete, foreign)),
+                principal);
+
+        assertThat(updated.getResults()).extracting("status")
+                .containsExactly(BulkItemStatus.UPDATED,
+                        BulkItemStatus.FAILED);
+        assertThat(taskRepository.findById(theirs.getId()).orElseThrow()
+                .getTitle()).isEqualTo("Tarefa alheia");
+
+        BulkTaskResponse deleted = taskBulkService.deleteTasks(
+                new BulkTaskDeleteRequest(
+                        List.of(mine.getId(), theirs.getId(), -1L)),
+                principal);
+
+        assertThat(deleted.getResults()).extracting("status")
+                .containsExactly(BulkItemStatus.DELETED,
+                        BulkItemStatus.FAILED, BulkItemStatus.FAILED);
+        assertThat(taskRepository.findById(mine.getId())).isEmpty();
+        assertThat(taskRepository.findById(theirs.getId())).isPresent();
+        assertThat(taskSearchIndex.search(owner.getId(), "minha", 5))
+                .isEmpty();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+
+    private static Task task(String title, User user) {
+        return Task.builder().title(title).user(user).build();
+    }
+
+    private static TaskRequest request(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
@@ -0,0 +1,162 @@
+package com.smarttask.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.model.ArchivedTask;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.service.TaskExportService.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import(TaskExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TaskExportServiceTest {
+
+    private static final int EXTRA_TASKS = TaskExportService.CHUNK_SIZE + 7;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    private User owner;
+
+    private Task parent;
+
+    private Task child;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        entityManager.persist(Task.builder().title("Tarefa alheia")
+                .user(entityManager.persist(user("stranger"))).build());
+
+        parent = entityManager.persist(Task.builder()
+                .title("Migrar \"legado\", fase 1")
+                .description("linha 1\nlinha 2")
+                .tags(new HashSet<>(Set.of("backend", "infra")))
+                .user(owner)
+                .build());
+        child = entityManager.persist(Task.builder().title("Subtarefa")
+                .user(owner).parentTask(parent).build());
+        for (int index = 0; index < EXTRA_TASKS; index++) {
+            entityManager.persist(Task.builder().title("Historico " + index)
+                    .user(owner).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ndjson_deveEscreverUmObjetoPorLinhaComTagsESubtarefas()
+            throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = taskExportService.export(ExportFormat.NDJSON,
+                owner.getId(), output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8)
+                .lines().toList();
+        assertThat(exported).isEqualTo(EXTRA_TASKS + 2);
+        assertThat(lines).hasSize(EXTRA_TASKS + 2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(parent.getId());
+        assertThat(first.get("tags")).extracting(JsonNode::asText)
+                .containsExactly("backend", "infra");
+        assertThat(first.get("subtaskIds")).extracting(JsonNode::asLong)
+                .containsExactly(child.getId());
+        assertThat(objectMapper.readTree(lines.get(1))
+                .get("parentTaskId").asLong()).isEqualTo(parent.getId());
+    }
+
+    @Test
+    void export_csv_deveEscaparCamposConformeRfc4180() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskExportService.export(ExportFormat.CSV, owner.getId(), output);
+
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,title,description,status,");
+        assertThat(csv).contains(parent.getId()
+                + ",\"Migrar \"\"legado\"\", fase 1\",\"linha 1\nlinha 2\","
+                + "TODO,MEDIUM,,,,,backend;infra,," + child.getId() + ",");
+        assertThat(csv).doesNotContain("Tarefa alheia");
+    }
+
+    @Test
+    void export_deveIncluirTarefasArquivadasAposAsAtivas() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(ArchivedTask.builder()
+                .id(parent.getId() + EXTRA_TASKS + 100)
+                .title("Entrega antiga")
+                .status(TaskStatus.COMPLETED)
+                .priority(TaskPriority.LOW)
+                .completedAt(now.minusDays(90))
+                .tags(new HashSet<>(Set.of("arquivo")))
+                .userId(owner.getId())
+                .createdAt(now.minusDays(120))
+                .updatedAt(now.minusDays(90))
+                .archivedAt(now)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = taskExportService.export(ExportFormat.NDJSON,
+                owner.getId(), output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8)
+                .lines().toList();
+        assertThat(exported).isEqualTo(EXTRA_TASKS + 3);
+        JsonNode last = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertThat(last.get("title").asText()).isEqualTo("Entrega antiga");
+        assertThat(last.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(last.get("tags")).extracting(JsonNode::asText)
+                .containsExactly("arquivo");
+    }
+
+    @Test
+    void exportFormat_deveRejeitarFormatoDesconhecido() {
+        assertThat(ExportFormat.from("CSV")).isEqualTo(ExportFormat.CSV);
+        assertThatThrownBy(() -> ExportFormat.from("xml"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskRankingService.class, TaskViewAssembler.class})
+class TaskRankingServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRankingService taskRankingService;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+    }
+
+    @Test
+    void getNextTasks_deveOrdenarPorPontuacaoIgnorandoFinalizadas() {
+        LocalDateTime now = LocalDateTime.now();
+        Task overdueLow = persist("Atrasada baixa", TaskStatus.TODO,
+                TaskPriority.LOW, now.minusDays(1), null, owner);
+        Task urgentFar = persist("Urgente distante", TaskStatus.IN_PROGRESS,
+                TaskPriority.URGENT, now.plusDays(30), 40, owner);
+        Task highSoon = persist("Alta amanha", TaskStatus.TODO,
+                TaskPriority.HIGH, now.plusDays(1), 2, owner);
+        persist("Concluida", TaskStatus.COMPLETED, TaskPriority.URGENT,
+                now.minusDays(1), 1, owner);
+        persist("Cancelada", TaskStatus.CANCELLED, TaskPriority.URGENT,
+                now.minusDays(1), 1, owner);
+        persist("Alheia", TaskStatus.TODO, TaskPriority.URGENT,
+                now.minusDays(1), 1, entityManager.persist(user("other")));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskResponse> next = taskRankingService.getNextTasks(null,
+                principal);
+
+        assertThat(next).extracting(TaskResponse::getId).containsExactly(
+                highSoon.getId(), overdueLow.getId(), urgentFar.getId());
+    }
+
+    @Test
+    void rank_deveCoincidirComOrdenacaoCompleta() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Random random = new Random(42);
+        TaskPriority[] priorities = TaskPriority.values();
+        List<Task> open = new ArrayList<>();
+        for (int index = 0; index < 200; index++) {
+            LocalDateTime dueDate = random.nextInt(4) == 0
+                    ? null
+                    : now.plusHours(random.nextInt(24 * 40) - 24 * 5);
+            Integer estimate = random.nextInt(3) == 0
+                    ? null
+                    : random.nextInt(20);
+            Task task = persist("Tarefa " + index, TaskStatus.TODO,
+                    priorities[random.nextInt(priorities.length)], dueDate,
+                    estimate, owner);
+            task.setAiSuggestedPriority(random.nextBoolean());
+            open.add(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ranked = taskRankingService.rank(owner.getId(), 15, now);
+
+        Comparator<Task> bestFirst = TaskRankingService.bestFirst(now);
+        assertThat(ranked).containsExactlyElementsOf(open.stream()
+                .sorted(bestFirst).limit(15).map(Task::getId).toList());
+    }
+
+    @Test
+    void getNextTasks_deveLimitarQuantidade() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int index = 0; index < 5; index++) {
+            persist("Tarefa " + index, TaskStatus.TODO, TaskPriority.MEDIUM,
+                    now.plusDays(index), null, owner);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskRankingService.getNextTasks(2, principal))
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Tarefa 0", "Tarefa 1");
+    }
+
+    private Task persist(String title, TaskStatus status,
+            TaskPriority priority, LocalDateTime dueDate,
+            Integer estimatedHours, User user) {
+        return entityManager.persist(Task.builder().title(title)
+                .status(status).priority(priority).dueDate(dueDate)
+                .estimatedHours(estimatedHours).user(user).build());
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
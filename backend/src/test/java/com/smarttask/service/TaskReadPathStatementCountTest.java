@@ -0,0 +1,155 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dto.TaskPageResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Garante que as listagens de tarefas usam a projecao de leitura e executam
+ * um numero fixo de statements, independente da quantidade de tarefas.
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskService.class, TaskViewAssembler.class})
+class TaskReadPathStatementCountTest {
+
+    private static final int ROOT_TASKS = 30;
+
+    private static final int SUBTASKS_PER_ROOT = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    @MockitoBean
+    private TaskSearchIndex taskSearchIndex;
+
+    @MockitoBean
+    private TaskSearchIndexer taskSearchIndexer;
+
+    @MockitoBean
+    private TaskTreeService taskTreeService;
+
+    @MockitoBean
+    private TaskStatsService taskStatsService;
+
+    @MockitoBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockitoBean
+    private TaskCalendarIndex taskCalendarIndex;
+
+    @MockitoBean
+    private TaskOutbox taskOutbox;
+
+    @MockitoBean
+    private TaskChangeTracker taskChangeTracker;
+
+    @MockitoBean
+    private TaskTagService taskTagService;
+
+    @MockitoBean
+    private TaskRollupService taskRollupService;
+
+    private UserPrincipal principal;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .username("poweruser")
+                .email("power@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+
+        for (int index = 0; index < ROOT_TASKS; index++) {
+            Task root = entityManager.persist(Task.builder()
+                    .title("Tarefa " + index)
+                    .tags(new HashSet<>(Set.of("backend", "tag-" + index)))
+                    .user(user)
+                    .build());
+            for (int child = 0; child < SUBTASKS_PER_ROOT; child++) {
+                entityManager.persist(Task.builder()
+                        .title("Subtarefa " + index + "." + child)
+                        .user(user)
+                        .parentTask(root)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        principal = UserPrincipal.create(user);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getTasksPage_deveExecutarDuasConsultasPorPagina() {
+        TaskPageResponse page = taskService.getTasksPage(null, 50, principal);
+
+        assertThat(page.getItems()).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void getAllTasks_deveManterContagemFixaDeConsultas() {
+        List<TaskResponse> tasks = taskService.getAllTasks(principal);
+
+        assertThat(tasks).hasSize(ROOT_TASKS * (1 + SUBTASKS_PER_ROOT));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        TaskResponse root = tasks.stream()
+                .filter(task -> "Tarefa 0".equals(task.getTitle()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(root.getSubtaskCount()).isEqualTo(SUBTASKS_PER_ROOT);
+        assertThat(root.getTags()).containsExactlyInAnyOrder(
+                "backend", "tag-0");
+        assertThat(tasks.stream()
+                .filter(task -> root.getId().equals(task.getParentTaskId())))
+                .hasSize(SUBTASKS_PER_ROOT);
+    }
+}
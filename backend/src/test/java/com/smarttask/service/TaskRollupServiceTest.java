@@ -0,0 +1,196 @@
+package com.smarttask.service;
+
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.sync.TaskChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskRollupService.class, TaskChangeTracker.class})
+class TaskRollupServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    private Task root;
+
+    private Task child;
+
+    private Task grandchild;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        root = entityManager.persist(task("Projeto", null, TaskStatus.TODO,
+                2, null));
+        child = entityManager.persist(task("Etapa", root,
+                TaskStatus.IN_PROGRESS, 3, 1));
+        grandchild = entityManager.persist(task("Entrega", child,
+                TaskStatus.COMPLETED, 5, 4));
+        taskRollupService.recordCreated(owner.getId(),
+                List.of(child, grandchild));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recordCreated_deveSomarSubtarefasEmTodosOsAncestrais() {
+        assertTotals(root.getId(), 10, 5, 2, 1);
+        assertTotals(child.getId(), 8, 5, 1, 1);
+        assertTotals(grandchild.getId(), 5, 4, 0, 1);
+    }
+
+    @Test
+    void recordCreated_deveAjustarAncestraisCarregados() {
+        Task loadedRoot = entityManager.find(Task.class, root.getId());
+        Task loadedChild = entityManager.find(Task.class, child.getId());
+        Task created = entityManager.persist(task("Revisao", loadedChild,
+                TaskStatus.TODO, 1, null));
+
+        taskRollupService.recordCreated(owner.getId(), List.of(created));
+
+        assertThat(loadedChild.getSubtreeEstimatedHours()).isEqualTo(9);
+        assertThat(loadedChild.getSubtreeOpenCount()).isEqualTo(2);
+        assertThat(loadedRoot.getSubtreeEstimatedHours()).isEqualTo(11);
+        assertThat(loadedRoot.getSubtreeOpenCount()).isEqualTo(3);
+        assertThat(loadedRoot.getVersion()).isEqualTo(version(root));
+        entityManager.flush();
+        entityManager.clear();
+        assertTotals(root.getId(), 11, 5, 3, 1);
+    }
+
+    @Test
+    void recordChanges_deveAplicarDiferencaNaTarefaENosAncestrais() {
+        Task loaded = entityManager.find(Task.class, grandchild.getId());
+        Long versionBefore = loaded.getVersion();
+        Long rootVersionBefore = version(root);
+        TaskRollup before = TaskRollup.of(loaded);
+        loaded.setStatus(TaskStatus.TODO);
+        loaded.setActualHours(6);
+
+        taskRollupService.recordChanges(owner.getId(),
+                Map.of(loaded.getId(), before),
+                List.of(loaded, loaded));
+
+        assertThat(loaded.getSubtreeActualHours()).isEqualTo(6);
+        assertThat(loaded.getVersion()).isEqualTo(versionBefore + 1)
+                .isEqualTo(version(grandchild));
+        assertThat(version(root)).isEqualTo(rootVersionBefore + 1);
+        entityManager.flush();
+        entityManager.clear();
+        assertTotals(grandchild.getId(), 5, 6, 1, 0);
+        assertTotals(child.getId(), 8, 7, 2, 0);
+        assertTotals(root.getId(), 10, 7, 3, 0);
+    }
+
+    @Test
+    void recordChange_deveRenovarVersaoEDataDeAtualizacaoDosAncestrais() {
+        LocalDateTime settled = LocalDateTime.now().minusDays(1);
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(settled), root.getId());
+        Long versionBefore = version(root);
+        Long changeSeqBefore = entityManager.find(Task.class, root.getId())
+                .getChangeSeq();
+        entityManager.clear();
+
+        Task loaded = entityManager.find(Task.class, grandchild.getId());
+        TaskRollup before = TaskRollup.of(loaded);
+        loaded.setEstimatedHours(7);
+        taskRollupService.recordChange(owner.getId(), before, loaded);
+        entityManager.clear();
+
+        Task parent = entityManager.find(Task.class, root.getId());
+        assertThat(version(root)).isGreaterThan(versionBefore);
+        assertThat(parent.getChangeSeq()).isGreaterThan(changeSeqBefore);
+        assertThat(parent.getUpdatedAt()).isAfter(settled);
+    }
+
+    @Test
+    void recordRemoval_deveDescontarSubarvoreApenasDosAncestraisMantidos() {
+        taskRollupService.recordRemoval(owner.getId(),
+                List.of(child.getId(), grandchild.getId()));
+        entityManager.clear();
+
+        assertTotals(root.getId(), 2, 0, 1, 0);
+        assertTotals(child.getId(), 8, 5, 1, 1);
+    }
+
+    @Test
+    void recordMove_deveTransferirTotaisEntreAsCadeias() {
+        Task other = entityManager.persist(task("Outro projeto", null,
+                TaskStatus.TODO, 1, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        taskRollupService.recordMove(owner.getId(),
+                entityManager.find(Task.class, child.getId()), other.getId());
+        entityManager.clear();
+
+        assertTotals(root.getId(), 2, 0, 1, 0);
+        assertTotals(other.getId(), 9, 5, 2, 1);
+        assertTotals(child.getId(), 8, 5, 1, 1);
+    }
+
+    private Long version(Task task) {
+        return taskRepository.findVersionByIdAndUserId(task.getId(),
+                owner.getId()).orElseThrow();
+    }
+
+    private void assertTotals(Long taskId, long estimatedHours,
+            long actualHours, long openCount, long completedCount) {
+        Task task = entityManager.find(Task.class, taskId);
+        assertThat(task.getSubtreeEstimatedHours()).isEqualTo(estimatedHours);
+        assertThat(task.getSubtreeActualHours()).isEqualTo(actualHours);
+        assertThat(task.getSubtreeOpenCount()).isEqualTo(openCount);
+        assertThat(task.getSubtreeCompletedCount()).isEqualTo(completedCount);
+    }
+
+    private Task task(String title, Task parent, TaskStatus status,
+            Integer estimatedHours, Integer actualHours) {
+        return Task.builder()
+                .title(title)
+                .status(status)
+                .estimatedHours(estimatedHours)
+                .actualHours(actualHours)
+                .parentTask(parent)
+                .user(owner)
+                .build();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
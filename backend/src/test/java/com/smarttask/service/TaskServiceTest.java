@@ -1,13 +1,24 @@
 package com.smarttask.service;
 
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dto.TaskPatchRequest;
 import com.smarttask.dto.TaskRequest;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.exception.PreconditionFailedException;
 import com.smarttask.model.Task;
 import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.TaskOutboxEvent.EventType;
 import com.smarttask.model.User;
 import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.reminder.DueDateScheduler;
 import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskView;
 import com.smarttask.repository.UserRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
 import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -16,13 +27,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
 
@@ -38,6 +56,39 @@ class TaskServiceTest {
     @Mock
     private MetricsService metricsService;
 
+    @Mock
+    private TaskViewAssembler taskViewAssembler;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskSearchIndexer taskSearchIndexer;
+
+    @Mock
+    private TaskTreeService taskTreeService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private DueDateScheduler dueDateScheduler;
+
+    @Mock
+    private TaskCalendarIndex taskCalendarIndex;
+
+    @Mock
+    private TaskOutbox taskOutbox;
+
+    @Mock
+    private TaskChangeTracker taskChangeTracker;
+
+    @Mock
+    private TaskTagService taskTagService;
+
+    @Mock
+    private TaskRollupService taskRollupService;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -83,8 +134,153 @@ class TaskServiceTest {
         assertThat(capturedTask.getTitle()).isEqualTo(request.getTitle());
         assertThat(capturedTask.getUser()).isEqualTo(user);
 
-        verify(metricsService).recordTaskCreated("HIGH");
+        verify(taskOutbox).publish(EventType.CREATED, 1L,
+                List.of(capturedTask));
         verify(metricsService).recordTaskDuration(anyLong(), eq("create"));
         verifyNoInteractions(aiService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateTask_versaoDesatualizada_deveLancarPreconditionFailed() {
+        User user = User.builder().id(1L).username("smartuser").build();
+        Task task = Task.builder().id(42L).title("Revisar PR").user(user)
+                .version(3L).build();
+        when(taskRepository.findById(42L)).thenReturn(Optional.of(task));
+        TaskRequest request = new TaskRequest();
+        request.setTitle("Revisar PR hoje");
+
+        assertThatThrownBy(() -> taskService.updateTask(42L, request, 2L,
+                UserPrincipal.create(user)))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verifyNoInteractions(taskChangeTracker);
+    }
+
+    @Test
+    void patchTask_deveAlterarApenasCamposPresentes_eManterColecaoDeTags() {
+        User user = User.builder().id(1L).username("smartuser").build();
+        Set<String> tags = new HashSet<>(Set.of("backend", "review"));
+        Task task = Task.builder().id(42L).title("Revisar PR")
+                .description("Antiga").priority(TaskPriority.LOW)
+                .estimatedHours(3).tags(tags).user(user).version(5L).build();
+        when(taskRepository.findById(42L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setPriority(TaskPriority.URGENT);
+        patch.setDescription(null);
+        patch.setTags(Set.of("backend", "urgente"));
+        patch.setVersion(5L);
+
+        TaskResponse response = taskService.patchTask(42L, patch, null,
+                UserPrincipal.create(user));
+
+        assertThat(response.getPriority()).isEqualTo(TaskPriority.URGENT);
+        assertThat(task.getTitle()).isEqualTo("Revisar PR");
+        assertThat(task.getDescription()).isNull();
+        assertThat(task.getEstimatedHours()).isEqualTo(3);
+        assertThat(task.getTags()).isSameAs(tags)
+                .containsExactlyInAnyOrder("backend", "urgente");
+        verify(taskChangeTracker).stamp(List.of(task));
+        verify(metricsService).recordTaskDuration(anyLong(), eq("patch"));
+    }
+
+    @Test
+    void patchTask_versaoDivergenteOuTituloNulo_deveRecusar() {
+        User user = User.builder().id(1L).username("smartuser").build();
+        Task task = Task.builder().id(42L).title("Revisar PR").user(user)
+                .version(5L).build();
+        when(taskRepository.findById(42L)).thenReturn(Optional.of(task));
+        UserPrincipal principal = UserPrincipal.create(user);
+
+        TaskPatchRequest stale = new TaskPatchRequest();
+        stale.setTitle("Revisar PR hoje");
+        stale.setVersion(4L);
+        assertThatThrownBy(() -> taskService.patchTask(42L, stale, null,
+                principal))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        TaskPatchRequest clearTitle = new TaskPatchRequest();
+        clearTitle.setTitle(null);
+        assertThatThrownBy(() -> taskService.patchTask(42L, clearTitle, null,
+                principal)).isInstanceOf(IllegalStateException.class);
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    void getTasksPage_deveLerUmaLinhaExtra_eGerarCursorDaProximaPagina() {
+        // Arrange
+        User user = User.builder().id(1L).username("smartuser")
+                .email("user@smarttask.ai").password("hash")
+                .roles(new HashSet<>(Set.of("USER"))).build();
+        UserPrincipal principal = UserPrincipal.create(user);
+        LocalDateTime base = LocalDateTime.of(2025, 10, 30, 12, 0);
+        TaskView newest = view(3L, base);
+        TaskView middle = view(2L, base.minusHours(1));
+        TaskView oldest = view(1L, base.minusHours(2));
+        when(taskViewAssembler.toResponses(anyList())).thenAnswer(
+                invocation -> invocation.<List<TaskView>>getArgument(0)
+                        .stream()
+                        .map(row -> TaskResponse.builder()
+                                .id(row.getId()).build())
+                        .toList());
+
+        when(taskRepository.findPageByUserId(1L, Limit.of(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(taskRepository.findPageByUserIdAfter(
+                1L, base.minusHours(1), 2L, Limit.of(3)))
+                .thenReturn(List.of(oldest));
+
+        // Act
+        var firstPage = taskService.getTasksPage(null, 2, principal);
+        var secondPage = taskService.getTasksPage(
+                firstPage.getNextCursor(), 2, principal);
+
+        // Assert
+        assertThat(firstPage.getItems()).extracting("id")
+                .containsExactly(3L, 2L);
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(secondPage.getItems()).extracting("id")
+                .containsExactly(1L);
+        assertThat(secondPage.isHasMore()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTasksPage_deveRejeitarCursorInvalido() {
+        User user = User.builder().id(1L).username("smartuser")
+                .email("user@smarttask.ai").password("hash")
+                .roles(new HashSet<>(Set.of("USER"))).build();
+
+        assertThatThrownBy(() ->
+                taskService.getTasksPage("%%%", 10, UserPrincipal.create(user)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void searchTasks_deveManterOrdemDeRelevanciaDoIndice() {
+        User user = User.builder().id(1L).username("smartuser")
+                .email("user@smarttask.ai").password("hash")
+                .roles(new HashSet<>(Set.of("USER"))).build();
+        LocalDateTime now = LocalDateTime.now();
+        when(taskSearchIndex.search(1L, "relat", 10))
+                .thenReturn(List.of(7L, 3L, 9L));
+        when(taskRepository.findViewsByUserIdAndIdIn(1L, List.of(7L, 3L, 9L)))
+                .thenReturn(List.of(view(3L, now), view(7L, now)));
+        when(taskViewAssembler.toResponses(anyList())).thenAnswer(
+                invocation -> invocation.<List<TaskView>>getArgument(0)
+                        .stream()
+                        .map(row -> TaskResponse.builder()
+                                .id(row.getId()).build())
+                        .toList());
+
+        List<TaskResponse> results = taskService.searchTasks(
+                "relat", 10, UserPrincipal.create(user));
+
+        assertThat(results).extracting("id").containsExactly(7L, 3L);
+    }
+
+    private static TaskView view(Long id, LocalDateTime updatedAt) {
+        return new SpelAwareProxyProjectionFactory().createProjection(
+                TaskView.class, Map.of("id", id, "updatedAt", updatedAt));
+    }
+}
@@ -0,0 +1,164 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskSummaryResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.TaskStats;
+import com.smarttask.model.User;
+import com.smarttask.repository.TaskStatsRepository;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import(TaskStatsService.class)
+class TaskStatsServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskStatsRepository taskStatsRepository;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    private Task overdue;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+        User stranger = entityManager.persist(user("stranger"));
+        entityManager.persist(task("Alheia", TaskStatus.TODO,
+                TaskPriority.URGENT, stranger));
+
+        overdue = task("Atrasada", TaskStatus.IN_PROGRESS, TaskPriority.HIGH,
+                owner);
+        overdue.setDueDate(LocalDateTime.now().minusDays(2));
+        overdue.setEstimatedHours(5);
+        overdue.setActualHours(3);
+        entityManager.persist(overdue);
+        Task done = task("Feita", TaskStatus.COMPLETED, TaskPriority.LOW,
+                owner);
+        done.setDueDate(LocalDateTime.now().minusDays(1));
+        done.setEstimatedHours(2);
+        entityManager.persist(done);
+        entityManager.persist(task("Nova", TaskStatus.TODO,
+                TaskPriority.MEDIUM, owner));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getSummary_semContadores_deveCriarLinhaAPartirDasTarefas() {
+        TaskSummaryResponse summary = taskStatsService.getSummary(principal);
+
+        assertThat(summary.getTotal()).isEqualTo(3);
+        assertThat(summary.getByStatus()).containsEntry(TaskStatus.TODO, 1L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L)
+                .containsEntry(TaskStatus.COMPLETED, 1L)
+                .containsEntry(TaskStatus.CANCELLED, 0L);
+        assertThat(summary.getByPriority())
+                .containsEntry(TaskPriority.URGENT, 0L)
+                .containsEntry(TaskPriority.HIGH, 1L);
+        assertThat(summary.getOverdue()).isEqualTo(1);
+        assertThat(summary.getEstimatedHours()).isEqualTo(7);
+        assertThat(summary.getActualHours()).isEqualTo(3);
+        assertThat(summary.getReconciledAt()).isNotNull();
+        assertThat(taskStatsRepository.findById(owner.getId())).isPresent();
+    }
+
+    @Test
+    void record_deveSomarDeltasAosContadoresExistentes() {
+        taskStatsService.getSummary(principal);
+
+        Task created = entityManager.persist(task("Criada", TaskStatus.TODO,
+                TaskPriority.URGENT, owner));
+        taskStatsService.recordCreated(owner.getId(), List.of(created));
+
+        Task late = entityManager.find(Task.class, overdue.getId());
+        TaskStatsDelta before = TaskStatsDelta.of(late, LocalDateTime.now());
+        late.setStatus(TaskStatus.COMPLETED);
+        late.setActualHours(6);
+        taskStatsService.recordChange(owner.getId(), before, late);
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskSummaryResponse summary = taskStatsService.getSummary(principal);
+        assertThat(summary.getTotal()).isEqualTo(4);
+        assertThat(summary.getByStatus()).containsEntry(TaskStatus.TODO, 2L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(TaskStatus.COMPLETED, 2L);
+        assertThat(summary.getByPriority())
+                .containsEntry(TaskPriority.URGENT, 1L);
+        assertThat(summary.getOverdue()).isZero();
+        assertThat(summary.getActualHours()).isEqualTo(6);
+    }
+
+    @Test
+    void recordRemoval_deveDescontarTarefasRemovidas() {
+        taskStatsService.getSummary(principal);
+
+        taskStatsService.recordRemoval(List.of(overdue.getId()));
+        entityManager.clear();
+
+        TaskSummaryResponse summary = taskStatsService.getSummary(principal);
+        assertThat(summary.getTotal()).isEqualTo(2);
+        assertThat(summary.getOverdue()).isZero();
+        assertThat(summary.getEstimatedHours()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcile_deveCorrigirDivergenciasECriarLinhasFaltantes() {
+        taskStatsRepository.save(TaskStats.builder()
+                .userId(owner.getId())
+                .todoCount(99)
+                .overdueCount(-4)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        taskStatsService.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskStats repaired = taskStatsRepository.findById(owner.getId())
+                .orElseThrow();
+        assertThat(repaired.getTodoCount()).isEqualTo(1);
+        assertThat(repaired.getOverdueCount()).isEqualTo(1);
+        assertThat(repaired.getReconciledAt()).isNotNull();
+        assertThat(taskStatsRepository.count()).isEqualTo(2);
+    }
+
+    private static Task task(String title, TaskStatus status,
+            TaskPriority priority, User user) {
+        return Task.builder().title(title).status(status).priority(priority)
+                .user(user).build();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
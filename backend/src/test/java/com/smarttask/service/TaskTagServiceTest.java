@@ -0,0 +1,133 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TagFacetResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.Task.TaskPriority;
+import com.smarttask.model.Task.TaskStatus;
+import com.smarttask.model.User;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.TaskView;
+import com.smarttask.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import(TaskTagService.class)
+class TaskTagServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+    }
+
+    @Test
+    void recordChange_deveManterContagensEVinculosDasTags() {
+        Task first = entityManager.persist(task("Primeira", "infra", "db"));
+        Task second = entityManager.persist(task("Segunda", "infra"));
+        entityManager.flush();
+        taskTagService.recordCreated(owner.getId(), List.of(first, second));
+
+        Set<String> before = Set.copyOf(first.getTags());
+        first.getTags().remove("db");
+        first.getTags().add("urgente");
+        taskTagService.recordChange(owner.getId(), before, first);
+
+        assertThat(taskTagService.getFacets(principal))
+                .extracting(TagFacetResponse::getName,
+                        TagFacetResponse::getCount)
+                .containsExactly(tuple("infra", 2L), tuple("urgente", 1L));
+        Long urgente = taskTagService.findTagId(owner.getId(), "urgente")
+                .orElseThrow();
+        assertThat(taskRepository.findPageByUserIdAndTagId(owner.getId(),
+                urgente, Limit.of(10)))
+                .extracting(TaskView::getId)
+                .containsExactly(first.getId());
+    }
+
+    @Test
+    void recordRemoval_deveDescontarContagensERemoverVinculos() {
+        Task first = entityManager.persist(task("Primeira", "infra", "db"));
+        Task second = entityManager.persist(task("Segunda", "infra"));
+        entityManager.flush();
+        taskTagService.recordCreated(owner.getId(), List.of(first, second));
+
+        taskTagService.recordRemoval(List.of(first.getId()));
+
+        assertThat(taskTagService.getFacets(principal))
+                .extracting(TagFacetResponse::getName,
+                        TagFacetResponse::getCount)
+                .containsExactly(tuple("infra", 1L));
+        Long infra = taskTagService.findTagId(owner.getId(), "infra")
+                .orElseThrow();
+        assertThat(taskRepository.findPageByUserIdAndTagId(owner.getId(),
+                infra, Limit.of(10)))
+                .extracting(TaskView::getId)
+                .containsExactly(second.getId());
+    }
+
+    @Test
+    void backfill_deveCriarDicionarioAPartirDasTagsExistentes() {
+        entityManager.persist(task("Primeira", "infra", "db"));
+        entityManager.persist(task("Segunda", "db"));
+        User stranger = entityManager.persist(user("stranger"));
+        Task alheia = task("Alheia", "db");
+        alheia.setUser(stranger);
+        entityManager.persist(alheia);
+        entityManager.flush();
+
+        taskTagService.backfill();
+
+        assertThat(taskTagService.getFacets(principal))
+                .extracting(TagFacetResponse::getName,
+                        TagFacetResponse::getCount)
+                .containsExactly(tuple("db", 2L), tuple("infra", 1L));
+        assertThat(taskTagService.getFacets(UserPrincipal.create(stranger)))
+                .extracting(TagFacetResponse::getCount)
+                .containsExactly(1L);
+    }
+
+    private Task task(final String title, final String... tags) {
+        return Task.builder()
+                .title(title)
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.MEDIUM)
+                .tags(new HashSet<>(Set.of(tags)))
+                .user(owner)
+                .build();
+    }
+
+    private User user(final String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .fullName(username)
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.smarttask.service;
+
+import com.smarttask.calendar.TaskCalendarIndex;
+import com.smarttask.dependency.TaskDependencyGraph;
+import com.smarttask.dto.ReparentTaskRequest;
+import com.smarttask.dto.TaskTreeNode;
+import com.smarttask.model.PomodoroSession;
+import com.smarttask.model.Task;
+import com.smarttask.model.TaskDeletion;
+import com.smarttask.model.User;
+import com.smarttask.observability.MetricsService;
+import com.smarttask.outbox.TaskOutbox;
+import com.smarttask.outbox.TaskOutboxDispatcher;
+import com.smarttask.reminder.DueDateScheduler;
+import com.smarttask.repository.PomodoroSessionRepository;
+import com.smarttask.repository.TaskDeletionRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.search.TaskSearchIndex;
+import com.smarttask.search.TaskSearchIndexer;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.sync.TaskChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskTreeService.class, TaskViewAssembler.class,
+        TaskSearchIndexer.class, TaskSearchIndex.class,
+        TaskStatsService.class, TaskRollupService.class,
+        TaskChangeTracker.class, TaskTagService.class,
+        TaskCalendarIndex.class, TaskOutbox.class,
+        TaskDependencyGraph.class})
+class TaskTreeServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskTreeService taskTreeService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private TaskDeletionRepository taskDeletionRepository;
+
+    @MockitoBean
+    private MetricsService metricsService;
+
+    @MockitoBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockitoBean
+    private TaskOutboxDispatcher taskOutboxDispatcher;
+
+    private User owner;
+
+    private UserPrincipal principal;
+
+    private Task root;
+
+    private Task leaf;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+
+        root = entityManager.persist(task("Plano", null));
+        Task parent = root;
+        for (int level = 1; level <= 4; level++) {
+            entityManager.persist(task("Irmao " + level, parent));
+            parent = entityManager.persist(task("Nivel " + level, parent));
+        }
+        leaf = parent;
+        leaf.getTags().add("folha");
+        entityManager.persist(PomodoroSession.builder()
+                .task(leaf)
+                .user(owner)
+                .durationMinutes(25)
+                .startedAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getTaskTree_deveRetornarTodosOsNiveisAninhados() {
+        TaskTreeNode tree = taskTreeService.getTaskTree(root.getId(),
+                principal);
+
+        assertThat(tree.getDepth()).isZero();
+        assertThat(tree.getChildren()).hasSize(2);
+        TaskTreeNode node = tree;
+        for (int level = 1; level <= 4; level++) {
+            node = node.getChildren().stream()
+                    .filter(child -> child.getTask().getTitle()
+                            .startsWith("Nivel"))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(node.getDepth()).isEqualTo(level);
+        }
+        assertThat(node.getTask().getId()).isEqualTo(leaf.getId());
+        assertThat(node.getTask().getTags()).containsExactly("folha");
+    }
+
+    @Test
+    void getTaskTree_deveNegarAcessoATarefaDeOutroUsuario() {
+        UserPrincipal stranger = UserPrincipal.create(
+                entityManager.persist(user("stranger")));
+
+        assertThatThrownBy(() ->
+                taskTreeService.getTaskTree(root.getId(), stranger))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void reparentTask_deveRejeitarCiclos_eMoverSubarvore() {
+        Task level1 = taskRepository.findByParentTaskId(root.getId()).stream()
+                .filter(task -> task.getTitle().equals("Nivel 1"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThatThrownBy(() -> taskTreeService.reparentTask(level1.getId(),
+                new ReparentTaskRequest(leaf.getId()), principal))
+                .isInstanceOf(IllegalStateException.class);
+
+        taskTreeService.reparentTask(leaf.getId(),
+                new ReparentTaskRequest(null), principal);
+
+        assertThat(taskTreeService.getTaskTree(leaf.getId(), principal)
+                .getTask().getParentTaskId()).isNull();
+        assertThat(taskTreeService.getTaskTree(root.getId(), principal)
+                .getChildren()).hasSize(2);
+    }
+
+    @Test
+    void reparentTask_deveIncrementarVersaoDosAncestraisUmaVez() {
+        Task oldParent = entityManager.find(Task.class, leaf.getId())
+                .getParentTask();
+        Long grandparentId = oldParent.getParentTask().getId();
+        Long oldParentVersion = version(oldParent.getId());
+        Long grandparentVersion = version(grandparentId);
+        Long rootVersion = version(root.getId());
+        entityManager.clear();
+
+        taskTreeService.reparentTask(leaf.getId(),
+                new ReparentTaskRequest(root.getId()), principal);
+
+        assertThat(version(oldParent.getId()))
+                .isEqualTo(oldParentVersion + 1);
+        assertThat(version(grandparentId)).isEqualTo(grandparentVersion + 1);
+        assertThat(version(root.getId())).isEqualTo(rootVersion + 1);
+    }
+
+    @Test
+    void deleteSubtrees_deveRemoverArvoreETabelasDependentes() {
+        Set<Long> deleted = taskTreeService.deleteSubtrees(owner.getId(),
+                List.of(root.getId()));
+
+        assertThat(deleted).hasSize(9).contains(root.getId(), leaf.getId());
+        assertThat(taskRepository.count()).isZero();
+        assertThat(pomodoroSessionRepository.count()).isZero();
+        assertThat(taskRepository.findTagsByTaskIds(deleted)).isEmpty();
+        assertThat(taskDeletionRepository.findAll())
+                .extracting(TaskDeletion::getTaskId)
+                .containsExactlyInAnyOrderElementsOf(deleted);
+    }
+
+    private Task task(String title, Task parent) {
+        return Task.builder().title(title).user(owner).parentTask(parent)
+                .build();
+    }
+
+    private Long version(Long taskId) {
+        return taskRepository.findVersionByIdAndUserId(taskId, owner.getId())
+                .orElseThrow();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
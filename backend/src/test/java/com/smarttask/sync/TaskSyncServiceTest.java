@@ -0,0 +1,219 @@
+package com.smarttask.sync;
+
+import com.smarttask.dto.TaskChangesResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.model.Task;
+import com.smarttask.model.User;
+import com.smarttask.security.UserPrincipal;
+import com.smarttask.service.TaskViewAssembler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Import({TaskSyncService.class, TaskChangeTracker.class,
+        TaskViewAssembler.class})
+class TaskSyncServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskChangeTracker taskChangeTracker;
+
+    private UserPrincipal principal;
+
+    private User owner;
+
+    private Task first;
+
+    private Task second;
+
+    private Task third;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        principal = UserPrincipal.create(owner);
+        User stranger = entityManager.persist(user("stranger"));
+        persist(task("Alheia", stranger));
+        first = persist(task("Primeira", owner));
+        second = persist(task("Segunda", owner));
+        third = persist(task("Terceira", owner));
+        entityManager.flush();
+        settleAll();
+        entityManager.clear();
+    }
+
+    @Test
+    void getChanges_semCursor_devePaginarPelaSequencia() {
+        TaskChangesResponse page = taskSyncService.getChanges(null, 2,
+                principal);
+
+        assertThat(page.getChanged()).extracting(TaskResponse::getId)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(page.getDeleted()).isEmpty();
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getCursor())
+                .isEqualTo(second.getChangeSeq().toString());
+
+        TaskChangesResponse last = taskSyncService.getChanges(
+                page.getCursor(), 2, principal);
+        assertThat(last.getChanged()).extracting(TaskResponse::getId)
+                .containsExactly(third.getId());
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getCursor())
+                .isEqualTo(third.getChangeSeq().toString());
+    }
+
+    @Test
+    void getChanges_deveEntregarAlteracoesERemocoesDepoisDoCursor() {
+        String cursor = taskSyncService.getChanges(null, null, principal)
+                .getCursor();
+
+        Task changed = entityManager.find(Task.class, first.getId());
+        changed.setTitle("Primeira revisada");
+        taskChangeTracker.stamp(List.of(changed));
+        entityManager.flush();
+        taskChangeTracker.recordDeletions(owner.getId(),
+                List.of(second.getId()));
+        settleAll();
+        entityManager.clear();
+
+        TaskChangesResponse delta = taskSyncService.getChanges(cursor, null,
+                principal);
+
+        assertThat(delta.getChanged()).extracting(TaskResponse::getTitle)
+                .containsExactly("Primeira revisada");
+        assertThat(delta.getDeleted()).containsExactly(second.getId());
+        assertThat(Long.parseLong(delta.getCursor()))
+                .isGreaterThan(Long.parseLong(cursor));
+        assertThat(taskSyncService.getChanges(delta.getCursor(), null,
+                principal).getChanged()).isEmpty();
+    }
+
+    @Test
+    void getChanges_alteracaoRecente_naoDeveAvancarCursor() {
+        String cursor = taskSyncService.getChanges(null, null, principal)
+                .getCursor();
+
+        Task changed = entityManager.find(Task.class, third.getId());
+        changed.setTitle("Terceira recente");
+        taskChangeTracker.stamp(List.of(changed));
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskChangesResponse delta = taskSyncService.getChanges(cursor, null,
+                principal);
+
+        assertThat(delta.getChanged()).extracting(TaskResponse::getId)
+                .containsExactly(third.getId());
+        assertThat(delta.getCursor()).isEqualTo(cursor);
+        assertThat(delta.isHasMore()).isFalse();
+    }
+
+    @Test
+    void getChanges_cursorInvalido_deveLancarIllegalState() {
+        assertThatThrownBy(() -> taskSyncService.getChanges("abc", null,
+                principal)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> taskSyncService.getChanges("-1", null,
+                principal)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getCollectionVersion_deveMudarComAlteracoesERemocoes() {
+        String initial = taskSyncService.getCollectionVersion(principal)
+                .orElseThrow();
+        assertThat(taskSyncService.getCollectionVersion(principal))
+                .contains(initial);
+
+        Task changed = entityManager.find(Task.class, first.getId());
+        changed.setTitle("Primeira revisada");
+        taskChangeTracker.stamp(List.of(changed));
+        entityManager.flush();
+        settleAll();
+        String afterUpdate = taskSyncService.getCollectionVersion(principal)
+                .orElseThrow();
+        assertThat(afterUpdate).isNotEqualTo(initial);
+
+        taskChangeTracker.recordDeletions(owner.getId(),
+                List.of(second.getId()));
+        settleAll();
+        assertThat(taskSyncService.getCollectionVersion(principal))
+                .isPresent()
+                .get()
+                .isNotEqualTo(afterUpdate);
+    }
+
+    @Test
+    void getCollectionVersion_alteracaoRecente_naoDeveTerVersao() {
+        Task changed = entityManager.find(Task.class, first.getId());
+        changed.setTitle("Primeira recente");
+        taskChangeTracker.stamp(List.of(changed));
+        entityManager.flush();
+
+        assertThat(taskSyncService.getCollectionVersion(principal)).isEmpty();
+
+        settleAll();
+        taskChangeTracker.recordDeletions(owner.getId(),
+                List.of(second.getId()));
+
+        assertThat(taskSyncService.getCollectionVersion(principal)).isEmpty();
+    }
+
+    @Test
+    void touch_deveIncrementarVersaoDaTarefa() {
+        Long before = entityManager.find(Task.class, first.getId())
+                .getVersion();
+        entityManager.clear();
+
+        taskChangeTracker.touch(List.of(first.getId()));
+
+        assertThat(entityManager.find(Task.class, first.getId())
+                .getVersion()).isEqualTo(before + 1);
+    }
+
+    private Task persist(Task task) {
+        taskChangeTracker.stamp(List.of(task));
+        return entityManager.persist(task);
+    }
+
+    private void settleAll() {
+        Timestamp past = Timestamp.valueOf(LocalDateTime.now()
+                .minus(TaskSyncService.SETTLE_WINDOW).minusMinutes(1));
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ?", past);
+        jdbcTemplate.update("UPDATE task_deletions SET deleted_at = ?", past);
+    }
+
+    private static Task task(String title, User user) {
+        return Task.builder().title(title).user(user).build();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@smarttask.ai")
+                .password("hash")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+}
@@ -7,7 +7,12 @@ import type {
   LoginRequest,
   RegisterRequest,
   Task,
+  TaskChanges,
+  TaskImportJob,
+  TaskPage,
   TaskRequest,
+  TaskSummary,
+  TaskTreeNode,
   AIAnalysisRequest,
   AIAnalysisResponse,
   SettingsRequest,
@@ -67,13 +72,33 @@ export const authAPI = {
   },
 };
 
+/**
+ * Percorre todas as páginas de um endpoint paginado por cursor.
+ */
+const fetchAllPages = async (url: string): Promise<Task[]> => {
+  const tasks: Task[] = [];
+  let cursor: string | null | undefined;
+  do {
+    const response = await api.get<TaskPage>(url, {
+      params: { cursor: cursor ?? undefined, size: 200 },
+    });
+    tasks.push(...response.data.items);
+    cursor = response.data.hasMore ? response.data.nextCursor : null;
+  } while (cursor);
+  return tasks;
+};
+
 // Tasks API
 /**
  * Serviços relacionados às operações CRUD de tarefas.
  */
 export const tasksAPI = {
-  getAll: async (): Promise<Task[]> => {
-    const response = await api.get<Task[]>('/tasks');
+  getAll: async (): Promise<Task[]> => fetchAllPages('/tasks'),
+
+  getPage: async (cursor?: string, size?: number): Promise<TaskPage> => {
+    const response = await api.get<TaskPage>('/tasks', {
+      params: { cursor, size },
+    });
     return response.data;
   },
 
@@ -82,13 +107,57 @@ export const tasksAPI = {
     return response.data;
   },
 
-  getByStatus: async (status: string): Promise<Task[]> => {
-    const response = await api.get<Task[]>(`/tasks/status/${status}`);
+  getByStatus: async (status: string): Promise<Task[]> =>
+    fetchAllPages(`/tasks/status/${status}`),
+
+  getOverdue: async (): Promise<Task[]> => fetchAllPages('/tasks/overdue'),
+
+  getChanges: async (since?: string | null, size?: number): Promise<TaskChanges> => {
+    const response = await api.get<TaskChanges>('/tasks/changes', {
+      params: { since: since ?? undefined, size },
+    });
+    return response.data;
+  },
+
+  getSummary: async (): Promise<TaskSummary> => {
+    const response = await api.get<TaskSummary>('/tasks/summary');
+    return response.data;
+  },
+
+  getTree: async (id: number): Promise<TaskTreeNode> => {
+    const response = await api.get<TaskTreeNode>(`/tasks/${id}/tree`);
+    return response.data;
+  },
+
+  reparent: async (id: number, parentTaskId: number | null): Promise<Task> => {
+    const response = await api.put<Task>(`/tasks/${id}/parent`, {
+      parentTaskId,
+    });
+    return response.data;
+  },
+
+  search: async (q: string, limit?: number): Promise<Task[]> => {
+    const response = await api.get<Task[]>('/tasks/search', {
+      params: { q, limit },
+    });
+    return response.data;
+  },
+
+  importFile: async (
+    file: File,
+    format: 'ndjson' | 'csv' = 'ndjson'
+  ): Promise<TaskImportJob> => {
+    const form = new FormData();
+    form.append('file', file);
+    const response = await api.post<TaskImportJob>('/tasks/import', form, {
+      params: { format },
+      headers: { 'Content-Type': 'multipart/form-data' },
+    });
     return response.data;
   },
 
-  getOverdue: async (): Promise<Task[]> => {
-    const response = await api.get<Task[]>('/tasks/overdue');
+  getImportJob: async (jobId: number): Promise<TaskImportJob> => {
+    const response = await api.get<TaskImportJob>(`/tasks/import/${jobId}`);
     return response.data;
   },
 
@@ -102,8 +171,10 @@ export const tasksAPI = {
     return response.data;
   },
 
-  update: async (id: number, data: TaskRequest): Promise<Task> => {
-    const response = await api.put<Task>(`/tasks/${id}`, data);
+  update: async (id: number, data: TaskRequest, version?: number): Promise<Task> => {
+    // Envia a versao lida para que o backend recuse (412) edicoes sobre dados desatualizados
+    const headers = version === undefined ? undefined : { 'If-Match': `"${version}"` };
+    const response = await api.put<Task>(`/tasks/${id}`, data, { headers });
     return response.data;
   },
 
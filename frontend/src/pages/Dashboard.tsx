@@ -9,52 +9,48 @@ import { Link } from 'react-router-dom';
  * Página inicial com visão geral de métricas, tarefas recentes e ações rápidas.
  */
 export default function Dashboard() {
-  const { data: tasks = [] } = useQuery({
-    queryKey: ['tasks'],
-    queryFn: tasksAPI.getAll,
+  const { data: summary } = useQuery({
+    queryKey: ['tasks', 'summary'],
+    queryFn: tasksAPI.getSummary,
   });
 
-  const todoTasks = tasks.filter((t) => t.status === TaskStatus.TODO);
-  const inProgressTasks = tasks.filter((t) => t.status === TaskStatus.IN_PROGRESS);
-  const completedTasks = tasks.filter((t) => t.status === TaskStatus.COMPLETED);
-  const overdueTasks = tasks.filter(
-    (t) => t.dueDate && new Date(t.dueDate) < new Date() && t.status !== TaskStatus.COMPLETED
-  );
+  const { data: recentPage } = useQuery({
+    queryKey: ['tasks', 'recent'],
+    queryFn: () => tasksAPI.getPage(undefined, 5),
+  });
 
   const stats = [
     {
       title: 'A Fazer',
-      value: todoTasks.length,
+      value: summary?.byStatus[TaskStatus.TODO] ?? 0,
       icon: ListTodo,
       color: 'bg-gray-100 text-gray-600',
       link: '/tasks?status=TODO',
     },
     {
       title: 'Em Progresso',
-      value: inProgressTasks.length,
+      value: summary?.byStatus[TaskStatus.IN_PROGRESS] ?? 0,
       icon: Clock,
       color: 'bg-blue-100 text-blue-600',
       link: '/tasks?status=IN_PROGRESS',
     },
     {
       title: 'Concluídas',
-      value: completedTasks.length,
+      value: summary?.byStatus[TaskStatus.COMPLETED] ?? 0,
       icon: CheckCircle2,
       color: 'bg-green-100 text-green-600',
       link: '/tasks?status=COMPLETED',
     },
     {
       title: 'Atrasadas',
-      value: overdueTasks.length,
+      value: summary?.overdue ?? 0,
       icon: AlertCircle,
       color: 'bg-red-100 text-red-600',
       link: '/tasks?overdue=true',
     },
   ];
 
-  const recentTasks = tasks
-    .sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())
-    .slice(0, 5);
+  const recentTasks = recentPage?.items ?? [];
 
   return (
     <Layout>
@@ -6,11 +6,23 @@ import { useTaskStore } from '@/store/taskStore';
 import Layout from '@/components/Layout';
 import TaskCard from '@/components/TaskCard';
 import TaskModal from '@/components/TaskModal';
-import { TaskStatus, TaskRequest, Task } from '@/types';
+import { TaskStatus, TaskRequest, Task, TaskChanges } from '@/types';
 import { Plus, Search, Filter } from 'lucide-react';
 import toast from 'react-hot-toast';
 import { getErrorMessage } from '@/lib/utils';
 
+/**
+ * Aplica à store as alterações desde o último cursor e devolve a réplica local.
+ */
+const syncTasks = async (): Promise<Task[]> => {
+  let changes: TaskChanges;
+  do {
+    changes = await tasksAPI.getChanges(useTaskStore.getState().syncCursor, 500);
+    useTaskStore.getState().applyChanges(changes);
+  } while (changes.hasMore);
+  return useTaskStore.getState().tasks;
+};
+
 /**
  * Página que lista tarefas do usuário, permitindo criação, edição e filtragem avançada.
  */
@@ -23,7 +35,7 @@ export default function Tasks() {
 
   const { data: tasks = [], isLoading } = useQuery({
     queryKey: ['tasks'],
-    queryFn: tasksAPI.getAll,
+    queryFn: syncTasks,
   });
 
   useEffect(() => {
@@ -51,8 +63,8 @@ export default function Tasks() {
   });
 
   const updateTaskMutation = useMutation({
-    mutationFn: ({ id, data }: { id: number; data: TaskRequest }) =>
-      tasksAPI.update(id, data),
+    mutationFn: ({ id, data, version }: { id: number; data: TaskRequest; version?: number }) =>
+      tasksAPI.update(id, data, version),
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['tasks'] });
       toast.success('Tarefa atualizada com sucesso!');
@@ -64,7 +76,7 @@ export default function Tasks() {
 
   const handleSubmit = (data: TaskRequest, useAI: boolean) => {
     if (selectedTask) {
-      updateTaskMutation.mutate({ id: selectedTask.id, data });
+      updateTaskMutation.mutate({ id: selectedTask.id, data, version: selectedTask.version });
     } else {
       createTaskMutation.mutate({ data, useAI });
     }
@@ -1,5 +1,6 @@
 import { create } from 'zustand';
 import type { User, AuthResponse } from '@/types';
+import { useTaskStore } from '@/store/taskStore';
 
 /**
  * Estado e ações disponíveis na store de autenticação utilizando Zustand.
@@ -42,6 +43,7 @@ export const useAuthStore = create<AuthState>((set) => ({
   logout: () => {
     localStorage.removeItem('token');
     localStorage.removeItem('user');
+    useTaskStore.getState().resetSync();
 
     set({
       user: null,
@@ -1,5 +1,5 @@
 import { create } from 'zustand';
-import type { Task, TaskStatus } from '@/types';
+import type { Task, TaskChanges, TaskStatus } from '@/types';
 
 /**
  * Estado compartilhado de tarefas incluindo filtros, busca e seleção atual.
@@ -9,10 +9,13 @@ interface TaskState {
   selectedTask: Task | null;
   filterStatus: TaskStatus | 'ALL';
   searchQuery: string;
+  syncCursor: string | null;
   setTasks: (tasks: Task[]) => void;
   addTask: (task: Task) => void;
   updateTask: (task: Task) => void;
   removeTask: (taskId: number) => void;
+  applyChanges: (changes: TaskChanges) => void;
+  resetSync: () => void;
   setSelectedTask: (task: Task | null) => void;
   setFilterStatus: (status: TaskStatus | 'ALL') => void;
   setSearchQuery: (query: string) => void;
@@ -27,6 +30,7 @@ export const useTaskStore = create<TaskState>((set, get) => ({
   selectedTask: null,
   filterStatus: 'ALL',
   searchQuery: '',
+  syncCursor: null,
 
   setTasks: (tasks) => set({ tasks }),
 
@@ -53,6 +57,22 @@ export const useTaskStore = create<TaskState>((set, get) => ({
         state.selectedTask?.id === taskId ? null : state.selectedTask,
     })),
 
+  applyChanges: (changes) =>
+    set((state) => {
+      const byId = new Map(state.tasks.map((task) => [task.id, task]));
+      changes.changed.forEach((task) => byId.set(task.id, task));
+      changes.deleted.forEach((taskId) => byId.delete(taskId));
+      const tasks = Array.from(byId.values()).sort((a, b) =>
+        b.updatedAt.localeCompare(a.updatedAt)
+      );
+      const selectedTask = state.selectedTask
+        ? byId.get(state.selectedTask.id) ?? null
+        : null;
+      return { tasks, selectedTask, syncCursor: changes.cursor };
+    }),
+
+  resetSync: () => set({ tasks: [], selectedTask: null, syncCursor: null }),
+
   setSelectedTask: (task) => set({ selectedTask: task }),
 
   setFilterStatus: (status) => set({ filterStatus: status }),
@@ -80,6 +80,66 @@ export interface Task {
   aiAnalysis?: string;
   createdAt: string;
   updatedAt: string;
+  version?: number;
+}
+
+/**
+ * Página de tarefas retornada pela paginação por cursor do backend.
+ */
+export interface TaskPage {
+  items: Task[];
+  nextCursor?: string | null;
+  hasMore: boolean;
+  size: number;
+}
+
+/**
+ * Nó da árvore de subtarefas retornada por `/tasks/{id}/tree`.
+ */
+export interface TaskTreeNode {
+  task: Task;
+  depth: number;
+  children: TaskTreeNode[];
+}
+
+/**
+ * Alterações desde um cursor retornadas por `/tasks/changes`.
+ */
+export interface TaskChanges {
+  changed: Task[];
+  deleted: number[];
+  cursor: string;
+  hasMore: boolean;
+}
+
+/**
+ * Resumo agregado das tarefas retornado por `/tasks/summary`.
+ */
+export interface TaskSummary {
+  total: number;
+  byStatus: Record<TaskStatus, number>;
+  byPriority: Record<TaskPriority, number>;
+  overdue: number;
+  estimatedHours: number;
+  actualHours: number;
+  reconciledAt?: string;
+}
+
+/**
+ * Estado de uma importação em massa retornado por `/tasks/import`.
+ */
+export interface TaskImportJob {
+  id: number;
+  format: 'NDJSON' | 'CSV';
+  status: 'PENDING' | 'LOADING' | 'RESOLVING' | 'COMPLETED' | 'FAILED';
+  processedRows: number;
+  rejectedRows: number;
+  importedRows: number;
+  rowErrors: string[];
+  failureReason?: string;
+  createdAt: string;
+  startedAt?: string;
+  finishedAt?: string;
 }
 
 /**